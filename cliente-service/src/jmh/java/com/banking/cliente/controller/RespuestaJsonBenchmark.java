@@ -0,0 +1,65 @@
+package com.banking.cliente.controller;
+
+import com.banking.cliente.dto.ApiResponse;
+import com.banking.cliente.dto.ClienteDTO;
+import com.banking.cliente.entity.Cliente;
+import com.banking.cliente.mapper.ClienteMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialización Jackson de las respuestas ApiResponse de ClienteController: un cliente y el
+// listado de GET /api/clientes, con el ObjectMapper configurado como el de Spring Boot.
+//   mvn -Pjmh test-compile exec:exec -Djmh.incluir=RespuestaJsonBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RespuestaJsonBenchmark {
+
+    @Param({"100", "1000"})
+    private int clientes;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<ClienteDTO> respuestaCliente;
+    private ApiResponse<List<ClienteDTO>> respuestaListado;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ClienteMapper clienteMapper = new ClienteMapper();
+
+        List<ClienteDTO> listado = new ArrayList<>(clientes);
+        for (int i = 0; i < clientes; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setClienteId((long) i);
+            cliente.setNombre("Cliente " + i);
+            cliente.setGenero(i % 2 == 0 ? "F" : "M");
+            cliente.setEdad(20 + i % 50);
+            cliente.setIdentificacion(String.format("%010d", i));
+            cliente.setDireccion("Calle " + i);
+            cliente.setTelefono("0999" + i);
+            cliente.setEstado(true);
+            cliente.setVersion(0L);
+            listado.add(clienteMapper.toDTO(cliente));
+        }
+        respuestaCliente = new ApiResponse<>(true, "Cliente encontrado", listado.get(0));
+        respuestaListado = new ApiResponse<>(true, "Clientes obtenidos exitosamente", listado);
+    }
+
+    @Benchmark
+    public byte[] cliente() throws Exception {
+        return objectMapper.writeValueAsBytes(respuestaCliente);
+    }
+
+    @Benchmark
+    public byte[] listado() throws Exception {
+        return objectMapper.writeValueAsBytes(respuestaListado);
+    }
+}
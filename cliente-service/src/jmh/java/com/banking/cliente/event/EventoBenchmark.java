@@ -0,0 +1,68 @@
+package com.banking.cliente.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+// Serialización de ClienteCreatedEvent: el camino del outbox (JSON guardado en evento_outbox y
+// convertido a Message por OutboxRelay) frente a Jackson2JsonMessageConverter, y la
+// deserialización del mensaje resultante.
+//   mvn -Pjmh test-compile exec:exec -Djmh.incluir=cliente.event.EventoBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventoBenchmark {
+
+    private ObjectMapper objectMapper;
+    private Jackson2JsonMessageConverter converter;
+    private ClienteCreatedEvent evento;
+    private String payload;
+    private Message mensaje;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        converter = new Jackson2JsonMessageConverter();
+        evento = new ClienteCreatedEvent(1234L, "Jose Lema", "1234567890", true, 3L);
+        payload = serializarOutbox();
+        mensaje = converter.toMessage(evento, new MessageProperties());
+    }
+
+    @Benchmark
+    public String serializarOutbox() {
+        try {
+            return objectMapper.writeValueAsString(evento);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Lo que hace OutboxRelay con cada fila: el payload ya es JSON, solo se pasa a bytes
+    @Benchmark
+    public Message mensajeOutbox() {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setHeader("__TypeId__", ClienteCreatedEvent.class.getName());
+        return new Message(payload.getBytes(StandardCharsets.UTF_8), properties);
+    }
+
+    @Benchmark
+    public Message serializarConverter() {
+        return converter.toMessage(evento, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object deserializarConverter() {
+        return converter.fromMessage(mensaje);
+    }
+}
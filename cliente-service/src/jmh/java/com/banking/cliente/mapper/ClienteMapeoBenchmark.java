@@ -0,0 +1,80 @@
+package com.banking.cliente.mapper;
+
+import com.banking.cliente.config.ModelMapperConfig;
+import com.banking.cliente.dto.ClienteDTO;
+import com.banking.cliente.entity.Cliente;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ModelMapper frente a ClienteMapper, por cliente y para un listado como el de getAllClientes.
+// Con -prof gc (activo en el perfil jmh) gc.alloc.rate.norm da los bytes asignados por operación.
+//   mvn -Pjmh test-compile exec:exec
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClienteMapeoBenchmark {
+
+    @Param({"100"})
+    private int elementos;
+
+    private ModelMapper modelMapper;
+    private ClienteMapper clienteMapper;
+    private List<Cliente> clientes;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+        clienteMapper = new ClienteMapper();
+
+        clientes = new ArrayList<>(elementos);
+        for (int i = 0; i < elementos; i++) {
+            Cliente cliente = new Cliente();
+            cliente.setClienteId((long) i);
+            cliente.setNombre("Cliente " + i);
+            cliente.setGenero(i % 2 == 0 ? "F" : "M");
+            cliente.setEdad(20 + i % 50);
+            cliente.setIdentificacion(String.format("%010d", i));
+            cliente.setDireccion("Calle " + i);
+            cliente.setTelefono("0999" + i);
+            cliente.setContraseña("1234");
+            cliente.setEstado(true);
+            cliente.setVersion((long) i % 3);
+            clientes.add(cliente);
+        }
+    }
+
+    @Benchmark
+    public ClienteDTO clienteModelMapper() {
+        return modelMapper.map(clientes.get(0), ClienteDTO.class);
+    }
+
+    @Benchmark
+    public ClienteDTO clienteMapper() {
+        return clienteMapper.toDTO(clientes.get(0));
+    }
+
+    @Benchmark
+    public List<ClienteDTO> listadoModelMapper() {
+        List<ClienteDTO> dtos = new ArrayList<>(clientes.size());
+        for (Cliente cliente : clientes) {
+            dtos.add(modelMapper.map(cliente, ClienteDTO.class));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<ClienteDTO> listadoMapper() {
+        List<ClienteDTO> dtos = new ArrayList<>(clientes.size());
+        for (Cliente cliente : clientes) {
+            dtos.add(clienteMapper.toDTO(cliente));
+        }
+        return dtos;
+    }
+}
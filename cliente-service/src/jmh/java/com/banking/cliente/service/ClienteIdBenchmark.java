@@ -0,0 +1,75 @@
+package com.banking.cliente.service;
+
+import com.banking.cliente.ClienteServiceApplication;
+import com.banking.cliente.entity.Cliente;
+import com.banking.cliente.repository.ClienteRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Coste de obtener el clienteId de un alta contra H2: el SELECT MAX()+1 que se hacía por cada
+// alta frente a ClienteIdGenerator, que solo toca la base al agotar su bloque (bloque-ids). En H2
+// en memoria el SELECT no paga la ida y vuelta de red que sí paga contra MySQL, y la reserva de
+// bloque es una transacción completa con bloqueo de fila repartida entre bloque-ids altas.
+//   mvn -Pjmh test-compile exec:exec -Djmh.incluir=ClienteIdBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClienteIdBenchmark {
+
+    private static final int CLIENTES = 1000;
+
+    @Param({"maxMasUno", "bloques"})
+    private String estrategia;
+
+    private ConfigurableApplicationContext contexto;
+    private JdbcTemplate jdbcTemplate;
+    private ClienteIdGenerator clienteIdGenerator;
+
+    @Setup
+    public void setUp() {
+        // Como argumentos para que prevalezcan sobre application.yml
+        contexto = new SpringApplicationBuilder(ClienteServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:clienteid;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.banking.cliente=WARN",
+                        "--logging.level.org.springframework.amqp=OFF");
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        clienteIdGenerator = contexto.getBean(ClienteIdGenerator.class);
+
+        List<Cliente> clientes = new ArrayList<>(CLIENTES);
+        for (int i = 0; i < CLIENTES; i++) {
+            clientes.add(new Cliente("Cliente " + i, "F", 30, String.format("%010d", i),
+                    "Quito", "099000000", clienteIdGenerator.siguienteId(), "1234", true));
+        }
+        contexto.getBean(ClienteRepository.class).saveAll(clientes);
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public long siguienteId() {
+        if ("maxMasUno".equals(estrategia)) {
+            return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(cliente_id), 0) + 1 FROM clientes", Long.class);
+        }
+        return clienteIdGenerator.siguienteId();
+    }
+}
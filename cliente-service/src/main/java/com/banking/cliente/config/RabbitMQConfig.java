@@ -12,16 +12,24 @@ public class RabbitMQConfig {
 
     public static final String CLIENTE_EXCHANGE = "cliente.exchange";
     public static final String CLIENTE_CREATED_QUEUE = "cliente.created.queue";
+    public static final String CLIENTE_CREATED_DLQ = "cliente.created.dlq";
     public static final String CLIENTE_CREATED_ROUTING_KEY = "cliente.created";
+    public static final String CLIENTE_UPDATED_ROUTING_KEY = "cliente.updated";
+    public static final String CLIENTE_DEACTIVATED_ROUTING_KEY = "cliente.deactivated";
 
     @Bean
     public TopicExchange clienteExchange() {
         return new TopicExchange(CLIENTE_EXCHANGE);
     }
 
+    // Mismos argumentos que en cuenta-service, que declara cliente.created.dlq y rechaza allí los
+    // lotes que no puede aplicar: RabbitMQ no admite redeclarar una cola con otros argumentos
     @Bean
     public Queue clienteCreatedQueue() {
-        return QueueBuilder.durable(CLIENTE_CREATED_QUEUE).build();
+        return QueueBuilder.durable(CLIENTE_CREATED_QUEUE)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(CLIENTE_CREATED_DLQ)
+                .build();
     }
 
     @Bean
@@ -32,6 +40,24 @@ public class RabbitMQConfig {
                 .with(CLIENTE_CREATED_ROUTING_KEY);
     }
 
+    // Actualizaciones y desactivaciones van a la misma cola que las altas: un único flujo
+    // ordenado de cambios de cliente para los consumidores
+    @Bean
+    public Binding clienteUpdatedBinding() {
+        return BindingBuilder
+                .bind(clienteCreatedQueue())
+                .to(clienteExchange())
+                .with(CLIENTE_UPDATED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding clienteDeactivatedBinding() {
+        return BindingBuilder
+                .bind(clienteCreatedQueue())
+                .to(clienteExchange())
+                .with(CLIENTE_DEACTIVATED_ROUTING_KEY);
+    }
+
     @Bean
     public Jackson2JsonMessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
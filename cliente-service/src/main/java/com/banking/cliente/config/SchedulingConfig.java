@@ -0,0 +1,10 @@
+package com.banking.cliente.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Habilita OutboxRelay; separado de la clase principal para que los tests de slice no lo activen
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
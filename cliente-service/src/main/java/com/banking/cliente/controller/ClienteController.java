@@ -3,12 +3,16 @@ package com.banking.cliente.controller;
 import com.banking.cliente.dto.ApiResponse;
 import com.banking.cliente.dto.ClienteDTO;
 import com.banking.cliente.dto.CrearClienteDTO;
+import com.banking.cliente.dto.SnapshotClientesDTO;
 import com.banking.cliente.service.ClienteService;
+import com.banking.cliente.service.ClienteSnapshotService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -22,6 +26,9 @@ public class ClienteController {
     @Autowired
     private ClienteService clienteService;
 
+    @Autowired
+    private ClienteSnapshotService clienteSnapshotService;
+
     @GetMapping
     public ResponseEntity<ApiResponse<List<ClienteDTO>>> getAllClientes() {
         try {
@@ -49,6 +56,55 @@ public class ClienteController {
         }
     }
 
+    // Consulta por clienteId (no por id de persona): la usa cuenta-service cuando un cliente
+    // todavía no llegó a su réplica cliente_info
+    @GetMapping("/cliente/{clienteId}")
+    public ResponseEntity<ApiResponse<ClienteDTO>> getClienteByClienteId(@PathVariable Long clienteId) {
+        try {
+            ClienteDTO cliente = clienteService.getClienteByClienteId(clienteId);
+            if (cliente != null) {
+                return ResponseEntity.ok(new ApiResponse<>(true, "Cliente encontrado", cliente));
+            } else {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse<>(false, "Cliente no encontrado", null));
+            }
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Error al obtener cliente: " + e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<ApiResponse<SnapshotClientesDTO>> getRangoSnapshot() {
+        try {
+            SnapshotClientesDTO rango = clienteSnapshotService.getRangoSnapshot();
+            return ResponseEntity.ok(new ApiResponse<>(true, "Rango del snapshot obtenido", rango));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Error al obtener snapshot: " + e.getMessage(), null));
+        }
+    }
+
+    // NDJSON con los clientes de clienteId en (desde, hasta], hasta 'limite' filas por página
+    @GetMapping("/snapshot/clientes")
+    public ResponseEntity<?> getSnapshotClientes(
+            @RequestParam(defaultValue = "0") Long desde,
+            @RequestParam(defaultValue = "9223372036854775807") Long hasta,
+            @RequestParam(defaultValue = "5000") int limite) {
+        try {
+            int limiteValidado = clienteSnapshotService.validarLimite(limite);
+            StreamingResponseBody cuerpo = salida ->
+                    clienteSnapshotService.escribirSnapshot(desde, hasta, limiteValidado, salida);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(cuerpo);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Error al obtener snapshot: " + e.getMessage(), null));
+        }
+    }
+
     @PostMapping
     public ResponseEntity<ApiResponse<ClienteDTO>> crearCliente(@Valid @RequestBody CrearClienteDTO crearClienteDTO) {
         try {
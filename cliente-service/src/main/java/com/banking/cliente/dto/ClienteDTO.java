@@ -9,6 +9,8 @@ public class ClienteDTO {
     private String direccion;
     private String telefono;
     private Boolean estado;
+    // Versión del cliente, la misma que llevan los eventos publicados
+    private Long version;
 
     public ClienteDTO() {}
 
@@ -36,4 +38,7 @@ public class ClienteDTO {
     
     public Boolean getEstado() { return estado; }
     public void setEstado(Boolean estado) { this.estado = estado; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.banking.cliente.entity;
+
+import jakarta.persistence.*;
+
+// Fila hi-lo compartida por todas las instancias: guarda el primer clienteId aún no reservado
+@Entity
+@Table(name = "cliente_id_bloque")
+public class ClienteIdBloque {
+
+    @Id
+    @Column(length = 50)
+    private String nombre;
+
+    @Column(name = "siguiente_valor", nullable = false)
+    private Long siguienteValor;
+
+    // Constructores
+    public ClienteIdBloque() {}
+
+    public ClienteIdBloque(String nombre, Long siguienteValor) {
+        this.nombre = nombre;
+        this.siguienteValor = siguienteValor;
+    }
+
+    // Getters y Setters
+    public String getNombre() { return nombre; }
+    public void setNombre(String nombre) { this.nombre = nombre; }
+
+    public Long getSiguienteValor() { return siguienteValor; }
+    public void setSiguienteValor(Long siguienteValor) { this.siguienteValor = siguienteValor; }
+}
@@ -0,0 +1,57 @@
+package com.banking.cliente.entity;
+
+import jakarta.persistence.*;
+import java.util.Date;
+
+// Evento pendiente de publicar: se escribe en la misma transacción que el cambio que lo origina
+// y el relay lo borra solo cuando el broker confirma la publicación
+@Entity
+@Table(name = "evento_outbox")
+public class EventoOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "evento_id")
+    private Long eventoId;
+
+    @Column(name = "routing_key", nullable = false, length = 100)
+    private String routingKey;
+
+    // Clase del evento, se envía en la cabecera __TypeId__ igual que con Jackson2JsonMessageConverter
+    @Column(name = "tipo_evento", nullable = false, length = 200)
+    private String tipoEvento;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "fecha_creacion", nullable = false)
+    private Date fechaCreacion;
+
+    // Constructores
+    public EventoOutbox() {}
+
+    public EventoOutbox(String routingKey, String tipoEvento, String payload) {
+        this.routingKey = routingKey;
+        this.tipoEvento = tipoEvento;
+        this.payload = payload;
+        this.fechaCreacion = new Date();
+    }
+
+    // Getters y Setters
+    public Long getEventoId() { return eventoId; }
+    public void setEventoId(Long eventoId) { this.eventoId = eventoId; }
+
+    public String getRoutingKey() { return routingKey; }
+    public void setRoutingKey(String routingKey) { this.routingKey = routingKey; }
+
+    public String getTipoEvento() { return tipoEvento; }
+    public void setTipoEvento(String tipoEvento) { this.tipoEvento = tipoEvento; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public Date getFechaCreacion() { return fechaCreacion; }
+    public void setFechaCreacion(Date fechaCreacion) { this.fechaCreacion = fechaCreacion; }
+}
@@ -29,6 +29,12 @@ public class Persona {
     @Column(length = 15)
     private String telefono;
 
+    // Se incrementa con cada cambio; viaja en los eventos y en el snapshot para que las réplicas
+    // (cliente_info en cuenta-service) descarten datos más antiguos que los que ya tienen
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Constructores
     public Persona() {}
 
@@ -63,4 +69,7 @@ public class Persona {
     
     public String getTelefono() { return telefono; }
     public void setTelefono(String telefono) { this.telefono = telefono; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
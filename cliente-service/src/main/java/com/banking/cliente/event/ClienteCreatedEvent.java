@@ -2,11 +2,13 @@ package com.banking.cliente.event;
 
 import java.io.Serializable;
 
+// Payload común de cliente.created, cliente.updated y cliente.deactivated (y de cada fila del snapshot)
 public class ClienteCreatedEvent implements Serializable {
     private Long clienteId;
     private String nombre;
     private String identificacion;
     private Boolean estado;
+    private Long version;
 
     public ClienteCreatedEvent() {}
 
@@ -17,6 +19,11 @@ public class ClienteCreatedEvent implements Serializable {
         this.estado = estado;
     }
 
+    public ClienteCreatedEvent(Long clienteId, String nombre, String identificacion, Boolean estado, Long version) {
+        this(clienteId, nombre, identificacion, estado);
+        this.version = version;
+    }
+
     // Getters y Setters
     public Long getClienteId() { return clienteId; }
     public void setClienteId(Long clienteId) { this.clienteId = clienteId; }
@@ -29,4 +36,7 @@ public class ClienteCreatedEvent implements Serializable {
     
     public Boolean getEstado() { return estado; }
     public void setEstado(Boolean estado) { this.estado = estado; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.banking.cliente.mapper;
+
+import com.banking.cliente.dto.ClienteDTO;
+import com.banking.cliente.entity.Cliente;
+import org.springframework.stereotype.Component;
+
+// Mapeo directo Cliente -> ClienteDTO, sin la resolución por reflexión de ModelMapper en cada
+// llamada. La contraseña nunca se copia al DTO.
+@Component
+public class ClienteMapper {
+
+    public ClienteDTO toDTO(Cliente cliente) {
+        if (cliente == null) {
+            return null;
+        }
+        ClienteDTO dto = new ClienteDTO();
+        dto.setClienteId(cliente.getClienteId());
+        dto.setNombre(cliente.getNombre());
+        dto.setGenero(cliente.getGenero());
+        dto.setEdad(cliente.getEdad());
+        dto.setIdentificacion(cliente.getIdentificacion());
+        dto.setDireccion(cliente.getDireccion());
+        dto.setTelefono(cliente.getTelefono());
+        dto.setEstado(cliente.getEstado());
+        dto.setVersion(cliente.getVersion());
+        return dto;
+    }
+}
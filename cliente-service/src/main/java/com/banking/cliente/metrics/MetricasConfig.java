@@ -0,0 +1,28 @@
+package com.banking.cliente.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricasConfig {
+
+    // Envuelve el DataSource de la aplicación para contar las sentencias de cada petición.
+    // Estático para que el post-procesador exista antes de que se cree el DataSource.
+    @Bean
+    @ConditionalOnProperty(name = "banking.metricas.sentencias.habilitado", matchIfMissing = true)
+    public static BeanPostProcessor sentenciasDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof SentenciasDataSource)) {
+                    return new SentenciasDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+}
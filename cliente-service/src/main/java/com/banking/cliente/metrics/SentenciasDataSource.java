@@ -0,0 +1,112 @@
+package com.banking.cliente.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// DataSource que cuenta y cronometra las sentencias de la petición en curso (SentenciasPeticion).
+// Envuelve las conexiones y sentencias con proxies del JDK: cubre por igual lo que ejecuta
+// Hibernate y lo que ejecuta JdbcTemplate. Extiende DelegatingDataSource para que las métricas
+// del pool de Hikari sigan encontrando el DataSource real.
+public class SentenciasDataSource extends DelegatingDataSource {
+
+    public SentenciasDataSource(DataSource dataSource) {
+        super(dataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conexion(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conexion(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private static Connection conexion(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(SentenciasDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConexionHandler(conexion));
+    }
+
+    private static final class ConexionHandler implements InvocationHandler {
+
+        private final Connection conexion;
+
+        ConexionHandler(Connection conexion) {
+            this.conexion = conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object resultado = invocar(conexion, method, args);
+            if (resultado instanceof Statement) {
+                Class<?> tipo = resultado instanceof CallableStatement ? CallableStatement.class
+                        : resultado instanceof PreparedStatement ? PreparedStatement.class
+                        : Statement.class;
+                return Proxy.newProxyInstance(SentenciasDataSource.class.getClassLoader(), new Class<?>[]{tipo},
+                        new SentenciaHandler((Statement) resultado, (Connection) proxy));
+            }
+            return resultado;
+        }
+    }
+
+    private static final class SentenciaHandler implements InvocationHandler {
+
+        private final Statement sentencia;
+        private final Connection conexion;
+
+        SentenciaHandler(Statement sentencia, Connection conexion) {
+            this.sentencia = sentencia;
+            this.conexion = conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nombre = method.getName();
+            if (nombre.startsWith("execute")) {
+                long inicio = System.nanoTime();
+                try {
+                    return invocar(sentencia, method, args);
+                } finally {
+                    SentenciasPeticion.registrar(System.nanoTime() - inicio);
+                }
+            }
+            switch (nombre) {
+                case "getConnection":
+                    return conexion;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return invocar(sentencia, method, args);
+            }
+        }
+    }
+
+    private static Object invocar(Object destino, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
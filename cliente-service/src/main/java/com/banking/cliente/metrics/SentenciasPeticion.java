@@ -0,0 +1,41 @@
+package com.banking.cliente.metrics;
+
+// Sentencias JDBC ejecutadas por la petición HTTP en curso. MetricasPeticionFilter la abre en el
+// hilo que atiende la petición y SentenciasDataSource suma cada ejecución; fuera de una petición
+// (listeners, tareas programadas) no hay contexto y no se cuenta nada.
+public final class SentenciasPeticion {
+
+    private static final ThreadLocal<SentenciasPeticion> ACTUAL = new ThreadLocal<>();
+
+    private int sentencias;
+    private long nanos;
+
+    private SentenciasPeticion() {}
+
+    static SentenciasPeticion iniciar() {
+        SentenciasPeticion sentencias = new SentenciasPeticion();
+        ACTUAL.set(sentencias);
+        return sentencias;
+    }
+
+    static void terminar() {
+        ACTUAL.remove();
+    }
+
+    // Un executeBatch cuenta como una sentencia: lo que se mide son idas y vueltas a la base de datos
+    static void registrar(long nanos) {
+        SentenciasPeticion actual = ACTUAL.get();
+        if (actual != null) {
+            actual.sentencias++;
+            actual.nanos += nanos;
+        }
+    }
+
+    public int getSentencias() {
+        return sentencias;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,20 @@
+package com.banking.cliente.repository;
+
+import com.banking.cliente.entity.ClienteIdBloque;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ClienteIdBloqueRepository extends JpaRepository<ClienteIdBloque, String> {
+
+    // SELECT ... FOR UPDATE: serializa la reserva de bloques entre instancias
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM ClienteIdBloque b WHERE b.nombre = :nombre")
+    Optional<ClienteIdBloque> findByNombreForUpdate(@Param("nombre") String nombre);
+}
@@ -1,13 +1,19 @@
 package com.banking.cliente.repository;
 
+import com.banking.cliente.dto.SnapshotClientesDTO;
 import com.banking.cliente.entity.Cliente;
+import com.banking.cliente.event.ClienteCreatedEvent;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
@@ -21,9 +27,19 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     boolean existsByClienteId(Long clienteId);
     boolean existsByIdentificacion(String identificacion);
 
-    @Query("SELECT COALESCE(MAX(c.clienteId), 0) + 1 FROM Cliente c")
-    Long getNextClienteId();
-
     @Query("SELECT MAX(c.clienteId) FROM Cliente c")
     Long getLastClienteId();
+
+    @Query("SELECT new com.banking.cliente.dto.SnapshotClientesDTO(MIN(c.clienteId), MAX(c.clienteId), COUNT(c)) FROM Cliente c")
+    SnapshotClientesDTO getRangoSnapshot();
+
+    // Página del snapshot por keyset sobre clienteId (índice único); se recorre como cursor
+    // sin hidratar entidades
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT new com.banking.cliente.event.ClienteCreatedEvent(c.clienteId, c.nombre, c.identificacion, c.estado, c.version) " +
+           "FROM Cliente c WHERE c.clienteId > :desde AND c.clienteId <= :hasta ORDER BY c.clienteId")
+    Stream<ClienteCreatedEvent> streamSnapshot(@Param("desde") Long desde, @Param("hasta") Long hasta, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.banking.cliente.repository;
+
+import com.banking.cliente.entity.EventoOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long> {
+
+    // FOR UPDATE SKIP LOCKED (timeout -2): varias instancias drenan lotes distintos sin esperarse
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM EventoOutbox e ORDER BY e.eventoId")
+    List<EventoOutbox> findLoteParaPublicar(Pageable pageable);
+
+    @Query("SELECT MIN(e.fechaCreacion) FROM EventoOutbox e")
+    Date findFechaCreacionMasAntigua();
+}
@@ -1,27 +1,60 @@
 package com.banking.cliente.service;
 
+import com.banking.cliente.config.RabbitMQConfig;
 import com.banking.cliente.entity.Cliente;
+import com.banking.cliente.entity.EventoOutbox;
 import com.banking.cliente.event.ClienteCreatedEvent;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import com.banking.cliente.repository.EventoOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+// Los eventos no se envían al broker aquí: se guardan en evento_outbox dentro de la transacción
+// del llamador y OutboxRelay los publica después del commit
 @Component
 public class ClienteEventPublisher {
 
     @Autowired
-    private RabbitTemplate rabbitTemplate;
+    private EventoOutboxRepository eventoOutboxRepository;
 
-    private static final String CLIENTE_EXCHANGE = "cliente.exchange";
-    private static final String CLIENTE_CREATED_ROUTING_KEY = "cliente.created";
+    @Autowired
+    private ObjectMapper objectMapper;
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishClienteCreado(Cliente cliente) {
+        guardarEnOutbox(RabbitMQConfig.CLIENTE_CREATED_ROUTING_KEY, toEvent(cliente));
+    }
+
+    // Se llaman con la versión ya incrementada (entidad sincronizada con la base)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishClienteActualizado(Cliente cliente) {
+        guardarEnOutbox(RabbitMQConfig.CLIENTE_UPDATED_ROUTING_KEY, toEvent(cliente));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishClienteDesactivado(Cliente cliente) {
+        guardarEnOutbox(RabbitMQConfig.CLIENTE_DEACTIVATED_ROUTING_KEY, toEvent(cliente));
+    }
+
+    private ClienteCreatedEvent toEvent(Cliente cliente) {
         ClienteCreatedEvent event = new ClienteCreatedEvent();
         event.setClienteId(cliente.getClienteId());
         event.setNombre(cliente.getNombre());
         event.setIdentificacion(cliente.getIdentificacion());
         event.setEstado(cliente.getEstado());
-        
-        rabbitTemplate.convertAndSend(CLIENTE_EXCHANGE, CLIENTE_CREATED_ROUTING_KEY, event);
+        event.setVersion(cliente.getVersion());
+        return event;
+    }
+
+    private void guardarEnOutbox(String routingKey, Object event) {
+        try {
+            eventoOutboxRepository.save(new EventoOutbox(
+                    routingKey, event.getClass().getName(), objectMapper.writeValueAsString(event)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error al serializar el evento " + event.getClass().getSimpleName(), e);
+        }
     }
-}
\ No newline at end of file
+}
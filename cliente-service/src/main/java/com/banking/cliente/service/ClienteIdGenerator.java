@@ -0,0 +1,114 @@
+package com.banking.cliente.service;
+
+import com.banking.cliente.entity.ClienteIdBloque;
+import com.banking.cliente.repository.ClienteIdBloqueRepository;
+import com.banking.cliente.repository.ClienteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Asigna clienteIds por bloques (hi-lo): cada instancia reserva un rango en la tabla
+// cliente_id_bloque bajo bloqueo de fila y luego lo reparte desde memoria sin tocar la base.
+@Component
+public class ClienteIdGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteIdGenerator.class);
+
+    static final String SECUENCIA_CLIENTES = "clientes";
+    private static final int MAX_INTENTOS_RESERVA = 3;
+
+    @Autowired
+    private ClienteIdBloqueRepository bloqueRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banking.clientes.bloque-ids:50}")
+    private int tamanoBloque;
+
+    private final AtomicReference<Bloque> bloqueActual = new AtomicReference<>(Bloque.AGOTADO);
+
+    // Solo los hilos que encuentran el bloque agotado esperan aquí; el resto no toma ningún lock
+    private final ReentrantLock reserva = new ReentrantLock();
+
+    // Llamar fuera de una transacción: quien espera la reserva no debe retener una conexión del pool
+    public long siguienteId() {
+        while (true) {
+            Bloque bloque = bloqueActual.get();
+            long id = bloque.siguiente.getAndIncrement();
+            if (id < bloque.limite) {
+                return id;
+            }
+            reserva.lock();
+            try {
+                // Otro hilo pudo haber reservado un bloque nuevo mientras esperábamos
+                if (bloqueActual.get() == bloque) {
+                    bloqueActual.set(reservarBloque());
+                }
+            } finally {
+                reserva.unlock();
+            }
+        }
+    }
+
+    private Bloque reservarBloque() {
+        // Transacción propia: el bloqueo de la fila se libera en cuanto se reserva el rango,
+        // sin esperar a que termine la transacción del cliente que disparó la reserva
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int intento = 1; ; intento++) {
+            try {
+                Bloque bloque = transactionTemplate.execute(status -> reservarEnTransaccion());
+                log.debug("Reservado bloque de clienteIds [{}, {})", bloque.siguiente.get(), bloque.limite);
+                return bloque;
+            } catch (DataIntegrityViolationException e) {
+                // Dos instancias intentaron crear la fila inicial a la vez; la siguiente lectura ya la encuentra
+                if (intento >= MAX_INTENTOS_RESERVA) {
+                    throw e;
+                }
+                log.debug("Conflicto creando la secuencia de clienteIds, reintentando: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Bloque reservarEnTransaccion() {
+        ClienteIdBloque fila = bloqueRepository.findByNombreForUpdate(SECUENCIA_CLIENTES)
+                .orElseGet(() -> new ClienteIdBloque(SECUENCIA_CLIENTES, 1L));
+
+        // Nunca por debajo de lo ya usado: bases anteriores a la tabla o altas hechas por fuera del generador
+        Long ultimoId = clienteRepository.getLastClienteId();
+        long inicio = Math.max(fila.getSiguienteValor(), ultimoId != null ? ultimoId + 1 : 1L);
+        long limite = inicio + tamanoBloque;
+
+        fila.setSiguienteValor(limite);
+        bloqueRepository.saveAndFlush(fila);
+        return new Bloque(inicio, limite);
+    }
+
+    // Rango [siguiente, limite) reservado por esta instancia
+    private static final class Bloque {
+
+        static final Bloque AGOTADO = new Bloque(0, 0);
+
+        final AtomicLong siguiente;
+        final long limite;
+
+        Bloque(long inicio, long limite) {
+            this.siguiente = new AtomicLong(inicio);
+            this.limite = limite;
+        }
+    }
+}
@@ -3,11 +3,14 @@ package com.banking.cliente.service;
 import com.banking.cliente.dto.ClienteDTO;
 import com.banking.cliente.dto.CrearClienteDTO;
 import com.banking.cliente.entity.Cliente;
+import com.banking.cliente.mapper.ClienteMapper;
 import com.banking.cliente.repository.ClienteRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -21,37 +24,57 @@ public class ClienteService {
     private ClienteRepository clienteRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private ClienteMapper clienteMapper;
 
     @Autowired
     private ClienteEventPublisher eventPublisher;
 
+    @Autowired
+    private ClienteIdGenerator clienteIdGenerator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     public List<ClienteDTO> getAllClientes() {
         List<Cliente> clientes = clienteRepository.findAll();
         return clientes.stream()
-                .map(cliente -> modelMapper.map(cliente, ClienteDTO.class))
+                .map(clienteMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     public ClienteDTO getClienteById(Long id) {
         Optional<Cliente> cliente = clienteRepository.findById(id);
-        return cliente.map(c -> modelMapper.map(c, ClienteDTO.class)).orElse(null);
+        return cliente.map(clienteMapper::toDTO).orElse(null);
     }
 
     public ClienteDTO getClienteByClienteId(Long clienteId) {
         Optional<Cliente> cliente = clienteRepository.findByClienteId(clienteId);
-        return cliente.map(c -> modelMapper.map(c, ClienteDTO.class)).orElse(null);
+        return cliente.map(clienteMapper::toDTO).orElse(null);
     }
 
+    // Sin transacción: el clienteId se toma antes de abrirla. Si el bloque está agotado, la reserva
+    // usa una conexión propia mientras las demás altas esperan el lock del generador; con la
+    // transacción ya abierta cada alta retendría su conexión y con el pool lleno la reserva no
+    // conseguiría ninguna. La validación va en su propia transacción corta: una consulta suelta
+    // dentro de NOT_SUPPORTED dejaría la conexión tomada hasta el final del método
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ClienteDTO crearCliente(CrearClienteDTO crearClienteDTO) {
-        // GENERAR AUTOMÁTICAMENTE EL CLIENTE ID
-        Long nuevoClienteId = generateNextClienteId();
-        
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
         // VALIDAR SI YA EXISTE LA IDENTIFICACIÓN (SOLO UNA VEZ)
-        if (clienteRepository.existsByIdentificacion(crearClienteDTO.getIdentificacion())) {
+        if (Boolean.TRUE.equals(transactionTemplate.execute(
+                status -> clienteRepository.existsByIdentificacion(crearClienteDTO.getIdentificacion())))) {
             throw new IllegalArgumentException("Ya existe un cliente con esa identificación");
         }
 
+        // GENERAR AUTOMÁTICAMENTE EL CLIENTE ID (desde el bloque reservado en memoria)
+        Long nuevoClienteId = clienteIdGenerator.siguienteId();
+
+        return transactionTemplate.execute(status -> registrarCliente(crearClienteDTO, nuevoClienteId));
+    }
+
+    private ClienteDTO registrarCliente(CrearClienteDTO crearClienteDTO, Long nuevoClienteId) {
+
         // CREAR Y CONFIGURAR EL CLIENTE
         Cliente cliente = new Cliente();
         cliente.setNombre(crearClienteDTO.getNombre());
@@ -70,19 +93,7 @@ public class ClienteService {
         // PUBLICAR EVENTO DE CLIENTE CREADO
         eventPublisher.publishClienteCreado(clienteGuardado);
         
-        return modelMapper.map(clienteGuardado, ClienteDTO.class);
-    }
-
-    // MÉTODO PARA GENERAR EL PRÓXIMO ID
-    private Long generateNextClienteId() {
-        try {
-            Long nextId = clienteRepository.getNextClienteId();
-            return nextId != null ? nextId : 1L;
-        } catch (Exception e) {
-            // Si hay error con la query, usar método alternativo
-            Long lastId = clienteRepository.getLastClienteId();
-            return lastId != null ? lastId + 1 : 1L;
-        }
+        return clienteMapper.toDTO(clienteGuardado);
     }
 
     public ClienteDTO actualizarCliente(Long id, CrearClienteDTO clienteDTO) {
@@ -103,7 +114,10 @@ public class ClienteService {
         }
 
         Cliente clienteActualizado = clienteRepository.save(cliente);
-        return modelMapper.map(clienteActualizado, ClienteDTO.class);
+        // El flush incrementa la versión antes de publicarla en el evento
+        clienteRepository.flush();
+        eventPublisher.publishClienteActualizado(clienteActualizado);
+        return clienteMapper.toDTO(clienteActualizado);
     }
 
     public boolean eliminarCliente(Long id) {
@@ -112,7 +126,9 @@ public class ClienteService {
             // Soft delete - cambiar estado a false
             Cliente clienteEntity = cliente.get();
             clienteEntity.setEstado(false);
-            clienteRepository.save(clienteEntity);
+            Cliente clienteDesactivado = clienteRepository.save(clienteEntity);
+            clienteRepository.flush();
+            eventPublisher.publishClienteDesactivado(clienteDesactivado);
             return true;
         }
         return false;
@@ -0,0 +1,63 @@
+package com.banking.cliente.service;
+
+import com.banking.cliente.dto.SnapshotClientesDTO;
+import com.banking.cliente.event.ClienteCreatedEvent;
+import com.banking.cliente.repository.ClienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Exportación completa de clientes para poblar réplicas (cliente_info en cuenta-service).
+// Cada fila lleva la versión del cliente, así el snapshot y los eventos pueden aplicarse en
+// cualquier orden: la réplica se queda siempre con la versión más alta.
+@Service
+public class ClienteSnapshotService {
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${banking.snapshot.limite-maximo:10000}")
+    private int limiteMaximo;
+
+    @Transactional(readOnly = true)
+    public SnapshotClientesDTO getRangoSnapshot() {
+        return clienteRepository.getRangoSnapshot();
+    }
+
+    public int validarLimite(int limite) {
+        if (limite < 1 || limite > limiteMaximo) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + limiteMaximo);
+        }
+        return limite;
+    }
+
+    // Escribe en NDJSON (un cliente por línea) los clientes con clienteId en (desde, hasta],
+    // como máximo 'limite'. El consumidor continúa desde el último clienteId recibido.
+    @Transactional(readOnly = true)
+    public int escribirSnapshot(Long desde, Long hasta, int limite, OutputStream salida) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ClienteCreatedEvent.class);
+        int escritos = 0;
+        try (Stream<ClienteCreatedEvent> filas = clienteRepository.streamSnapshot(desde, hasta, PageRequest.of(0, limite))) {
+            Iterator<ClienteCreatedEvent> iterator = filas.iterator();
+            while (iterator.hasNext()) {
+                salida.write(writer.writeValueAsBytes(iterator.next()));
+                salida.write('\n');
+                escritos++;
+            }
+        }
+        salida.flush();
+        return escritos;
+    }
+}
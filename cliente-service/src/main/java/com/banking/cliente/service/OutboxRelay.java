@@ -0,0 +1,137 @@
+package com.banking.cliente.service;
+
+import com.banking.cliente.config.RabbitMQConfig;
+import com.banking.cliente.entity.EventoOutbox;
+import com.banking.cliente.repository.EventoOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Drena evento_outbox en segundo plano: publica cada lote, espera las confirmaciones del broker
+// y solo entonces borra las filas. La entrega es al menos una vez; messageId = eventoId permite
+// a los consumidores descartar duplicados si el borrado falla después de confirmar.
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banking.outbox.tamano-lote:100}")
+    private int tamanoLote;
+
+    @Value("${banking.outbox.timeout-confirmacion-ms:5000}")
+    private long timeoutConfirmacionMs;
+
+    private TransactionTemplate transactionTemplate;
+    private Timer lagPublicacion;
+    private Counter eventosPublicados;
+    private Counter erroresRelay;
+
+    @PostConstruct
+    public void registrarMetricas() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("outbox.eventos.pendientes", eventoOutboxRepository, EventoOutboxRepository::count)
+                .description("Eventos escritos en el outbox que aún no confirma el broker")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.antiguedad", this, OutboxRelay::antiguedadPendienteSegundos)
+                .description("Antigüedad del evento pendiente más viejo")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        lagPublicacion = Timer.builder("outbox.relay.lag")
+                .description("Tiempo entre la escritura en el outbox y la confirmación del broker")
+                .register(meterRegistry);
+        eventosPublicados = Counter.builder("outbox.eventos.publicados").register(meterRegistry);
+        erroresRelay = Counter.builder("outbox.relay.errores").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${banking.outbox.intervalo-ms:200}")
+    public void drenar() {
+        try {
+            // Lotes completos indican que puede haber más pendientes: seguir sin esperar al siguiente ciclo
+            while (publicarLote() == tamanoLote) {
+                log.debug("Lote completo de {} eventos publicado, continuando", tamanoLote);
+            }
+        } catch (Exception e) {
+            // Las filas del lote fallido siguen en el outbox y se reintentan en el próximo ciclo
+            erroresRelay.increment();
+            log.warn("Error al publicar eventos del outbox, se reintentará: {}", e.getMessage());
+        }
+    }
+
+    public int publicarLote() {
+        Integer publicados = transactionTemplate.execute(status -> {
+            List<EventoOutbox> lote = eventoOutboxRepository.findLoteParaPublicar(PageRequest.of(0, tamanoLote));
+            if (lote.isEmpty()) {
+                return 0;
+            }
+
+            // Todo el lote en un mismo canal y una sola espera de confirmaciones
+            rabbitTemplate.invoke(operations -> {
+                for (EventoOutbox evento : lote) {
+                    operations.send(RabbitMQConfig.CLIENTE_EXCHANGE, evento.getRoutingKey(), toMessage(evento));
+                }
+                operations.waitForConfirmsOrDie(timeoutConfirmacionMs);
+                return null;
+            });
+
+            eventoOutboxRepository.deleteAllInBatch(lote);
+
+            long ahora = System.currentTimeMillis();
+            for (EventoOutbox evento : lote) {
+                lagPublicacion.record(ahora - evento.getFechaCreacion().getTime(), TimeUnit.MILLISECONDS);
+            }
+            eventosPublicados.increment(lote.size());
+            return lote.size();
+        });
+        return publicados != null ? publicados : 0;
+    }
+
+    private double antiguedadPendienteSegundos() {
+        Date masAntigua = eventoOutboxRepository.findFechaCreacionMasAntigua();
+        return masAntigua != null ? (System.currentTimeMillis() - masAntigua.getTime()) / 1000.0 : 0.0;
+    }
+
+    // Mismo formato que producía Jackson2JsonMessageConverter al publicar el objeto directamente
+    private Message toMessage(EventoOutbox evento) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        properties.setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        properties.setMessageId(String.valueOf(evento.getEventoId()));
+        properties.setTimestamp(evento.getFechaCreacion());
+        properties.setHeader("__TypeId__", evento.getTipoEvento());
+        return new Message(evento.getPayload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
@@ -0,0 +1,48 @@
+package com.banking.cliente.mapper;
+
+import com.banking.cliente.config.ModelMapperConfig;
+import com.banking.cliente.dto.ClienteDTO;
+import com.banking.cliente.entity.Cliente;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClienteMapperTest {
+
+    private final ClienteMapper clienteMapper = new ClienteMapper();
+    private final ModelMapper modelMapper = new ModelMapperConfig().modelMapper();
+
+    @Test
+    void toDTO_MismoResultadoQueModelMapper() {
+        Cliente cliente = new Cliente();
+        cliente.setClienteId(5L);
+        cliente.setNombre("Jose Lema");
+        cliente.setGenero("M");
+        cliente.setEdad(35);
+        cliente.setIdentificacion("1234567890");
+        cliente.setDireccion("Otavalo sn y principal");
+        cliente.setTelefono("098254785");
+        cliente.setContraseña("1234");
+        cliente.setEstado(true);
+        cliente.setVersion(4L);
+
+        ClienteDTO esperado = modelMapper.map(cliente, ClienteDTO.class);
+        ClienteDTO resultado = clienteMapper.toDTO(cliente);
+
+        assertEquals(esperado.getClienteId(), resultado.getClienteId());
+        assertEquals(esperado.getNombre(), resultado.getNombre());
+        assertEquals(esperado.getGenero(), resultado.getGenero());
+        assertEquals(esperado.getEdad(), resultado.getEdad());
+        assertEquals(esperado.getIdentificacion(), resultado.getIdentificacion());
+        assertEquals(esperado.getDireccion(), resultado.getDireccion());
+        assertEquals(esperado.getTelefono(), resultado.getTelefono());
+        assertEquals(esperado.getEstado(), resultado.getEstado());
+        assertEquals(esperado.getVersion(), resultado.getVersion());
+    }
+
+    @Test
+    void toDTO_ClienteNulo_RetornaNull() {
+        assertNull(clienteMapper.toDTO(null));
+    }
+}
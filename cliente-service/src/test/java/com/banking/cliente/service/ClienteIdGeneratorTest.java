@@ -0,0 +1,198 @@
+package com.banking.cliente.service;
+
+import com.banking.cliente.dto.CrearClienteDTO;
+import com.banking.cliente.entity.Cliente;
+import com.banking.cliente.mapper.ClienteMapper;
+import com.banking.cliente.repository.ClienteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Verifica contra H2 que los clienteIds reservados por bloques no se repiten entre hilos ni entre
+// instancias. Pool pequeño y bloques cortos para que las altas concurrentes compitan por conexiones
+// mientras se reservan bloques
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:clienteids;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.hikari.maximum-pool-size=" + ClienteIdGeneratorTest.CONEXIONES,
+        "spring.datasource.hikari.connection-timeout=3000",
+        "banking.clientes.bloque-ids=5",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+// Pool de Hikari real: la base embebida que pone @DataJpaTest por defecto no limita las conexiones
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ClienteService.class, ClienteIdGenerator.class, ClienteMapper.class})
+// Los hilos del test necesitan ver lo que confirman los demás: sin transacción envolvente
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClienteIdGeneratorTest {
+
+    static final int CONEXIONES = 4;
+    private static final int HILOS = 8;
+    private static final int IDS_POR_HILO = 500;
+
+    @Autowired
+    private ClienteIdGenerator clienteIdGenerator;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @MockitoBean
+    private ClienteEventPublisher eventPublisher;
+
+    @AfterEach
+    void tearDown() {
+        // La fila de cliente_id_bloque se conserva: el generador mantiene su bloque en memoria entre tests
+        clienteRepository.deleteAll();
+    }
+
+    @Test
+    void siguienteId_HilosConcurrentesEnDosInstancias_SinDuplicados() throws Exception {
+        // Segunda instancia del generador con su propio bloque, como otra réplica de cliente-service
+        ClienteIdGenerator otraInstancia = beanFactory.createBean(ClienteIdGenerator.class);
+
+        List<Callable<List<Long>>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            ClienteIdGenerator generador = h % 2 == 0 ? clienteIdGenerator : otraInstancia;
+            tareas.add(() -> {
+                List<Long> ids = new ArrayList<>(IDS_POR_HILO);
+                for (int i = 0; i < IDS_POR_HILO; i++) {
+                    ids.add(generador.siguienteId());
+                }
+                return ids;
+            });
+        }
+
+        Set<Long> unicos = new HashSet<>();
+        int total = 0;
+        for (List<Long> ids : ejecutar(tareas, HILOS)) {
+            unicos.addAll(ids);
+            total += ids.size();
+        }
+
+        assertEquals(HILOS * IDS_POR_HILO, total);
+        assertEquals(total, unicos.size());
+    }
+
+    @Test
+    void siguienteId_ArrancaPorEncimaDelMaximoExistente() {
+        Cliente existente = new Cliente("Cliente Previo", "M", 40, "9999999999",
+                "Quito", "099000000", 1_000_000L, "1234", true);
+        clienteRepository.saveAndFlush(existente);
+
+        // Una instancia nueva reserva su primer bloque después de la fila insertada por fuera del generador
+        ClienteIdGenerator nuevaInstancia = beanFactory.createBean(ClienteIdGenerator.class);
+
+        assertTrue(nuevaInstancia.siguienteId() > 1_000_000L);
+    }
+
+    @Test
+    void crearCliente_Concurrente_SinDuplicados() throws Exception {
+        int porHilo = 25;
+        List<Callable<List<Long>>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            int hilo = h;
+            tareas.add(() -> {
+                List<Long> ids = new ArrayList<>(porHilo);
+                for (int i = 0; i < porHilo; i++) {
+                    ids.add(clienteService.crearCliente(crearClienteDTO(hilo * 1000 + i)).getClienteId());
+                }
+                return ids;
+            });
+        }
+
+        Set<Long> devueltos = new HashSet<>();
+        for (List<Long> ids : ejecutar(tareas, HILOS)) {
+            devueltos.addAll(ids);
+        }
+
+        // Todas las altas concurrentes terminaron sin chocar con la restricción única de cliente_id
+        assertEquals(HILOS * porHilo, devueltos.size());
+        assertEquals(HILOS * porHilo, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT cliente_id) FROM clientes", Integer.class));
+
+    }
+
+    @Test
+    void crearCliente_MasHilosQueConexiones_LaReservaDeBloqueNoAgotaElPool() throws Exception {
+        // Cada bloque de 5 ids se agota varias veces por hilo: muchas altas esperan una reserva a la vez
+        int hilos = CONEXIONES * 4;
+        int porHilo = 10;
+        List<Callable<List<Long>>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            int hilo = h;
+            tareas.add(() -> {
+                List<Long> ids = new ArrayList<>(porHilo);
+                for (int i = 0; i < porHilo; i++) {
+                    ids.add(clienteService.crearCliente(crearClienteDTO(50_000 + hilo * 1000 + i)).getClienteId());
+                }
+                return ids;
+            });
+        }
+
+        Set<Long> devueltos = new HashSet<>();
+        for (List<Long> ids : ejecutar(tareas, hilos)) {
+            devueltos.addAll(ids);
+        }
+
+        assertEquals(hilos * porHilo, devueltos.size());
+        assertEquals(hilos * porHilo, clienteRepository.count());
+    }
+
+    private <T> List<T> ejecutar(List<Callable<T>> tareas, int hilos) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            List<T> resultados = new ArrayList<>();
+            for (Future<T> futuro : executor.invokeAll(tareas)) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CrearClienteDTO crearClienteDTO(int numero) {
+        CrearClienteDTO dto = new CrearClienteDTO();
+        dto.setNombre("Cliente " + numero);
+        dto.setGenero("F");
+        dto.setEdad(30);
+        dto.setIdentificacion(String.format("%010d", numero));
+        dto.setDireccion("Quito");
+        dto.setTelefono("099000000");
+        dto.setContraseña("1234");
+        return dto;
+    }
+}
@@ -3,6 +3,7 @@ package com.banking.cliente.service;
 import com.banking.cliente.dto.ClienteDTO;
 import com.banking.cliente.dto.CrearClienteDTO;
 import com.banking.cliente.entity.Cliente;
+import com.banking.cliente.mapper.ClienteMapper;
 import com.banking.cliente.repository.ClienteRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,7 +11,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Arrays;
 import java.util.List;
@@ -26,11 +27,18 @@ class ClienteServiceTest {
     private ClienteRepository clienteRepository;
 
     @Mock
-    private ModelMapper modelMapper;
+    private ClienteMapper clienteMapper;
 
     @Mock
     private ClienteEventPublisher eventPublisher;
 
+    @Mock
+    private ClienteIdGenerator clienteIdGenerator;
+
+    // crearCliente abre su transacción con un TransactionTemplate
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ClienteService clienteService;
 
@@ -78,10 +86,10 @@ class ClienteServiceTest {
     @Test
     void crearCliente_DatosValidos_RetornaClienteDTO() {
         // Arrange
-        when(clienteRepository.getNextClienteId()).thenReturn(1L);
+        when(clienteIdGenerator.siguienteId()).thenReturn(1L);
         when(clienteRepository.existsByIdentificacion("1234567890")).thenReturn(false);
         when(clienteRepository.save(any(Cliente.class))).thenReturn(cliente);
-        when(modelMapper.map(cliente, ClienteDTO.class)).thenReturn(clienteDTO);
+        when(clienteMapper.toDTO(cliente)).thenReturn(clienteDTO);
 
         // Act
         ClienteDTO resultado = clienteService.crearCliente(crearClienteDTO);
@@ -95,7 +103,7 @@ class ClienteServiceTest {
         assertEquals(30, resultado.getEdad());
         assertEquals("1234567890", resultado.getIdentificacion());
         
-        verify(clienteRepository, times(1)).getNextClienteId();
+        verify(clienteIdGenerator, times(1)).siguienteId();
         verify(clienteRepository, times(1)).existsByIdentificacion("1234567890");
         verify(clienteRepository, times(1)).save(any(Cliente.class));
         verify(eventPublisher, times(1)).publishClienteCreado(any(Cliente.class));
@@ -104,7 +112,6 @@ class ClienteServiceTest {
     @Test
     void crearCliente_IdentificacionExistente_LanzaExcepcion() {
         // Arrange
-        when(clienteRepository.getNextClienteId()).thenReturn(2L);
         when(clienteRepository.existsByIdentificacion("1234567890")).thenReturn(true);
 
         // Act & Assert
@@ -113,48 +120,36 @@ class ClienteServiceTest {
         });
 
         assertEquals("Ya existe un cliente con esa identificación", exception.getMessage());
-        verify(clienteRepository, times(1)).getNextClienteId();
+        // No se consume un clienteId del bloque si la validación falla
+        verify(clienteIdGenerator, never()).siguienteId();
         verify(clienteRepository, times(1)).existsByIdentificacion("1234567890");
         verify(clienteRepository, never()).save(any(Cliente.class));
         verify(eventPublisher, never()).publishClienteCreado(any(Cliente.class));
     }
 
     @Test
-    void crearCliente_ErrorGenerandoId_UsaMetodoAlternativo() {
+    void crearCliente_ErrorReservandoBloqueDeIds_NoGuardaCliente() {
         // Arrange
-        when(clienteRepository.getNextClienteId()).thenThrow(new RuntimeException("Error en query"));
-        when(clienteRepository.getLastClienteId()).thenReturn(5L);
         when(clienteRepository.existsByIdentificacion("1234567890")).thenReturn(false);
-        
-        Cliente clienteConIdGenerado = new Cliente();
-        clienteConIdGenerado.setClienteId(6L);
-        clienteConIdGenerado.setNombre("Jose Lema");
-        
-        ClienteDTO dtoConIdGenerado = new ClienteDTO();
-        dtoConIdGenerado.setClienteId(6L);
-        dtoConIdGenerado.setNombre("Jose Lema");
-        
-        when(clienteRepository.save(any(Cliente.class))).thenReturn(clienteConIdGenerado);
-        when(modelMapper.map(clienteConIdGenerado, ClienteDTO.class)).thenReturn(dtoConIdGenerado);
+        when(clienteIdGenerator.siguienteId()).thenThrow(new RuntimeException("Error reservando bloque"));
 
-        // Act
-        ClienteDTO resultado = clienteService.crearCliente(crearClienteDTO);
+        // Act & Assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            clienteService.crearCliente(crearClienteDTO);
+        });
 
-        // Assert
-        assertNotNull(resultado);
-        assertEquals(6L, resultado.getClienteId());
-        verify(clienteRepository, times(1)).getNextClienteId();
-        verify(clienteRepository, times(1)).getLastClienteId();
-        verify(clienteRepository, times(1)).save(any(Cliente.class));
+        assertEquals("Error reservando bloque", exception.getMessage());
+        verify(clienteRepository, never()).save(any(Cliente.class));
+        verify(eventPublisher, never()).publishClienteCreado(any(Cliente.class));
     }
 
     @Test
     void crearCliente_PrimerClienteDelSistema_AsignaId1() {
         // Arrange - Simular base de datos vacía
-        when(clienteRepository.getNextClienteId()).thenReturn(1L);
+        when(clienteIdGenerator.siguienteId()).thenReturn(1L);
         when(clienteRepository.existsByIdentificacion("1234567890")).thenReturn(false);
         when(clienteRepository.save(any(Cliente.class))).thenReturn(cliente);
-        when(modelMapper.map(cliente, ClienteDTO.class)).thenReturn(clienteDTO);
+        when(clienteMapper.toDTO(cliente)).thenReturn(clienteDTO);
 
         // Act
         ClienteDTO resultado = clienteService.crearCliente(crearClienteDTO);
@@ -162,7 +157,7 @@ class ClienteServiceTest {
         // Assert
         assertNotNull(resultado);
         assertEquals(1L, resultado.getClienteId());
-        verify(clienteRepository, times(1)).getNextClienteId();
+        verify(clienteIdGenerator, times(1)).siguienteId();
     }
 
     @Test
@@ -192,8 +187,8 @@ class ClienteServiceTest {
 
         List<Cliente> clientes = Arrays.asList(cliente, cliente2);
         when(clienteRepository.findAll()).thenReturn(clientes);
-        when(modelMapper.map(cliente, ClienteDTO.class)).thenReturn(clienteDTO);
-        when(modelMapper.map(cliente2, ClienteDTO.class)).thenReturn(clienteDTO2);
+        when(clienteMapper.toDTO(cliente)).thenReturn(clienteDTO);
+        when(clienteMapper.toDTO(cliente2)).thenReturn(clienteDTO2);
 
         // Act
         List<ClienteDTO> resultado = clienteService.getAllClientes();
@@ -210,7 +205,7 @@ class ClienteServiceTest {
     void getClienteById_ClienteExistente_RetornaClienteDTO() {
         // Arrange
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
-        when(modelMapper.map(cliente, ClienteDTO.class)).thenReturn(clienteDTO);
+        when(clienteMapper.toDTO(cliente)).thenReturn(clienteDTO);
 
         // Act
         ClienteDTO resultado = clienteService.getClienteById(1L);
@@ -239,7 +234,7 @@ class ClienteServiceTest {
     void getClienteByClienteId_ClienteExistente_RetornaClienteDTO() {
         // Arrange
         when(clienteRepository.findByClienteId(1L)).thenReturn(Optional.of(cliente));
-        when(modelMapper.map(cliente, ClienteDTO.class)).thenReturn(clienteDTO);
+        when(clienteMapper.toDTO(cliente)).thenReturn(clienteDTO);
 
         // Act
         ClienteDTO resultado = clienteService.getClienteByClienteId(1L);
@@ -288,7 +283,7 @@ class ClienteServiceTest {
 
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
         when(clienteRepository.save(any(Cliente.class))).thenReturn(clienteActualizado);
-        when(modelMapper.map(clienteActualizado, ClienteDTO.class)).thenReturn(clienteDTOActualizado);
+        when(clienteMapper.toDTO(clienteActualizado)).thenReturn(clienteDTOActualizado);
 
         // Act
         ClienteDTO resultado = clienteService.actualizarCliente(1L, clienteActualizacion);
@@ -298,6 +293,7 @@ class ClienteServiceTest {
         assertEquals("Jose Lema Actualizado", resultado.getNombre());
         verify(clienteRepository, times(1)).findById(1L);
         verify(clienteRepository, times(1)).save(any(Cliente.class));
+        verify(eventPublisher, times(1)).publishClienteActualizado(clienteActualizado);
     }
 
     @Test
@@ -331,6 +327,7 @@ class ClienteServiceTest {
         
         // Verificar que se llamó save con el cliente con estado false
         verify(clienteRepository).save(argThat(c -> !c.getEstado()));
+        verify(eventPublisher, times(1)).publishClienteDesactivado(argThat(c -> !c.getEstado()));
     }
 
     @Test
@@ -345,6 +342,7 @@ class ClienteServiceTest {
         assertFalse(resultado);
         verify(clienteRepository, times(1)).findById(999L);
         verify(clienteRepository, never()).save(any(Cliente.class));
+        verify(eventPublisher, never()).publishClienteDesactivado(any(Cliente.class));
     }
 
     @Test
@@ -367,10 +365,10 @@ class ClienteServiceTest {
         respuestaDTO.setClienteId(3L);
         respuestaDTO.setNombre("Maria Garcia");
 
-        when(clienteRepository.getNextClienteId()).thenReturn(3L);
+        when(clienteIdGenerator.siguienteId()).thenReturn(3L);
         when(clienteRepository.existsByIdentificacion("0987654321")).thenReturn(false);
         when(clienteRepository.save(any(Cliente.class))).thenReturn(clienteGuardado);
-        when(modelMapper.map(clienteGuardado, ClienteDTO.class)).thenReturn(respuestaDTO);
+        when(clienteMapper.toDTO(clienteGuardado)).thenReturn(respuestaDTO);
 
         // Act
         ClienteDTO resultado = clienteService.crearCliente(clienteCompleto);
@@ -401,19 +399,19 @@ class ClienteServiceTest {
     @Test 
     void crearCliente_VerificarLlamadasUnicas() {
         // Arrange
-        when(clienteRepository.getNextClienteId()).thenReturn(1L);
+        when(clienteIdGenerator.siguienteId()).thenReturn(1L);
         when(clienteRepository.existsByIdentificacion("1234567890")).thenReturn(false);
         when(clienteRepository.save(any(Cliente.class))).thenReturn(cliente);
-        when(modelMapper.map(cliente, ClienteDTO.class)).thenReturn(clienteDTO);
+        when(clienteMapper.toDTO(cliente)).thenReturn(clienteDTO);
 
         // Act
         clienteService.crearCliente(crearClienteDTO);
 
         // Assert - Verificar que cada método se llama exactamente las veces esperadas
-        verify(clienteRepository, times(1)).getNextClienteId();
+        verify(clienteIdGenerator, times(1)).siguienteId();
         verify(clienteRepository, times(1)).existsByIdentificacion("1234567890");
         verify(clienteRepository, times(1)).save(any(Cliente.class));
         verify(eventPublisher, times(1)).publishClienteCreado(any(Cliente.class));
-        verify(modelMapper, times(1)).map(any(Cliente.class), eq(ClienteDTO.class));
+        verify(clienteMapper, times(1)).toDTO(any(Cliente.class));
     }
 }
\ No newline at end of file
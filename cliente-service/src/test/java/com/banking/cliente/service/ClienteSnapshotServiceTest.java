@@ -0,0 +1,131 @@
+package com.banking.cliente.service;
+
+import com.banking.cliente.dto.CrearClienteDTO;
+import com.banking.cliente.dto.SnapshotClientesDTO;
+import com.banking.cliente.entity.Cliente;
+import com.banking.cliente.event.ClienteCreatedEvent;
+import com.banking.cliente.mapper.ClienteMapper;
+import com.banking.cliente.repository.ClienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@Import({ClienteSnapshotService.class, ClienteService.class, ClienteIdGenerator.class, ClienteMapper.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ClienteSnapshotServiceTest {
+
+    @Autowired
+    private ClienteSnapshotService clienteSnapshotService;
+
+    @Autowired
+    private ClienteService clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private ClienteEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        for (long clienteId = 1; clienteId <= 25; clienteId++) {
+            clienteRepository.save(new Cliente("Cliente " + clienteId, "F", 30, "ID-" + clienteId,
+                    "Quito", "099000000", clienteId, "1234", clienteId % 5 != 0));
+        }
+        clienteRepository.flush();
+    }
+
+    @Test
+    void getRangoSnapshot_DevuelveMinimoMaximoYTotal() {
+        SnapshotClientesDTO rango = clienteSnapshotService.getRangoSnapshot();
+
+        assertEquals(1L, rango.getMinClienteId());
+        assertEquals(25L, rango.getMaxClienteId());
+        assertEquals(25L, rango.getTotal());
+        assertNotNull(rango.getGeneradoEn());
+    }
+
+    @Test
+    void escribirSnapshot_PaginaPorKeysetDentroDelTramo() throws Exception {
+        List<ClienteCreatedEvent> primera = leer(10L, 20L, 4);
+        assertEquals(List.of(11L, 12L, 13L, 14L), primera.stream().map(ClienteCreatedEvent::getClienteId).toList());
+
+        // La siguiente página arranca en el último clienteId recibido y no sale del tramo
+        List<ClienteCreatedEvent> resto = leer(14L, 20L, 100);
+        assertEquals(6, resto.size());
+        assertEquals(15L, resto.get(0).getClienteId());
+        assertEquals(20L, resto.get(resto.size() - 1).getClienteId());
+
+        // Incluye clientes desactivados y la versión de cada fila
+        ClienteCreatedEvent desactivado = resto.get(0);
+        assertFalse(desactivado.getEstado());
+        assertEquals(0L, desactivado.getVersion());
+    }
+
+    @Test
+    void validarLimite_FueraDeRango_LanzaExcepcion() {
+        assertThrows(IllegalArgumentException.class, () -> clienteSnapshotService.validarLimite(0));
+        assertThrows(IllegalArgumentException.class, () -> clienteSnapshotService.validarLimite(10_001));
+    }
+
+    @Test
+    void actualizarCliente_PublicaEventoConLaVersionIncrementada() {
+        Cliente cliente = clienteRepository.findByClienteId(3L).orElseThrow();
+        // La entidad es la misma instancia gestionada: se anota la versión en el momento de publicar
+        List<Long> versiones = new ArrayList<>();
+        doAnswer(inv -> versiones.add(inv.<Cliente>getArgument(0).getVersion()))
+                .when(eventPublisher).publishClienteActualizado(any(Cliente.class));
+        doAnswer(inv -> versiones.add(inv.<Cliente>getArgument(0).getVersion()))
+                .when(eventPublisher).publishClienteDesactivado(any(Cliente.class));
+
+        CrearClienteDTO cambios = new CrearClienteDTO();
+        cambios.setNombre("Cliente Tres Actualizado");
+        cambios.setGenero("F");
+        cambios.setEdad(31);
+        cambios.setDireccion("Cuenca");
+        cambios.setTelefono("099000001");
+        cambios.setContraseña("1234");
+        clienteService.actualizarCliente(cliente.getPersonaId(), cambios);
+        clienteService.eliminarCliente(cliente.getPersonaId());
+
+        assertEquals(List.of(1L, 2L), versiones);
+    }
+
+    private List<ClienteCreatedEvent> leer(Long desde, Long hasta, int limite) throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        int escritos = clienteSnapshotService.escribirSnapshot(desde, hasta, limite, salida);
+
+        List<ClienteCreatedEvent> filas = new ArrayList<>();
+        for (String linea : salida.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!linea.isBlank()) {
+                filas.add(objectMapper.readValue(linea, ClienteCreatedEvent.class));
+            }
+        }
+        assertEquals(escritos, filas.size());
+        return filas;
+    }
+}
@@ -0,0 +1,163 @@
+package com.banking.cliente.service;
+
+import com.banking.cliente.entity.Cliente;
+import com.banking.cliente.repository.EventoOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@Import({ClienteEventPublisher.class, OutboxRelay.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    @Autowired
+    private ClienteEventPublisher eventPublisher;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private EventoOutboxRepository eventoOutboxRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockitoBean
+    private RabbitTemplate rabbitTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // invoke() ejecuta el callback sobre el mismo template, como un canal dedicado
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(rabbitTemplate));
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventoOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void publishClienteCreado_GuardaEnOutboxSinTocarBroker() {
+        transactionTemplate.executeWithoutResult(status -> eventPublisher.publishClienteCreado(cliente(7L)));
+
+        assertEquals(1, eventoOutboxRepository.count());
+        assertTrue(eventoOutboxRepository.findAll().get(0).getPayload().contains("\"clienteId\":7"));
+        verifyNoInteractions(rabbitTemplate);
+    }
+
+    @Test
+    void publishClienteCreado_TransaccionRevertida_NoDejaEvento() {
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishClienteCreado(cliente(7L));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, eventoOutboxRepository.count());
+    }
+
+    @Test
+    void publishClienteCreado_SinTransaccion_LanzaExcepcion() {
+        assertThrows(Exception.class, () -> eventPublisher.publishClienteCreado(cliente(7L)));
+        assertEquals(0, eventoOutboxRepository.count());
+    }
+
+    @Test
+    void drenar_BrokerConfirma_PublicaEnOrdenYBorraElLote() {
+        guardarEventos(1L, 2L, 3L);
+        double publicadosAntes = meterRegistry.counter("outbox.eventos.publicados").count();
+
+        outboxRelay.drenar();
+
+        ArgumentCaptor<Message> mensajes = ArgumentCaptor.forClass(Message.class);
+        verify(rabbitTemplate, times(3)).send(eq("cliente.exchange"), eq("cliente.created"), mensajes.capture());
+        // Una sola espera de confirmaciones por lote
+        verify(rabbitTemplate, times(1)).waitForConfirmsOrDie(anyLong());
+
+        List<Message> enviados = mensajes.getAllValues();
+        assertTrue(new String(enviados.get(0).getBody(), StandardCharsets.UTF_8).contains("\"clienteId\":1"));
+        assertTrue(new String(enviados.get(2).getBody(), StandardCharsets.UTF_8).contains("\"clienteId\":3"));
+        assertEquals("com.banking.cliente.event.ClienteCreatedEvent",
+                enviados.get(0).getMessageProperties().getHeaders().get("__TypeId__"));
+        assertNotNull(enviados.get(0).getMessageProperties().getMessageId());
+
+        assertEquals(0, eventoOutboxRepository.count());
+        assertEquals(3, meterRegistry.counter("outbox.eventos.publicados").count() - publicadosAntes);
+        assertEquals(0, meterRegistry.get("outbox.eventos.pendientes").gauge().value());
+        assertTrue(meterRegistry.get("outbox.relay.lag").timer().count() >= 3);
+    }
+
+    @Test
+    void drenar_BrokerNoConfirma_ConservaEventosParaReintentar() {
+        guardarEventos(1L, 2L);
+        doThrow(new AmqpTimeoutException("Sin confirmación")).when(rabbitTemplate).waitForConfirmsOrDie(anyLong());
+        double erroresAntes = meterRegistry.counter("outbox.relay.errores").count();
+
+        outboxRelay.drenar();
+
+        assertEquals(2, eventoOutboxRepository.count());
+        assertEquals(1, meterRegistry.counter("outbox.relay.errores").count() - erroresAntes);
+        assertEquals(2, meterRegistry.get("outbox.eventos.pendientes").gauge().value());
+        assertTrue(meterRegistry.get("outbox.relay.antiguedad").gauge().value() >= 0);
+
+        // Con el broker de vuelta, el siguiente ciclo publica los mismos eventos
+        doNothing().when(rabbitTemplate).waitForConfirmsOrDie(anyLong());
+        outboxRelay.drenar();
+
+        assertEquals(0, eventoOutboxRepository.count());
+    }
+
+    private void guardarEventos(Long... clienteIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Long clienteId : clienteIds) {
+                eventPublisher.publishClienteCreado(cliente(clienteId));
+            }
+        });
+    }
+
+    private Cliente cliente(Long clienteId) {
+        Cliente cliente = new Cliente();
+        cliente.setClienteId(clienteId);
+        cliente.setNombre("Cliente " + clienteId);
+        cliente.setIdentificacion("ID-" + clienteId);
+        cliente.setEstado(true);
+        return cliente;
+    }
+}
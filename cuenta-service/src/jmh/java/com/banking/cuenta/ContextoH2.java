@@ -0,0 +1,38 @@
+package com.banking.cuenta;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Contexto completo de cuenta-service sobre una base H2 en memoria (modo MySQL), sin servidor web
+// ni carga inicial de clientes, para los benchmarks que incluyen la base de datos. Las propiedades
+// se pasan como argumentos para que prevalezcan sobre application.yml.
+public final class ContextoH2 {
+
+    private ContextoH2() {}
+
+    public static ConfigurableApplicationContext iniciar(String base, String... propiedades) {
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:" + base + ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--banking.clientes-bootstrap.al-iniciar=false",
+                "--banking.saldos-diarios.reconstruir-al-iniciar=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.banking.cuenta=WARN",
+                // Sin RabbitMQ el consumidor de eventos de cliente reintenta la conexión cada 5 s
+                "--logging.level.org.springframework.amqp=OFF"));
+        for (String propiedad : propiedades) {
+            argumentos.add("--" + propiedad);
+        }
+        return new SpringApplicationBuilder(CuentaServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,73 @@
+package com.banking.cuenta.event;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Deserialización de eventos de cliente con Jackson2JsonMessageConverter, por mensaje y por
+// lote como los entrega clienteEventosListenerFactory. Los mensajes llevan el __TypeId__ de
+// cliente-service, que se traduce a la clase local igual que al consumir de la cola.
+//   mvn -Pjmh test-compile exec:exec -Djmh.incluir=cuenta.event.EventoBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventoBenchmark {
+
+    private static final String TIPO_PUBLICADO = "com.banking.cliente.event.ClienteCreatedEvent";
+
+    @Param({"100"})
+    private int lote;
+
+    private Jackson2JsonMessageConverter converter;
+    private List<Message> mensajes;
+
+    @Setup
+    public void setUp() {
+        converter = new Jackson2JsonMessageConverter();
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setIdClassMapping(Map.of(TIPO_PUBLICADO, ClienteCreatedEvent.class));
+        typeMapper.setTrustedPackages("*");
+        converter.setJavaTypeMapper(typeMapper);
+
+        mensajes = new ArrayList<>(lote);
+        for (long i = 1; i <= lote; i++) {
+            String json = "{\"clienteId\":" + i + ",\"nombre\":\"Cliente " + i + "\",\"identificacion\":\"ID-" + i
+                    + "\",\"estado\":true,\"version\":" + (i % 5) + "}";
+            MessageProperties propiedades = new MessageProperties();
+            propiedades.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+            propiedades.setContentEncoding("UTF-8");
+            propiedades.setHeader("__TypeId__", TIPO_PUBLICADO);
+            mensajes.add(new Message(json.getBytes(StandardCharsets.UTF_8), propiedades));
+        }
+    }
+
+    @Benchmark
+    public Object deserializarEvento() {
+        return converter.fromMessage(mensajes.get(0));
+    }
+
+    @Benchmark
+    public List<Object> deserializarLote() {
+        List<Object> eventos = new ArrayList<>(mensajes.size());
+        for (Message mensaje : mensajes) {
+            eventos.add(converter.fromMessage(mensaje));
+        }
+        return eventos;
+    }
+
+    @Benchmark
+    public Message serializarEvento() {
+        return converter.toMessage(new ClienteCreatedEvent(1L, "Cliente 1", "ID-1", true, 3L), new MessageProperties());
+    }
+}
@@ -0,0 +1,127 @@
+package com.banking.cuenta.mapper;
+
+import com.banking.cuenta.config.ModelMapperConfig;
+import com.banking.cuenta.dto.CuentaDTO;
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.entity.Movimiento;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ModelMapper frente a los mapeadores escritos a mano, por elemento y para un listado como el de
+// getAllCuentas o el historial de movimientos. Con -prof gc (activo en el perfil jmh)
+// gc.alloc.rate.norm da los bytes asignados por operación.
+//   mvn -Pjmh test-compile exec:exec
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeoBenchmark {
+
+    @Param({"100"})
+    private int elementos;
+
+    private ModelMapper modelMapper;
+    private CuentaMapper cuentaMapper;
+    private MovimientoMapper movimientoMapper;
+    private List<Cuenta> cuentas;
+    private List<Movimiento> movimientos;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapperConfig().modelMapper();
+        cuentaMapper = new CuentaMapper();
+        movimientoMapper = new MovimientoMapper();
+
+        cuentas = new ArrayList<>(elementos);
+        movimientos = new ArrayList<>(elementos);
+        for (int i = 0; i < elementos; i++) {
+            Cuenta cuenta = new Cuenta();
+            cuenta.setCuentaId((long) i);
+            cuenta.setNumeroCuenta(String.format("%06d", i));
+            cuenta.setTipoCuenta(i % 2 == 0 ? "Ahorro" : "Corriente");
+            cuenta.setSaldoInicial(new BigDecimal("1000.00"));
+            cuenta.setSaldoActual(new BigDecimal(i + ".50"));
+            cuenta.setEstado(true);
+            cuenta.setClienteId((long) i % 10);
+            cuentas.add(cuenta);
+
+            Movimiento movimiento = new Movimiento();
+            movimiento.setMovimientoId((long) i);
+            movimiento.setFecha(new Timestamp(1_700_000_000_000L + i * 1000L));
+            movimiento.setTipoMovimiento(i % 2 == 0 ? "Deposito" : "Retiro");
+            movimiento.setValor(new BigDecimal("25.00"));
+            movimiento.setSaldo(new BigDecimal(i + ".00"));
+            movimiento.setCuenta(cuenta);
+            movimientos.add(movimiento);
+        }
+    }
+
+    @Benchmark
+    public CuentaDTO cuentaModelMapper() {
+        return modelMapper.map(cuentas.get(0), CuentaDTO.class);
+    }
+
+    @Benchmark
+    public CuentaDTO cuentaMapper() {
+        return cuentaMapper.toDTO(cuentas.get(0));
+    }
+
+    @Benchmark
+    public MovimientoDTO movimientoModelMapper() {
+        MovimientoDTO dto = modelMapper.map(movimientos.get(0), MovimientoDTO.class);
+        dto.setNumeroCuenta("000000");
+        return dto;
+    }
+
+    @Benchmark
+    public MovimientoDTO movimientoMapper() {
+        return movimientoMapper.toDTO(movimientos.get(0), "000000");
+    }
+
+    @Benchmark
+    public List<CuentaDTO> listadoCuentasModelMapper() {
+        List<CuentaDTO> dtos = new ArrayList<>(cuentas.size());
+        for (Cuenta cuenta : cuentas) {
+            dtos.add(modelMapper.map(cuenta, CuentaDTO.class));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<CuentaDTO> listadoCuentasMapper() {
+        List<CuentaDTO> dtos = new ArrayList<>(cuentas.size());
+        for (Cuenta cuenta : cuentas) {
+            dtos.add(cuentaMapper.toDTO(cuenta));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<MovimientoDTO> historialModelMapper() {
+        List<MovimientoDTO> dtos = new ArrayList<>(movimientos.size());
+        for (Movimiento movimiento : movimientos) {
+            MovimientoDTO dto = modelMapper.map(movimiento, MovimientoDTO.class);
+            dto.setNumeroCuenta("000000");
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<MovimientoDTO> historialMapper() {
+        List<MovimientoDTO> dtos = new ArrayList<>(movimientos.size());
+        for (Movimiento movimiento : movimientos) {
+            dtos.add(movimientoMapper.toDTO(movimiento, "000000"));
+        }
+        return dtos;
+    }
+}
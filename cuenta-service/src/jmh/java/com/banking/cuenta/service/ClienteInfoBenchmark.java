@@ -0,0 +1,66 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.ContextoH2;
+import com.banking.cuenta.event.ClienteCreatedEvent;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Coste por evento de aplicar eventos de cliente en cliente_info contra H2: un upsert y una
+// transacción por evento frente a un lote de LOTE eventos en un solo upsert multi-fila, como
+// los entrega el listener por lotes.
+//   mvn -Pjmh test-compile exec:exec -Djmh.incluir=ClienteInfoBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClienteInfoBenchmark {
+
+    private static final int LOTE = 100;
+
+    private ConfigurableApplicationContext contexto;
+    private ClienteInfoService clienteInfoService;
+    private long siguienteCliente;
+
+    @Setup
+    public void setUp() {
+        contexto = ContextoH2.iniciar("clienteinfo");
+        clienteInfoService = contexto.getBean(ClienteInfoService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int porEvento() {
+        int aplicados = 0;
+        for (ClienteCreatedEvent evento : eventos()) {
+            aplicados += clienteInfoService.actualizarInfoClientes(List.of(evento));
+        }
+        return aplicados;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOTE)
+    public int porLote() {
+        return clienteInfoService.actualizarInfoClientes(eventos());
+    }
+
+    // Clientes nuevos en cada invocación, como las altas que llegan de cliente-service
+    private List<ClienteCreatedEvent> eventos() {
+        List<ClienteCreatedEvent> eventos = new ArrayList<>(LOTE);
+        for (int i = 0; i < LOTE; i++) {
+            long clienteId = ++siguienteCliente;
+            eventos.add(new ClienteCreatedEvent(clienteId, "Cliente " + clienteId, "ID-" + clienteId, true));
+        }
+        return eventos;
+    }
+}
@@ -0,0 +1,93 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.ContextoH2;
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.repository.CuentaRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Movimientos por segundo de MovimientoPostingEngine.contabilizar contra H2 con muchos
+// llamadores concurrentes: una transacción por movimiento (directo), commit en grupo (pipeline) y
+// bitácora local en disco (bitacora, cuenta lo aceptado; la proyección a H2 sigue en segundo
+// plano). H2 en memoria no hace fsync, así que con MySQL la diferencia debería ser mayor.
+//   mvn -Pjmh test-compile exec:exec -Djmh.incluir=ContabilizacionBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class ContabilizacionBenchmark {
+
+    private static final int CUENTAS = 20;
+
+    @Param({"directo", "pipeline", "bitacora"})
+    private String modo;
+
+    private Path directorio;
+    private ConfigurableApplicationContext contexto;
+    private MovimientoPostingEngine motor;
+    private CrearMovimientoDTO[] movimientos;
+
+    @State(Scope.Thread)
+    public static class Llamador {
+        int siguiente;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        directorio = Files.createTempDirectory("bitacora-benchmark");
+        contexto = ContextoH2.iniciar("contabilizacion", propiedades());
+        motor = contexto.getBean(MovimientoPostingEngine.class);
+
+        List<Cuenta> cuentas = new ArrayList<>(CUENTAS);
+        for (int c = 0; c < CUENTAS; c++) {
+            cuentas.add(new Cuenta(String.format("CB%06d", c), "Ahorro", new BigDecimal("1000.00"), true, 1L));
+        }
+        // Solo depósitos: ningún movimiento se rechaza por saldo durante la medición
+        movimientos = contexto.getBean(CuentaRepository.class).saveAll(cuentas).stream()
+                .map(cuenta -> {
+                    CrearMovimientoDTO dto = new CrearMovimientoDTO();
+                    dto.setNumeroCuenta(cuenta.getNumeroCuenta());
+                    dto.setValor(new BigDecimal("1.00"));
+                    return dto;
+                })
+                .toArray(CrearMovimientoDTO[]::new);
+    }
+
+    private String[] propiedades() {
+        List<String> propiedades = new ArrayList<>(List.of(
+                "spring.datasource.hikari.maximum-pool-size=16",
+                "spring.jpa.properties.hibernate.jdbc.batch_size=50"));
+        if ("pipeline".equals(modo)) {
+            propiedades.add("banking.movimientos.pipeline.habilitado=true");
+        } else if ("bitacora".equals(modo)) {
+            propiedades.add("banking.movimientos.bitacora.habilitado=true");
+            propiedades.add("banking.movimientos.bitacora.directorio=" + directorio);
+        }
+        return propiedades.toArray(String[]::new);
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+        FileSystemUtils.deleteRecursively(directorio.toFile());
+    }
+
+    @Benchmark
+    public MovimientoDTO contabilizar(Llamador llamador) {
+        return motor.contabilizar(movimientos[llamador.siguiente++ % CUENTAS]);
+    }
+}
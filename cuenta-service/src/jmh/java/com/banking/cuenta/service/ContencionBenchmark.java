@@ -0,0 +1,79 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.MovimientoDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Rendimiento de MovimientoPostingEngine según cuántas cuentas se reparten los escritores: con
+// una sola cuenta CuentaLocks serializa todo, con más cuentas los movimientos avanzan en paralelo.
+// El servicio simula 100 us de base de datos entre la lectura y la escritura del saldo.
+//   mvn -Pjmh test-compile exec:exec -Djmh.incluir=ContencionBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class ContencionBenchmark {
+
+    @Param({"1", "16", "256"})
+    private int cuentas;
+
+    private MovimientoPostingEngine motor;
+    private CrearMovimientoDTO[] movimientos;
+
+    @State(Scope.Thread)
+    public static class Escritor {
+        int siguiente;
+    }
+
+    @Setup
+    public void setUp() {
+        motor = new MovimientoPostingEngine();
+        ReflectionTestUtils.setField(motor, "movimientoService", new MovimientoServiceEnMemoria());
+        ReflectionTestUtils.setField(motor, "cuentaLocks", new CuentaLocks(1024));
+        ReflectionTestUtils.setField(motor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(motor, "maxReintentos", 3);
+        ReflectionTestUtils.setField(motor, "maxLote", 50000);
+        ReflectionTestUtils.setField(motor, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        motor.init();
+
+        movimientos = new CrearMovimientoDTO[cuentas];
+        for (int c = 0; c < cuentas; c++) {
+            movimientos[c] = new CrearMovimientoDTO();
+            movimientos[c].setNumeroCuenta("CTA-" + c);
+            movimientos[c].setValor(new BigDecimal("1.00"));
+        }
+    }
+
+    @Benchmark
+    public MovimientoDTO contabilizar(Escritor escritor) {
+        return motor.contabilizar(movimientos[escritor.siguiente++ % cuentas]);
+    }
+
+    private static class MovimientoServiceEnMemoria extends MovimientoService {
+        private final Map<String, BigDecimal> saldos = new ConcurrentHashMap<>();
+
+        @Override
+        public MovimientoDTO crearMovimiento(CrearMovimientoDTO crearMovimientoDTO) {
+            BigDecimal nuevoSaldo = saldos.getOrDefault(crearMovimientoDTO.getNumeroCuenta(), BigDecimal.ZERO)
+                    .add(crearMovimientoDTO.getValor());
+            LockSupport.parkNanos(100_000);
+            saldos.put(crearMovimientoDTO.getNumeroCuenta(), nuevoSaldo);
+
+            MovimientoDTO dto = new MovimientoDTO();
+            dto.setSaldo(nuevoSaldo);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.ContextoH2;
+import com.banking.cuenta.config.CacheConfig;
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.repository.CuentaRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Coste de MovimientoService.crearMovimiento contra H2 con la caché cuentaDescriptor vacía en cada
+// movimiento (fria) y ya poblada (caliente). CuentaDescriptorCacheTest comprueba que la diferencia
+// es exactamente la consulta por numero_cuenta.
+//   mvn -Pjmh test-compile exec:exec -Djmh.incluir=DescriptorBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DescriptorBenchmark {
+
+    private static final int CUENTAS = 100;
+
+    @Param({"fria", "caliente"})
+    private String cache;
+
+    private ConfigurableApplicationContext contexto;
+    private MovimientoService movimientoService;
+    private Cache descriptores;
+    private final List<CrearMovimientoDTO> movimientos = new ArrayList<>();
+    private int siguiente;
+
+    @Setup
+    public void setUp() {
+        contexto = ContextoH2.iniciar("descriptor");
+        movimientoService = contexto.getBean(MovimientoService.class);
+        descriptores = contexto.getBean(CacheManager.class).getCache(CacheConfig.CUENTA_DESCRIPTOR);
+
+        List<Cuenta> cuentas = new ArrayList<>();
+        for (int c = 0; c < CUENTAS; c++) {
+            cuentas.add(new Cuenta(String.format("BM%06d", c), "Ahorro", new BigDecimal("1000.00"), true, 1L));
+        }
+        for (Cuenta cuenta : contexto.getBean(CuentaRepository.class).saveAll(cuentas)) {
+            CrearMovimientoDTO dto = new CrearMovimientoDTO();
+            dto.setNumeroCuenta(cuenta.getNumeroCuenta());
+            dto.setValor(new BigDecimal("1.00"));
+            movimientos.add(dto);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public MovimientoDTO crearMovimiento() {
+        if ("fria".equals(cache)) {
+            descriptores.clear();
+        }
+        return movimientoService.crearMovimiento(movimientos.get(siguiente++ % CUENTAS));
+    }
+}
@@ -0,0 +1,129 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.ApiResponse;
+import com.banking.cuenta.dto.ClienteInfoDTO;
+import com.banking.cuenta.dto.MovimientoReporteFila;
+import com.banking.cuenta.dto.ReporteEstadoCuentaDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Armado de ReporteEstadoCuentaDTO en ReporteService (con repositorios que devuelven filas ya
+// cargadas, sin base de datos) y serialización Jackson de la respuesta ApiResponse del endpoint.
+//   mvn -Pjmh test-compile exec:exec -Djmh.incluir=ReporteBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReporteBenchmark {
+
+    private static final int CUENTAS = 3;
+
+    @Param({"100", "5000"})
+    private int movimientosPorCuenta;
+
+    private ReporteService reporteService;
+    private ObjectMapper objectMapper;
+    private ApiResponse<ReporteEstadoCuentaDTO> respuesta;
+    private Date desde;
+    private Date hasta;
+
+    @Setup
+    public void setUp() {
+        desde = new Date(1_700_000_000_000L);
+        hasta = new Date(desde.getTime() + 30L * 24 * 3600 * 1000);
+
+        List<Cuenta> cuentas = new ArrayList<>();
+        List<MovimientoReporteFila> filas = new ArrayList<>();
+        Map<Long, BigDecimal> aperturas = new HashMap<>();
+        for (long cuentaId = 1; cuentaId <= CUENTAS; cuentaId++) {
+            Cuenta cuenta = new Cuenta();
+            cuenta.setCuentaId(cuentaId);
+            cuenta.setNumeroCuenta(String.format("%06d", cuentaId));
+            cuenta.setTipoCuenta("Ahorro");
+            cuenta.setSaldoInicial(new BigDecimal("1000.00"));
+            cuenta.setSaldoActual(new BigDecimal("1500.00"));
+            cuenta.setClienteId(1L);
+            cuentas.add(cuenta);
+            aperturas.put(cuentaId, new BigDecimal("1000.00"));
+            for (int i = 0; i < movimientosPorCuenta; i++) {
+                filas.add(new MovimientoReporteFila(cuentaId, new Date(desde.getTime() + i * 60_000L),
+                        i % 2 == 0 ? "Deposito" : "Retiro", BigDecimal.valueOf(i % 2 == 0 ? 2500 : -1200, 2),
+                        BigDecimal.valueOf(100_000 + i, 2)));
+            }
+        }
+
+        ClienteInfoDTO cliente = new ClienteInfoDTO();
+        cliente.setClienteId(1L);
+        cliente.setNombre("Jose Lema");
+        cliente.setEstado(true);
+
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        reporteService = new ReporteService();
+        ReflectionTestUtils.setField(reporteService, "cuentaRepository",
+                repositorio(CuentaRepository.class, "findByClienteIdAndEstadoTrue", cuentas));
+        ReflectionTestUtils.setField(reporteService, "movimientoRepository",
+                repositorio(MovimientoRepository.class, "findReporteByClienteIdAndFechaBetween", filas));
+        ReflectionTestUtils.setField(reporteService, "clienteInfoService", new ClienteInfoService() {
+            @Override
+            public ClienteInfoDTO getClienteInfo(Long clienteId) {
+                return cliente;
+            }
+        });
+        ReflectionTestUtils.setField(reporteService, "saldoDiarioService", new SaldoDiarioService() {
+            @Override
+            public Map<Long, BigDecimal> calcularSaldosApertura(List<Cuenta> cuentasCliente, Date fecha) {
+                return aperturas;
+            }
+        });
+        ReflectionTestUtils.setField(reporteService, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(reporteService, "meterRegistry", new SimpleMeterRegistry());
+        reporteService.registrarMetricas();
+
+        respuesta = new ApiResponse<>(true, "Reporte generado exitosamente",
+                reporteService.generarReporteEstadoCuenta(1L, desde, hasta));
+    }
+
+    @Benchmark
+    public ReporteEstadoCuentaDTO armado() {
+        return reporteService.generarReporteEstadoCuenta(1L, desde, hasta);
+    }
+
+    @Benchmark
+    public byte[] serializacion() throws Exception {
+        return objectMapper.writeValueAsBytes(respuesta);
+    }
+
+    @Benchmark
+    public byte[] armadoYSerializacion() throws Exception {
+        return objectMapper.writeValueAsBytes(new ApiResponse<>(true, "Reporte generado exitosamente",
+                reporteService.generarReporteEstadoCuenta(1L, desde, hasta)));
+    }
+
+    // Repositorio que solo responde al método que usa el reporte
+    @SuppressWarnings("unchecked")
+    private static <T> T repositorio(Class<T> tipo, String metodo, Object resultado) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, m, args) -> {
+            if (m.getName().equals(metodo)) {
+                return resultado;
+            }
+            throw new UnsupportedOperationException(m.getName());
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.entity.Movimiento;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reducción del saldo sobre el historial de una cuenta, como hacía calcularSaldoActual antes
+// de materializar saldo_actual y como sigue haciéndose para el saldo de cierre del reporte.
+//   mvn -Pjmh test-compile exec:exec -Djmh.incluir=SaldoBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaldoBenchmark {
+
+    @Param({"1000", "100000"})
+    private int movimientos;
+
+    private BigDecimal saldoInicial;
+    private List<Movimiento> historial;
+
+    @Setup
+    public void setUp() {
+        saldoInicial = new BigDecimal("1000.00");
+        historial = new ArrayList<>(movimientos);
+        for (int i = 0; i < movimientos; i++) {
+            Movimiento movimiento = new Movimiento();
+            // Depósitos y retiros con céntimos, escala 2 como la columna valor
+            movimiento.setValor(BigDecimal.valueOf(i % 2 == 0 ? 2550 + i % 100 : -(1275 + i % 50), 2));
+            historial.add(movimiento);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal reduccionStream() {
+        return historial.stream()
+                .map(Movimiento::getValor)
+                .reduce(saldoInicial, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal bucle() {
+        BigDecimal saldo = saldoInicial;
+        for (Movimiento movimiento : historial) {
+            saldo = saldo.add(movimiento.getValor());
+        }
+        return saldo;
+    }
+}
@@ -0,0 +1,72 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.ContextoH2;
+import com.banking.cuenta.dto.CrearTransferenciaDTO;
+import com.banking.cuenta.dto.TransferenciaDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.repository.CuentaRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Transferencias concurrentes entre pares aleatorios de cuentas contra H2, con los bloqueos de
+// CuentaLocks y de fila reales. Con 2 cuentas todas las transferencias compiten por el mismo par;
+// TransferenciaConcurrenciaTest comprueba que el dinero se conserva.
+//   mvn -Pjmh test-compile exec:exec -Djmh.incluir=TransferenciaBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class TransferenciaBenchmark {
+
+    @Param({"2", "20", "200"})
+    private int cuentas;
+
+    private ConfigurableApplicationContext contexto;
+    private MovimientoPostingEngine motor;
+    private List<String> numeros;
+
+    @State(Scope.Thread)
+    public static class Hilo {
+        final SplittableRandom random = new SplittableRandom();
+    }
+
+    @Setup
+    public void setUp() {
+        contexto = ContextoH2.iniciar("transferencias", "spring.datasource.hikari.maximum-pool-size=16");
+        motor = contexto.getBean(MovimientoPostingEngine.class);
+
+        List<Cuenta> nuevas = new ArrayList<>(cuentas);
+        for (int c = 0; c < cuentas; c++) {
+            // Saldo de sobra para que ninguna transferencia se rechace durante la medición
+            nuevas.add(new Cuenta(String.format("TB%06d", c), "Ahorro", new BigDecimal("100000000.00"), true, 1L));
+        }
+        numeros = contexto.getBean(CuentaRepository.class).saveAll(nuevas).stream()
+                .map(Cuenta::getNumeroCuenta)
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public TransferenciaDTO transferir(Hilo hilo) {
+        int origen = hilo.random.nextInt(cuentas);
+        int destino = (origen + 1 + hilo.random.nextInt(cuentas - 1)) % cuentas;
+        CrearTransferenciaDTO dto = new CrearTransferenciaDTO();
+        dto.setNumeroCuentaOrigen(numeros.get(origen));
+        dto.setNumeroCuentaDestino(numeros.get(destino));
+        dto.setValor(new BigDecimal("1.00"));
+        return motor.transferir(dto);
+    }
+}
@@ -0,0 +1,330 @@
+package com.banking.cuenta.bitacora;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+// Bitácora de solo anexado en segmentos de tamaño fijo proyectados en memoria. Cada asiento es un
+// registro de 48 bytes con CRC32; el segmento se llama bitacora-<primera secuencia>.log. Escribir
+// un asiento es copiar 48 bytes en la página mapeada: sobrevive a la caída del proceso en cuanto
+// se escribe y a la del sistema tras el siguiente forzar(). Al abrir se valida la cola y se
+// recorta el último registro si quedó a medias.
+//
+// Registro: secuencia(8) cuentaId(8) fecha(8) valor sin escala(8) saldo sin escala(8)
+//           escala valor(1) escala saldo(1) relleno(2) crc32 de los 44 bytes anteriores(4)
+public class ArchivoBitacora implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchivoBitacora.class);
+
+    static final int TAMANO_REGISTRO = 48;
+    private static final int BYTES_CON_CRC = 44;
+    private static final String PREFIJO = "bitacora-";
+    private static final String SUFIJO = ".log";
+
+    private final Path directorio;
+    private final int registrosPorSegmento;
+    // Primera secuencia de cada segmento -> archivo
+    private final TreeMap<Long, Path> segmentos = new TreeMap<>();
+    private final ByteBuffer registro = ByteBuffer.allocate(TAMANO_REGISTRO);
+    private final CRC32 crc = new CRC32();
+    // ReentrantLock: con hilos virtuales, esperar un monitor ancla el hilo portador
+    private final ReentrantLock bloqueo = new ReentrantLock();
+
+    private MappedByteBuffer actual;
+    private int posicion;
+    private long ultimaSecuencia;
+    private int recortados;
+
+    public ArchivoBitacora(Path directorio, int tamanoSegmento) throws IOException {
+        this.directorio = directorio;
+        this.registrosPorSegmento = tamanoSegmento / TAMANO_REGISTRO;
+        if (registrosPorSegmento < 1) {
+            throw new IllegalArgumentException("El segmento debe admitir al menos un registro de " + TAMANO_REGISTRO + " bytes");
+        }
+        Files.createDirectories(directorio);
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            archivos.filter(ArchivoBitacora::esSegmento).forEach(p -> segmentos.put(primeraSecuencia(p), p));
+        }
+        recuperar();
+    }
+
+    // Anexa un asiento con la siguiente secuencia. Las escalas deben caber en un byte y los
+    // importes sin escala en un long (DECIMAL(18,2) cabe con holgura).
+    public Asiento agregar(long cuentaId, long fecha, BigDecimal valor, BigDecimal saldo) {
+        bloqueo.lock();
+        try {
+            if (actual == null || posicion == registrosPorSegmento) {
+                abrirSegmento(ultimaSecuencia + 1);
+            }
+            long secuencia = ultimaSecuencia + 1;
+            registro.clear();
+            registro.putLong(secuencia)
+                    .putLong(cuentaId)
+                    .putLong(fecha)
+                    .putLong(valor.unscaledValue().longValueExact())
+                    .putLong(saldo.unscaledValue().longValueExact())
+                    .put(escala(valor))
+                    .put(escala(saldo))
+                    .putShort((short) 0);
+            crc.reset();
+            crc.update(registro.array(), 0, BYTES_CON_CRC);
+            registro.putInt((int) crc.getValue());
+            actual.put(posicion * TAMANO_REGISTRO, registro, 0, TAMANO_REGISTRO);
+            posicion++;
+            ultimaSecuencia = secuencia;
+            return new Asiento(secuencia, cuentaId, fecha, valor, saldo);
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    // Numera los siguientes asientos por encima de la secuencia indicada (la ya proyectada en la
+    // base de datos) aunque la bitácora local sea más corta, p. ej. si se borró el directorio.
+    // Los segmentos existentes quedan todos proyectados y se borran, para no dejar un hueco.
+    public void continuarDesde(long secuencia) throws IOException {
+        bloqueo.lock();
+        try {
+            if (secuencia > ultimaSecuencia) {
+                log.warn("La bitácora termina en {} y la proyección va por {}: se continúa desde {}",
+                        ultimaSecuencia, secuencia, secuencia + 1);
+                cerrarSegmentoActual();
+                for (Path archivo : segmentos.values()) {
+                    Files.deleteIfExists(archivo);
+                }
+                segmentos.clear();
+                ultimaSecuencia = secuencia;
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    // Entrega en orden los asientos posteriores a la secuencia indicada
+    public void recorrerDesde(long secuencia, Consumer<Asiento> consumidor) throws IOException {
+        bloqueo.lock();
+        try {
+            for (Map.Entry<Long, Path> segmento : segmentos.entrySet()) {
+                Long siguiente = segmentos.higherKey(segmento.getKey());
+                if (siguiente != null && siguiente <= secuencia + 1) {
+                    continue;
+                }
+                ByteBuffer buffer = mapear(segmento.getValue(), FileChannel.MapMode.READ_ONLY);
+                for (int i = 0; i < registrosPorSegmento; i++) {
+                    Asiento asiento = leer(buffer, i);
+                    if (asiento == null || asiento.getSecuencia() > ultimaSecuencia) {
+                        break;
+                    }
+                    if (asiento.getSecuencia() > secuencia) {
+                        consumidor.accept(asiento);
+                    }
+                }
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    // Borra los segmentos cuyos asientos ya están todos proyectados, salvo el que se está escribiendo
+    public void descartarHasta(long secuencia) throws IOException {
+        bloqueo.lock();
+        try {
+            while (segmentos.size() > 1) {
+                Map.Entry<Long, Path> primero = segmentos.firstEntry();
+                Long siguiente = segmentos.higherKey(primero.getKey());
+                if (siguiente - 1 > secuencia) {
+                    return;
+                }
+                Files.deleteIfExists(primero.getValue());
+                segmentos.remove(primero.getKey());
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    // Vuelca a disco las páginas modificadas del segmento actual; los anteriores se forzaron al cerrarlos
+    public void forzar() {
+        MappedByteBuffer segmento;
+        bloqueo.lock();
+        try {
+            segmento = actual;
+        } finally {
+            bloqueo.unlock();
+        }
+        if (segmento != null) {
+            segmento.force();
+        }
+    }
+
+    public long ultimaSecuencia() {
+        bloqueo.lock();
+        try {
+            return ultimaSecuencia;
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    // Registros incompletos o corruptos descartados al abrir
+    public int recortados() {
+        return recortados;
+    }
+
+    @Override
+    public void close() {
+        bloqueo.lock();
+        try {
+            cerrarSegmentoActual();
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    private void recuperar() throws IOException {
+        long esperada = segmentos.isEmpty() ? 1 : segmentos.firstKey();
+        List<Long> descartados = new ArrayList<>();
+        for (Map.Entry<Long, Path> segmento : segmentos.entrySet()) {
+            if (segmento.getKey() != esperada || actual != null && posicion < registrosPorSegmento) {
+                // Hueco en la numeración o segmento posterior a uno sin completar
+                descartados.add(segmento.getKey());
+                continue;
+            }
+            actual = mapear(segmento.getValue(), FileChannel.MapMode.READ_WRITE);
+            posicion = 0;
+            while (posicion < registrosPorSegmento) {
+                Asiento asiento = leer(actual, posicion);
+                if (asiento == null) {
+                    break;
+                }
+                if (asiento.getSecuencia() != esperada || !crcValido(actual, posicion)) {
+                    recortarDesde(actual, posicion);
+                    break;
+                }
+                esperada++;
+                posicion++;
+            }
+        }
+        for (Long primera : descartados) {
+            Path archivo = segmentos.remove(primera);
+            Files.move(archivo, archivo.resolveSibling(archivo.getFileName() + ".descartado"));
+            log.error("Segmento de bitácora {} fuera de secuencia, se aparta sin reproducir", archivo);
+        }
+        ultimaSecuencia = esperada - 1;
+        if (recortados > 0) {
+            log.warn("Bitácora recuperada hasta la secuencia {}: {} registro(s) incompleto(s) descartado(s)",
+                    ultimaSecuencia, recortados);
+        }
+    }
+
+    // Pone a cero el registro dañado y los siguientes no vacíos, para que el próximo asiento
+    // se escriba sobre ceros
+    private void recortarDesde(MappedByteBuffer buffer, int indice) {
+        for (int i = indice; i < registrosPorSegmento && !vacio(buffer, i); i++) {
+            buffer.put(i * TAMANO_REGISTRO, new byte[TAMANO_REGISTRO]);
+            recortados++;
+        }
+        buffer.force();
+    }
+
+    private void abrirSegmento(long primeraSecuencia) {
+        cerrarSegmentoActual();
+        Path archivo = directorio.resolve(String.format("%s%020d%s", PREFIJO, primeraSecuencia, SUFIJO));
+        try {
+            actual = mapear(archivo, FileChannel.MapMode.READ_WRITE);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo crear el segmento de bitácora " + archivo, e);
+        }
+        segmentos.put(primeraSecuencia, archivo);
+        posicion = 0;
+    }
+
+    private void cerrarSegmentoActual() {
+        if (actual != null) {
+            actual.force();
+            actual = null;
+        }
+    }
+
+    // El mapeo sigue siendo válido después de cerrar el canal; en modo escritura el archivo
+    // crece hasta el tamaño del segmento, relleno con ceros
+    private MappedByteBuffer mapear(Path archivo, FileChannel.MapMode modo) throws IOException {
+        StandardOpenOption[] opciones = modo == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+        try (FileChannel canal = FileChannel.open(archivo, opciones)) {
+            long tamano = modo == FileChannel.MapMode.READ_ONLY
+                    ? Math.min(canal.size(), (long) registrosPorSegmento * TAMANO_REGISTRO)
+                    : (long) registrosPorSegmento * TAMANO_REGISTRO;
+            return canal.map(modo, 0, tamano);
+        }
+    }
+
+    // null si el registro está vacío (secuencia 0) o fuera del archivo
+    private static Asiento leer(ByteBuffer buffer, int indice) {
+        int inicio = indice * TAMANO_REGISTRO;
+        if (inicio + TAMANO_REGISTRO > buffer.limit()) {
+            return null;
+        }
+        long secuencia = buffer.getLong(inicio);
+        if (secuencia == 0) {
+            return null;
+        }
+        return new Asiento(secuencia,
+                buffer.getLong(inicio + 8),
+                buffer.getLong(inicio + 16),
+                BigDecimal.valueOf(buffer.getLong(inicio + 24), buffer.get(inicio + 40)),
+                BigDecimal.valueOf(buffer.getLong(inicio + 32), buffer.get(inicio + 41)));
+    }
+
+    private boolean crcValido(ByteBuffer buffer, int indice) {
+        byte[] bytes = new byte[BYTES_CON_CRC];
+        buffer.get(indice * TAMANO_REGISTRO, bytes);
+        crc.reset();
+        crc.update(bytes);
+        return (int) crc.getValue() == buffer.getInt(indice * TAMANO_REGISTRO + BYTES_CON_CRC);
+    }
+
+    private static boolean vacio(ByteBuffer buffer, int indice) {
+        for (int i = indice * TAMANO_REGISTRO; i < (indice + 1) * TAMANO_REGISTRO; i += 8) {
+            if (buffer.getLong(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte escala(BigDecimal importe) {
+        if (importe.scale() < Byte.MIN_VALUE || importe.scale() > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Escala no admitida en la bitácora: " + importe.scale());
+        }
+        return (byte) importe.scale();
+    }
+
+    private static boolean esSegmento(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        return nombre.startsWith(PREFIJO) && nombre.endsWith(SUFIJO);
+    }
+
+    private static long primeraSecuencia(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        return new BigInteger(nombre.substring(PREFIJO.length(), nombre.length() - SUFIJO.length())).longValueExact();
+    }
+}
@@ -0,0 +1,32 @@
+package com.banking.cuenta.bitacora;
+
+import java.math.BigDecimal;
+
+// Un movimiento aceptado tal como queda en la bitácora: la secuencia es global y sin huecos,
+// el saldo es el de la cuenta después del movimiento
+public class Asiento {
+    private final long secuencia;
+    private final long cuentaId;
+    private final long fecha;
+    private final BigDecimal valor;
+    private final BigDecimal saldo;
+
+    public Asiento(long secuencia, long cuentaId, long fecha, BigDecimal valor, BigDecimal saldo) {
+        this.secuencia = secuencia;
+        this.cuentaId = cuentaId;
+        this.fecha = fecha;
+        this.valor = valor;
+        this.saldo = saldo;
+    }
+
+    // Getters
+    public long getSecuencia() { return secuencia; }
+
+    public long getCuentaId() { return cuentaId; }
+
+    public long getFecha() { return fecha; }
+
+    public BigDecimal getValor() { return valor; }
+
+    public BigDecimal getSaldo() { return saldo; }
+}
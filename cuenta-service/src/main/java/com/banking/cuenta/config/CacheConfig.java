@@ -0,0 +1,35 @@
+package com.banking.cuenta.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CLIENTE_INFO = "clienteInfo";
+    public static final String CUENTA_DESCRIPTOR = "cuentaDescriptor";
+
+    // Caché local de cliente_info. Cada evento de cliente lo consume una sola instancia (la cola es
+    // compartida) y solo esa invalida su caché: en las demás una entrada vive hasta que expira,
+    // por eso la expiración es corta. Los clientes inexistentes no se cachean.
+    // cuentaDescriptor indexa las cuentas por número para el camino de contabilización y se
+    // invalida desde CuentaService al modificar o desactivar una cuenta.
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${banking.cache.cliente-info:maximumSize=10000,expireAfterWrite=1m}") String especificacion,
+            @Value("${banking.cache.cuenta-descriptor:maximumSize=100000,expireAfterAccess=1h}") String especificacionCuentas) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(CLIENTE_INFO);
+        cacheManager.setCaffeineSpec(CaffeineSpec.parse(especificacion + ",recordStats"));
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(CUENTA_DESCRIPTOR,
+                Caffeine.from(CaffeineSpec.parse(especificacionCuentas + ",recordStats")).build());
+        return cacheManager;
+    }
+}
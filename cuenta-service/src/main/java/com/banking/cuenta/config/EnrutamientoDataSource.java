@@ -0,0 +1,98 @@
+package com.banking.cuenta.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.EnumMap;
+import java.util.Map;
+
+// DataSource de la aplicación con réplica de lectura: las transacciones readOnly = true toman
+// conexión de la réplica y el resto de la primaria. La conexión se pide al ejecutar la primera
+// sentencia (LazyConnectionDataSourceProxy) porque el gestor de transacciones la abre antes de
+// marcar la transacción como de solo lectura. Si la réplica está retrasada o no entrega
+// conexiones, la lectura se resuelve en la primaria.
+public class EnrutamientoDataSource extends LazyConnectionDataSourceProxy {
+
+    enum Destino {
+        ESCRITURA("primaria", "escritura"),
+        LECTURA("replica", "lectura"),
+        LECTURA_EN_PRIMARIA("primaria", "replica-no-disponible");
+
+        private final String pool;
+        private final String motivo;
+
+        Destino(String pool, String motivo) {
+            this.pool = pool;
+            this.motivo = motivo;
+        }
+    }
+
+    public EnrutamientoDataSource(DataSource primaria, DataSource replica, MonitorReplica monitor,
+                                  MeterRegistry meterRegistry) {
+        Enrutador enrutador = new Enrutador(primaria, replica, monitor, meterRegistry);
+        enrutador.afterPropertiesSet();
+        setTargetDataSource(enrutador);
+        afterPropertiesSet();
+    }
+
+    private static final class Enrutador extends AbstractRoutingDataSource {
+
+        private final DataSource primaria;
+        private final DataSource replica;
+        private final MonitorReplica monitor;
+        private final Map<Destino, Counter> conexiones = new EnumMap<>(Destino.class);
+
+        Enrutador(DataSource primaria, DataSource replica, MonitorReplica monitor, MeterRegistry meterRegistry) {
+            this.primaria = primaria;
+            this.replica = replica;
+            this.monitor = monitor;
+            for (Destino destino : Destino.values()) {
+                conexiones.put(destino, Counter.builder("datasource.enrutamiento")
+                        .description("Conexiones entregadas por pool y motivo del enrutamiento")
+                        .tag("pool", destino.pool)
+                        .tag("motivo", destino.motivo)
+                        .register(meterRegistry));
+            }
+            setTargetDataSources(Map.of(Destino.ESCRITURA, primaria, Destino.LECTURA, replica,
+                    Destino.LECTURA_EN_PRIMARIA, primaria));
+            setDefaultTargetDataSource(primaria);
+        }
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                return Destino.ESCRITURA;
+            }
+            return monitor.isDisponible() ? Destino.LECTURA : Destino.LECTURA_EN_PRIMARIA;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Destino destino = (Destino) determineCurrentLookupKey();
+            if (destino == Destino.LECTURA) {
+                try {
+                    Connection conexion = replica.getConnection();
+                    conexiones.get(destino).increment();
+                    return conexion;
+                } catch (SQLException e) {
+                    monitor.descartar(e);
+                    destino = Destino.LECTURA_EN_PRIMARIA;
+                }
+            }
+            conexiones.get(destino).increment();
+            return primaria.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("El enrutamiento a la réplica usa las credenciales de cada pool");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.banking.cuenta.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// Ejecutores de hilos virtuales (Java 21) para un servicio compilado para Java 17: la API se
+// invoca por reflexión, así el mismo artefacto arranca en Java 17 con hilos de plataforma y en
+// Java 21 puede activar spring.threads.virtual.enabled
+public final class HilosVirtuales {
+
+    private HilosVirtuales() {}
+
+    public static boolean disponibles() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    // Un hilo virtual nuevo por tarea, con nombres prefijo0, prefijo1, ...
+    public static ExecutorService ejecutor(String prefijo) {
+        if (!disponibles()) {
+            throw new IllegalStateException("Los hilos virtuales requieren Java 21 o superior (versión actual: "
+                    + Runtime.version() + ")");
+        }
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Object ofVirtual = Thread.class.getMethod("ofVirtual").invoke(null);
+            Object nombrado = builder.getMethod("name", String.class, long.class).invoke(ofVirtual, prefijo, 0L);
+            ThreadFactory factory = (ThreadFactory) builder.getMethod("factory").invoke(nombrado);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear el ejecutor de hilos virtuales " + prefijo, e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.banking.cuenta.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+// Modo de hilos virtuales (perfil virtual). Usa la misma propiedad que Spring Boot 3.2+, que esta
+// versión de Boot todavía no interpreta: cada petición de Tomcat y cada tarea asíncrona (reportes
+// en streaming) corre en su propio hilo virtual, que libera el hilo portador mientras espera a
+// MySQL. El contenedor de eventos de cliente se configura en RabbitMQConfig.
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class HilosVirtualesConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(HilosVirtualesConfig.class);
+
+    public HilosVirtualesConfig() {
+        if (!HilosVirtuales.disponibles()) {
+            throw new IllegalStateException("spring.threads.virtual.enabled requiere Java 21 o superior (versión actual: "
+                    + Runtime.version() + ")");
+        }
+        log.info("Hilos virtuales activos para peticiones HTTP, tareas asíncronas y eventos de cliente");
+    }
+
+    // Sustituye al pool de server.tomcat.threads.max: la concurrencia la acota ahora el pool de conexiones
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> hilosVirtualesTomcat() {
+        return protocolHandler -> protocolHandler.setExecutor(HilosVirtuales.ejecutor("tomcat-handler-"));
+    }
+
+    // Sustituye al ThreadPoolTaskExecutor de Boot, que usa MVC para las peticiones asíncronas
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(HilosVirtuales.ejecutor("task-"));
+    }
+}
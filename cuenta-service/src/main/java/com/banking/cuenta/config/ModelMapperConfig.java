@@ -1,5 +1,7 @@
 package com.banking.cuenta.config;
 
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.entity.Movimiento;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,6 +15,9 @@ public class ModelMapperConfig {
         mapper.getConfiguration()
                 .setFieldMatchingEnabled(true)
                 .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
+        // El número de cuenta lo asigna el servicio; así el mapeo no inicializa el proxy de la cuenta
+        mapper.typeMap(Movimiento.class, MovimientoDTO.class)
+                .addMappings(m -> m.skip(MovimientoDTO::setNumeroCuenta));
         return mapper;
     }
 }
\ No newline at end of file
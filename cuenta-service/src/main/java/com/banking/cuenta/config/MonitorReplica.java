@@ -0,0 +1,155 @@
+package com.banking.cuenta.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Mide el retraso de la réplica con un latido: cada latido-ms escribe la hora actual en
+// replica_latido de la primaria y lee la fila de este nodo en la réplica. La diferencia incluye
+// hasta un intervalo de latido, por eso retraso-maximo-ms debe ser mayor que latido-ms. Mientras
+// la réplica no se ha medido, supera el retraso máximo o no responde, las lecturas van a la primaria.
+@Component
+@ConditionalOnProperty(name = "banking.datasource.replica.habilitado", havingValue = "true")
+public class MonitorReplica {
+
+    private static final Logger log = LoggerFactory.getLogger(MonitorReplica.class);
+
+    private static final String REGISTRAR_LATIDO =
+            "INSERT INTO replica_latido (nodo, instante) VALUES (?, ?) ON DUPLICATE KEY UPDATE instante = VALUES(instante)";
+    private static final String LEER_LATIDO = "SELECT instante FROM replica_latido WHERE nodo = ?";
+
+    @Autowired
+    @Qualifier(ReplicaDataSourceConfig.PRIMARIA)
+    private DataSource primariaDataSource;
+
+    @Autowired
+    @Qualifier(ReplicaDataSourceConfig.REPLICA)
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banking.datasource.replica.latido-ms:1000}")
+    private long latidoMs;
+
+    @Value("${banking.datasource.replica.retraso-maximo-ms:5000}")
+    private long retrasoMaximoMs;
+
+    @Value("${banking.datasource.replica.nodo:${spring.application.name:cuenta-service}}")
+    private String nodo;
+
+    private JdbcTemplate primaria;
+    private JdbcTemplate replica;
+    private ScheduledExecutorService verificador;
+    private final ReentrantLock verificacion = new ReentrantLock();
+
+    private volatile boolean disponible;
+    // Último retraso medido en milisegundos; -1 si no se pudo medir
+    private volatile long retrasoMs = -1;
+
+    @PostConstruct
+    void iniciar() {
+        if (retrasoMaximoMs <= latidoMs) {
+            throw new IllegalStateException("banking.datasource.replica.retraso-maximo-ms (" + retrasoMaximoMs
+                    + ") debe ser mayor que banking.datasource.replica.latido-ms (" + latidoMs + ")");
+        }
+        primaria = new JdbcTemplate(primariaDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+
+        Gauge.builder("datasource.replica.retraso", this, MonitorReplica::getRetrasoMs)
+                .description("Retraso medido de la réplica de lectura (-1 si no se pudo medir)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.disponible", this, monitor -> monitor.isDisponible() ? 1 : 0)
+                .description("1 si las lecturas se envían a la réplica, 0 si vuelven a la primaria")
+                .register(meterRegistry);
+
+        verificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "replica-latido");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        verificador.scheduleWithFixedDelay(this::verificar, 0, latidoMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        verificador.shutdownNow();
+    }
+
+    public boolean isDisponible() {
+        return disponible;
+    }
+
+    public long getRetrasoMs() {
+        return retrasoMs;
+    }
+
+    // La réplica rechazó una conexión: las lecturas vuelven a la primaria hasta el próximo latido
+    void descartar(Exception causa) {
+        retrasoMs = -1;
+        cambiarDisponible(false, "la réplica no entrega conexiones: " + causa.getMessage());
+    }
+
+    void verificar() {
+        verificacion.lock();
+        try {
+            try {
+                primaria.update(REGISTRAR_LATIDO, nodo, System.currentTimeMillis());
+            } catch (DataAccessException e) {
+                // Sin latido nuevo el retraso crecería sin que la réplica se haya retrasado
+                log.warn("No se pudo registrar el latido de réplica en la primaria: {}", e.getMessage());
+                return;
+            }
+            List<Long> instantes;
+            try {
+                instantes = replica.queryForList(LEER_LATIDO, Long.class, nodo);
+            } catch (DataAccessException e) {
+                descartar(e);
+                return;
+            }
+            if (instantes.isEmpty()) {
+                retrasoMs = -1;
+                cambiarDisponible(false, "la réplica aún no tiene el latido del nodo " + nodo);
+                return;
+            }
+            long retraso = Math.max(0, System.currentTimeMillis() - instantes.get(0));
+            retrasoMs = retraso;
+            cambiarDisponible(retraso <= retrasoMaximoMs, "retraso de " + retraso + " ms (máximo "
+                    + retrasoMaximoMs + " ms)");
+        } catch (RuntimeException e) {
+            log.error("Error al verificar la réplica de lectura", e);
+        } finally {
+            verificacion.unlock();
+        }
+    }
+
+    // Solo se registran los cambios de estado para no llenar el log con un latido por segundo
+    private void cambiarDisponible(boolean nuevo, String motivo) {
+        if (disponible != nuevo) {
+            disponible = nuevo;
+            if (nuevo) {
+                log.info("Réplica de lectura disponible: {}", motivo);
+            } else {
+                log.warn("Transacciones de solo lectura redirigidas a la primaria: {}", motivo);
+            }
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.banking.cuenta.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -12,16 +14,31 @@ public class RabbitMQConfig {
 
     public static final String CLIENTE_EXCHANGE = "cliente.exchange";
     public static final String CLIENTE_CREATED_QUEUE = "cliente.created.queue";
+    public static final String CLIENTE_CREATED_DLQ = "cliente.created.dlq";
     public static final String CLIENTE_CREATED_ROUTING_KEY = "cliente.created";
+    public static final String CLIENTE_UPDATED_ROUTING_KEY = "cliente.updated";
+    public static final String CLIENTE_DEACTIVATED_ROUTING_KEY = "cliente.deactivated";
+    public static final String CLIENTE_EVENTOS_LISTENER_ID = "clienteEventos";
+    public static final String CLIENTE_EVENTOS_LISTENER_FACTORY = "clienteEventosListenerFactory";
 
     @Bean
     public TopicExchange clienteExchange() {
         return new TopicExchange(CLIENTE_EXCHANGE);
     }
 
+    // Los lotes que ClienteEventListener rechaza sin reencolar pasan a cliente.created.dlq por el
+    // exchange por defecto; cliente-service declara la cola con los mismos argumentos
     @Bean
     public Queue clienteCreatedQueue() {
-        return QueueBuilder.durable(CLIENTE_CREATED_QUEUE).build();
+        return QueueBuilder.durable(CLIENTE_CREATED_QUEUE)
+                .deadLetterExchange("")
+                .deadLetterRoutingKey(CLIENTE_CREATED_DLQ)
+                .build();
+    }
+
+    @Bean
+    public Queue clienteCreatedDlq() {
+        return QueueBuilder.durable(CLIENTE_CREATED_DLQ).build();
     }
 
     @Bean
@@ -32,6 +49,24 @@ public class RabbitMQConfig {
                 .with(CLIENTE_CREATED_ROUTING_KEY);
     }
 
+    // La cola de altas recibe también actualizaciones y desactivaciones: un único flujo de
+    // cambios de cliente que ClienteEventListener aplica por versión
+    @Bean
+    public Binding clienteUpdatedBinding() {
+        return BindingBuilder
+                .bind(clienteCreatedQueue())
+                .to(clienteExchange())
+                .with(CLIENTE_UPDATED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding clienteDeactivatedBinding() {
+        return BindingBuilder
+                .bind(clienteCreatedQueue())
+                .to(clienteExchange())
+                .with(CLIENTE_DEACTIVATED_ROUTING_KEY);
+    }
+
     @Bean
     public Jackson2JsonMessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -43,4 +78,32 @@ public class RabbitMQConfig {
         template.setMessageConverter(messageConverter());
         return template;
     }
-}
\ No newline at end of file
+
+    // Consumo por lotes de eventos de cliente: el listener recibe hasta tamano-lote mensajes, o los
+    // que hayan llegado cuando pasan espera-lote-ms sin mensajes nuevos
+    @Bean(CLIENTE_EVENTOS_LISTENER_FACTORY)
+    public SimpleRabbitListenerContainerFactory clienteEventosListenerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${banking.clientes-eventos.tamano-lote:100}") int tamanoLote,
+            @Value("${banking.clientes-eventos.espera-lote-ms:200}") long esperaLoteMs,
+            @Value("${banking.clientes-eventos.consumidores:1}") int consumidores,
+            @Value("${banking.clientes-eventos.consumidores-max:4}") int consumidoresMax,
+            @Value("${banking.clientes-eventos.prefetch:250}") int prefetch,
+            @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(tamanoLote);
+        factory.setReceiveTimeout(esperaLoteMs);
+        factory.setConcurrentConsumers(consumidores);
+        factory.setMaxConcurrentConsumers(Math.max(consumidores, consumidoresMax));
+        // El prefetch debe cubrir al menos un lote completo o el consumidor nunca lo llenaría
+        factory.setPrefetchCount(Math.max(prefetch, tamanoLote));
+        if (hilosVirtuales) {
+            factory.setTaskExecutor(HilosVirtuales.ejecutor("rabbit-clientes-"));
+        }
+        return factory;
+    }
+}
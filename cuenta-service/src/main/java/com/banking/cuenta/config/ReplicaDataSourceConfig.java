@@ -0,0 +1,62 @@
+package com.banking.cuenta.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+
+// Réplica de lectura (banking.datasource.replica.habilitado). Sustituye al DataSource de Spring
+// Boot por dos pools de Hikari, primaria (spring.datasource.*) y réplica
+// (banking.datasource.replica.*), y expone como DataSource principal el enrutamiento entre ambos.
+// Cada pool publica sus métricas hikaricp.* con la etiqueta pool=primaria o pool=replica.
+@Configuration
+@ConditionalOnProperty(name = "banking.datasource.replica.habilitado", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    public static final String PRIMARIA = "primariaDataSource";
+    public static final String REPLICA = "replicaDataSource";
+
+    @Bean(PRIMARIA)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primariaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primaria");
+        return dataSource;
+    }
+
+    @Bean(REPLICA)
+    @ConfigurationProperties("banking.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${banking.datasource.replica.url}") String url,
+            @Value("${banking.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${banking.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        // La réplica solo atiende transacciones de solo lectura
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier(PRIMARIA) DataSource primaria, @Qualifier(REPLICA) DataSource replica,
+                                 MonitorReplica monitorReplica, MeterRegistry meterRegistry) {
+        return new EnrutamientoDataSource(primaria, replica, monitorReplica, meterRegistry);
+    }
+}
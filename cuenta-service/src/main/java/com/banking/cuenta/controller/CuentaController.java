@@ -1,16 +1,24 @@
 package com.banking.cuenta.controller;
 
 import com.banking.cuenta.dto.ApiResponse;
+import com.banking.cuenta.dto.BootstrapClientesDTO;
+import com.banking.cuenta.dto.ConciliacionSaldoDTO;
 import com.banking.cuenta.dto.CrearCuentaDTO;
 import com.banking.cuenta.dto.CuentaDTO;
+import com.banking.cuenta.dto.SaldoFechaDTO;
+import com.banking.cuenta.service.ClienteInfoBootstrapService;
+import com.banking.cuenta.service.ConciliacionSaldoService;
 import com.banking.cuenta.service.CuentaService;
+import com.banking.cuenta.service.SaldoDiarioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
+import java.util.Date;
 import java.util.List;
 
 @RestController
@@ -22,6 +30,15 @@ public class CuentaController {
     @Autowired
     private CuentaService cuentaService;
 
+    @Autowired
+    private ConciliacionSaldoService conciliacionSaldoService;
+
+    @Autowired
+    private SaldoDiarioService saldoDiarioService;
+
+    @Autowired
+    private ClienteInfoBootstrapService clienteInfoBootstrapService;
+
     @GetMapping
     public ResponseEntity<ApiResponse<List<CuentaDTO>>> getAllCuentas() {
         try {
@@ -65,6 +82,24 @@ public class CuentaController {
         }
     }
 
+    @GetMapping("/numero/{numeroCuenta}/saldo")
+    public ResponseEntity<ApiResponse<SaldoFechaDTO>> getSaldoAFecha(
+            @PathVariable String numeroCuenta,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") Date fecha) {
+        try {
+            SaldoFechaDTO saldo = saldoDiarioService.getSaldoAFecha(numeroCuenta, fecha);
+            if (saldo != null) {
+                return ResponseEntity.ok(new ApiResponse<>(true, "Saldo obtenido exitosamente", saldo));
+            } else {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new ApiResponse<>(false, "Cuenta no encontrada", null));
+            }
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Error al obtener saldo: " + e.getMessage(), null));
+        }
+    }
+
     @GetMapping("/cliente/{clienteId}")
     public ResponseEntity<ApiResponse<List<CuentaDTO>>> getCuentasByClienteId(@PathVariable Long clienteId) {
         try {
@@ -76,6 +111,41 @@ public class CuentaController {
         }
     }
 
+    @GetMapping("/conciliacion")
+    public ResponseEntity<ApiResponse<List<ConciliacionSaldoDTO>>> conciliarSaldos() {
+        try {
+            List<ConciliacionSaldoDTO> descuadres = conciliacionSaldoService.conciliarSaldos();
+            String mensaje = descuadres.isEmpty() ? "Saldos conciliados" : "Se encontraron cuentas descuadradas";
+            return ResponseEntity.ok(new ApiResponse<>(true, mensaje, descuadres));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Error al conciliar saldos: " + e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/saldos-diarios/reconstruir")
+    public ResponseEntity<ApiResponse<Integer>> reconstruirSaldosDiarios() {
+        try {
+            int cuentas = saldoDiarioService.reconstruirSaldosDiarios();
+            return ResponseEntity.ok(new ApiResponse<>(true, "Saldos diarios reconstruidos", cuentas));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Error al reconstruir saldos diarios: " + e.getMessage(), null));
+        }
+    }
+
+    // Recarga cliente_info completa desde el snapshot de cliente-service
+    @PostMapping("/clientes/sincronizar")
+    public ResponseEntity<ApiResponse<BootstrapClientesDTO>> sincronizarClientes() {
+        try {
+            BootstrapClientesDTO resultado = clienteInfoBootstrapService.cargarSnapshot();
+            return ResponseEntity.ok(new ApiResponse<>(true, "Clientes sincronizados", resultado));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Error al sincronizar clientes: " + e.getMessage(), null));
+        }
+    }
+
     @PostMapping
     public ResponseEntity<ApiResponse<CuentaDTO>> crearCuenta(@Valid @RequestBody CrearCuentaDTO crearCuentaDTO) {
         try {
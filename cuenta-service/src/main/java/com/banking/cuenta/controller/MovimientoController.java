@@ -3,14 +3,32 @@ package com.banking.cuenta.controller;
 import com.banking.cuenta.dto.ApiResponse;
 import com.banking.cuenta.dto.CrearMovimientoDTO;
 import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.dto.PaginaMovimientosDTO;
+import com.banking.cuenta.dto.ResultadoMovimientoDTO;
+import com.banking.cuenta.exception.ConflictoConcurrenciaException;
+import com.banking.cuenta.service.IdempotenciaMovimientos;
+import com.banking.cuenta.service.MovimientoPostingEngine;
 import com.banking.cuenta.service.MovimientoService;
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -22,21 +40,128 @@ public class MovimientoController {
     @Autowired
     private MovimientoService movimientoService;
 
+    @Autowired
+    private MovimientoPostingEngine movimientoPostingEngine;
+
+    @Autowired
+    private IdempotenciaMovimientos idempotenciaMovimientos;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${banking.movimientos.lote-maximo:50000}")
+    private int maxLote;
+
+    @Value("${banking.movimientos.lote-maximo-mb:8}")
+    private long maxLoteMb;
+
     @PostMapping
-    public ResponseEntity<ApiResponse<MovimientoDTO>> crearMovimiento(@Valid @RequestBody CrearMovimientoDTO crearMovimientoDTO) {
+    public ResponseEntity<ApiResponse<MovimientoDTO>> crearMovimiento(
+            @Valid @RequestBody CrearMovimientoDTO crearMovimientoDTO,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
-            MovimientoDTO movimiento = movimientoService.crearMovimiento(crearMovimientoDTO);
+            // Con Idempotency-Key, un reintento del cliente recibe la respuesta original
+            MovimientoDTO movimiento = idempotencyKey == null
+                    ? movimientoPostingEngine.contabilizar(crearMovimientoDTO)
+                    : idempotenciaMovimientos.contabilizar(idempotencyKey, crearMovimientoDTO,
+                            movimientoPostingEngine::contabilizar);
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(new ApiResponse<>(true, "Movimiento creado exitosamente", movimiento));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (ConflictoConcurrenciaException e) {
+            // Se responde con 409 desde GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new ApiResponse<>(false, "Error al crear movimiento: " + e.getMessage(), null));
         }
     }
 
+    // Arreglo JSON de CrearMovimientoDTO
+    @PostMapping(value = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ApiResponse<List<ResultadoMovimientoDTO>>> crearMovimientosLote(HttpServletRequest request) {
+        return leerYProcesarLote(request, false);
+    }
+
+    // Un CrearMovimientoDTO por línea (application/x-ndjson)
+    @PostMapping(value = "/lote", consumes = "application/x-ndjson")
+    public ResponseEntity<ApiResponse<List<ResultadoMovimientoDTO>>> crearMovimientosLoteNdjson(HttpServletRequest request) {
+        return leerYProcesarLote(request, true);
+    }
+
+    private ResponseEntity<ApiResponse<List<ResultadoMovimientoDTO>>> leerYProcesarLote(HttpServletRequest request,
+                                                                                       boolean ndjson) {
+        List<CrearMovimientoDTO> movimientos;
+        try {
+            movimientos = leerLote(request, ndjson);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (LoteDemasiadoGrandeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (JacksonException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, "Contenido " + (ndjson ? "NDJSON" : "JSON") + " inválido: "
+                            + e.getOriginalMessage(), null));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Error al leer el lote: " + e.getMessage(), null));
+        }
+        return procesarLote(movimientos);
+    }
+
+    // Lee el cuerpo elemento a elemento y corta en cuanto pasa de lote-maximo movimientos, sin
+    // cargar el resto. El cuerpo tampoco puede pasar de lote-maximo-mb, así que ni un cuerpo
+    // sin Content-Length ni un elemento enorme se acumulan enteros en memoria.
+    private List<CrearMovimientoDTO> leerLote(HttpServletRequest request, boolean ndjson) throws IOException {
+        long maxBytes = maxLoteMb * 1024 * 1024;
+        if (request.getContentLengthLong() > maxBytes) {
+            throw new LoteDemasiadoGrandeException(maxLoteMb);
+        }
+        ObjectReader lector = objectMapper.readerFor(CrearMovimientoDTO.class);
+        List<CrearMovimientoDTO> movimientos = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(
+                new EntradaLimitada(request.getInputStream(), maxBytes, maxLoteMb))) {
+            // NDJSON: valores raíz seguidos hasta el final del cuerpo. JSON: elementos del arreglo
+            JsonToken fin = null;
+            if (!ndjson) {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new JsonParseException(parser, "se esperaba un arreglo de movimientos");
+                }
+                fin = JsonToken.END_ARRAY;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != fin) {
+                if (token == null) {
+                    throw new JsonParseException(parser, "el arreglo de movimientos no está cerrado");
+                }
+                if (movimientos.size() == maxLote) {
+                    throw new IllegalArgumentException("El lote no puede exceder " + maxLote + " movimientos");
+                }
+                movimientos.add(lector.readValue(parser));
+            }
+        }
+        return movimientos;
+    }
+
+    private ResponseEntity<ApiResponse<List<ResultadoMovimientoDTO>>> procesarLote(List<CrearMovimientoDTO> movimientos) {
+        try {
+            List<ResultadoMovimientoDTO> resultados = movimientoPostingEngine.contabilizarLote(movimientos);
+            long aceptados = resultados.stream().filter(ResultadoMovimientoDTO::isExitoso).count();
+            String mensaje = "Lote procesado: " + aceptados + " aceptados, " + (resultados.size() - aceptados) + " rechazados";
+            return ResponseEntity.ok(new ApiResponse<>(true, mensaje, resultados));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Error al procesar lote: " + e.getMessage(), null));
+        }
+    }
+
     @GetMapping("/cuenta/{numeroCuenta}")
     public ResponseEntity<ApiResponse<List<MovimientoDTO>>> getMovimientosPorCuenta(@PathVariable String numeroCuenta) {
         try {
@@ -50,4 +175,66 @@ public class MovimientoController {
                     .body(new ApiResponse<>(false, "Error al obtener movimientos: " + e.getMessage(), null));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/cuenta/{numeroCuenta}/pagina")
+    public ResponseEntity<ApiResponse<PaginaMovimientosDTO>> getMovimientosPaginados(
+            @PathVariable String numeroCuenta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limite) {
+        try {
+            PaginaMovimientosDTO pagina = movimientoService.getMovimientosPaginados(numeroCuenta, cursor, limite);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Movimientos obtenidos exitosamente", pagina));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Error al obtener movimientos: " + e.getMessage(), null));
+        }
+    }
+
+    private static final class LoteDemasiadoGrandeException extends IOException {
+        LoteDemasiadoGrandeException(long maxMb) {
+            super("El lote no puede exceder " + maxMb + " MB");
+        }
+    }
+
+    // Corta la lectura al pasar del límite de bytes
+    private static final class EntradaLimitada extends FilterInputStream {
+
+        private final long maxBytes;
+        private final long maxMb;
+        private long leidos;
+
+        EntradaLimitada(InputStream entrada, long maxBytes, long maxMb) {
+            super(entrada);
+            this.maxBytes = maxBytes;
+            this.maxMb = maxMb;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                contar(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                contar(n);
+            }
+            return n;
+        }
+
+        private void contar(int n) throws IOException {
+            leidos += n;
+            if (leidos > maxBytes) {
+                throw new LoteDemasiadoGrandeException(maxMb);
+            }
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.banking.cuenta.controller;
 
 import com.banking.cuenta.dto.ApiResponse;
+import com.banking.cuenta.dto.ClienteInfoDTO;
 import com.banking.cuenta.dto.ReporteEstadoCuentaDTO;
 import com.banking.cuenta.service.ReporteService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 
 @RestController
@@ -35,4 +40,43 @@ public class ReporteController {
                     .body(new ApiResponse<>(false, "Error al generar reporte: " + e.getMessage(), null));
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/stream")
+    public ResponseEntity<?> getReporteEstadoCuentaStream(
+            @RequestParam Long clienteId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") Date fechaInicio,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") Date fechaFin,
+            @RequestParam(defaultValue = "json") String formato) {
+        try {
+            ReporteService.FormatoReporte formatoReporte = formatoReporte(formato);
+            // El cliente se valida antes de empezar a escribir para poder responder con 400
+            ClienteInfoDTO clienteInfo = reporteService.validarCliente(clienteId);
+
+            StreamingResponseBody cuerpo = salida -> reporteService.escribirReporteEstadoCuenta(
+                    clienteInfo, fechaInicio, fechaFin, formatoReporte, salida);
+
+            if (formatoReporte == ReporteService.FormatoReporte.CSV) {
+                return ResponseEntity.ok()
+                        .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                "attachment; filename=\"estado-cuenta-" + clienteId + ".csv\"")
+                        .body(cuerpo);
+            }
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(cuerpo);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Error al generar reporte: " + e.getMessage(), null));
+        }
+    }
+
+    private ReporteService.FormatoReporte formatoReporte(String formato) {
+        try {
+            return ReporteService.FormatoReporte.valueOf(formato.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de reporte no soportado: " + formato);
+        }
+    }
+}
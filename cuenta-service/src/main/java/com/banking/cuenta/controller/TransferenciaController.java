@@ -0,0 +1,40 @@
+package com.banking.cuenta.controller;
+
+import com.banking.cuenta.dto.ApiResponse;
+import com.banking.cuenta.dto.CrearTransferenciaDTO;
+import com.banking.cuenta.dto.TransferenciaDTO;
+import com.banking.cuenta.service.MovimientoPostingEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/transferencias")
+@Validated
+@CrossOrigin(origins = "*")
+public class TransferenciaController {
+
+    @Autowired
+    private MovimientoPostingEngine movimientoPostingEngine;
+
+    // Débito en la cuenta de origen y crédito en la de destino, confirmados en una sola transacción
+    @PostMapping
+    public ResponseEntity<ApiResponse<TransferenciaDTO>> crearTransferencia(
+            @Valid @RequestBody CrearTransferenciaDTO crearTransferenciaDTO) {
+        try {
+            TransferenciaDTO transferencia = movimientoPostingEngine.transferir(crearTransferenciaDTO);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(new ApiResponse<>(true, "Transferencia realizada exitosamente", transferencia));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Error al realizar la transferencia: " + e.getMessage(), null));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.banking.cuenta.dto;
+
+import java.util.Date;
+
+public class BootstrapClientesDTO {
+    private long clientes;
+    private int tramos;
+    private long milisegundos;
+    // Momento del snapshot: los eventos posteriores llegan por la cola de cambios de cliente
+    private Date snapshotGeneradoEn;
+
+    public BootstrapClientesDTO() {}
+
+    public BootstrapClientesDTO(long clientes, int tramos, long milisegundos, Date snapshotGeneradoEn) {
+        this.clientes = clientes;
+        this.tramos = tramos;
+        this.milisegundos = milisegundos;
+        this.snapshotGeneradoEn = snapshotGeneradoEn;
+    }
+
+    // Getters y Setters
+    public long getClientes() { return clientes; }
+    public void setClientes(long clientes) { this.clientes = clientes; }
+
+    public int getTramos() { return tramos; }
+    public void setTramos(int tramos) { this.tramos = tramos; }
+
+    public long getMilisegundos() { return milisegundos; }
+    public void setMilisegundos(long milisegundos) { this.milisegundos = milisegundos; }
+
+    public Date getSnapshotGeneradoEn() { return snapshotGeneradoEn; }
+    public void setSnapshotGeneradoEn(Date snapshotGeneradoEn) { this.snapshotGeneradoEn = snapshotGeneradoEn; }
+}
@@ -0,0 +1,32 @@
+package com.banking.cuenta.dto;
+
+import java.math.BigDecimal;
+
+public class ConciliacionSaldoDTO {
+    private Long cuentaId;
+    private String numeroCuenta;
+    private BigDecimal saldoActual;
+    private BigDecimal saldoCalculado;
+
+    public ConciliacionSaldoDTO() {}
+
+    public ConciliacionSaldoDTO(Long cuentaId, String numeroCuenta, BigDecimal saldoActual, BigDecimal saldoCalculado) {
+        this.cuentaId = cuentaId;
+        this.numeroCuenta = numeroCuenta;
+        this.saldoActual = saldoActual;
+        this.saldoCalculado = saldoCalculado;
+    }
+
+    // Getters y Setters
+    public Long getCuentaId() { return cuentaId; }
+    public void setCuentaId(Long cuentaId) { this.cuentaId = cuentaId; }
+    
+    public String getNumeroCuenta() { return numeroCuenta; }
+    public void setNumeroCuenta(String numeroCuenta) { this.numeroCuenta = numeroCuenta; }
+    
+    public BigDecimal getSaldoActual() { return saldoActual; }
+    public void setSaldoActual(BigDecimal saldoActual) { this.saldoActual = saldoActual; }
+    
+    public BigDecimal getSaldoCalculado() { return saldoCalculado; }
+    public void setSaldoCalculado(BigDecimal saldoCalculado) { this.saldoCalculado = saldoCalculado; }
+}
@@ -0,0 +1,26 @@
+package com.banking.cuenta.dto;
+
+import jakarta.validation.constraints.*;
+import java.math.BigDecimal;
+
+public class CrearTransferenciaDTO {
+    @NotBlank(message = "El número de cuenta de origen es obligatorio")
+    private String numeroCuentaOrigen;
+
+    @NotBlank(message = "El número de cuenta de destino es obligatorio")
+    private String numeroCuentaDestino;
+
+    @NotNull(message = "El valor es obligatorio")
+    @Positive(message = "El valor de la transferencia debe ser mayor que cero")
+    private BigDecimal valor;
+
+    // Getters y Setters
+    public String getNumeroCuentaOrigen() { return numeroCuentaOrigen; }
+    public void setNumeroCuentaOrigen(String numeroCuentaOrigen) { this.numeroCuentaOrigen = numeroCuentaOrigen; }
+
+    public String getNumeroCuentaDestino() { return numeroCuentaDestino; }
+    public void setNumeroCuentaDestino(String numeroCuentaDestino) { this.numeroCuentaDestino = numeroCuentaDestino; }
+
+    public BigDecimal getValor() { return valor; }
+    public void setValor(BigDecimal valor) { this.valor = valor; }
+}
@@ -7,6 +7,7 @@ public class CuentaDTO {
     private String numeroCuenta;
     private String tipoCuenta;
     private BigDecimal saldoInicial;
+    private BigDecimal saldoActual;
     private Boolean estado;
     private Long clienteId;
 
@@ -25,6 +26,9 @@ public class CuentaDTO {
     public BigDecimal getSaldoInicial() { return saldoInicial; }
     public void setSaldoInicial(BigDecimal saldoInicial) { this.saldoInicial = saldoInicial; }
     
+    public BigDecimal getSaldoActual() { return saldoActual; }
+    public void setSaldoActual(BigDecimal saldoActual) { this.saldoActual = saldoActual; }
+    
     public Boolean getEstado() { return estado; }
     public void setEstado(Boolean estado) { this.estado = estado; }
     
@@ -0,0 +1,27 @@
+package com.banking.cuenta.dto;
+
+import java.math.BigDecimal;
+
+// Datos mínimos e inmutables de una cuenta que necesita la contabilización de movimientos
+public final class CuentaDescriptor {
+    private final Long cuentaId;
+    private final String numeroCuenta;
+    private final boolean activa;
+    private final Long clienteId;
+    private final BigDecimal saldoInicial;
+
+    public CuentaDescriptor(Long cuentaId, String numeroCuenta, Boolean activa, Long clienteId, BigDecimal saldoInicial) {
+        this.cuentaId = cuentaId;
+        this.numeroCuenta = numeroCuenta;
+        this.activa = Boolean.TRUE.equals(activa);
+        this.clienteId = clienteId;
+        this.saldoInicial = saldoInicial;
+    }
+
+    // Getters
+    public Long getCuentaId() { return cuentaId; }
+    public String getNumeroCuenta() { return numeroCuenta; }
+    public boolean isActiva() { return activa; }
+    public Long getClienteId() { return clienteId; }
+    public BigDecimal getSaldoInicial() { return saldoInicial; }
+}
@@ -0,0 +1,28 @@
+package com.banking.cuenta.dto;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+// Proyección de solo lectura para recorrer movimientos sin hidratar entidades
+public class MovimientoReporteFila {
+    private final Long cuentaId;
+    private final Date fecha;
+    private final String tipoMovimiento;
+    private final BigDecimal valor;
+    private final BigDecimal saldo;
+
+    public MovimientoReporteFila(Long cuentaId, Date fecha, String tipoMovimiento, BigDecimal valor, BigDecimal saldo) {
+        this.cuentaId = cuentaId;
+        this.fecha = fecha;
+        this.tipoMovimiento = tipoMovimiento;
+        this.valor = valor;
+        this.saldo = saldo;
+    }
+
+    // Getters
+    public Long getCuentaId() { return cuentaId; }
+    public Date getFecha() { return fecha; }
+    public String getTipoMovimiento() { return tipoMovimiento; }
+    public BigDecimal getValor() { return valor; }
+    public BigDecimal getSaldo() { return saldo; }
+}
@@ -0,0 +1,23 @@
+package com.banking.cuenta.dto;
+
+import java.util.List;
+
+public class PaginaMovimientosDTO {
+    private List<MovimientoDTO> movimientos;
+    // Token opaco para pedir la página siguiente; nulo cuando no hay más movimientos
+    private String siguienteCursor;
+
+    public PaginaMovimientosDTO() {}
+
+    public PaginaMovimientosDTO(List<MovimientoDTO> movimientos, String siguienteCursor) {
+        this.movimientos = movimientos;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    // Getters y Setters
+    public List<MovimientoDTO> getMovimientos() { return movimientos; }
+    public void setMovimientos(List<MovimientoDTO> movimientos) { this.movimientos = movimientos; }
+
+    public String getSiguienteCursor() { return siguienteCursor; }
+    public void setSiguienteCursor(String siguienteCursor) { this.siguienteCursor = siguienteCursor; }
+}
@@ -30,6 +30,8 @@ public class ReporteEstadoCuentaDTO {
         private String tipo;
         private BigDecimal saldoInicial;
         private BigDecimal saldoDisponible;
+        private BigDecimal saldoApertura;
+        private BigDecimal saldoCierre;
         private List<MovimientoReporteDTO> movimientos;
 
         // Getters y Setters
@@ -44,6 +46,12 @@ public class ReporteEstadoCuentaDTO {
         
         public BigDecimal getSaldoDisponible() { return saldoDisponible; }
         public void setSaldoDisponible(BigDecimal saldoDisponible) { this.saldoDisponible = saldoDisponible; }
+
+        public BigDecimal getSaldoApertura() { return saldoApertura; }
+        public void setSaldoApertura(BigDecimal saldoApertura) { this.saldoApertura = saldoApertura; }
+
+        public BigDecimal getSaldoCierre() { return saldoCierre; }
+        public void setSaldoCierre(BigDecimal saldoCierre) { this.saldoCierre = saldoCierre; }
         
         public List<MovimientoReporteDTO> getMovimientos() { return movimientos; }
         public void setMovimientos(List<MovimientoReporteDTO> movimientos) { this.movimientos = movimientos; }
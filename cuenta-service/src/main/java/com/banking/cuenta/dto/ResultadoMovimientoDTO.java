@@ -0,0 +1,29 @@
+package com.banking.cuenta.dto;
+
+public class ResultadoMovimientoDTO {
+    private Integer indice;
+    private boolean exitoso;
+    private String mensaje;
+    private MovimientoDTO movimiento;
+
+    public ResultadoMovimientoDTO() {}
+
+    public ResultadoMovimientoDTO(boolean exitoso, String mensaje, MovimientoDTO movimiento) {
+        this.exitoso = exitoso;
+        this.mensaje = mensaje;
+        this.movimiento = movimiento;
+    }
+
+    // Getters y Setters
+    public Integer getIndice() { return indice; }
+    public void setIndice(Integer indice) { this.indice = indice; }
+    
+    public boolean isExitoso() { return exitoso; }
+    public void setExitoso(boolean exitoso) { this.exitoso = exitoso; }
+    
+    public String getMensaje() { return mensaje; }
+    public void setMensaje(String mensaje) { this.mensaje = mensaje; }
+    
+    public MovimientoDTO getMovimiento() { return movimiento; }
+    public void setMovimiento(MovimientoDTO movimiento) { this.movimiento = movimiento; }
+}
@@ -0,0 +1,28 @@
+package com.banking.cuenta.dto;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+public class SaldoFechaDTO {
+    private String numeroCuenta;
+    private Date fecha;
+    private BigDecimal saldo;
+
+    public SaldoFechaDTO() {}
+
+    public SaldoFechaDTO(String numeroCuenta, Date fecha, BigDecimal saldo) {
+        this.numeroCuenta = numeroCuenta;
+        this.fecha = fecha;
+        this.saldo = saldo;
+    }
+
+    // Getters y Setters
+    public String getNumeroCuenta() { return numeroCuenta; }
+    public void setNumeroCuenta(String numeroCuenta) { this.numeroCuenta = numeroCuenta; }
+
+    public Date getFecha() { return fecha; }
+    public void setFecha(Date fecha) { this.fecha = fecha; }
+
+    public BigDecimal getSaldo() { return saldo; }
+    public void setSaldo(BigDecimal saldo) { this.saldo = saldo; }
+}
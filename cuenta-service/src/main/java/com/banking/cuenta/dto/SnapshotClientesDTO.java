@@ -0,0 +1,33 @@
+package com.banking.cuenta.dto;
+
+import java.util.Date;
+
+// Respuesta de GET /api/clientes/snapshot en cliente-service
+public class SnapshotClientesDTO {
+    private Long minClienteId;
+    private Long maxClienteId;
+    private Long total;
+    private Date generadoEn;
+
+    public SnapshotClientesDTO() {}
+
+    public SnapshotClientesDTO(Long minClienteId, Long maxClienteId, Long total, Date generadoEn) {
+        this.minClienteId = minClienteId;
+        this.maxClienteId = maxClienteId;
+        this.total = total;
+        this.generadoEn = generadoEn;
+    }
+
+    // Getters y Setters
+    public Long getMinClienteId() { return minClienteId; }
+    public void setMinClienteId(Long minClienteId) { this.minClienteId = minClienteId; }
+
+    public Long getMaxClienteId() { return maxClienteId; }
+    public void setMaxClienteId(Long maxClienteId) { this.maxClienteId = maxClienteId; }
+
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+
+    public Date getGeneradoEn() { return generadoEn; }
+    public void setGeneradoEn(Date generadoEn) { this.generadoEn = generadoEn; }
+}
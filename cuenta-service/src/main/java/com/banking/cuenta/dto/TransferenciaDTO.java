@@ -0,0 +1,21 @@
+package com.banking.cuenta.dto;
+
+// Resultado de una transferencia: los dos movimientos que la componen, confirmados juntos
+public class TransferenciaDTO {
+    private MovimientoDTO debito;
+    private MovimientoDTO credito;
+
+    public TransferenciaDTO() {}
+
+    public TransferenciaDTO(MovimientoDTO debito, MovimientoDTO credito) {
+        this.debito = debito;
+        this.credito = credito;
+    }
+
+    // Getters y Setters
+    public MovimientoDTO getDebito() { return debito; }
+    public void setDebito(MovimientoDTO debito) { this.debito = debito; }
+
+    public MovimientoDTO getCredito() { return credito; }
+    public void setCredito(MovimientoDTO credito) { this.credito = credito; }
+}
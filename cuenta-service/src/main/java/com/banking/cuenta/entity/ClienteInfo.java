@@ -23,6 +23,10 @@ public class ClienteInfo {
     @Temporal(TemporalType.TIMESTAMP)
     private Date fechaSincronizacion = new Date();
 
+    // Última versión aplicada del cliente; el upsert ignora datos con versión menor
+    @Column(name = "version")
+    private Long version;
+
     // Constructores
     public ClienteInfo() {}
 
@@ -41,4 +45,7 @@ public class ClienteInfo {
     
     public Date getFechaSincronizacion() { return fechaSincronizacion; }
     public void setFechaSincronizacion(Date fechaSincronizacion) { this.fechaSincronizacion = fechaSincronizacion; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
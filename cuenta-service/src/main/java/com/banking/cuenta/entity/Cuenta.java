@@ -22,12 +22,22 @@ public class Cuenta {
     @Column(name = "saldo_inicial", nullable = false, precision = 18, scale = 2)
     private BigDecimal saldoInicial;
 
+    // Saldo materializado: se actualiza en cada movimiento. Es nulo solo en cuentas
+    // anteriores a la columna que aún no han pasado por el backfill.
+    @Column(name = "saldo_actual", precision = 18, scale = 2)
+    private BigDecimal saldoActual;
+
     @Column(nullable = false)
     private Boolean estado = true;
 
     @Column(name = "cliente_id", nullable = false)
     private Long clienteId;
 
+    // Primitivo para que las filas existentes tomen 0 al añadir la columna
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     @OneToMany(mappedBy = "cuenta", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Movimiento> movimientos = new ArrayList<>();
 
@@ -39,6 +49,7 @@ public class Cuenta {
         this.numeroCuenta = numeroCuenta;
         this.tipoCuenta = tipoCuenta;
         this.saldoInicial = saldoInicial;
+        this.saldoActual = saldoInicial;
         this.estado = estado;
         this.clienteId = clienteId;
     }
@@ -56,12 +67,18 @@ public class Cuenta {
     public BigDecimal getSaldoInicial() { return saldoInicial; }
     public void setSaldoInicial(BigDecimal saldoInicial) { this.saldoInicial = saldoInicial; }
     
+    public BigDecimal getSaldoActual() { return saldoActual; }
+    public void setSaldoActual(BigDecimal saldoActual) { this.saldoActual = saldoActual; }
+    
     public Boolean getEstado() { return estado; }
     public void setEstado(Boolean estado) { this.estado = estado; }
     
     public Long getClienteId() { return clienteId; }
     public void setClienteId(Long clienteId) { this.clienteId = clienteId; }
     
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
     public List<Movimiento> getMovimientos() { return movimientos; }
     public void setMovimientos(List<Movimiento> movimientos) { this.movimientos = movimientos; }
 }
\ No newline at end of file
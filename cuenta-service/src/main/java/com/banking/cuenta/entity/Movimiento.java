@@ -5,10 +5,18 @@ import java.math.BigDecimal;
 import java.util.Date;
 
 @Entity
-@Table(name = "movimientos")
+@Table(name = "movimientos", indexes = {
+        // Soporta el historial paginado por cuenta ordenado por (fecha, movimiento_id)
+        @Index(name = "idx_movimientos_cuenta_fecha", columnList = "cuenta_id, fecha, movimiento_id")
+})
 public class Movimiento {
+    public static final int ASIGNACION_IDS = 50;
+
+    // Secuencia con asignación por bloques (tabla movimientos_seq en MySQL): IDENTITY
+    // impide que Hibernate agrupe los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimientos_seq")
+    @SequenceGenerator(name = "movimientos_seq", sequenceName = "movimientos_seq", allocationSize = Movimiento.ASIGNACION_IDS)
     @Column(name = "movimiento_id")
     private Long movimientoId;
 
@@ -0,0 +1,105 @@
+package com.banking.cuenta.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.util.Date;
+
+// Clave Idempotency-Key de un POST /api/movimientos. La fila se inserta EN_CURSO antes de
+// contabilizar, así la clave queda reservada para todas las instancias; al terminar pasa a
+// COMPLETADO con la respuesta, que se devuelve tal cual si el cliente repite la petición
+@Entity
+@Table(name = "movimientos_idempotencia", indexes = {
+        // Purga de claves vencidas
+        @Index(name = "idx_movimientos_idempotencia_expira", columnList = "expira")
+})
+public class MovimientoIdempotente {
+    public static final String EN_CURSO = "EN_CURSO";
+    public static final String COMPLETADO = "COMPLETADO";
+
+    @Id
+    @Column(length = 100)
+    private String clave;
+
+    @Column(name = "numero_cuenta", nullable = false, length = 20)
+    private String numeroCuenta;
+
+    // Valor solicitado mientras está EN_CURSO; el contabilizado una vez COMPLETADO
+    @Column(nullable = false, precision = 18, scale = 2)
+    private BigDecimal valor;
+
+    @Column(nullable = false, length = 12)
+    private String estado;
+
+    // Respuesta original, nula mientras está EN_CURSO. El id también es nulo si el movimiento
+    // se aceptó en la bitácora y aún no tenía id
+    @Column(name = "movimiento_id")
+    private Long movimientoId;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date fecha;
+
+    @Column(name = "tipo_movimiento", length = 20)
+    private String tipoMovimiento;
+
+    @Column(precision = 18, scale = 2)
+    private BigDecimal saldo;
+
+    @Column(nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date expira;
+
+    // Constructores
+    public MovimientoIdempotente() {}
+
+    // Reserva de la clave, antes de contabilizar
+    public MovimientoIdempotente(String clave, String numeroCuenta, BigDecimal valor, Date expira) {
+        this.clave = clave;
+        this.numeroCuenta = numeroCuenta;
+        this.valor = valor;
+        this.estado = EN_CURSO;
+        this.expira = expira;
+    }
+
+    public MovimientoIdempotente(String clave, String numeroCuenta, Long movimientoId, Date fecha,
+                                 String tipoMovimiento, BigDecimal valor, BigDecimal saldo, Date expira) {
+        this.clave = clave;
+        this.numeroCuenta = numeroCuenta;
+        this.estado = COMPLETADO;
+        this.movimientoId = movimientoId;
+        this.fecha = fecha;
+        this.tipoMovimiento = tipoMovimiento;
+        this.valor = valor;
+        this.saldo = saldo;
+        this.expira = expira;
+    }
+
+    // Getters y Setters
+    public String getClave() { return clave; }
+    public void setClave(String clave) { this.clave = clave; }
+
+    public String getNumeroCuenta() { return numeroCuenta; }
+    public void setNumeroCuenta(String numeroCuenta) { this.numeroCuenta = numeroCuenta; }
+
+    public String getEstado() { return estado; }
+    public void setEstado(String estado) { this.estado = estado; }
+
+    public boolean isCompletado() { return COMPLETADO.equals(estado); }
+
+    public Long getMovimientoId() { return movimientoId; }
+    public void setMovimientoId(Long movimientoId) { this.movimientoId = movimientoId; }
+
+    public Date getFecha() { return fecha; }
+    public void setFecha(Date fecha) { this.fecha = fecha; }
+
+    public String getTipoMovimiento() { return tipoMovimiento; }
+    public void setTipoMovimiento(String tipoMovimiento) { this.tipoMovimiento = tipoMovimiento; }
+
+    public BigDecimal getValor() { return valor; }
+    public void setValor(BigDecimal valor) { this.valor = valor; }
+
+    public BigDecimal getSaldo() { return saldo; }
+    public void setSaldo(BigDecimal saldo) { this.saldo = saldo; }
+
+    public Date getExpira() { return expira; }
+    public void setExpira(Date expira) { this.expira = expira; }
+}
@@ -0,0 +1,32 @@
+package com.banking.cuenta.entity;
+
+import jakarta.persistence.*;
+
+// Última secuencia de la bitácora de movimientos ya proyectada en la base de datos, por nodo
+// (cada instancia tiene su propia bitácora local). Se avanza en la misma transacción que
+// inserta los movimientos proyectados.
+@Entity
+@Table(name = "bitacora_proyeccion")
+public class ProyeccionBitacora {
+    @Id
+    @Column(length = 100)
+    private String nodo;
+
+    @Column(nullable = false)
+    private Long secuencia;
+
+    // Constructores
+    public ProyeccionBitacora() {}
+
+    public ProyeccionBitacora(String nodo, Long secuencia) {
+        this.nodo = nodo;
+        this.secuencia = secuencia;
+    }
+
+    // Getters y Setters
+    public String getNodo() { return nodo; }
+    public void setNodo(String nodo) { this.nodo = nodo; }
+
+    public Long getSecuencia() { return secuencia; }
+    public void setSecuencia(Long secuencia) { this.secuencia = secuencia; }
+}
@@ -0,0 +1,32 @@
+package com.banking.cuenta.entity;
+
+import jakarta.persistence.*;
+
+// Último latido escrito por cada nodo en la primaria. MonitorReplica lo lee en la réplica para
+// medir cuánto se ha retrasado la replicación.
+@Entity
+@Table(name = "replica_latido")
+public class ReplicaLatido {
+    @Id
+    @Column(length = 100)
+    private String nodo;
+
+    // Milisegundos desde epoch: evita depender de la zona horaria de cada servidor
+    @Column(nullable = false)
+    private Long instante;
+
+    // Constructores
+    public ReplicaLatido() {}
+
+    public ReplicaLatido(String nodo, Long instante) {
+        this.nodo = nodo;
+        this.instante = instante;
+    }
+
+    // Getters y Setters
+    public String getNodo() { return nodo; }
+    public void setNodo(String nodo) { this.nodo = nodo; }
+
+    public Long getInstante() { return instante; }
+    public void setInstante(Long instante) { this.instante = instante; }
+}
@@ -0,0 +1,49 @@
+package com.banking.cuenta.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.util.Date;
+
+// Saldo de cierre de una cuenta al final de cada día con movimientos
+@Entity
+@Table(name = "saldo_diario", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_saldo_diario_cuenta_fecha", columnNames = {"cuenta_id", "fecha"})
+})
+public class SaldoDiario {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "saldo_diario_id")
+    private Long saldoDiarioId;
+
+    @Column(name = "cuenta_id", nullable = false)
+    private Long cuentaId;
+
+    @Column(nullable = false)
+    @Temporal(TemporalType.DATE)
+    private Date fecha;
+
+    @Column(nullable = false, precision = 18, scale = 2)
+    private BigDecimal saldo;
+
+    // Constructores
+    public SaldoDiario() {}
+
+    public SaldoDiario(Long cuentaId, Date fecha, BigDecimal saldo) {
+        this.cuentaId = cuentaId;
+        this.fecha = fecha;
+        this.saldo = saldo;
+    }
+
+    // Getters y Setters
+    public Long getSaldoDiarioId() { return saldoDiarioId; }
+    public void setSaldoDiarioId(Long saldoDiarioId) { this.saldoDiarioId = saldoDiarioId; }
+
+    public Long getCuentaId() { return cuentaId; }
+    public void setCuentaId(Long cuentaId) { this.cuentaId = cuentaId; }
+
+    public Date getFecha() { return fecha; }
+    public void setFecha(Date fecha) { this.fecha = fecha; }
+
+    public BigDecimal getSaldo() { return saldo; }
+    public void setSaldo(BigDecimal saldo) { this.saldo = saldo; }
+}
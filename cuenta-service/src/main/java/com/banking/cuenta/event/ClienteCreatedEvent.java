@@ -2,11 +2,14 @@ package com.banking.cuenta.event;
 
 import java.io.Serializable;
 
+// Payload de cliente.created, cliente.updated, cliente.deactivated y de las filas del snapshot
 public class ClienteCreatedEvent implements Serializable {
     private Long clienteId;
     private String nombre;
     private String identificacion;
     private Boolean estado;
+    // Versión del cliente en cliente-service; nula en eventos publicados antes de versionarlos
+    private Long version;
 
     public ClienteCreatedEvent() {}
 
@@ -17,6 +20,11 @@ public class ClienteCreatedEvent implements Serializable {
         this.estado = estado;
     }
 
+    public ClienteCreatedEvent(Long clienteId, String nombre, String identificacion, Boolean estado, Long version) {
+        this(clienteId, nombre, identificacion, estado);
+        this.version = version;
+    }
+
     // Getters y Setters
     public Long getClienteId() { return clienteId; }
     public void setClienteId(Long clienteId) { this.clienteId = clienteId; }
@@ -29,4 +37,7 @@ public class ClienteCreatedEvent implements Serializable {
     
     public Boolean getEstado() { return estado; }
     public void setEstado(Boolean estado) { this.estado = estado; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
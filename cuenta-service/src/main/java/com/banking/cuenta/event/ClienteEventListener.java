@@ -1,26 +1,112 @@
 package com.banking.cuenta.event;
 
-import com.banking.cuenta.event.ClienteCreatedEvent;
+import com.banking.cuenta.config.RabbitMQConfig;
 import com.banking.cuenta.service.ClienteInfoService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class ClienteEventListener {
 
+    private static final Logger log = LoggerFactory.getLogger(ClienteEventListener.class);
+
     @Autowired
     private ClienteInfoService clienteInfoService;
 
-    @RabbitListener(queues = "cliente.created.queue")
-    public void handleClienteCreated(ClienteCreatedEvent event) {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter eventosProcesados;
+    private Counter eventosFallidos;
+    private DistributionSummary tamanoLote;
+    private Timer lagConsumo;
+    private Timer duracionLote;
+
+    // clientes.eventos.procesados da el throughput (rate) y clientes.eventos.lag el retraso
+    // entre la publicación en cliente-service y el upsert en cliente_info
+    @PostConstruct
+    public void registrarMetricas() {
+        eventosProcesados = Counter.builder("clientes.eventos.procesados").register(meterRegistry);
+        eventosFallidos = Counter.builder("clientes.eventos.fallidos").register(meterRegistry);
+        tamanoLote = DistributionSummary.builder("clientes.eventos.lote")
+                .description("Eventos de cliente recibidos por lote")
+                .register(meterRegistry);
+        lagConsumo = Timer.builder("clientes.eventos.lag")
+                .description("Tiempo entre la publicación del evento y su aplicación en cliente_info")
+                .register(meterRegistry);
+        duracionLote = Timer.builder("clientes.eventos.upsert")
+                .description("Duración del upsert de cada lote")
+                .register(meterRegistry);
+    }
+
+    // No arranca con el contexto: ClienteInfoBootstrapService lo inicia al terminar la carga
+    // inicial de cliente_info; los eventos publicados mientras tanto esperan en la cola
+    @RabbitListener(id = RabbitMQConfig.CLIENTE_EVENTOS_LISTENER_ID, autoStartup = "false",
+            queues = RabbitMQConfig.CLIENTE_CREATED_QUEUE,
+            containerFactory = RabbitMQConfig.CLIENTE_EVENTOS_LISTENER_FACTORY)
+    public void handleEventosCliente(List<Message<ClienteCreatedEvent>> mensajes) {
+        List<ClienteCreatedEvent> eventos = new ArrayList<>(mensajes.size());
+        for (Message<ClienteCreatedEvent> mensaje : mensajes) {
+            eventos.add(mensaje.getPayload());
+        }
+        tamanoLote.record(eventos.size());
+
         try {
-            // Actualizar información local del cliente para referencia
-            clienteInfoService.actualizarInfoCliente(event);
-            System.out.println("Cliente sincronizado: " + event.getClienteId() + " - " + event.getNombre());
-        } catch (Exception e) {
-            System.err.println("Error al procesar evento de cliente creado: " + e.getMessage());
+            // Actualizar información local de los clientes del lote para referencia
+            duracionLote.record(() -> clienteInfoService.actualizarInfoClientes(eventos));
+            eventosProcesados.increment(eventos.size());
+            registrarLag(mensajes);
+            log.debug("Clientes sincronizados: {}", eventos.size());
+        } catch (RuntimeException e) {
+            eventosFallidos.increment(eventos.size());
+            // El upsert es idempotente por versión, así que reintentar el lote completo es seguro
+            if (esTransitorio(e)) {
+                log.warn("Lote de {} eventos de cliente devuelto a la cola: {}", eventos.size(), e.getMessage());
+                throw e;
+            }
+            log.error("Lote de {} eventos de cliente enviado a {}", eventos.size(), RabbitMQConfig.CLIENTE_CREATED_DLQ, e);
+            throw new AmqpRejectAndDontRequeueException("Lote de eventos de cliente no aplicable", e);
+        }
+    }
+
+    // Base caída o bloqueos: el lote se reencola. Cualquier otro error se repetiría en cada
+    // entrega y bloquearía la cola, así que el lote va a la cola de mensajes fallidos.
+    private boolean esTransitorio(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void registrarLag(List<Message<ClienteCreatedEvent>> mensajes) {
+        long ahora = System.currentTimeMillis();
+        for (Message<ClienteCreatedEvent> mensaje : mensajes) {
+            // Solo los mensajes publicados con timestamp (relay del outbox) permiten medir el lag
+            Date publicado = mensaje.getHeaders().get(AmqpHeaders.TIMESTAMP, Date.class);
+            if (publicado != null) {
+                lagConsumo.record(ahora - publicado.getTime(), TimeUnit.MILLISECONDS);
+            }
         }
     }
 }
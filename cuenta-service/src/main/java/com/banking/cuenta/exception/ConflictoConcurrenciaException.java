@@ -0,0 +1,8 @@
+package com.banking.cuenta.exception;
+
+public class ConflictoConcurrenciaException extends RuntimeException {
+
+    public ConflictoConcurrenciaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
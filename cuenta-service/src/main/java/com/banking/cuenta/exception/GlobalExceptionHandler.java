@@ -20,6 +20,12 @@ public class GlobalExceptionHandler {
                 .body(new ApiResponse<>(false, e.getMessage(), null));
     }
 
+    @ExceptionHandler(ConflictoConcurrenciaException.class)
+    public ResponseEntity<ApiResponse<String>> handleConflictoConcurrencia(ConflictoConcurrenciaException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new ApiResponse<>(false, e.getMessage(), null));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiResponse<Map<String, String>>> handleValidationExceptions(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
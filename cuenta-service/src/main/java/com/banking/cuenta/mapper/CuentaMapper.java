@@ -0,0 +1,26 @@
+package com.banking.cuenta.mapper;
+
+import com.banking.cuenta.dto.CuentaDTO;
+import com.banking.cuenta.entity.Cuenta;
+import org.springframework.stereotype.Component;
+
+// Mapeo directo Cuenta -> CuentaDTO. Sustituye a ModelMapper en los listados, que resolvía
+// los campos por reflexión en cada elemento; no toca movimientos, así que no los inicializa.
+@Component
+public class CuentaMapper {
+
+    public CuentaDTO toDTO(Cuenta cuenta) {
+        if (cuenta == null) {
+            return null;
+        }
+        CuentaDTO dto = new CuentaDTO();
+        dto.setCuentaId(cuenta.getCuentaId());
+        dto.setNumeroCuenta(cuenta.getNumeroCuenta());
+        dto.setTipoCuenta(cuenta.getTipoCuenta());
+        dto.setSaldoInicial(cuenta.getSaldoInicial());
+        dto.setSaldoActual(cuenta.getSaldoActual());
+        dto.setEstado(cuenta.getEstado());
+        dto.setClienteId(cuenta.getClienteId());
+        return dto;
+    }
+}
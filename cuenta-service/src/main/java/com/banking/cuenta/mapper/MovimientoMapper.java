@@ -0,0 +1,26 @@
+package com.banking.cuenta.mapper;
+
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.entity.Movimiento;
+import org.springframework.stereotype.Component;
+
+// Mapeo directo Movimiento -> MovimientoDTO para el registro y el historial de movimientos.
+// El número de cuenta lo aporta quien llama (ya lo conoce): leerlo de movimiento.getCuenta()
+// inicializaría el proxy de la cuenta.
+@Component
+public class MovimientoMapper {
+
+    public MovimientoDTO toDTO(Movimiento movimiento, String numeroCuenta) {
+        if (movimiento == null) {
+            return null;
+        }
+        MovimientoDTO dto = new MovimientoDTO();
+        dto.setMovimientoId(movimiento.getMovimientoId());
+        dto.setFecha(movimiento.getFecha());
+        dto.setTipoMovimiento(movimiento.getTipoMovimiento());
+        dto.setValor(movimiento.getValor());
+        dto.setSaldo(movimiento.getSaldo());
+        dto.setNumeroCuenta(numeroCuenta);
+        return dto;
+    }
+}
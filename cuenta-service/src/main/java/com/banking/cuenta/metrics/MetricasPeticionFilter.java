@@ -0,0 +1,105 @@
+package com.banking.cuenta.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Sentencias JDBC por petición: cuántas ejecuta cada endpoint y cuánto tiempo pasa en la base de
+// datos (http.server.requests.jdbc.*, con las mismas etiquetas method y uri que
+// http.server.requests). Las peticiones que superan el umbral de sentencias o de latencia se
+// cuentan en http.server.requests.marcadas y se registran en el log para localizar N+1 y
+// endpoints lentos sin activar show-sql.
+@Component
+public class MetricasPeticionFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricasPeticionFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banking.metricas.peticiones.max-sentencias:20}")
+    private int maxSentencias;
+
+    @Value("${banking.metricas.peticiones.max-milisegundos:500}")
+    private long maxMilisegundos;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long inicio = System.nanoTime();
+        SentenciasPeticion sentencias = SentenciasPeticion.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SentenciasPeticion.terminar();
+            // Los reportes en streaming siguen en otro hilo: solo se mide lo que ya terminó
+            if (!isAsyncStarted(request)) {
+                registrar(request, response, sentencias, System.nanoTime() - inicio);
+            }
+        }
+    }
+
+    private void registrar(HttpServletRequest request, HttpServletResponse response, SentenciasPeticion sentencias,
+                           long nanos) {
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri(request, response));
+        DistributionSummary.builder("http.server.requests.jdbc.sentencias")
+                .description("Sentencias JDBC ejecutadas por petición")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(sentencias.getSentencias());
+        Timer.builder("http.server.requests.jdbc.tiempo")
+                .description("Tiempo en sentencias JDBC por petición")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(sentencias.getNanos(), TimeUnit.NANOSECONDS);
+
+        long milisegundos = TimeUnit.NANOSECONDS.toMillis(nanos);
+        boolean excedeSentencias = sentencias.getSentencias() > maxSentencias;
+        boolean excedeLatencia = milisegundos > maxMilisegundos;
+        if (excedeSentencias) {
+            marcar(tags, "sentencias");
+        }
+        if (excedeLatencia) {
+            marcar(tags, "latencia");
+        }
+        if (excedeSentencias || excedeLatencia) {
+            log.warn("Petición {} {} marcada: {} sentencias JDBC ({} ms en base de datos) en {} ms",
+                    request.getMethod(), request.getRequestURI(), sentencias.getSentencias(),
+                    TimeUnit.NANOSECONDS.toMillis(sentencias.getNanos()), milisegundos);
+        }
+    }
+
+    private void marcar(Tags tags, String motivo) {
+        Counter.builder("http.server.requests.marcadas")
+                .description("Peticiones que superaron el umbral de sentencias JDBC o de latencia")
+                .tags(tags.and("motivo", motivo))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    // Plantilla de la ruta (/api/movimientos/cuenta/{numeroCuenta}) para no crear una serie por valor
+    private static String uri(HttpServletRequest request, HttpServletResponse response) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (patron != null) {
+            return patron.toString();
+        }
+        return response.getStatus() == HttpStatus.NOT_FOUND.value() ? "NOT_FOUND" : "UNKNOWN";
+    }
+}
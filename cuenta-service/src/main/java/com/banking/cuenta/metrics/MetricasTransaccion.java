@@ -0,0 +1,36 @@
+package com.banking.cuenta.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+// Mide una operación transaccional hasta que termina su transacción, así el tiempo incluye el
+// commit (o el rollback) y no solo el cuerpo del método. Sin transacción activa se mide el cuerpo.
+public final class MetricasTransaccion {
+
+    private MetricasTransaccion() {}
+
+    public static <T> T medir(MeterRegistry meterRegistry, Timer confirmada, Timer revertida, Supplier<T> operacion) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    muestra.stop(status == STATUS_COMMITTED ? confirmada : revertida);
+                }
+            });
+            return operacion.get();
+        }
+        boolean completada = false;
+        try {
+            T resultado = operacion.get();
+            completada = true;
+            return resultado;
+        } finally {
+            muestra.stop(completada ? confirmada : revertida);
+        }
+    }
+}
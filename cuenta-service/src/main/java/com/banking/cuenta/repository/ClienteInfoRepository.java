@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface ClienteInfoRepository extends JpaRepository<ClienteInfo, Long> {
+public interface ClienteInfoRepository extends JpaRepository<ClienteInfo, Long>, ClienteInfoRepositoryCustom {
     Optional<ClienteInfo> findByClienteId(Long clienteId);
     Optional<ClienteInfo> findByIdentificacion(String identificacion);
 }
\ No newline at end of file
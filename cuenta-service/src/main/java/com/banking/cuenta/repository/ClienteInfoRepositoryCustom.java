@@ -0,0 +1,12 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.entity.ClienteInfo;
+
+import java.util.Collection;
+
+public interface ClienteInfoRepositoryCustom {
+
+    // Inserta o actualiza todas las filas con una sola sentencia, sin retroceder a versiones
+    // anteriores de un cliente; devuelve las filas afectadas
+    int upsertTodos(Collection<ClienteInfo> clientes);
+}
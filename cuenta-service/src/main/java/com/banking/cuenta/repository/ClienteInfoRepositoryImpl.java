@@ -0,0 +1,60 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.entity.ClienteInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// INSERT ... ON DUPLICATE KEY UPDATE multi-fila: evita el SELECT previo que hace save()
+// con id asignado y el ida y vuelta por cada cliente
+public class ClienteInfoRepositoryImpl implements ClienteInfoRepositoryCustom {
+
+    private static final String INSERT = "INSERT INTO cliente_info"
+            + " (cliente_id, nombre, identificacion, estado, fecha_sincronizacion, version) VALUES ";
+
+    // Solo se sobrescribe si la versión recibida no es menor que la guardada (o alguna es nula,
+    // eventos anteriores al versionado). version se asigna al final: las condiciones previas
+    // todavía ven la versión guardada. Los nulos se resuelven con COALESCE en lugar de IS NULL
+    // porque el modo MySQL de H2 no admite VALUES(col) dentro de un predicado IS NULL.
+    private static final String VERSION_APLICABLE =
+            "COALESCE(VALUES(version), " + Long.MAX_VALUE + ") >= COALESCE(version, -1)";
+    private static final String ON_DUPLICATE = " ON DUPLICATE KEY UPDATE "
+            + asignarSiAplicable("nombre") + ", "
+            + asignarSiAplicable("identificacion") + ", "
+            + asignarSiAplicable("estado") + ", "
+            + asignarSiAplicable("fecha_sincronizacion") + ", "
+            + "version = CASE WHEN " + VERSION_APLICABLE + " THEN COALESCE(VALUES(version), version) ELSE version END";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int upsertTodos(Collection<ClienteInfo> clientes) {
+        if (clientes.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(INSERT);
+        List<Object> parametros = new ArrayList<>(clientes.size() * 6);
+        for (ClienteInfo cliente : clientes) {
+            if (!parametros.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?, ?, ?, ?)");
+            parametros.add(cliente.getClienteId());
+            parametros.add(cliente.getNombre());
+            parametros.add(cliente.getIdentificacion());
+            parametros.add(cliente.getEstado());
+            parametros.add(cliente.getFechaSincronizacion());
+            parametros.add(cliente.getVersion());
+        }
+        sql.append(ON_DUPLICATE);
+        return jdbcTemplate.update(sql.toString(), parametros.toArray());
+    }
+
+    private static String asignarSiAplicable(String columna) {
+        return columna + " = CASE WHEN " + VERSION_APLICABLE + " THEN VALUES(" + columna + ") ELSE " + columna + " END";
+    }
+}
@@ -1,11 +1,18 @@
 package com.banking.cuenta.repository;
 
+import com.banking.cuenta.dto.CuentaDescriptor;
 import com.banking.cuenta.entity.Cuenta;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,4 +26,71 @@ public interface CuentaRepository extends JpaRepository<Cuenta, Long> {
     List<Cuenta> findCuentasActivasPorCliente(@Param("clienteId") Long clienteId);
     
     boolean existsByNumeroCuenta(String numeroCuenta);
+
+    @Query("SELECT new com.banking.cuenta.dto.CuentaDescriptor(c.cuentaId, c.numeroCuenta, c.estado, c.clienteId, c.saldoInicial) " +
+           "FROM Cuenta c WHERE c.numeroCuenta = :numeroCuenta")
+    Optional<CuentaDescriptor> findDescriptorByNumeroCuenta(@Param("numeroCuenta") String numeroCuenta);
+
+    @Query("SELECT c.estado FROM Cuenta c WHERE c.cuentaId = :cuentaId")
+    Boolean findEstado(@Param("cuentaId") Long cuentaId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cuenta c WHERE c.numeroCuenta = :numeroCuenta")
+    Optional<Cuenta> findByNumeroCuentaForUpdate(@Param("numeroCuenta") String numeroCuenta);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cuenta c WHERE c.cuentaId = :cuentaId")
+    Optional<Cuenta> findByCuentaIdForUpdate(@Param("cuentaId") Long cuentaId);
+
+    // Bloquea varias cuentas en una sentencia; el recorrido por clave primaria las bloquea
+    // en orden ascendente de cuentaId, el mismo que usan las transferencias
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cuenta c WHERE c.cuentaId IN :cuentaIds ORDER BY c.cuentaId")
+    List<Cuenta> findByCuentaIdInForUpdate(@Param("cuentaIds") Collection<Long> cuentaIds);
+
+    @Query("SELECT c.cuentaId FROM Cuenta c WHERE c.cuentaId > :desde ORDER BY c.cuentaId")
+    List<Long> findCuentaIdsDesde(@Param("desde") Long desde, Pageable pageable);
+
+    // Aplica el valor sobre el saldo materializado en una sola sentencia; devuelve 0 si
+    // el retiro dejaría la cuenta en negativo, si la cuenta no está activa o si su saldo
+    // aún no está materializado. El CAST fija el tipo de :valor, que Hibernate podría inferir
+    // como entero a partir del literal 0 según qué comparación interprete primero
+    @Modifying
+    @Query("UPDATE Cuenta c SET c.saldoActual = c.saldoActual + :valor, c.version = c.version + 1 " +
+           "WHERE c.cuentaId = :cuentaId AND c.estado = true AND c.saldoActual IS NOT NULL " +
+           "AND (CAST(:valor AS BigDecimal) >= 0 OR c.saldoActual + :valor >= 0)")
+    int aplicarMovimiento(@Param("cuentaId") Long cuentaId, @Param("valor") BigDecimal valor);
+
+    // Proyección de la bitácora de movimientos: el saldo ya lo validó y calculó la bitácora
+    @Modifying
+    @Query("UPDATE Cuenta c SET c.saldoActual = :saldo, c.version = c.version + 1 WHERE c.cuentaId = :cuentaId")
+    int proyectarSaldo(@Param("cuentaId") Long cuentaId, @Param("saldo") BigDecimal saldo);
+
+    // Baja lógica sin reescribir la fila: sube la versión para que una contabilización optimista
+    // en curso falle, reintente y vea la cuenta inactiva
+    @Modifying
+    @Query("UPDATE Cuenta c SET c.estado = false, c.version = c.version + 1 WHERE c.cuentaId = :cuentaId")
+    int desactivar(@Param("cuentaId") Long cuentaId);
+
+    @Query("SELECT c.saldoActual FROM Cuenta c WHERE c.cuentaId = :cuentaId")
+    BigDecimal findSaldoActual(@Param("cuentaId") Long cuentaId);
+
+    @Query("SELECT c.cuentaId FROM Cuenta c WHERE c.saldoActual IS NULL ORDER BY c.cuentaId")
+    List<Long> findCuentaIdsSinSaldoActual(Pageable pageable);
+
+    // Calcula el saldo materializado a partir del historial para cuentas que aún no lo tienen
+    @Modifying
+    @Query(value = "UPDATE cuentas c SET c.saldo_actual = c.saldo_inicial + " +
+                   "COALESCE((SELECT SUM(m.valor) FROM movimientos m WHERE m.cuenta_id = c.cuenta_id), 0) " +
+                   "WHERE c.cuenta_id IN (:cuentaIds) AND c.saldo_actual IS NULL", nativeQuery = true)
+    int materializarSaldos(@Param("cuentaIds") List<Long> cuentaIds);
+
+    // Cuentas cuyo saldo materializado no coincide con saldo inicial + suma de movimientos
+    @Query(value = "SELECT c.cuenta_id, c.numero_cuenta, c.saldo_actual, " +
+                   "c.saldo_inicial + COALESCE(SUM(m.valor), 0) AS saldo_calculado " +
+                   "FROM cuentas c LEFT JOIN movimientos m ON m.cuenta_id = c.cuenta_id " +
+                   "GROUP BY c.cuenta_id, c.numero_cuenta, c.saldo_actual, c.saldo_inicial " +
+                   "HAVING c.saldo_actual IS NULL OR c.saldo_actual <> c.saldo_inicial + COALESCE(SUM(m.valor), 0)",
+           nativeQuery = true)
+    List<Object[]> findDescuadresDeSaldo();
 }
\ No newline at end of file
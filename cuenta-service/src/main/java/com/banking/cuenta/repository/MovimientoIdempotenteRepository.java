@@ -0,0 +1,27 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.entity.MovimientoIdempotente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface MovimientoIdempotenteRepository extends JpaRepository<MovimientoIdempotente, String>,
+        MovimientoIdempotenteRepositoryCustom {
+
+    // Respuestas vigentes, de la que vence más tarde a la que vence antes
+    @Query("SELECT m FROM MovimientoIdempotente m WHERE m.expira > :ahora AND m.estado = '"
+            + MovimientoIdempotente.COMPLETADO + "' ORDER BY m.expira DESC")
+    List<MovimientoIdempotente> findVigentes(@Param("ahora") Date ahora, Pageable pageable);
+
+    // Borra por tramos para no bloquear la tabla con un DELETE enorme
+    @Modifying
+    @Query(value = "DELETE FROM movimientos_idempotencia WHERE expira <= :ahora LIMIT :lote", nativeQuery = true)
+    int purgarVencidas(@Param("ahora") Date ahora, @Param("lote") int lote);
+}
@@ -0,0 +1,22 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.entity.MovimientoIdempotente;
+
+import java.util.Date;
+
+// Sentencias sueltas por JDBC (save() con id asignado haría antes un SELECT). Cada una decide por
+// sí sola, con la clave primaria o la condición del WHERE, qué petición se queda con la clave
+public interface MovimientoIdempotenteRepositoryCustom {
+
+    // INSERT de la reserva EN_CURSO; lanza DuplicateKeyException si la clave ya existe
+    void reservar(MovimientoIdempotente reserva);
+
+    // Vuelve a reservar una clave vencida que la purga aún no borró; 0 si ya no estaba vencida
+    int reservarVencida(MovimientoIdempotente reserva, Date ahora);
+
+    // Guarda la respuesta de una clave EN_CURSO y la pasa a COMPLETADO
+    int completar(MovimientoIdempotente respuesta);
+
+    // Borra la reserva de una contabilización fallida para que el cliente pueda reintentar
+    int liberar(String clave);
+}
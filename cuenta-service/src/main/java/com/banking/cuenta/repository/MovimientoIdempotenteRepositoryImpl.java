@@ -0,0 +1,63 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.entity.MovimientoIdempotente;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+public class MovimientoIdempotenteRepositoryImpl implements MovimientoIdempotenteRepositoryCustom {
+
+    private static final String RESERVAR = "INSERT INTO movimientos_idempotencia " +
+            "(clave, numero_cuenta, valor, estado, expira) VALUES (?, ?, ?, '" + MovimientoIdempotente.EN_CURSO + "', ?)";
+
+    private static final String RESERVAR_VENCIDA = "UPDATE movimientos_idempotencia SET numero_cuenta = ?, valor = ?, " +
+            "estado = '" + MovimientoIdempotente.EN_CURSO + "', movimiento_id = NULL, fecha = NULL, " +
+            "tipo_movimiento = NULL, saldo = NULL, expira = ? WHERE clave = ? AND expira <= ?";
+
+    private static final String COMPLETAR = "UPDATE movimientos_idempotencia SET estado = '" +
+            MovimientoIdempotente.COMPLETADO + "', movimiento_id = ?, fecha = ?, tipo_movimiento = ?, valor = ?, " +
+            "saldo = ? WHERE clave = ? AND estado = '" + MovimientoIdempotente.EN_CURSO + "'";
+
+    private static final String LIBERAR = "DELETE FROM movimientos_idempotencia WHERE clave = ? AND estado = '" +
+            MovimientoIdempotente.EN_CURSO + "'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void reservar(MovimientoIdempotente reserva) {
+        jdbcTemplate.update(RESERVAR,
+                reserva.getClave(),
+                reserva.getNumeroCuenta(),
+                reserva.getValor(),
+                new Timestamp(reserva.getExpira().getTime()));
+    }
+
+    @Override
+    public int reservarVencida(MovimientoIdempotente reserva, Date ahora) {
+        return jdbcTemplate.update(RESERVAR_VENCIDA,
+                reserva.getNumeroCuenta(),
+                reserva.getValor(),
+                new Timestamp(reserva.getExpira().getTime()),
+                reserva.getClave(),
+                new Timestamp(ahora.getTime()));
+    }
+
+    @Override
+    public int completar(MovimientoIdempotente respuesta) {
+        return jdbcTemplate.update(COMPLETAR,
+                respuesta.getMovimientoId(),
+                new Timestamp(respuesta.getFecha().getTime()),
+                respuesta.getTipoMovimiento(),
+                respuesta.getValor(),
+                respuesta.getSaldo(),
+                respuesta.getClave());
+    }
+
+    @Override
+    public int liberar(String clave) {
+        return jdbcTemplate.update(LIBERAR, clave);
+    }
+}
@@ -1,13 +1,20 @@
 package com.banking.cuenta.repository;
 
+import com.banking.cuenta.dto.MovimientoReporteFila;
 import com.banking.cuenta.entity.Movimiento;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
@@ -16,6 +23,22 @@ public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
     @Query("SELECT m FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId ORDER BY m.fecha DESC")
     List<Movimiento> findByCuentaIdOrderByFechaDesc(@Param("cuentaId") Long cuentaId);
     
+    // Paginación por clave (fecha, movimiento_id) sobre el índice idx_movimientos_cuenta_fecha:
+    // cada página continúa desde la última fila de la anterior, sin OFFSET
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT m FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId " +
+           "ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<Movimiento> findPrimeraPagina(@Param("cuentaId") Long cuentaId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT m FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId " +
+           "AND (m.fecha < :fecha OR (m.fecha = :fecha AND m.movimientoId < :movimientoId)) " +
+           "ORDER BY m.fecha DESC, m.movimientoId DESC")
+    List<Movimiento> findPaginaSiguiente(@Param("cuentaId") Long cuentaId,
+                                         @Param("fecha") Date fecha,
+                                         @Param("movimientoId") Long movimientoId,
+                                         Pageable pageable);
+
     @Query("SELECT m FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId " +
            "AND m.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY m.fecha")
     List<Movimiento> findByCuentaIdAndFechaBetween(
@@ -29,4 +52,45 @@ public interface MovimientoRepository extends JpaRepository<Movimiento, Long> {
             @Param("clienteId") Long clienteId,
             @Param("fechaInicio") Date fechaInicio,
             @Param("fechaFin") Date fechaFin);
+
+    @Query("SELECT new com.banking.cuenta.dto.MovimientoReporteFila(c.cuentaId, m.fecha, m.tipoMovimiento, m.valor, m.saldo) " +
+           "FROM Movimiento m JOIN m.cuenta c WHERE c.clienteId = :clienteId AND c.estado = true " +
+           "AND m.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY c.cuentaId, m.fecha, m.movimientoId")
+    List<MovimientoReporteFila> findReporteByClienteIdAndFechaBetween(
+            @Param("clienteId") Long clienteId,
+            @Param("fechaInicio") Date fechaInicio,
+            @Param("fechaFin") Date fechaFin);
+
+    @Query("SELECT m.cuenta.cuentaId, SUM(m.valor) FROM Movimiento m " +
+           "WHERE m.cuenta.cuentaId IN :cuentaIds GROUP BY m.cuenta.cuentaId")
+    List<Object[]> sumValorAgrupadoPorCuenta(@Param("cuentaIds") Collection<Long> cuentaIds);
+
+    @Query("SELECT m.cuenta.cuentaId, SUM(m.valor) FROM Movimiento m " +
+           "WHERE m.cuenta.cuentaId IN :cuentaIds AND m.fecha >= :desde AND m.fecha < :hasta GROUP BY m.cuenta.cuentaId")
+    List<Object[]> sumValorAgrupadoPorCuentaEntre(@Param("cuentaIds") Collection<Long> cuentaIds,
+                                                  @Param("desde") Date desde,
+                                                  @Param("hasta") Date hasta);
+
+    // Fecha y valor de los movimientos de una cuenta en orden, para reconstruir sus cierres
+    // diarios. El día de cada movimiento lo decide SaldoDiarioService, no la zona de la sesión SQL.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m.fecha, m.valor FROM Movimiento m WHERE m.cuenta.cuentaId = :cuentaId ORDER BY m.fecha, m.movimientoId")
+    Stream<Object[]> streamFechaYValorByCuentaId(@Param("cuentaId") Long cuentaId);
+
+    // Recorre los movimientos del reporte con cursor en servidor (useCursorFetch en MySQL),
+    // ordenados por cuenta para poder escribirlos agrupados sin acumularlos en memoria
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.banking.cuenta.dto.MovimientoReporteFila(c.cuentaId, m.fecha, m.tipoMovimiento, m.valor, m.saldo) " +
+           "FROM Movimiento m JOIN m.cuenta c WHERE c.clienteId = :clienteId AND c.estado = true " +
+           "AND m.fecha BETWEEN :fechaInicio AND :fechaFin ORDER BY c.cuentaId, m.fecha, m.movimientoId")
+    Stream<MovimientoReporteFila> streamReporteByClienteIdAndFechaBetween(
+            @Param("clienteId") Long clienteId,
+            @Param("fechaInicio") Date fechaInicio,
+            @Param("fechaFin") Date fechaFin);
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.entity.ProyeccionBitacora;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProyeccionBitacoraRepository extends JpaRepository<ProyeccionBitacora, String> {
+
+    @Modifying
+    @Query("UPDATE ProyeccionBitacora p SET p.secuencia = :secuencia WHERE p.nodo = :nodo")
+    int avanzar(@Param("nodo") String nodo, @Param("secuencia") Long secuencia);
+}
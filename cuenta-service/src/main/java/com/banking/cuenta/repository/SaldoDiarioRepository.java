@@ -0,0 +1,41 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.entity.SaldoDiario;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SaldoDiarioRepository extends JpaRepository<SaldoDiario, Long>, SaldoDiarioRepositoryCustom {
+
+    @Modifying
+    @Query("UPDATE SaldoDiario s SET s.saldo = s.saldo + :diferencia WHERE s.cuentaId = :cuentaId")
+    int desplazarSaldos(@Param("cuentaId") Long cuentaId,
+                        @Param("diferencia") BigDecimal diferencia);
+
+    @Modifying
+    @Query("DELETE FROM SaldoDiario s WHERE s.cuentaId = :cuentaId")
+    int deleteByCuentaId(@Param("cuentaId") Long cuentaId);
+
+    Optional<SaldoDiario> findFirstByCuentaIdAndFechaLessThanEqualOrderByFechaDesc(Long cuentaId, Date fecha);
+
+    // Último cierre anterior a la fecha para cada cuenta (una fila por cuenta como máximo)
+    @Query("SELECT s FROM SaldoDiario s WHERE s.cuentaId IN :cuentaIds AND s.fecha = " +
+           "(SELECT MAX(s2.fecha) FROM SaldoDiario s2 WHERE s2.cuentaId = s.cuentaId AND s2.fecha < :fecha)")
+    List<SaldoDiario> findUltimosCierresAntesDe(@Param("cuentaIds") Collection<Long> cuentaIds,
+                                                @Param("fecha") Date fecha);
+
+    // Cuentas con movimientos que aún no tienen ningún cierre diario (datos previos a la tabla)
+    @Query("SELECT c.cuentaId FROM Cuenta c WHERE EXISTS (SELECT 1 FROM Movimiento m WHERE m.cuenta = c) " +
+           "AND NOT EXISTS (SELECT 1 FROM SaldoDiario s WHERE s.cuentaId = c.cuentaId) ORDER BY c.cuentaId")
+    List<Long> findCuentaIdsSinSaldosDiarios(Pageable pageable);
+}
@@ -0,0 +1,12 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.entity.SaldoDiario;
+
+import java.util.Collection;
+
+public interface SaldoDiarioRepositoryCustom {
+
+    // Inserta o sobrescribe el cierre (cuenta_id, fecha) de cada fila con una sola sentencia;
+    // devuelve las filas afectadas
+    int upsertTodos(Collection<SaldoDiario> cierres);
+}
@@ -0,0 +1,41 @@
+package com.banking.cuenta.repository;
+
+import com.banking.cuenta.entity.SaldoDiario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Cierres de varias cuentas en un INSERT ... ON DUPLICATE KEY UPDATE sobre la clave única
+// (cuenta_id, fecha), en lugar de un UPDATE y, si no había fila, un INSERT por cuenta
+public class SaldoDiarioRepositoryImpl implements SaldoDiarioRepositoryCustom {
+
+    private static final String INSERT = "INSERT INTO saldo_diario (cuenta_id, fecha, saldo) VALUES ";
+    private static final String ON_DUPLICATE = " ON DUPLICATE KEY UPDATE saldo = VALUES(saldo)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int upsertTodos(Collection<SaldoDiario> cierres) {
+        if (cierres.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(INSERT);
+        List<Object> parametros = new ArrayList<>(cierres.size() * 3);
+        for (SaldoDiario cierre : cierres) {
+            if (!parametros.isEmpty()) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?, ?)");
+            parametros.add(cierre.getCuentaId());
+            parametros.add(new Date(cierre.getFecha().getTime()));
+            parametros.add(cierre.getSaldo());
+        }
+        sql.append(ON_DUPLICATE);
+        return jdbcTemplate.update(sql.toString(), parametros.toArray());
+    }
+}
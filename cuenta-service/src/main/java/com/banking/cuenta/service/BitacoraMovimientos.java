@@ -0,0 +1,399 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.bitacora.ArchivoBitacora;
+import com.banking.cuenta.bitacora.Asiento;
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.CuentaDescriptor;
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.entity.Movimiento;
+import com.banking.cuenta.entity.ProyeccionBitacora;
+import com.banking.cuenta.entity.SaldoDiario;
+import com.banking.cuenta.exception.ConflictoConcurrenciaException;
+import com.banking.cuenta.metrics.MetricasTransaccion;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.ProyeccionBitacoraRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+// Modo bitácora (banking.movimientos.bitacora.habilitado). Un movimiento se acepta validándolo
+// contra el saldo en memoria de la cuenta y anexándolo a la bitácora local (ArchivoBitacora);
+// la respuesta no espera a la base de datos. Un hilo proyector escribe después los asientos en
+// lotes: movimientos, saldo materializado, cierres diarios y la secuencia proyectada, todo en
+// una transacción. Al arrancar se reproducen los asientos posteriores a esa secuencia, que son
+// los aceptados antes de una caída y que el proyector no llegó a escribir.
+//
+// El saldo en memoria es el vigente solo mientras todas las escrituras de la cuenta pasan por
+// aquí: los demás caminos (lotes, transferencias) llaman antes a sincronizar(). Cada cuenta
+// debe contabilizarse desde un único nodo.
+@Component
+@ConditionalOnProperty(name = "banking.movimientos.bitacora.habilitado", havingValue = "true")
+public class BitacoraMovimientos {
+
+    private static final Logger log = LoggerFactory.getLogger(BitacoraMovimientos.class);
+
+    private static final long ESPERA_SINCRONIZAR_MS = 30_000;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private ProyeccionBitacoraRepository proyeccionBitacoraRepository;
+
+    @Autowired
+    private SaldoDiarioService saldoDiarioService;
+
+    @Autowired
+    private CuentaDescriptorService cuentaDescriptorService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banking.movimientos.bitacora.directorio:bitacora}")
+    private String directorio;
+
+    @Value("${banking.movimientos.bitacora.tamano-segmento-mb:64}")
+    private int tamanoSegmentoMb;
+
+    @Value("${banking.movimientos.bitacora.force-ms:10}")
+    private long forceMs;
+
+    @Value("${banking.movimientos.bitacora.lote-proyeccion:500}")
+    private int loteProyeccion;
+
+    @Value("${banking.movimientos.bitacora.nodo:${spring.application.name:cuenta-service}}")
+    private String nodo;
+
+    // Números de cuenta separados por comas; vacío = todas las cuentas
+    @Value("${banking.movimientos.bitacora.cuentas:}")
+    private String cuentas;
+
+    private ArchivoBitacora archivo;
+    private TransactionTemplate transactionTemplate;
+    private Set<String> cuentasIncluidas;
+
+    // Saldo vigente por cuentaId, con los asientos aún sin proyectar ya aplicados
+    private final Map<Long, BigDecimal> saldos = new ConcurrentHashMap<>();
+    // Último asiento anexado por cuentaId
+    private final Map<Long, Long> ultimoAsiento = new ConcurrentHashMap<>();
+    private final BlockingQueue<Asiento> pendientes = new LinkedBlockingQueue<>();
+    // Locks explícitos en lugar de monitores, que anclarían los hilos virtuales mientras esperan
+    private final ReentrantLock anexado = new ReentrantLock();
+    private final ReentrantLock avance = new ReentrantLock();
+    private final Condition proyeccionAvanzada = avance.newCondition();
+    private volatile long proyectada;
+    private volatile boolean activo;
+
+    private Thread proyector;
+    private ScheduledExecutorService forzador;
+    private Timer confirmados;
+    private Timer revertidos;
+    private Timer proyecciones;
+
+    @PostConstruct
+    void iniciar() throws IOException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        cuentasIncluidas = Arrays.stream(cuentas.split(","))
+                .map(String::trim)
+                .filter(c -> !c.isEmpty())
+                .collect(Collectors.toSet());
+
+        // Mismo timer que MovimientoService.crearMovimiento: aquí termina al anexar el asiento
+        confirmados = Timer.builder("movimientos.crear")
+                .description("Duración de crearMovimiento hasta el fin de su transacción")
+                .tag("resultado", "confirmado")
+                .register(meterRegistry);
+        revertidos = Timer.builder("movimientos.crear")
+                .description("Duración de crearMovimiento hasta el fin de su transacción")
+                .tag("resultado", "revertido")
+                .register(meterRegistry);
+        proyecciones = Timer.builder("movimientos.bitacora.proyeccion")
+                .description("Duración de la transacción que proyecta un lote de asientos")
+                .register(meterRegistry);
+        Gauge.builder("movimientos.bitacora.pendientes", pendientes, BlockingQueue::size)
+                .description("Asientos anexados a la bitácora que aún no están en la base de datos")
+                .register(meterRegistry);
+
+        archivo = new ArchivoBitacora(Paths.get(directorio), tamanoSegmentoMb * 1024 * 1024);
+        int reproducidos = reproducir();
+        archivo.continuarDesde(proyectada);
+
+        activo = true;
+        proyector = new Thread(this::proyectarPendientes, "bitacora-proyector");
+        proyector.setDaemon(true);
+        proyector.start();
+        if (forceMs > 0) {
+            forzador = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread hilo = new Thread(r, "bitacora-force");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            forzador.scheduleWithFixedDelay(this::forzar, forceMs, forceMs, TimeUnit.MILLISECONDS);
+        }
+        log.info("Bitácora de movimientos activa en {} (nodo {}): secuencia {}, {} asientos reproducidos al iniciar",
+                directorio, nodo, archivo.ultimaSecuencia(), reproducidos);
+    }
+
+    // Deja de aceptar asientos, espera a que el proyector escriba los pendientes y vuelca la bitácora
+    @PreDestroy
+    void detener() throws InterruptedException {
+        activo = false;
+        proyector.join(TimeUnit.SECONDS.toMillis(30));
+        if (forzador != null) {
+            forzador.shutdown();
+        }
+        archivo.close();
+        log.info("Bitácora de movimientos detenida en la secuencia {}, proyectada hasta {}",
+                archivo.ultimaSecuencia(), proyectada);
+    }
+
+    public boolean aplica(String numeroCuenta) {
+        return cuentasIncluidas.isEmpty() || cuentasIncluidas.contains(numeroCuenta);
+    }
+
+    // Debe llamarse con el bloqueo de la cuenta tomado (MovimientoPostingEngine). El movimiento
+    // devuelto aún no tiene movimientoId: el id lo asigna la base de datos al proyectarlo.
+    public MovimientoDTO contabilizar(CrearMovimientoDTO crearMovimientoDTO) {
+        return MetricasTransaccion.medir(meterRegistry, confirmados, revertidos, () -> anotar(crearMovimientoDTO));
+    }
+
+    // Antes de que otro camino escriba en la cuenta desde la base de datos: espera a que sus
+    // asientos estén proyectados y olvida el saldo en memoria, que se relee en el siguiente asiento.
+    // Debe llamarse con el bloqueo de la cuenta tomado.
+    public void sincronizar(String numeroCuenta) {
+        if (!aplica(numeroCuenta)) {
+            return;
+        }
+        CuentaDescriptor descriptor = cuentaDescriptorService.getDescriptor(numeroCuenta);
+        if (descriptor == null) {
+            return;
+        }
+        Long cuentaId = descriptor.getCuentaId();
+        Long ultimo = ultimoAsiento.get(cuentaId);
+        if (ultimo != null) {
+            esperarProyeccion(ultimo);
+            ultimoAsiento.remove(cuentaId, ultimo);
+        }
+        saldos.remove(cuentaId);
+    }
+
+    // Proyecta los asientos posteriores a la secuencia registrada en bitacora_proyeccion
+    int reproducir() throws IOException {
+        proyectada = transactionTemplate.execute(status -> proyeccionBitacoraRepository.findById(nodo)
+                .orElseGet(() -> proyeccionBitacoraRepository.save(new ProyeccionBitacora(nodo, 0L)))
+                .getSecuencia());
+        List<Asiento> lote = new ArrayList<>(loteProyeccion);
+        int[] reproducidos = {0};
+        archivo.recorrerDesde(proyectada, asiento -> {
+            lote.add(asiento);
+            if (lote.size() == loteProyeccion) {
+                proyectar(lote);
+                reproducidos[0] += lote.size();
+                lote.clear();
+            }
+        });
+        if (!lote.isEmpty()) {
+            proyectar(lote);
+            reproducidos[0] += lote.size();
+        }
+        return reproducidos[0];
+    }
+
+    private MovimientoDTO anotar(CrearMovimientoDTO crearMovimientoDTO) {
+        if (!activo) {
+            throw new IllegalStateException("La bitácora de movimientos se está deteniendo");
+        }
+        CuentaDescriptor descriptor = cuentaDescriptorService.getDescriptor(crearMovimientoDTO.getNumeroCuenta());
+        if (descriptor == null) {
+            throw new IllegalArgumentException("Cuenta no encontrada");
+        }
+        if (!descriptor.isActiva()) {
+            throw new IllegalArgumentException("La cuenta no está activa");
+        }
+
+        Long cuentaId = descriptor.getCuentaId();
+        BigDecimal saldo = saldos.get(cuentaId);
+        if (saldo == null) {
+            saldo = leerSaldo(cuentaId);
+        }
+        // Mismo redondeo que aplica la columna DECIMAL(18,2) al insertar
+        BigDecimal valorMovimiento = crearMovimientoDTO.getValor().setScale(2, RoundingMode.HALF_UP);
+        BigDecimal nuevoSaldo = saldo.add(valorMovimiento);
+        if (valorMovimiento.compareTo(BigDecimal.ZERO) < 0 && nuevoSaldo.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Saldo no disponible");
+        }
+
+        Asiento asiento;
+        // La cola del proyector queda en el mismo orden que las secuencias
+        anexado.lock();
+        try {
+            asiento = archivo.agregar(cuentaId, System.currentTimeMillis(), valorMovimiento, nuevoSaldo);
+            pendientes.add(asiento);
+        } finally {
+            anexado.unlock();
+        }
+        saldos.put(cuentaId, nuevoSaldo);
+        ultimoAsiento.put(cuentaId, asiento.getSecuencia());
+
+        MovimientoDTO movimientoDTO = new MovimientoDTO();
+        movimientoDTO.setFecha(new Date(asiento.getFecha()));
+        movimientoDTO.setTipoMovimiento(MovimientoService.tipoMovimiento(valorMovimiento));
+        movimientoDTO.setValor(valorMovimiento);
+        movimientoDTO.setSaldo(nuevoSaldo);
+        movimientoDTO.setNumeroCuenta(descriptor.getNumeroCuenta());
+        return movimientoDTO;
+    }
+
+    // Solo se llama sin asientos pendientes de la cuenta, así que el saldo de la base de datos es el vigente
+    private BigDecimal leerSaldo(Long cuentaId) {
+        return transactionTemplate.execute(status -> {
+            BigDecimal saldo = cuentaRepository.findSaldoActual(cuentaId);
+            if (saldo == null) {
+                cuentaRepository.materializarSaldos(List.of(cuentaId));
+                saldo = cuentaRepository.findSaldoActual(cuentaId);
+            }
+            return saldo;
+        });
+    }
+
+    private void proyectarPendientes() {
+        List<Asiento> lote = new ArrayList<>(loteProyeccion);
+        int fallos = 0;
+        while (activo || !pendientes.isEmpty() || !lote.isEmpty()) {
+            try {
+                if (lote.isEmpty()) {
+                    Asiento primero = pendientes.poll(100, TimeUnit.MILLISECONDS);
+                    if (primero == null) {
+                        continue;
+                    }
+                    lote.add(primero);
+                    pendientes.drainTo(lote, loteProyeccion - 1);
+                }
+                proyectar(lote);
+                lote.clear();
+                fallos = 0;
+                archivo.descartarHasta(proyectada);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException | IOException e) {
+                fallos++;
+                log.error("Error al proyectar {} asientos de la bitácora (intento {})", lote.size(), fallos, e);
+                if (!activo && fallos >= 3) {
+                    // Siguen en la bitácora y se reproducen al volver a arrancar
+                    break;
+                }
+                try {
+                    TimeUnit.MILLISECONDS.sleep(Math.min(100L << Math.min(fallos, 6), 5000));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        int sinProyectar = lote.size() + pendientes.size();
+        if (sinProyectar > 0) {
+            log.warn("Proyector de la bitácora detenido con {} asientos sin proyectar; se reproducirán al iniciar",
+                    sinProyectar);
+        }
+    }
+
+    // Un lote en una transacción: los movimientos, el último saldo de cada cuenta, el último
+    // cierre de cada cuenta y día, y la secuencia proyectada
+    private void proyectar(List<Asiento> lote) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        long ultima = lote.get(lote.size() - 1).getSecuencia();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Movimiento> movimientos = new ArrayList<>(lote.size());
+            Map<Long, BigDecimal> saldosFinales = new TreeMap<>();
+            Map<String, SaldoDiario> cierres = new LinkedHashMap<>();
+            for (Asiento asiento : lote) {
+                Date fecha = new Date(asiento.getFecha());
+                movimientos.add(new Movimiento(fecha, MovimientoService.tipoMovimiento(asiento.getValor()),
+                        asiento.getValor(), asiento.getSaldo(), cuentaRepository.getReferenceById(asiento.getCuentaId())));
+                saldosFinales.put(asiento.getCuentaId(), asiento.getSaldo());
+                Date dia = SaldoDiarioService.inicioDelDia(fecha);
+                cierres.put(asiento.getCuentaId() + ":" + dia.getTime(),
+                        new SaldoDiario(asiento.getCuentaId(), dia, asiento.getSaldo()));
+            }
+            movimientoRepository.saveAll(movimientos);
+            saldosFinales.forEach(cuentaRepository::proyectarSaldo);
+            saldoDiarioService.registrarSaldos(cierres.values());
+            proyeccionBitacoraRepository.avanzar(nodo, ultima);
+        });
+        muestra.stop(proyecciones);
+        avance.lock();
+        try {
+            proyectada = ultima;
+            proyeccionAvanzada.signalAll();
+        } finally {
+            avance.unlock();
+        }
+    }
+
+    private void esperarProyeccion(long secuencia) {
+        long restante = TimeUnit.MILLISECONDS.toNanos(ESPERA_SINCRONIZAR_MS);
+        avance.lock();
+        try {
+            while (proyectada < secuencia) {
+                if (restante <= 0) {
+                    throw new ConflictoConcurrenciaException(
+                            "La cuenta tiene movimientos pendientes de registrar, intente nuevamente", null);
+                }
+                restante = proyeccionAvanzada.awaitNanos(restante);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictoConcurrenciaException("Espera de la bitácora interrumpida", e);
+        } finally {
+            avance.unlock();
+        }
+    }
+
+    private void forzar() {
+        try {
+            archivo.forzar();
+        } catch (RuntimeException e) {
+            log.error("No se pudo volcar la bitácora de movimientos a disco", e);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.config.RabbitMQConfig;
+import com.banking.cuenta.dto.ApiResponse;
+import com.banking.cuenta.dto.BootstrapClientesDTO;
+import com.banking.cuenta.dto.SnapshotClientesDTO;
+import com.banking.cuenta.event.ClienteCreatedEvent;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Carga inicial de cliente_info desde el snapshot de cliente-service. El rango de clienteIds se
+// reparte en tramos que se descargan en paralelo por páginas (keyset) y se aplican con el mismo
+// upsert por versión que los eventos. Al terminar se arranca el consumo de la cola de cambios:
+// lo publicado durante la carga espera en la cola y, como snapshot y eventos llevan la versión
+// del cliente, el orden en que se aplican no altera el resultado.
+@Service
+public class ClienteInfoBootstrapService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteInfoBootstrapService.class);
+
+    @Autowired
+    private ClienteInfoService clienteInfoService;
+
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ObjectProvider<RabbitListenerEndpointRegistry> listenerRegistry;
+
+    @Value("${banking.cliente-service.url:http://localhost:8081}")
+    private String clienteServiceUrl;
+
+    @Value("${banking.clientes-bootstrap.al-iniciar:true}")
+    private boolean cargarAlIniciar;
+
+    @Value("${banking.clientes-bootstrap.paralelismo:4}")
+    private int paralelismo;
+
+    @Value("${banking.clientes-bootstrap.pagina:5000}")
+    private int tamanoPagina;
+
+    @Value("${banking.clientes-bootstrap.lote:1000}")
+    private int tamanoLote;
+
+    @Value("${banking.clientes-bootstrap.timeout-lectura-ms:30000}")
+    private long timeoutLecturaMs;
+
+    private RestTemplate restTemplate;
+
+    @PostConstruct
+    public void init() {
+        restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(5))
+                .setReadTimeout(Duration.ofMillis(timeoutLecturaMs))
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sincronizarAlIniciar() {
+        try {
+            if (cargarAlIniciar) {
+                BootstrapClientesDTO resultado = cargarSnapshot();
+                log.info("cliente_info cargada desde el snapshot: {} clientes en {} ms ({} tramos)",
+                        resultado.getClientes(), resultado.getMilisegundos(), resultado.getTramos());
+            }
+        } catch (Exception e) {
+            // Sin snapshot la réplica se sigue poblando con los eventos
+            log.warn("No se pudo cargar el snapshot de clientes: {}", e.getMessage());
+        } finally {
+            iniciarConsumoDeEventos();
+        }
+    }
+
+    public BootstrapClientesDTO cargarSnapshot() throws Exception {
+        long inicio = System.nanoTime();
+        SnapshotClientesDTO rango = obtenerRango();
+        if (rango.getTotal() == null || rango.getTotal() == 0 || rango.getMinClienteId() == null) {
+            return new BootstrapClientesDTO(0, 0, 0, rango.getGeneradoEn());
+        }
+
+        // Tramos (desde, hasta] de igual amplitud sobre [min, max]
+        long desdeTotal = rango.getMinClienteId() - 1;
+        long amplitud = rango.getMaxClienteId() - desdeTotal;
+        int tramos = (int) Math.max(1, Math.min(paralelismo, amplitud));
+        long porTramo = (amplitud + tramos - 1) / tramos;
+
+        ExecutorService executor = Executors.newFixedThreadPool(tramos);
+        try {
+            List<Future<Long>> futuros = new ArrayList<>(tramos);
+            for (int t = 0; t < tramos; t++) {
+                long desde = desdeTotal + t * porTramo;
+                long hasta = Math.min(rango.getMaxClienteId(), desde + porTramo);
+                futuros.add(executor.submit(() -> cargarTramo(desde, hasta)));
+            }
+            long clientes = 0;
+            for (Future<Long> futuro : futuros) {
+                clientes += futuro.get();
+            }
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+            return new BootstrapClientesDTO(clientes, tramos, milisegundos, rango.getGeneradoEn());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void iniciarConsumoDeEventos() {
+        RabbitListenerEndpointRegistry registry = listenerRegistry.getIfAvailable();
+        MessageListenerContainer container = registry != null
+                ? registry.getListenerContainer(RabbitMQConfig.CLIENTE_EVENTOS_LISTENER_ID) : null;
+        if (container != null && !container.isRunning()) {
+            container.start();
+            log.info("Consumo de eventos de cliente iniciado");
+        }
+    }
+
+    private SnapshotClientesDTO obtenerRango() {
+        ApiResponse<SnapshotClientesDTO> respuesta = restTemplate.exchange(
+                clienteServiceUrl + "/api/clientes/snapshot", HttpMethod.GET, null,
+                new ParameterizedTypeReference<ApiResponse<SnapshotClientesDTO>>() {}).getBody();
+        if (respuesta == null || respuesta.getData() == null) {
+            throw new IllegalStateException("cliente-service no devolvió el rango del snapshot");
+        }
+        return respuesta.getData();
+    }
+
+    private long cargarTramo(long desde, long hasta) {
+        long cursor = desde;
+        long total = 0;
+        while (true) {
+            PaginaSnapshot pagina = cargarPagina(cursor, hasta);
+            total += pagina.filas;
+            if (pagina.filas < tamanoPagina) {
+                return total;
+            }
+            cursor = pagina.ultimoClienteId;
+        }
+    }
+
+    // Lee la página en streaming y la aplica en lotes mientras llega, sin acumularla entera
+    private PaginaSnapshot cargarPagina(long desde, long hasta) {
+        URI uri = UriComponentsBuilder.fromHttpUrl(clienteServiceUrl)
+                .path("/api/clientes/snapshot/clientes")
+                .queryParam("desde", desde)
+                .queryParam("hasta", hasta)
+                .queryParam("limite", tamanoPagina)
+                .build().toUri();
+        ObjectReader reader = objectMapper.readerFor(ClienteCreatedEvent.class);
+
+        return restTemplate.execute(uri, HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON)),
+                response -> {
+                    PaginaSnapshot pagina = new PaginaSnapshot(desde);
+                    List<ClienteCreatedEvent> lote = new ArrayList<>(tamanoLote);
+                    try (MappingIterator<ClienteCreatedEvent> filas = reader.readValues(response.getBody())) {
+                        while (filas.hasNext()) {
+                            ClienteCreatedEvent fila = filas.next();
+                            lote.add(fila);
+                            pagina.filas++;
+                            pagina.ultimoClienteId = fila.getClienteId();
+                            if (lote.size() == tamanoLote) {
+                                clienteInfoService.actualizarInfoClientes(lote);
+                                lote = new ArrayList<>(tamanoLote);
+                            }
+                        }
+                    }
+                    if (!lote.isEmpty()) {
+                        clienteInfoService.actualizarInfoClientes(lote);
+                    }
+                    return pagina;
+                });
+    }
+
+    private static final class PaginaSnapshot {
+        int filas;
+        long ultimoClienteId;
+
+        PaginaSnapshot(long desde) {
+            this.ultimoClienteId = desde;
+        }
+    }
+}
@@ -1,12 +1,25 @@
 package com.banking.cuenta.service;
 
+import com.banking.cuenta.config.CacheConfig;
 import com.banking.cuenta.dto.ClienteInfoDTO;
 import com.banking.cuenta.entity.ClienteInfo;
 import com.banking.cuenta.event.ClienteCreatedEvent;
 import com.banking.cuenta.repository.ClienteInfoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -15,25 +28,77 @@ public class ClienteInfoService {
     @Autowired
     private ClienteInfoRepository clienteInfoRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    // cliente_info solo cambia al recibir eventos, así que se sirve desde la caché local. Un id
+    // desconocido no se cachea: su evento puede aplicarlo otra instancia, que no invalidaría esta caché
+    @Cacheable(cacheNames = CacheConfig.CLIENTE_INFO, key = "#clienteId", unless = "#result == null")
     public ClienteInfoDTO getClienteInfo(Long clienteId) {
         Optional<ClienteInfo> clienteInfo = clienteInfoRepository.findByClienteId(clienteId);
-        return clienteInfo.map(info -> {
-            ClienteInfoDTO dto = new ClienteInfoDTO();
-            dto.setClienteId(info.getClienteId());
-            dto.setNombre(info.getNombre());
-            dto.setIdentificacion(info.getIdentificacion());
-            dto.setEstado(info.getEstado());
-            return dto;
-        }).orElse(null);
+        return clienteInfo.map(this::toDTO).orElse(null);
+    }
+
+    // Un lote de eventos (o de filas del snapshot) en una sola transacción y un solo upsert
+    // multi-fila. Si un cliente aparece varias veces prevalece la versión más alta (a igual
+    // versión, el último recibido).
+    @Transactional
+    public int actualizarInfoClientes(List<ClienteCreatedEvent> eventos) {
+        Date fechaSincronizacion = new Date();
+        Map<Long, ClienteInfo> porCliente = new LinkedHashMap<>();
+        for (ClienteCreatedEvent event : eventos) {
+            ClienteInfo anterior = porCliente.get(event.getClienteId());
+            if (anterior != null && anterior.getVersion() != null && event.getVersion() != null
+                    && event.getVersion() < anterior.getVersion()) {
+                continue;
+            }
+            ClienteInfo clienteInfo = new ClienteInfo();
+            clienteInfo.setClienteId(event.getClienteId());
+            clienteInfo.setNombre(event.getNombre());
+            clienteInfo.setIdentificacion(event.getIdentificacion());
+            clienteInfo.setEstado(event.getEstado());
+            clienteInfo.setFechaSincronizacion(fechaSincronizacion);
+            clienteInfo.setVersion(event.getVersion());
+            porCliente.put(event.getClienteId(), clienteInfo);
+        }
+
+        clienteInfoRepository.upsertTodos(porCliente.values());
+        invalidarCache(porCliente.keySet());
+        return porCliente.size();
+    }
+
+    // Cliente obtenido por la consulta de respaldo a cliente-service: en transacción propia para
+    // que un fallo al guardarlo no deje marcada para rollback la transacción de quien consultó
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void guardarClienteConsultado(ClienteCreatedEvent cliente) {
+        actualizarInfoClientes(List.of(cliente));
+    }
+
+    // El upsert puede descartar filas con versión antigua, así que no se sabe qué datos quedaron:
+    // se descartan las entradas tras el commit y la siguiente consulta las relee
+    private void invalidarCache(Collection<Long> clienteIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.CLIENTE_INFO);
+        if (cache == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clienteIds.forEach(cache::evict);
+                }
+            });
+        } else {
+            clienteIds.forEach(cache::evict);
+        }
     }
 
-    public void actualizarInfoCliente(ClienteCreatedEvent event) {
-        ClienteInfo clienteInfo = new ClienteInfo();
-        clienteInfo.setClienteId(event.getClienteId());
-        clienteInfo.setNombre(event.getNombre());
-        clienteInfo.setIdentificacion(event.getIdentificacion());
-        clienteInfo.setEstado(event.getEstado());
-        
-        clienteInfoRepository.save(clienteInfo);
+    private ClienteInfoDTO toDTO(ClienteInfo info) {
+        ClienteInfoDTO dto = new ClienteInfoDTO();
+        dto.setClienteId(info.getClienteId());
+        dto.setNombre(info.getNombre());
+        dto.setIdentificacion(info.getIdentificacion());
+        dto.setEstado(info.getEstado());
+        return dto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,226 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.ApiResponse;
+import com.banking.cuenta.dto.ClienteInfoDTO;
+import com.banking.cuenta.event.ClienteCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Consulta de respaldo a cliente-service para clientes que aún no llegaron a cliente_info
+// (evento pendiente). Las consultas simultáneas por el mismo clienteId comparten una única
+// llamada, lo encontrado se guarda en cliente_info con el mismo upsert por versión que los
+// eventos, y con timeouts cortos, un límite de llamadas simultáneas y un circuito que se abre
+// tras varios fallos seguidos: si cliente-service está lento o caído se responde como antes
+// (cliente no encontrado) sin retener hilos de Tomcat.
+@Service
+public class ClienteRemotoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteRemotoService.class);
+
+    @Autowired
+    private ClienteInfoService clienteInfoService;
+
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banking.cliente-service.url:http://localhost:8081}")
+    private String clienteServiceUrl;
+
+    @Value("${banking.cliente-service.fallback.habilitado:true}")
+    private boolean habilitado;
+
+    @Value("${banking.cliente-service.fallback.timeout-conexion-ms:300}")
+    private long timeoutConexionMs;
+
+    @Value("${banking.cliente-service.fallback.timeout-lectura-ms:1000}")
+    private long timeoutLecturaMs;
+
+    @Value("${banking.cliente-service.fallback.max-concurrentes:20}")
+    private int maxConcurrentes;
+
+    @Value("${banking.cliente-service.fallback.fallos-para-abrir:5}")
+    private int fallosParaAbrir;
+
+    @Value("${banking.cliente-service.fallback.abierto-ms:30000}")
+    private long abiertoMs;
+
+    private RestTemplate restTemplate;
+    private Semaphore llamadasDisponibles;
+
+    // Llamada en curso por clienteId; la primera petición la ejecuta y el resto espera su resultado
+    private final ConcurrentMap<Long, CompletableFuture<ClienteCreatedEvent>> enCurso = new ConcurrentHashMap<>();
+
+    // Circuito: cerrado mientras fallosConsecutivos < fallosParaAbrir; abierto hasta abiertoHasta
+    private final AtomicInteger fallosConsecutivos = new AtomicInteger();
+    private final AtomicLong abiertoHasta = new AtomicLong();
+
+    private Counter consultasRemotas;
+    private Counter consultasCompartidas;
+    private Counter consultasRechazadas;
+    private Counter consultasFallidas;
+
+    @PostConstruct
+    public void init() {
+        restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(timeoutConexionMs))
+                .setReadTimeout(Duration.ofMillis(timeoutLecturaMs))
+                .build();
+        llamadasDisponibles = new Semaphore(maxConcurrentes);
+
+        consultasRemotas = Counter.builder("clientes.fallback.consultas")
+                .description("Consultas a cliente-service por clientes ausentes en cliente_info")
+                .register(meterRegistry);
+        consultasCompartidas = Counter.builder("clientes.fallback.compartidas")
+                .description("Peticiones que esperaron una consulta ya en curso por el mismo cliente")
+                .register(meterRegistry);
+        consultasRechazadas = Counter.builder("clientes.fallback.rechazadas")
+                .description("Consultas no realizadas por circuito abierto o límite de concurrencia")
+                .register(meterRegistry);
+        consultasFallidas = Counter.builder("clientes.fallback.fallidas").register(meterRegistry);
+        Gauge.builder("clientes.fallback.circuito.abierto", this, s -> s.circuitoAbierto() ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    // Cliente desde la réplica local y, si no está, desde cliente-service. Nulo si no existe o no
+    // se pudo consultar a tiempo.
+    public ClienteInfoDTO getClienteInfo(Long clienteId) {
+        ClienteInfoDTO local = clienteInfoService.getClienteInfo(clienteId);
+        if (local != null || !habilitado || clienteId == null) {
+            return local;
+        }
+        ClienteCreatedEvent remoto = consultarCompartido(clienteId);
+        return remoto != null ? toDTO(remoto) : null;
+    }
+
+    public boolean circuitoAbierto() {
+        return fallosConsecutivos.get() >= fallosParaAbrir && System.currentTimeMillis() < abiertoHasta.get();
+    }
+
+    private ClienteCreatedEvent consultarCompartido(Long clienteId) {
+        CompletableFuture<ClienteCreatedEvent> propia = new CompletableFuture<>();
+        CompletableFuture<ClienteCreatedEvent> existente = enCurso.putIfAbsent(clienteId, propia);
+        if (existente != null) {
+            consultasCompartidas.increment();
+            return esperar(existente);
+        }
+
+        try {
+            ClienteCreatedEvent cliente = consultar(clienteId);
+            propia.complete(cliente);
+            return cliente;
+        } finally {
+            // Sin efecto si ya se completó; si hubo excepción libera a los que esperan
+            propia.complete(null);
+            enCurso.remove(clienteId, propia);
+        }
+    }
+
+    private ClienteCreatedEvent esperar(CompletableFuture<ClienteCreatedEvent> existente) {
+        try {
+            // Nunca más que lo que puede tardar la llamada que se está esperando
+            return existente.get(timeoutConexionMs + timeoutLecturaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    private ClienteCreatedEvent consultar(Long clienteId) {
+        if (!permitirLlamada()) {
+            consultasRechazadas.increment();
+            return null;
+        }
+        if (!llamadasDisponibles.tryAcquire()) {
+            consultasRechazadas.increment();
+            return null;
+        }
+        consultasRemotas.increment();
+        ClienteCreatedEvent cliente;
+        try {
+            ApiResponse<ClienteCreatedEvent> respuesta = restTemplate.exchange(
+                    clienteServiceUrl + "/api/clientes/cliente/{clienteId}", HttpMethod.GET, null,
+                    new ParameterizedTypeReference<ApiResponse<ClienteCreatedEvent>>() {}, clienteId).getBody();
+            cliente = respuesta != null ? respuesta.getData() : null;
+            registrarExito();
+        } catch (HttpClientErrorException.NotFound e) {
+            registrarExito();
+            return null;
+        } catch (Exception e) {
+            registrarFallo();
+            log.warn("No se pudo consultar el cliente {} en cliente-service: {}", clienteId, e.getMessage());
+            return null;
+        } finally {
+            llamadasDisponibles.release();
+        }
+
+        if (cliente != null) {
+            // Se guarda en cliente_info para que las siguientes consultas lo resuelvan localmente
+            try {
+                clienteInfoService.guardarClienteConsultado(cliente);
+            } catch (Exception e) {
+                log.warn("No se pudo guardar el cliente {} en cliente_info: {}", clienteId, e.getMessage());
+            }
+        }
+        return cliente;
+    }
+
+    // Con el circuito abierto no se llama; vencido el plazo pasa una sola llamada de prueba, que
+    // reserva el siguiente plazo: si falla el circuito sigue abierto, si responde se cierra
+    private boolean permitirLlamada() {
+        if (fallosConsecutivos.get() < fallosParaAbrir) {
+            return true;
+        }
+        long hasta = abiertoHasta.get();
+        long ahora = System.currentTimeMillis();
+        return ahora >= hasta && abiertoHasta.compareAndSet(hasta, ahora + abiertoMs);
+    }
+
+    private void registrarExito() {
+        fallosConsecutivos.set(0);
+    }
+
+    private void registrarFallo() {
+        consultasFallidas.increment();
+        if (fallosConsecutivos.incrementAndGet() == fallosParaAbrir) {
+            abiertoHasta.set(System.currentTimeMillis() + abiertoMs);
+            log.warn("Circuito hacia cliente-service abierto durante {} ms", abiertoMs);
+        }
+    }
+
+    private ClienteInfoDTO toDTO(ClienteCreatedEvent cliente) {
+        ClienteInfoDTO dto = new ClienteInfoDTO();
+        dto.setClienteId(cliente.getClienteId());
+        dto.setNombre(cliente.getNombre());
+        dto.setIdentificacion(cliente.getIdentificacion());
+        dto.setEstado(cliente.getEstado());
+        return dto;
+    }
+}
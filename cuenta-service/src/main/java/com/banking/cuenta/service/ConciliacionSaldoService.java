@@ -0,0 +1,78 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.ConciliacionSaldoDTO;
+import com.banking.cuenta.repository.CuentaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class ConciliacionSaldoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConciliacionSaldoService.class);
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banking.saldos.backfill-al-iniciar:true}")
+    private boolean backfillAlIniciar;
+
+    @Value("${banking.saldos.backfill-lote:500}")
+    private int tamanoLote;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillAlIniciar() {
+        if (backfillAlIniciar) {
+            int cuentas = backfillSaldos();
+            if (cuentas > 0) {
+                log.info("Saldo actual materializado para {} cuentas", cuentas);
+            }
+        }
+    }
+
+    // Materializa saldo_actual en las cuentas que aún no lo tienen, por lotes y cada
+    // lote en su propia transacción para no retener bloqueos sobre toda la tabla
+    public int backfillSaldos() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        int total = 0;
+        while (true) {
+            Integer actualizadas = tx.execute(status -> {
+                List<Long> ids = cuentaRepository.findCuentaIdsSinSaldoActual(PageRequest.of(0, tamanoLote));
+                return ids.isEmpty() ? 0 : cuentaRepository.materializarSaldos(ids);
+            });
+            if (actualizadas == null || actualizadas == 0) {
+                return total;
+            }
+            total += actualizadas;
+        }
+    }
+
+    // Compara el saldo materializado con el recalculado desde el historial de movimientos
+    public List<ConciliacionSaldoDTO> conciliarSaldos() {
+        List<Object[]> descuadres = cuentaRepository.findDescuadresDeSaldo();
+        if (!descuadres.isEmpty()) {
+            log.warn("Conciliación de saldos: {} cuentas descuadradas", descuadres.size());
+        }
+        return descuadres.stream()
+                .map(fila -> new ConciliacionSaldoDTO(
+                        ((Number) fila[0]).longValue(),
+                        (String) fila[1],
+                        (BigDecimal) fila[2],
+                        (BigDecimal) fila[3]))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,48 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.config.CacheConfig;
+import com.banking.cuenta.dto.CuentaDescriptor;
+import com.banking.cuenta.repository.CuentaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Índice en memoria numeroCuenta -> CuentaDescriptor para que contabilizar un movimiento
+// no tenga que buscar e hidratar la cuenta en cada petición
+@Service
+public class CuentaDescriptorService {
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Las cuentas inexistentes no se cachean: pueden crearse en cualquier momento
+    @Cacheable(cacheNames = CacheConfig.CUENTA_DESCRIPTOR, key = "#numeroCuenta", unless = "#result == null")
+    public CuentaDescriptor getDescriptor(String numeroCuenta) {
+        return cuentaRepository.findDescriptorByNumeroCuenta(numeroCuenta).orElse(null);
+    }
+
+    // Se descarta ahora y otra vez tras el commit, para que una lectura concurrente hecha
+    // antes del commit no deje en la caché los datos anteriores al cambio
+    public void invalidar(String numeroCuenta) {
+        Cache cache = cacheManager.getCache(CacheConfig.CUENTA_DESCRIPTOR);
+        if (cache == null) {
+            return;
+        }
+        cache.evict(numeroCuenta);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(numeroCuenta);
+                }
+            });
+        }
+    }
+}
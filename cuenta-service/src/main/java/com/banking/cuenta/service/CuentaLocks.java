@@ -0,0 +1,63 @@
+package com.banking.cuenta.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Bloqueos en memoria por cuenta, repartidos en un número fijo de franjas (striping).
+// Dos operaciones sobre la misma cuenta se serializan; cuentas distintas caen casi
+// siempre en franjas distintas y avanzan en paralelo.
+@Component
+public class CuentaLocks {
+
+    private final ReentrantLock[] franjas;
+    private final int mascara;
+
+    public CuentaLocks(@Value("${banking.movimientos.lock-franjas:1024}") int numeroFranjas) {
+        int tamano = Integer.highestOneBit(Math.max(1, numeroFranjas - 1)) << 1;
+        this.franjas = new ReentrantLock[tamano];
+        for (int i = 0; i < tamano; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+        this.mascara = tamano - 1;
+    }
+
+    public <T> T ejecutar(String numeroCuenta, Supplier<T> accion) {
+        ReentrantLock lock = franjas[indice(numeroCuenta)];
+        lock.lock();
+        try {
+            return accion.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Transferencias: las dos franjas se toman en orden ascendente de índice, así dos
+    // transferencias opuestas sobre el mismo par nunca retienen cada una la franja que
+    // espera la otra. Si ambas cuentas caen en la misma franja, el ReentrantLock admite la
+    // segunda adquisición.
+    public <T> T ejecutar(String numeroCuentaA, String numeroCuentaB, Supplier<T> accion) {
+        int a = indice(numeroCuentaA);
+        int b = indice(numeroCuentaB);
+        ReentrantLock primera = franjas[Math.min(a, b)];
+        ReentrantLock segunda = franjas[Math.max(a, b)];
+        primera.lock();
+        try {
+            segunda.lock();
+            try {
+                return accion.get();
+            } finally {
+                segunda.unlock();
+            }
+        } finally {
+            primera.unlock();
+        }
+    }
+
+    int indice(String numeroCuenta) {
+        int h = numeroCuenta.hashCode();
+        return (h ^ (h >>> 16)) & mascara;
+    }
+}
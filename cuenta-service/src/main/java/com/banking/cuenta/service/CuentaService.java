@@ -3,12 +3,14 @@ package com.banking.cuenta.service;
 import com.banking.cuenta.dto.CrearCuentaDTO;
 import com.banking.cuenta.dto.CuentaDTO;
 import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.mapper.CuentaMapper;
 import com.banking.cuenta.repository.CuentaRepository;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -21,43 +23,59 @@ public class CuentaService {
     private CuentaRepository cuentaRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private CuentaMapper cuentaMapper;
 
     @Autowired
-    private ClienteInfoService clienteInfoService;
+    private ClienteRemotoService clienteRemotoService;
 
+    @Autowired
+    private CuentaDescriptorService cuentaDescriptorService;
+
+    @Autowired
+    private SaldoDiarioService saldoDiarioService;
+
+    // Solo existe con banking.movimientos.bitacora.habilitado=true
+    @Autowired(required = false)
+    private BitacoraMovimientos bitacoraMovimientos;
+
+    @Transactional(readOnly = true)
     public List<CuentaDTO> getAllCuentas() {
         List<Cuenta> cuentas = cuentaRepository.findAll();
         return cuentas.stream()
-                .map(cuenta -> modelMapper.map(cuenta, CuentaDTO.class))
+                .map(cuentaMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     public CuentaDTO getCuentaById(Long id) {
         Optional<Cuenta> cuenta = cuentaRepository.findById(id);
-        return cuenta.map(c -> modelMapper.map(c, CuentaDTO.class)).orElse(null);
+        return cuenta.map(cuentaMapper::toDTO).orElse(null);
     }
 
     public CuentaDTO getCuentaByNumero(String numeroCuenta) {
         Optional<Cuenta> cuenta = cuentaRepository.findByNumeroCuenta(numeroCuenta);
-        return cuenta.map(c -> modelMapper.map(c, CuentaDTO.class)).orElse(null);
+        return cuenta.map(cuentaMapper::toDTO).orElse(null);
     }
 
+    @Transactional(readOnly = true)
     public List<CuentaDTO> getCuentasByClienteId(Long clienteId) {
         List<Cuenta> cuentas = cuentaRepository.findByClienteId(clienteId);
         return cuentas.stream()
-                .map(cuenta -> modelMapper.map(cuenta, CuentaDTO.class))
+                .map(cuentaMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    // Sin transacción: la validación del cliente puede acabar en una llamada HTTP a cliente-service
+    // y no debe retener una conexión ni una transacción abierta. El alta es un único INSERT, y la
+    // restricción única de numero_cuenta cubre dos altas simultáneas con el mismo número.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public CuentaDTO crearCuenta(CrearCuentaDTO crearCuentaDTO) {
         // Validar si ya existe el número de cuenta
         if (cuentaRepository.existsByNumeroCuenta(crearCuentaDTO.getNumeroCuenta())) {
             throw new IllegalArgumentException("Ya existe una cuenta con ese número");
         }
 
-        // Validar que el cliente existe
-        if (clienteInfoService.getClienteInfo(crearCuentaDTO.getClienteId()) == null) {
+        // Validar que el cliente existe (en cliente_info o, si su evento no llegó, en cliente-service)
+        if (clienteRemotoService.getClienteInfo(crearCuentaDTO.getClienteId()) == null) {
             throw new IllegalArgumentException("Cliente no encontrado");
         }
 
@@ -65,34 +83,52 @@ public class CuentaService {
         cuenta.setNumeroCuenta(crearCuentaDTO.getNumeroCuenta());
         cuenta.setTipoCuenta(crearCuentaDTO.getTipoCuenta());
         cuenta.setSaldoInicial(crearCuentaDTO.getSaldoInicial());
+        cuenta.setSaldoActual(crearCuentaDTO.getSaldoInicial());
         cuenta.setEstado(true);
         cuenta.setClienteId(crearCuentaDTO.getClienteId());
 
         Cuenta cuentaGuardada = cuentaRepository.save(cuenta);
-        return modelMapper.map(cuentaGuardada, CuentaDTO.class);
+        return cuentaMapper.toDTO(cuentaGuardada);
     }
 
     public CuentaDTO actualizarCuenta(Long id, CrearCuentaDTO cuentaDTO) {
-        Optional<Cuenta> cuentaExistente = cuentaRepository.findById(id);
+        // Bloquea la cuenta: ningún movimiento debe cambiar saldo_actual ni los cierres diarios
+        // mientras se desplazan
+        Optional<Cuenta> cuentaExistente = cuentaRepository.findByCuentaIdForUpdate(id);
         if (cuentaExistente.isEmpty()) {
             throw new IllegalArgumentException("Cuenta no encontrada");
         }
 
         Cuenta cuenta = cuentaExistente.get();
+        BigDecimal diferencia = cuentaDTO.getSaldoInicial().subtract(cuenta.getSaldoInicial());
+        // La bitácora guarda el saldo vigente en memoria y lo proyecta tal cual sobre saldo_actual
+        if (bitacoraMovimientos != null && bitacoraMovimientos.aplica(cuenta.getNumeroCuenta())
+                && diferencia.signum() != 0) {
+            throw new IllegalArgumentException("El saldo inicial de una cuenta contabilizada en bitácora no puede modificarse");
+        }
         cuenta.setTipoCuenta(cuentaDTO.getTipoCuenta());
+        if (diferencia.signum() != 0) {
+            // El saldo materializado y los cierres diarios se desplazan en la misma diferencia
+            // que el saldo inicial
+            if (cuenta.getSaldoActual() != null) {
+                cuenta.setSaldoActual(cuenta.getSaldoActual().add(diferencia));
+            }
+            saldoDiarioService.desplazarSaldos(cuenta.getCuentaId(), diferencia);
+        }
         cuenta.setSaldoInicial(cuentaDTO.getSaldoInicial());
 
         Cuenta cuentaActualizada = cuentaRepository.save(cuenta);
-        return modelMapper.map(cuentaActualizada, CuentaDTO.class);
+        cuentaDescriptorService.invalidar(cuenta.getNumeroCuenta());
+        return cuentaMapper.toDTO(cuentaActualizada);
     }
 
     public boolean eliminarCuenta(Long id) {
         Optional<Cuenta> cuenta = cuentaRepository.findById(id);
         if (cuenta.isPresent()) {
-            // Soft delete - cambiar estado a false
-            Cuenta cuentaEntity = cuenta.get();
-            cuentaEntity.setEstado(false);
-            cuentaRepository.save(cuentaEntity);
+            // Soft delete - cambiar estado a false. Con save() de la fila leída, un movimiento
+            // contabilizado entre la lectura y el commit hacía fallar la baja por versión
+            cuentaRepository.desactivar(id);
+            cuentaDescriptorService.invalidar(cuenta.get().getNumeroCuenta());
             return true;
         }
         return false;
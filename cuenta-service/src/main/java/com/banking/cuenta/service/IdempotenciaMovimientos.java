@@ -0,0 +1,406 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.entity.MovimientoIdempotente;
+import com.banking.cuenta.exception.ConflictoConcurrenciaException;
+import com.banking.cuenta.repository.MovimientoIdempotenteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Claves Idempotency-Key de POST /api/movimientos. La primera petición con una clave contabiliza
+// el movimiento y guarda su respuesta; las repeticiones hasta que la clave vence (ttl-minutos)
+// reciben esa misma respuesta sin volver a contabilizar.
+//
+// La tabla movimientos_idempotencia decide qué petición contabiliza: antes de contabilizar se
+// inserta la clave EN_CURSO y, si ya existe, se responde con la fila (409 si sigue en curso, la
+// respuesta original si está COMPLETADO). Así ninguna clave se contabiliza dos veces, ni con
+// varias instancias ni tras un reinicio. Si la instancia cae entre la reserva y la respuesta,
+// la clave responde 409 hasta que vence: no se sabe si el movimiento llegó a contabilizarse.
+//
+// La memoria es solo una caché de lectura delante de la tabla. Las claves se reparten en franjas,
+// cada una con su lock y un LinkedHashMap en orden de inserción: con un TTL fijo ese es también
+// el orden de vencimiento, así que las vencidas se desalojan desde la cabeza sin recorrer el mapa.
+// Las reservas en curso de esta instancia nunca se desalojan. Al arrancar se cargan las
+// respuestas vigentes más recientes.
+@Service
+public class IdempotenciaMovimientos {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaMovimientos.class);
+
+    static final int LONGITUD_MAXIMA = 100;
+    private static final int MAX_INTENTOS_RESERVA = 3;
+
+    @Autowired
+    private MovimientoIdempotenteRepository movimientoIdempotenteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banking.movimientos.idempotencia.ttl-minutos:1440}")
+    private long ttlMinutos;
+
+    @Value("${banking.movimientos.idempotencia.capacidad:200000}")
+    private int capacidad;
+
+    @Value("${banking.movimientos.idempotencia.franjas:64}")
+    private int numeroFranjas;
+
+    @Value("${banking.movimientos.idempotencia.purga-minutos:10}")
+    private long purgaMinutos;
+
+    @Value("${banking.movimientos.idempotencia.lote-purga:5000}")
+    private int lotePurga;
+
+    private Franja[] franjas;
+    private int mascara;
+    private int capacidadPorFranja;
+    // Transacción propia: la reserva queda confirmada y visible para las demás instancias antes
+    // de contabilizar, aunque quien llama tenga una transacción abierta
+    private TransactionTemplate transaccionPropia;
+
+    private ScheduledExecutorService purga;
+    private Counter nuevas;
+    private Counter repetidas;
+    private Counter recuperadas;
+
+    @PostConstruct
+    void iniciar() {
+        int tamano = Integer.highestOneBit(Math.max(1, numeroFranjas - 1)) << 1;
+        franjas = new Franja[tamano];
+        for (int i = 0; i < tamano; i++) {
+            franjas[i] = new Franja();
+        }
+        mascara = tamano - 1;
+        capacidadPorFranja = Math.max(1, capacidad / tamano);
+        transaccionPropia = new TransactionTemplate(transactionManager);
+        transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        nuevas = Counter.builder("movimientos.idempotencia")
+                .description("Peticiones con Idempotency-Key según cómo se resolvieron")
+                .tag("resultado", "nueva")
+                .register(meterRegistry);
+        repetidas = Counter.builder("movimientos.idempotencia")
+                .description("Peticiones con Idempotency-Key según cómo se resolvieron")
+                .tag("resultado", "repetida")
+                .register(meterRegistry);
+        recuperadas = Counter.builder("movimientos.idempotencia")
+                .description("Peticiones con Idempotency-Key según cómo se resolvieron")
+                .tag("resultado", "recuperada")
+                .register(meterRegistry);
+
+        cargarVigentes();
+        purga = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "idempotencia-purga");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        purga.scheduleWithFixedDelay(this::purgarVencidas, purgaMinutos, purgaMinutos, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    void detener() {
+        purga.shutdownNow();
+    }
+
+    // Contabiliza con la acción indicada salvo que la clave ya tenga respuesta. Una repetición
+    // con otra cuenta u otro valor se rechaza; una repetición mientras la original sigue en
+    // curso recibe 409. Si la original falla la clave queda libre para reintentar.
+    public MovimientoDTO contabilizar(String clave, CrearMovimientoDTO crearMovimientoDTO,
+                                      Function<CrearMovimientoDTO, MovimientoDTO> accion) {
+        if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA) {
+            throw new IllegalArgumentException("La clave de idempotencia debe tener entre 1 y " + LONGITUD_MAXIMA + " caracteres");
+        }
+        long ahora = System.currentTimeMillis();
+        Franja franja = franjas[indice(clave)];
+        Registro registro;
+        franja.bloqueo.lock();
+        try {
+            registro = franja.obtener(clave, ahora);
+            if (registro != null) {
+                MovimientoDTO original = repetir(registro, crearMovimientoDTO);
+                repetidas.increment();
+                return original;
+            }
+            // Las repeticiones que lleguen a esta instancia reciben 409 sin consultar la tabla
+            registro = new Registro(crearMovimientoDTO.getNumeroCuenta(), crearMovimientoDTO.getValor(),
+                    ahora + TimeUnit.MINUTES.toMillis(ttlMinutos));
+            franja.agregar(clave, registro, ahora);
+        } finally {
+            franja.bloqueo.unlock();
+        }
+
+        MovimientoIdempotente existente;
+        try {
+            existente = reservar(clave, registro, ahora);
+        } catch (RuntimeException e) {
+            quitar(franja, clave, registro);
+            throw e;
+        }
+        if (existente != null) {
+            // Otra petición, de esta u otra instancia, tiene la clave
+            Registro original = new Registro(existente);
+            franja.bloqueo.lock();
+            try {
+                if (original.enCurso) {
+                    franja.registros.remove(clave, registro);
+                } else {
+                    franja.registros.replace(clave, registro, original);
+                }
+            } finally {
+                franja.bloqueo.unlock();
+            }
+            MovimientoDTO respuesta = repetir(original, crearMovimientoDTO);
+            recuperadas.increment();
+            return respuesta;
+        }
+
+        MovimientoDTO movimiento;
+        try {
+            movimiento = accion.apply(crearMovimientoDTO);
+        } catch (RuntimeException e) {
+            liberar(clave);
+            quitar(franja, clave, registro);
+            throw e;
+        }
+        MovimientoIdempotente respuesta = new MovimientoIdempotente(clave, movimiento.getNumeroCuenta(),
+                movimiento.getMovimientoId(), movimiento.getFecha(), movimiento.getTipoMovimiento(),
+                movimiento.getValor(), movimiento.getSaldo(), new Date(registro.expira));
+        franja.bloqueo.lock();
+        try {
+            registro.completar(respuesta);
+        } finally {
+            franja.bloqueo.unlock();
+        }
+        guardar(respuesta);
+        nuevas.increment();
+        return movimiento;
+    }
+
+    // Inserta la reserva EN_CURSO; devuelve la fila vigente si la clave ya era de otra petición.
+    // Una fila vencida que la purga aún no borró se vuelve a reservar.
+    private MovimientoIdempotente reservar(String clave, Registro registro, long ahora) {
+        MovimientoIdempotente reserva = new MovimientoIdempotente(clave, registro.numeroCuenta, registro.valor,
+                new Date(registro.expira));
+        for (int intento = 1; ; intento++) {
+            try {
+                transaccionPropia.executeWithoutResult(status -> movimientoIdempotenteRepository.reservar(reserva));
+                return null;
+            } catch (DuplicateKeyException e) {
+                Optional<MovimientoIdempotente> fila = transaccionPropia.execute(
+                        status -> movimientoIdempotenteRepository.findById(clave));
+                if (fila.isPresent() && fila.get().getExpira().getTime() > ahora) {
+                    return fila.get();
+                }
+                if (fila.isPresent() && transaccionPropia.execute(
+                        status -> movimientoIdempotenteRepository.reservarVencida(reserva, new Date(ahora))) == 1) {
+                    return null;
+                }
+                // La otra petición liberó la clave o retomó la vencida entre ambas sentencias
+                if (intento >= MAX_INTENTOS_RESERVA) {
+                    throw new ConflictoConcurrenciaException(
+                            "Hay una petición en curso con la misma clave de idempotencia, intente nuevamente", e);
+                }
+            }
+        }
+    }
+
+    // El movimiento ya está contabilizado: si la respuesta no llega a guardarse, la fila sigue
+    // EN_CURSO (las demás instancias responden 409) y esta instancia la repite desde memoria
+    private void guardar(MovimientoIdempotente respuesta) {
+        try {
+            transaccionPropia.executeWithoutResult(status -> movimientoIdempotenteRepository.completar(respuesta));
+        } catch (RuntimeException e) {
+            log.error("No se pudo guardar la respuesta de la clave de idempotencia {}", respuesta.getClave(), e);
+        }
+    }
+
+    // Si la reserva no se puede borrar, la clave responde 409 hasta que vence
+    private void liberar(String clave) {
+        try {
+            transaccionPropia.executeWithoutResult(status -> movimientoIdempotenteRepository.liberar(clave));
+        } catch (RuntimeException e) {
+            log.error("No se pudo liberar la clave de idempotencia {}", clave, e);
+        }
+    }
+
+    private void quitar(Franja franja, String clave, Registro registro) {
+        franja.bloqueo.lock();
+        try {
+            franja.registros.remove(clave, registro);
+        } finally {
+            franja.bloqueo.unlock();
+        }
+    }
+
+    private MovimientoDTO repetir(Registro registro, CrearMovimientoDTO crearMovimientoDTO) {
+        if (!registro.coincide(crearMovimientoDTO)) {
+            throw new IllegalArgumentException("La clave de idempotencia ya se usó con otro movimiento");
+        }
+        if (registro.enCurso) {
+            throw new ConflictoConcurrenciaException(
+                    "Hay una petición en curso con la misma clave de idempotencia, intente nuevamente", null);
+        }
+        return registro.aDTO();
+    }
+
+    // Las respuestas vigentes más recientes, hasta la capacidad; las demás se leen de la tabla
+    // la primera vez que se repitan
+    private void cargarVigentes() {
+        long ahora = System.currentTimeMillis();
+        List<MovimientoIdempotente> vigentes = movimientoIdempotenteRepository.findVigentes(
+                new Date(ahora), PageRequest.of(0, capacidad));
+        for (int i = vigentes.size() - 1; i >= 0; i--) {
+            MovimientoIdempotente guardado = vigentes.get(i);
+            Registro registro = new Registro(guardado);
+            Franja franja = franjas[indice(guardado.getClave())];
+            franja.bloqueo.lock();
+            try {
+                franja.agregar(guardado.getClave(), registro, ahora);
+            } finally {
+                franja.bloqueo.unlock();
+            }
+        }
+        if (!vigentes.isEmpty()) {
+            log.info("Cargadas {} claves de idempotencia vigentes", vigentes.size());
+        }
+    }
+
+    private void purgarVencidas() {
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            Date ahora = new Date();
+            int borradas;
+            int total = 0;
+            do {
+                borradas = transactionTemplate.execute(status -> movimientoIdempotenteRepository.purgarVencidas(ahora, lotePurga));
+                total += borradas;
+            } while (borradas == lotePurga);
+            if (total > 0) {
+                log.debug("Purgadas {} claves de idempotencia vencidas", total);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Error al purgar claves de idempotencia vencidas: {}", e.getMessage());
+        }
+    }
+
+    private int indice(String clave) {
+        int h = clave.hashCode();
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    private final class Franja {
+        final ReentrantLock bloqueo = new ReentrantLock();
+        final LinkedHashMap<String, Registro> registros = new LinkedHashMap<>();
+
+        // null si no existe o ya venció
+        Registro obtener(String clave, long ahora) {
+            Registro registro = registros.get(clave);
+            if (registro != null && !registro.enCurso && registro.expira <= ahora) {
+                registros.remove(clave);
+                return null;
+            }
+            return registro;
+        }
+
+        // Desaloja desde la cabeza las vencidas y, sin sitio, las más antiguas. Las reservas en
+        // curso se saltan: son las que dan 409 a las repeticiones sin consultar la tabla, y son
+        // pocas (una por petición en vuelo)
+        void agregar(String clave, Registro registro, long ahora) {
+            Iterator<Registro> antiguos = registros.values().iterator();
+            while (antiguos.hasNext()) {
+                Registro primero = antiguos.next();
+                if (primero.enCurso) {
+                    continue;
+                }
+                if (primero.expira > ahora && registros.size() < capacidadPorFranja) {
+                    break;
+                }
+                antiguos.remove();
+            }
+            registros.put(clave, registro);
+        }
+    }
+
+    // Datos de la petición original para detectar una clave reutilizada y la respuesta que se
+    // repite; se leen y escriben con el lock de su franja
+    private static final class Registro {
+        final String numeroCuenta;
+        final long expira;
+        BigDecimal valor;
+        boolean enCurso = true;
+        Long movimientoId;
+        long fecha;
+        String tipoMovimiento;
+        BigDecimal saldo;
+
+        Registro(String numeroCuenta, BigDecimal valor, long expira) {
+            this.numeroCuenta = numeroCuenta;
+            this.valor = valor;
+            this.expira = expira;
+        }
+
+        Registro(MovimientoIdempotente guardado) {
+            this(guardado.getNumeroCuenta(), guardado.getValor(), guardado.getExpira().getTime());
+            if (guardado.isCompletado()) {
+                completar(guardado);
+            }
+        }
+
+        void completar(MovimientoIdempotente respuesta) {
+            movimientoId = respuesta.getMovimientoId();
+            fecha = respuesta.getFecha().getTime();
+            tipoMovimiento = respuesta.getTipoMovimiento();
+            valor = respuesta.getValor();
+            saldo = respuesta.getSaldo();
+            enCurso = false;
+        }
+
+        // El valor se compara con dos decimales, como queda guardado
+        boolean coincide(CrearMovimientoDTO crearMovimientoDTO) {
+            BigDecimal solicitado = crearMovimientoDTO.getValor();
+            return numeroCuenta.equals(crearMovimientoDTO.getNumeroCuenta())
+                    && (valor.compareTo(solicitado) == 0
+                        || valor.setScale(2, RoundingMode.HALF_UP).compareTo(solicitado.setScale(2, RoundingMode.HALF_UP)) == 0);
+        }
+
+        MovimientoDTO aDTO() {
+            MovimientoDTO movimientoDTO = new MovimientoDTO();
+            movimientoDTO.setMovimientoId(movimientoId);
+            movimientoDTO.setFecha(new Date(fecha));
+            movimientoDTO.setTipoMovimiento(tipoMovimiento);
+            movimientoDTO.setValor(valor);
+            movimientoDTO.setSaldo(saldo);
+            movimientoDTO.setNumeroCuenta(numeroCuenta);
+            return movimientoDTO;
+        }
+    }
+}
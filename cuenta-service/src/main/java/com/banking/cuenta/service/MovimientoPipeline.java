@@ -0,0 +1,225 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.dto.ResultadoMovimientoDTO;
+import com.banking.cuenta.exception.ConflictoConcurrenciaException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Commit en grupo de movimientos individuales (banking.movimientos.pipeline.habilitado). Las
+// peticiones se encolan y un único hilo escritor las contabiliza en grupos: toma lo que haya en
+// la cola hasta tamano-grupo movimientos, esperando como mucho espera-ms a que lleguen más, y
+// confirma el grupo en una transacción. Cada petición recibe su propio resultado cuando el
+// grupo termina, así que un commit y un fsync se reparten entre todas las del grupo.
+@Component
+@ConditionalOnProperty(name = "banking.movimientos.pipeline.habilitado", havingValue = "true")
+public class MovimientoPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(MovimientoPipeline.class);
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    // El motor depende del pipeline; se resuelve al usarlo para no crear un ciclo al arrancar
+    @Autowired
+    private ObjectProvider<MovimientoPostingEngine> movimientoPostingEngine;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banking.movimientos.pipeline.tamano-grupo:256}")
+    private int tamanoGrupo;
+
+    @Value("${banking.movimientos.pipeline.espera-ms:2}")
+    private long esperaMs;
+
+    @Value("${banking.movimientos.pipeline.capacidad-cola:10000}")
+    private int capacidadCola;
+
+    private BlockingQueue<Solicitud> cola;
+    private Thread escritor;
+    private volatile boolean activo;
+
+    private DistributionSummary tamanoGrupos;
+    private Timer confirmados;
+    private Timer revertidos;
+
+    @PostConstruct
+    void iniciar() {
+        cola = new ArrayBlockingQueue<>(capacidadCola);
+        tamanoGrupos = DistributionSummary.builder("movimientos.pipeline.grupo")
+                .description("Movimientos contabilizados por transacción del pipeline")
+                .register(meterRegistry);
+        Gauge.builder("movimientos.pipeline.cola", cola, BlockingQueue::size)
+                .description("Movimientos en espera de ser contabilizados")
+                .register(meterRegistry);
+        // Mismo timer que MovimientoService.crearMovimiento: en este modo incluye la espera en cola.
+        // Solo lo registran los resultados de un grupo; el camino individual ya lo mide crearMovimiento
+        confirmados = Timer.builder("movimientos.crear")
+                .description("Duración de crearMovimiento hasta el fin de su transacción")
+                .tag("resultado", "confirmado")
+                .register(meterRegistry);
+        revertidos = Timer.builder("movimientos.crear")
+                .description("Duración de crearMovimiento hasta el fin de su transacción")
+                .tag("resultado", "revertido")
+                .register(meterRegistry);
+
+        activo = true;
+        escritor = new Thread(this::escribir, "movimientos-pipeline");
+        escritor.setDaemon(true);
+        escritor.start();
+        log.info("Pipeline de movimientos activo: grupos de hasta {} movimientos, espera máxima {} ms",
+                tamanoGrupo, esperaMs);
+    }
+
+    // Deja de aceptar movimientos y espera a que el escritor confirme los que ya están en cola
+    @PreDestroy
+    void detener() throws InterruptedException {
+        activo = false;
+        escritor.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    // Bloquea al llamador hasta que el grupo que contiene su movimiento termina. Los rechazos
+    // de negocio llegan como IllegalArgumentException, igual que en la contabilización directa.
+    public MovimientoDTO contabilizar(CrearMovimientoDTO crearMovimientoDTO) {
+        Solicitud solicitud = new Solicitud(crearMovimientoDTO, Timer.start(meterRegistry));
+        if (!activo || !cola.offer(solicitud)) {
+            throw new ConflictoConcurrenciaException("Cola de movimientos llena, intente nuevamente", null);
+        }
+        try {
+            return solicitud.resultado.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            // El movimiento sigue en cola y puede contabilizarse aunque el llamador ya no espere
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera del movimiento interrumpida", e);
+        }
+    }
+
+    private void escribir() {
+        List<Solicitud> grupo = new ArrayList<>(tamanoGrupo);
+        while (activo || !cola.isEmpty()) {
+            try {
+                Solicitud primera = cola.poll(100, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                grupo.add(primera);
+                completarGrupo(grupo);
+                confirmar(grupo);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Escritor del pipeline interrumpido con {} movimientos en cola", cola.size());
+                break;
+            } catch (RuntimeException e) {
+                log.error("Error inesperado en el escritor del pipeline", e);
+            } finally {
+                // Ningún llamador se queda esperando un grupo que no llegó a confirmarse
+                grupo.forEach(s -> s.resultado.completeExceptionally(
+                        new IllegalStateException("El movimiento no llegó a contabilizarse")));
+                grupo.clear();
+            }
+        }
+        Solicitud pendiente;
+        while ((pendiente = cola.poll()) != null) {
+            pendiente.resultado.completeExceptionally(new IllegalStateException("El pipeline de movimientos se detuvo"));
+        }
+    }
+
+    // Lo que ya está en cola entra sin esperar; si falta para llenar el grupo se espera a nuevas
+    // llegadas hasta espera-ms desde el primer movimiento
+    private void completarGrupo(List<Solicitud> grupo) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMs);
+        while (grupo.size() < tamanoGrupo) {
+            cola.drainTo(grupo, tamanoGrupo - grupo.size());
+            long restante = limite - System.nanoTime();
+            if (grupo.size() >= tamanoGrupo || restante <= 0) {
+                return;
+            }
+            Solicitud siguiente = cola.poll(restante, TimeUnit.NANOSECONDS);
+            if (siguiente == null) {
+                return;
+            }
+            grupo.add(siguiente);
+        }
+    }
+
+    private void confirmar(List<Solicitud> grupo) {
+        List<CrearMovimientoDTO> movimientos = new ArrayList<>(grupo.size());
+        grupo.forEach(s -> movimientos.add(s.movimiento));
+        List<ResultadoMovimientoDTO> resultados;
+        try {
+            resultados = movimientoService.crearMovimientosAgrupados(movimientos);
+        } catch (RuntimeException e) {
+            // Fallo de la transacción completa (no un rechazo): cada movimiento se reintenta
+            // por separado, con los reintentos del motor, para que un error no arrastre al resto
+            log.warn("Falló la transacción de un grupo de {} movimientos, se contabilizan por separado: {}",
+                    grupo.size(), e.getMessage());
+            grupo.forEach(this::confirmarIndividual);
+            return;
+        }
+        tamanoGrupos.record(grupo.size());
+        for (int i = 0; i < grupo.size(); i++) {
+            ResultadoMovimientoDTO resultado = resultados.get(i);
+            if (resultado.isExitoso()) {
+                grupo.get(i).completar(resultado.getMovimiento());
+            } else {
+                grupo.get(i).fallar(new IllegalArgumentException(resultado.getMensaje()));
+            }
+        }
+    }
+
+    // Sin pasar por el timer de la solicitud: crearMovimiento ya registra movimientos.crear
+    private void confirmarIndividual(Solicitud solicitud) {
+        try {
+            solicitud.resultado.complete(movimientoPostingEngine.getObject().contabilizarDirecto(solicitud.movimiento));
+        } catch (RuntimeException e) {
+            solicitud.resultado.completeExceptionally(e);
+        }
+    }
+
+    private class Solicitud {
+        final CrearMovimientoDTO movimiento;
+        final Timer.Sample muestra;
+        final CompletableFuture<MovimientoDTO> resultado = new CompletableFuture<>();
+
+        Solicitud(CrearMovimientoDTO movimiento, Timer.Sample muestra) {
+            this.movimiento = movimiento;
+            this.muestra = muestra;
+        }
+
+        void completar(MovimientoDTO movimientoDTO) {
+            muestra.stop(confirmados);
+            resultado.complete(movimientoDTO);
+        }
+
+        void fallar(RuntimeException e) {
+            muestra.stop(revertidos);
+            resultado.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.CrearTransferenciaDTO;
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.dto.ResultadoMovimientoDTO;
+import com.banking.cuenta.dto.TransferenciaDTO;
+import com.banking.cuenta.exception.ConflictoConcurrenciaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Punto de entrada para contabilizar movimientos. Serializa por cuenta antes de abrir
+// la transacción, de modo que las escrituras concurrentes sobre una misma cuenta esperan
+// en memoria en lugar de competir por el bloqueo de fila en la base de datos.
+@Service
+public class MovimientoPostingEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(MovimientoPostingEngine.class);
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaLocks cuentaLocks;
+
+    // Solo existe con banking.movimientos.pipeline.habilitado=true
+    @Autowired(required = false)
+    private MovimientoPipeline movimientoPipeline;
+
+    // Solo existe con banking.movimientos.bitacora.habilitado=true
+    @Autowired(required = false)
+    private BitacoraMovimientos bitacoraMovimientos;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banking.movimientos.reintentos-optimista:3}")
+    private int maxReintentos;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${banking.movimientos.lote-maximo:50000}")
+    private int maxLote;
+
+    @Value("${banking.movimientos.backoff-base-ms:10}")
+    private long backoffBaseMs;
+
+    private Counter conflictos;
+    private Counter reintentos;
+    private Counter conflictosAgotados;
+
+    @PostConstruct
+    void init() {
+        conflictos = meterRegistry.counter("banking.movimientos.conflictos");
+        reintentos = meterRegistry.counter("banking.movimientos.reintentos");
+        conflictosAgotados = meterRegistry.counter("banking.movimientos.conflictos.agotados");
+    }
+
+    public MovimientoDTO contabilizar(CrearMovimientoDTO crearMovimientoDTO) {
+        String numeroCuenta = crearMovimientoDTO.getNumeroCuenta();
+        if (bitacoraMovimientos != null && bitacoraMovimientos.aplica(numeroCuenta)) {
+            // El saldo en memoria de la bitácora depende del bloqueo de la cuenta
+            return cuentaLocks.ejecutar(numeroCuenta, () -> bitacoraMovimientos.contabilizar(crearMovimientoDTO));
+        }
+        if (movimientoPipeline != null) {
+            // El grupo bloquea las filas de sus cuentas, así que no toma los bloqueos en memoria
+            return movimientoPipeline.contabilizar(crearMovimientoDTO);
+        }
+        return contabilizarDirecto(crearMovimientoDTO);
+    }
+
+    // Una transacción por movimiento con los reintentos acotados ante conflictos. También la usa
+    // el pipeline para los movimientos de un grupo cuya transacción falló.
+    MovimientoDTO contabilizarDirecto(CrearMovimientoDTO crearMovimientoDTO) {
+        // El número de cuenta es único, así que sirve como clave sin consultar el cuentaId
+        String numeroCuenta = crearMovimientoDTO.getNumeroCuenta();
+        return conReintentos(numeroCuenta, () -> movimientoService.crearMovimiento(crearMovimientoDTO));
+    }
+
+    // Serializa en memoria las dos cuentas antes de abrir la transacción. La transferencia
+    // bloquea sus filas con SELECT ... FOR UPDATE y valida con el saldo leído bajo ese
+    // bloqueo, así que no hay conflictos de versión que reintentar.
+    public TransferenciaDTO transferir(CrearTransferenciaDTO crearTransferenciaDTO) {
+        return cuentaLocks.ejecutar(crearTransferenciaDTO.getNumeroCuentaOrigen(),
+                crearTransferenciaDTO.getNumeroCuentaDestino(),
+                () -> {
+                    sincronizarBitacora(crearTransferenciaDTO.getNumeroCuentaOrigen());
+                    sincronizarBitacora(crearTransferenciaDTO.getNumeroCuentaDestino());
+                    return movimientoService.crearTransferencia(crearTransferenciaDTO);
+                });
+    }
+
+    // Agrupa el lote por cuenta y contabiliza cada grupo en una transacción, de modo que el
+    // saldo de cada cuenta se calcula una sola vez. Los resultados siguen el orden de entrada.
+    public List<ResultadoMovimientoDTO> contabilizarLote(List<CrearMovimientoDTO> movimientos) {
+        if (movimientos.size() > maxLote) {
+            throw new IllegalArgumentException("El lote no puede exceder " + maxLote + " movimientos");
+        }
+
+        ResultadoMovimientoDTO[] resultados = new ResultadoMovimientoDTO[movimientos.size()];
+        Map<String, List<Integer>> indicesPorCuenta = new LinkedHashMap<>();
+        for (int i = 0; i < movimientos.size(); i++) {
+            CrearMovimientoDTO movimiento = movimientos.get(i);
+            String error = validar(movimiento);
+            if (error != null) {
+                resultados[i] = rechazo(i, error);
+            } else {
+                indicesPorCuenta.computeIfAbsent(movimiento.getNumeroCuenta(), k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        indicesPorCuenta.forEach((numeroCuenta, indices) -> {
+            List<CrearMovimientoDTO> grupo = indices.stream().map(movimientos::get).collect(Collectors.toList());
+            try {
+                List<ResultadoMovimientoDTO> parciales = conReintentos(numeroCuenta,
+                        () -> movimientoService.crearMovimientosCuenta(numeroCuenta, grupo));
+                for (int j = 0; j < indices.size(); j++) {
+                    ResultadoMovimientoDTO resultado = parciales.get(j);
+                    resultado.setIndice(indices.get(j));
+                    resultados[indices.get(j)] = resultado;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Error al contabilizar lote de la cuenta {}: {}", numeroCuenta, e.getMessage());
+                indices.forEach(i -> resultados[i] = rechazo(i, e.getMessage()));
+            }
+        });
+        return Arrays.asList(resultados);
+    }
+
+    private <T> T conReintentos(String numeroCuenta, Supplier<T> accion) {
+        int intento = 0;
+        while (true) {
+            try {
+                return cuentaLocks.ejecutar(numeroCuenta, () -> {
+                    sincronizarBitacora(numeroCuenta);
+                    return accion.get();
+                });
+            } catch (OptimisticLockingFailureException | PessimisticLockingFailureException e) {
+                // Otra instancia modificó la cuenta (conflicto de versión en modo OPTIMISTA) o la
+                // base abortó la transacción por interbloqueo o espera de bloqueo agotada
+                conflictos.increment();
+                log.debug("Conflicto de concurrencia en cuenta {} (intento {})", numeroCuenta, intento + 1);
+                if (++intento > maxReintentos) {
+                    conflictosAgotados.increment();
+                    log.warn("Cuenta {} sin éxito tras {} reintentos por concurrencia", numeroCuenta, maxReintentos);
+                    throw new ConflictoConcurrenciaException(
+                            "La cuenta está siendo modificada concurrentemente, intente nuevamente", e);
+                }
+                reintentos.increment();
+                esperarBackoff(intento);
+            }
+        }
+    }
+
+    // Los caminos que escriben directamente en la base de datos esperan antes a que la
+    // bitácora haya proyectado los asientos de la cuenta
+    private void sincronizarBitacora(String numeroCuenta) {
+        if (bitacoraMovimientos != null) {
+            bitacoraMovimientos.sincronizar(numeroCuenta);
+        }
+    }
+
+    private String validar(CrearMovimientoDTO movimiento) {
+        if (movimiento == null) {
+            return "Movimiento vacío";
+        }
+        Set<ConstraintViolation<CrearMovimientoDTO>> violaciones = validator.validate(movimiento);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+    }
+
+    private ResultadoMovimientoDTO rechazo(int indice, String mensaje) {
+        ResultadoMovimientoDTO resultado = new ResultadoMovimientoDTO(false, mensaje, null);
+        resultado.setIndice(indice);
+        return resultado;
+    }
+
+    // Backoff exponencial con jitter, fuera del bloqueo de la cuenta
+    private void esperarBackoff(int intento) {
+        long maximo = backoffBaseMs << Math.min(intento - 1, 5);
+        long espera = ThreadLocalRandom.current().nextLong(maximo / 2, maximo + 1);
+        try {
+            TimeUnit.MILLISECONDS.sleep(espera);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictoConcurrenciaException("Reintento interrumpido", e);
+        }
+    }
+}
@@ -1,20 +1,41 @@
 package com.banking.cuenta.service;
 
 import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.CrearTransferenciaDTO;
+import com.banking.cuenta.dto.CuentaDescriptor;
 import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.dto.PaginaMovimientosDTO;
+import com.banking.cuenta.dto.ResultadoMovimientoDTO;
+import com.banking.cuenta.dto.TransferenciaDTO;
 import com.banking.cuenta.entity.Cuenta;
 import com.banking.cuenta.entity.Movimiento;
+import com.banking.cuenta.entity.SaldoDiario;
+import com.banking.cuenta.mapper.MovimientoMapper;
+import com.banking.cuenta.metrics.MetricasTransaccion;
 import com.banking.cuenta.repository.CuentaRepository;
 import com.banking.cuenta.repository.MovimientoRepository;
-import org.modelmapper.ModelMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,9 +49,91 @@ public class MovimientoService {
     private CuentaRepository cuentaRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private MovimientoMapper movimientoMapper;
+
+    @Autowired
+    private SaldoDiarioService saldoDiarioService;
+
+    @Autowired
+    private CuentaDescriptorService cuentaDescriptorService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${banking.movimientos.concurrencia:ATOMICA}")
+    private ModoConcurrencia modoConcurrencia;
+
+    @Value("${banking.movimientos.pagina-maxima:500}")
+    private int paginaMaxima;
+
+    public enum ModoConcurrencia { ATOMICA, OPTIMISTA }
+
+    static final String TIPO_TRANSFERENCIA = "Transferencia";
+
+    private Timer movimientosConfirmados;
+    private Timer movimientosRevertidos;
+    private Timer transferenciasConfirmadas;
+    private Timer transferenciasRevertidas;
+    private Timer gruposConfirmados;
+    private Timer gruposRevertidos;
+
+    // movimientos.crear incluye el commit; resultado=revertido cuenta también los rechazos
+    // (cuenta inexistente, saldo insuficiente)
+    @PostConstruct
+    public void registrarMetricas() {
+        movimientosConfirmados = Timer.builder("movimientos.crear")
+                .description("Duración de crearMovimiento hasta el fin de su transacción")
+                .tag("resultado", "confirmado")
+                .register(meterRegistry);
+        movimientosRevertidos = Timer.builder("movimientos.crear")
+                .description("Duración de crearMovimiento hasta el fin de su transacción")
+                .tag("resultado", "revertido")
+                .register(meterRegistry);
+        transferenciasConfirmadas = Timer.builder("transferencias.crear")
+                .description("Duración de crearTransferencia hasta el fin de su transacción")
+                .tag("resultado", "confirmado")
+                .register(meterRegistry);
+        transferenciasRevertidas = Timer.builder("transferencias.crear")
+                .description("Duración de crearTransferencia hasta el fin de su transacción")
+                .tag("resultado", "revertido")
+                .register(meterRegistry);
+        gruposConfirmados = Timer.builder("movimientos.grupo")
+                .description("Duración de crearMovimientosAgrupados hasta el fin de su transacción")
+                .tag("resultado", "confirmado")
+                .register(meterRegistry);
+        gruposRevertidos = Timer.builder("movimientos.grupo")
+                .description("Duración de crearMovimientosAgrupados hasta el fin de su transacción")
+                .tag("resultado", "revertido")
+                .register(meterRegistry);
+    }
 
     public MovimientoDTO crearMovimiento(CrearMovimientoDTO crearMovimientoDTO) {
+        return MetricasTransaccion.medir(meterRegistry, movimientosConfirmados, movimientosRevertidos,
+                () -> contabilizarMovimiento(crearMovimientoDTO));
+    }
+
+    private MovimientoDTO contabilizarMovimiento(CrearMovimientoDTO crearMovimientoDTO) {
+        if (modoConcurrencia == ModoConcurrencia.OPTIMISTA) {
+            return crearMovimientoOptimista(crearMovimientoDTO);
+        }
+
+        // Buscar la cuenta en el índice en memoria; el UPDATE condicionado vuelve a comprobar
+        // el estado en la base de datos, así que un descriptor desactualizado no permite contabilizar
+        CuentaDescriptor descriptor = cuentaDescriptorService.getDescriptor(crearMovimientoDTO.getNumeroCuenta());
+        if (descriptor == null) {
+            throw new IllegalArgumentException("Cuenta no encontrada");
+        }
+        if (!descriptor.isActiva()) {
+            throw new IllegalArgumentException("La cuenta no está activa");
+        }
+
+        BigDecimal valorMovimiento = crearMovimientoDTO.getValor();
+        BigDecimal nuevoSaldo = aplicarMovimientoAtomico(descriptor, valorMovimiento);
+        Cuenta cuenta = cuentaRepository.getReferenceById(descriptor.getCuentaId());
+        return guardarMovimiento(cuenta, descriptor.getNumeroCuenta(), valorMovimiento, nuevoSaldo);
+    }
+
+    private MovimientoDTO crearMovimientoOptimista(CrearMovimientoDTO crearMovimientoDTO) {
         // Buscar la cuenta
         Optional<Cuenta> cuentaOpt = cuentaRepository.findByNumeroCuenta(crearMovimientoDTO.getNumeroCuenta());
         if (cuentaOpt.isEmpty()) {
@@ -42,31 +145,278 @@ public class MovimientoService {
             throw new IllegalArgumentException("La cuenta no está activa");
         }
 
-        // Calcular saldo actual
-        BigDecimal saldoActual = calcularSaldoActual(cuenta);
         BigDecimal valorMovimiento = crearMovimientoDTO.getValor();
-        BigDecimal nuevoSaldo = saldoActual.add(valorMovimiento);
+        BigDecimal nuevoSaldo = cuenta.getSaldoActual() != null
+                ? aplicarMovimientoOptimista(cuenta, valorMovimiento)
+                : aplicarMovimientoAtomico(descriptor(cuenta), valorMovimiento);
+        return guardarMovimiento(cuenta, cuenta.getNumeroCuenta(), valorMovimiento, nuevoSaldo);
+    }
 
-        // Validar saldo suficiente para retiros
-        if (valorMovimiento.compareTo(BigDecimal.ZERO) < 0 && nuevoSaldo.compareTo(BigDecimal.ZERO) < 0) {
+    public TransferenciaDTO crearTransferencia(CrearTransferenciaDTO crearTransferenciaDTO) {
+        return MetricasTransaccion.medir(meterRegistry, transferenciasConfirmadas, transferenciasRevertidas,
+                () -> contabilizarTransferencia(crearTransferenciaDTO));
+    }
+
+    // Débito y crédito en la misma transacción. Las dos filas se bloquean siempre en orden
+    // ascendente de cuentaId: dos transferencias opuestas entre las mismas cuentas (también
+    // desde instancias distintas) esperan una a la otra en lugar de bloquearse mutuamente.
+    private TransferenciaDTO contabilizarTransferencia(CrearTransferenciaDTO crearTransferenciaDTO) {
+        String numeroOrigen = crearTransferenciaDTO.getNumeroCuentaOrigen();
+        String numeroDestino = crearTransferenciaDTO.getNumeroCuentaDestino();
+        if (numeroOrigen.equals(numeroDestino)) {
+            throw new IllegalArgumentException("La cuenta de origen y la de destino deben ser distintas");
+        }
+        CuentaDescriptor origen = cuentaDescriptorService.getDescriptor(numeroOrigen);
+        if (origen == null) {
+            throw new IllegalArgumentException("Cuenta de origen no encontrada");
+        }
+        CuentaDescriptor destino = cuentaDescriptorService.getDescriptor(numeroDestino);
+        if (destino == null) {
+            throw new IllegalArgumentException("Cuenta de destino no encontrada");
+        }
+
+        Cuenta cuentaOrigen;
+        Cuenta cuentaDestino;
+        if (origen.getCuentaId() < destino.getCuentaId()) {
+            cuentaOrigen = bloquearCuenta(origen, "origen");
+            cuentaDestino = bloquearCuenta(destino, "destino");
+        } else {
+            cuentaDestino = bloquearCuenta(destino, "destino");
+            cuentaOrigen = bloquearCuenta(origen, "origen");
+        }
+
+        BigDecimal valor = crearTransferenciaDTO.getValor();
+        BigDecimal saldoOrigen = cuentaOrigen.getSaldoActual().subtract(valor);
+        if (saldoOrigen.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Saldo no disponible");
         }
+        BigDecimal saldoDestino = cuentaDestino.getSaldoActual().add(valor);
+        cuentaOrigen.setSaldoActual(saldoOrigen);
+        cuentaDestino.setSaldoActual(saldoDestino);
+
+        Movimiento debito = nuevoMovimiento(cuentaOrigen, valor.negate(), saldoOrigen, TIPO_TRANSFERENCIA);
+        Movimiento credito = nuevoMovimiento(cuentaDestino, valor, saldoDestino, TIPO_TRANSFERENCIA);
+        movimientoRepository.saveAll(List.of(debito, credito));
+        saldoDiarioService.registrarSaldo(cuentaOrigen.getCuentaId(), debito.getFecha(), saldoOrigen);
+        saldoDiarioService.registrarSaldo(cuentaDestino.getCuentaId(), credito.getFecha(), saldoDestino);
+
+        return new TransferenciaDTO(movimientoMapper.toDTO(debito, numeroOrigen),
+                movimientoMapper.toDTO(credito, numeroDestino));
+    }
+
+    // SELECT ... FOR UPDATE de la cuenta; materializa su saldo si aún no lo tiene
+    private Cuenta bloquearCuenta(CuentaDescriptor descriptor, String rol) {
+        Cuenta cuenta = cuentaRepository.findByCuentaIdForUpdate(descriptor.getCuentaId())
+                .orElseThrow(() -> new IllegalArgumentException("Cuenta de " + rol + " no encontrada"));
+        if (!cuenta.getEstado()) {
+            cuentaDescriptorService.invalidar(descriptor.getNumeroCuenta());
+            throw new IllegalArgumentException("La cuenta de " + rol + " no está activa");
+        }
+        if (cuenta.getSaldoActual() == null) {
+            cuentaRepository.materializarSaldos(List.of(cuenta.getCuentaId()));
+            cuenta.setSaldoActual(cuentaRepository.findSaldoActual(cuenta.getCuentaId()));
+        }
+        return cuenta;
+    }
 
+    private MovimientoDTO guardarMovimiento(Cuenta cuenta, String numeroCuenta, BigDecimal valorMovimiento, BigDecimal nuevoSaldo) {
         // Crear el movimiento
+        Movimiento movimientoGuardado = movimientoRepository.save(nuevoMovimiento(cuenta, valorMovimiento, nuevoSaldo));
+        saldoDiarioService.registrarSaldo(cuenta.getCuentaId(), movimientoGuardado.getFecha(), nuevoSaldo);
+
+        return movimientoMapper.toDTO(movimientoGuardado, numeroCuenta);
+    }
+
+    // Contabiliza en una sola transacción los movimientos de una cuenta: la cuenta se
+    // bloquea una vez, el saldo se recorre en memoria y los INSERT salen en lotes JDBC.
+    // Cada movimiento se acepta o rechaza por separado; los resultados respetan el orden.
+    public List<ResultadoMovimientoDTO> crearMovimientosCuenta(String numeroCuenta, List<CrearMovimientoDTO> movimientos) {
+        Optional<Cuenta> cuentaOpt = cuentaRepository.findByNumeroCuentaForUpdate(numeroCuenta);
+        if (cuentaOpt.isEmpty()) {
+            return rechazarTodos(movimientos, "Cuenta no encontrada");
+        }
+
+        Cuenta cuenta = cuentaOpt.get();
+        if (!cuenta.getEstado()) {
+            return rechazarTodos(movimientos, "La cuenta no está activa");
+        }
+        if (cuenta.getSaldoActual() == null) {
+            cuentaRepository.materializarSaldos(List.of(cuenta.getCuentaId()));
+            cuenta.setSaldoActual(cuentaRepository.findSaldoActual(cuenta.getCuentaId()));
+        }
+
+        BigDecimal saldo = cuenta.getSaldoActual();
+        List<ResultadoMovimientoDTO> resultados = new ArrayList<>(movimientos.size());
+        List<Movimiento> aceptados = new ArrayList<>(movimientos.size());
+        for (CrearMovimientoDTO crearMovimientoDTO : movimientos) {
+            BigDecimal valorMovimiento = crearMovimientoDTO.getValor();
+            BigDecimal nuevoSaldo = saldo.add(valorMovimiento);
+            if (valorMovimiento.compareTo(BigDecimal.ZERO) < 0 && nuevoSaldo.compareTo(BigDecimal.ZERO) < 0) {
+                resultados.add(new ResultadoMovimientoDTO(false, "Saldo no disponible", null));
+                continue;
+            }
+            saldo = nuevoSaldo;
+            aceptados.add(nuevoMovimiento(cuenta, valorMovimiento, nuevoSaldo));
+            resultados.add(new ResultadoMovimientoDTO(true, "Movimiento creado exitosamente", null));
+        }
+
+        movimientoRepository.saveAll(aceptados);
+        cuenta.setSaldoActual(saldo);
+        if (!aceptados.isEmpty()) {
+            saldoDiarioService.registrarSaldo(cuenta.getCuentaId(), aceptados.get(aceptados.size() - 1).getFecha(), saldo);
+        }
+
+        Iterator<Movimiento> guardados = aceptados.iterator();
+        for (ResultadoMovimientoDTO resultado : resultados) {
+            if (resultado.isExitoso()) {
+                resultado.setMovimiento(movimientoMapper.toDTO(guardados.next(), numeroCuenta));
+            }
+        }
+        return resultados;
+    }
+
+    // Commit en grupo (MovimientoPipeline): movimientos de cuentas cualesquiera, llegados de
+    // peticiones distintas, se contabilizan en una transacción. Las cuentas se bloquean con
+    // una sola sentencia en orden de cuentaId, los saldos se validan en memoria en orden de
+    // llegada y los cierres diarios de todas las cuentas salen en un único upsert. Cada
+    // movimiento se acepta o rechaza por separado; los resultados respetan el orden de entrada.
+    public List<ResultadoMovimientoDTO> crearMovimientosAgrupados(List<CrearMovimientoDTO> movimientos) {
+        return MetricasTransaccion.medir(meterRegistry, gruposConfirmados, gruposRevertidos,
+                () -> contabilizarGrupo(movimientos));
+    }
+
+    private List<ResultadoMovimientoDTO> contabilizarGrupo(List<CrearMovimientoDTO> movimientos) {
+        List<CuentaDescriptor> descriptores = new ArrayList<>(movimientos.size());
+        Set<Long> cuentaIds = new TreeSet<>();
+        for (CrearMovimientoDTO crearMovimientoDTO : movimientos) {
+            CuentaDescriptor descriptor = cuentaDescriptorService.getDescriptor(crearMovimientoDTO.getNumeroCuenta());
+            descriptores.add(descriptor);
+            if (descriptor != null) {
+                cuentaIds.add(descriptor.getCuentaId());
+            }
+        }
+
+        Map<Long, Cuenta> cuentas = new HashMap<>();
+        List<Long> sinSaldo = new ArrayList<>();
+        if (!cuentaIds.isEmpty()) {
+            for (Cuenta cuenta : cuentaRepository.findByCuentaIdInForUpdate(cuentaIds)) {
+                cuentas.put(cuenta.getCuentaId(), cuenta);
+                if (!cuenta.getEstado()) {
+                    cuentaDescriptorService.invalidar(cuenta.getNumeroCuenta());
+                } else if (cuenta.getSaldoActual() == null) {
+                    sinSaldo.add(cuenta.getCuentaId());
+                }
+            }
+        }
+        if (!sinSaldo.isEmpty()) {
+            cuentaRepository.materializarSaldos(sinSaldo);
+            sinSaldo.forEach(id -> cuentas.get(id).setSaldoActual(cuentaRepository.findSaldoActual(id)));
+        }
+
+        List<ResultadoMovimientoDTO> resultados = new ArrayList<>(movimientos.size());
+        List<Movimiento> aceptados = new ArrayList<>(movimientos.size());
+        Map<Long, Movimiento> ultimoPorCuenta = new LinkedHashMap<>();
+        for (int i = 0; i < movimientos.size(); i++) {
+            CuentaDescriptor descriptor = descriptores.get(i);
+            Cuenta cuenta = descriptor != null ? cuentas.get(descriptor.getCuentaId()) : null;
+            if (cuenta == null) {
+                resultados.add(new ResultadoMovimientoDTO(false, "Cuenta no encontrada", null));
+                continue;
+            }
+            if (!cuenta.getEstado()) {
+                resultados.add(new ResultadoMovimientoDTO(false, "La cuenta no está activa", null));
+                continue;
+            }
+            BigDecimal valorMovimiento = movimientos.get(i).getValor();
+            BigDecimal nuevoSaldo = cuenta.getSaldoActual().add(valorMovimiento);
+            if (valorMovimiento.compareTo(BigDecimal.ZERO) < 0 && nuevoSaldo.compareTo(BigDecimal.ZERO) < 0) {
+                resultados.add(new ResultadoMovimientoDTO(false, "Saldo no disponible", null));
+                continue;
+            }
+            // El UPDATE de cada cuenta sale una sola vez, al hacer flush en el commit
+            cuenta.setSaldoActual(nuevoSaldo);
+            Movimiento movimiento = nuevoMovimiento(cuenta, valorMovimiento, nuevoSaldo);
+            aceptados.add(movimiento);
+            ultimoPorCuenta.put(cuenta.getCuentaId(), movimiento);
+            resultados.add(new ResultadoMovimientoDTO(true, "Movimiento creado exitosamente", null));
+        }
+
+        movimientoRepository.saveAll(aceptados);
+        List<SaldoDiario> cierres = new ArrayList<>(ultimoPorCuenta.size());
+        ultimoPorCuenta.forEach((cuentaId, ultimo) -> cierres.add(new SaldoDiario(cuentaId, ultimo.getFecha(), ultimo.getSaldo())));
+        saldoDiarioService.registrarSaldos(cierres);
+
+        Iterator<Movimiento> guardados = aceptados.iterator();
+        for (int i = 0; i < resultados.size(); i++) {
+            if (resultados.get(i).isExitoso()) {
+                resultados.get(i).setMovimiento(movimientoMapper.toDTO(guardados.next(), descriptores.get(i).getNumeroCuenta()));
+            }
+        }
+        return resultados;
+    }
+
+    private List<ResultadoMovimientoDTO> rechazarTodos(List<CrearMovimientoDTO> movimientos, String mensaje) {
+        return movimientos.stream()
+                .map(mov -> new ResultadoMovimientoDTO(false, mensaje, null))
+                .collect(Collectors.toList());
+    }
+
+    private Movimiento nuevoMovimiento(Cuenta cuenta, BigDecimal valorMovimiento, BigDecimal nuevoSaldo) {
+        return nuevoMovimiento(cuenta, valorMovimiento, nuevoSaldo, tipoMovimiento(valorMovimiento));
+    }
+
+    static String tipoMovimiento(BigDecimal valorMovimiento) {
+        return valorMovimiento.compareTo(BigDecimal.ZERO) > 0 ? "Depósito" : "Retiro";
+    }
+
+    private Movimiento nuevoMovimiento(Cuenta cuenta, BigDecimal valorMovimiento, BigDecimal nuevoSaldo, String tipo) {
         Movimiento movimiento = new Movimiento();
         movimiento.setFecha(new Date());
-        movimiento.setTipoMovimiento(valorMovimiento.compareTo(BigDecimal.ZERO) > 0 ? "Depósito" : "Retiro");
+        movimiento.setTipoMovimiento(tipo);
         movimiento.setValor(valorMovimiento);
         movimiento.setSaldo(nuevoSaldo);
         movimiento.setCuenta(cuenta);
+        return movimiento;
+    }
 
-        Movimiento movimientoGuardado = movimientoRepository.save(movimiento);
-        
-        MovimientoDTO dto = modelMapper.map(movimientoGuardado, MovimientoDTO.class);
-        dto.setNumeroCuenta(cuenta.getNumeroCuenta());
-        return dto;
+    private BigDecimal aplicarMovimientoAtomico(CuentaDescriptor descriptor, BigDecimal valorMovimiento) {
+        // Aplicar el movimiento sobre el saldo materializado; la sentencia valida el estado
+        // de la cuenta y el saldo suficiente para retiros de forma atómica
+        Long cuentaId = descriptor.getCuentaId();
+        if (cuentaRepository.aplicarMovimiento(cuentaId, valorMovimiento) == 0) {
+            // Cuentas previas al saldo materializado que el backfill aún no ha procesado
+            if (cuentaRepository.materializarSaldos(List.of(cuentaId)) > 0
+                    && cuentaRepository.aplicarMovimiento(cuentaId, valorMovimiento) > 0) {
+                return cuentaRepository.findSaldoActual(cuentaId);
+            }
+            if (!Boolean.TRUE.equals(cuentaRepository.findEstado(cuentaId))) {
+                cuentaDescriptorService.invalidar(descriptor.getNumeroCuenta());
+                throw new IllegalArgumentException("La cuenta no está activa");
+            }
+            throw new IllegalArgumentException("Saldo no disponible");
+        }
+        return cuentaRepository.findSaldoActual(cuentaId);
+    }
+
+    private CuentaDescriptor descriptor(Cuenta cuenta) {
+        return new CuentaDescriptor(cuenta.getCuentaId(), cuenta.getNumeroCuenta(), cuenta.getEstado(),
+                cuenta.getClienteId(), cuenta.getSaldoInicial());
+    }
+
+    // Valida contra el saldo leído y lo actualiza en la entidad; Hibernate emite el UPDATE
+    // con la versión al hacer flush en el commit, así que el bloqueo de fila dura solo lo
+    // que tarda el commit. Si otra transacción cambió la cuenta, el commit falla con
+    // OptimisticLockingFailureException y MovimientoPostingEngine reintenta.
+    private BigDecimal aplicarMovimientoOptimista(Cuenta cuenta, BigDecimal valorMovimiento) {
+        BigDecimal nuevoSaldo = cuenta.getSaldoActual().add(valorMovimiento);
+        if (valorMovimiento.compareTo(BigDecimal.ZERO) < 0 && nuevoSaldo.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Saldo no disponible");
+        }
+        cuenta.setSaldoActual(nuevoSaldo);
+        return nuevoSaldo;
     }
 
+    @Transactional(readOnly = true)
     public List<MovimientoDTO> getMovimientosPorCuenta(String numeroCuenta) {
         Optional<Cuenta> cuenta = cuentaRepository.findByNumeroCuenta(numeroCuenta);
         if (cuenta.isEmpty()) {
@@ -75,19 +425,59 @@ public class MovimientoService {
 
         List<Movimiento> movimientos = movimientoRepository.findByCuentaIdOrderByFechaDesc(cuenta.get().getCuentaId());
         return movimientos.stream()
-                .map(mov -> {
-                    MovimientoDTO dto = modelMapper.map(mov, MovimientoDTO.class);
-                    dto.setNumeroCuenta(numeroCuenta);
-                    return dto;
-                })
+                .map(mov -> movimientoMapper.toDTO(mov, numeroCuenta))
                 .collect(Collectors.toList());
     }
 
-    private BigDecimal calcularSaldoActual(Cuenta cuenta) {
-        List<Movimiento> movimientos = movimientoRepository.findByCuentaCuentaId(cuenta.getCuentaId());
-        BigDecimal saldoMovimientos = movimientos.stream()
-                .map(Movimiento::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        return cuenta.getSaldoInicial().add(saldoMovimientos);
+    // Historial paginado por clave: el coste de cada página no depende de su profundidad
+    @Transactional(readOnly = true)
+    public PaginaMovimientosDTO getMovimientosPaginados(String numeroCuenta, String cursor, int limite) {
+        if (limite < 1 || limite > paginaMaxima) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + paginaMaxima);
+        }
+        CuentaDescriptor descriptor = cuentaDescriptorService.getDescriptor(numeroCuenta);
+        if (descriptor == null) {
+            throw new IllegalArgumentException("Cuenta no encontrada");
+        }
+
+        // Se pide una fila de más para saber si existe una página siguiente
+        PageRequest pagina = PageRequest.of(0, limite + 1);
+        List<Movimiento> movimientos;
+        if (cursor == null || cursor.isBlank()) {
+            movimientos = movimientoRepository.findPrimeraPagina(descriptor.getCuentaId(), pagina);
+        } else {
+            Movimiento ultimo = decodificarCursor(cursor);
+            movimientos = movimientoRepository.findPaginaSiguiente(
+                    descriptor.getCuentaId(), ultimo.getFecha(), ultimo.getMovimientoId(), pagina);
+        }
+
+        String siguienteCursor = null;
+        if (movimientos.size() > limite) {
+            movimientos = movimientos.subList(0, limite);
+            siguienteCursor = codificarCursor(movimientos.get(limite - 1));
+        }
+        List<MovimientoDTO> dtos = movimientos.stream()
+                .map(mov -> movimientoMapper.toDTO(mov, numeroCuenta))
+                .collect(Collectors.toList());
+        return new PaginaMovimientosDTO(dtos, siguienteCursor);
+    }
+
+    // El cursor es la clave (fecha, movimiento_id) de la última fila entregada, en Base64 URL
+    static String codificarCursor(Movimiento movimiento) {
+        String clave = movimiento.getFecha().getTime() + ":" + movimiento.getMovimientoId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(clave.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Movimiento decodificarCursor(String cursor) {
+        try {
+            String clave = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = clave.indexOf(':');
+            Movimiento movimiento = new Movimiento();
+            movimiento.setFecha(new Date(Long.parseLong(clave.substring(0, separador))));
+            movimiento.setMovimientoId(Long.parseLong(clave.substring(separador + 1)));
+            return movimiento;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de paginación inválido");
+        }
     }
-}
\ No newline at end of file
+}
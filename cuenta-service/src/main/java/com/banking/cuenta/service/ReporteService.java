@@ -1,18 +1,38 @@
 package com.banking.cuenta.service;
 
 import com.banking.cuenta.dto.ClienteInfoDTO;
+import com.banking.cuenta.dto.MovimientoReporteFila;
 import com.banking.cuenta.dto.ReporteEstadoCuentaDTO;
 import com.banking.cuenta.entity.Cuenta;
-import com.banking.cuenta.entity.Movimiento;
+import com.banking.cuenta.metrics.MetricasTransaccion;
 import com.banking.cuenta.repository.CuentaRepository;
 import com.banking.cuenta.repository.MovimientoRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ReporteService {
@@ -26,7 +46,45 @@ public class ReporteService {
     @Autowired
     private ClienteInfoService clienteInfoService;
 
+    @Autowired
+    private SaldoDiarioService saldoDiarioService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public enum FormatoReporte { JSON, CSV }
+
+    // Filas escritas entre cada flush para que el cliente reciba el reporte a medida que se genera
+    private static final int FILAS_POR_FLUSH = 500;
+
+    private static final String CABECERA_CSV =
+            "numeroCuenta,tipo,saldoInicial,saldoDisponible,saldoApertura,fecha,tipoMovimiento,valor,saldo";
+
+    private Timer reportesGenerados;
+    private Timer reportesFallidos;
+
+    @PostConstruct
+    public void registrarMetricas() {
+        reportesGenerados = Timer.builder("reportes.generar")
+                .description("Duración de generarReporteEstadoCuenta")
+                .tag("resultado", "generado")
+                .register(meterRegistry);
+        reportesFallidos = Timer.builder("reportes.generar")
+                .description("Duración de generarReporteEstadoCuenta")
+                .tag("resultado", "fallido")
+                .register(meterRegistry);
+    }
+
+    @Transactional(readOnly = true)
     public ReporteEstadoCuentaDTO generarReporteEstadoCuenta(Long clienteId, Date fechaInicio, Date fechaFin) {
+        return MetricasTransaccion.medir(meterRegistry, reportesGenerados, reportesFallidos,
+                () -> construirReporte(clienteId, fechaInicio, fechaFin));
+    }
+
+    private ReporteEstadoCuentaDTO construirReporte(Long clienteId, Date fechaInicio, Date fechaFin) {
         // Obtener información del cliente
         ClienteInfoDTO clienteInfo = clienteInfoService.getClienteInfo(clienteId);
         if (clienteInfo == null) {
@@ -41,31 +99,30 @@ public class ReporteService {
         reporte.setFechaInicio(fechaInicio);
         reporte.setFechaFin(fechaFin);
 
+        // Una sola consulta para los movimientos del rango de todas las cuentas, agrupados por cuenta
+        Map<Long, List<ReporteEstadoCuentaDTO.MovimientoReporteDTO>> movimientosPorCuenta =
+                movimientoRepository.findReporteByClienteIdAndFechaBetween(clienteId, fechaInicio, fechaFin)
+                        .stream()
+                        .collect(Collectors.groupingBy(MovimientoReporteFila::getCuentaId,
+                                Collectors.mapping(this::toMovimientoReporte, Collectors.toList())));
+        Map<Long, BigDecimal> saldosDisponibles = calcularSaldosDisponibles(cuentas);
+        // Apertura desde el cierre diario anterior al rango; el cierre suma los movimientos del rango
+        Map<Long, BigDecimal> saldosApertura = saldoDiarioService.calcularSaldosApertura(cuentas, fechaInicio);
+
         List<ReporteEstadoCuentaDTO.CuentaReporteDTO> cuentasReporte = cuentas.stream().map(cuenta -> {
             ReporteEstadoCuentaDTO.CuentaReporteDTO cuentaReporte = new ReporteEstadoCuentaDTO.CuentaReporteDTO();
             cuentaReporte.setNumeroCuenta(cuenta.getNumeroCuenta());
             cuentaReporte.setTipo(cuenta.getTipoCuenta());
             cuentaReporte.setSaldoInicial(cuenta.getSaldoInicial());
-
-            // Obtener movimientos en el rango de fechas
-            List<Movimiento> movimientos = movimientoRepository.findByCuentaIdAndFechaBetween(
-                    cuenta.getCuentaId(), fechaInicio, fechaFin);
-
-            // Calcular saldo disponible
-            BigDecimal saldoDisponible = calcularSaldoDisponible(cuenta);
-            cuentaReporte.setSaldoDisponible(saldoDisponible);
-
-            // Mapear movimientos
-            List<ReporteEstadoCuentaDTO.MovimientoReporteDTO> movimientosReporte = movimientos.stream().map(mov -> {
-                ReporteEstadoCuentaDTO.MovimientoReporteDTO movReporte = new ReporteEstadoCuentaDTO.MovimientoReporteDTO();
-                movReporte.setFecha(mov.getFecha());
-                movReporte.setTipoMovimiento(mov.getTipoMovimiento());
-                movReporte.setValor(mov.getValor());
-                movReporte.setSaldo(mov.getSaldo());
-                return movReporte;
-            }).collect(Collectors.toList());
-
-            cuentaReporte.setMovimientos(movimientosReporte);
+            cuentaReporte.setSaldoDisponible(saldosDisponibles.get(cuenta.getCuentaId()));
+            List<ReporteEstadoCuentaDTO.MovimientoReporteDTO> movimientos =
+                    movimientosPorCuenta.getOrDefault(cuenta.getCuentaId(), new ArrayList<>());
+            BigDecimal saldoApertura = saldosApertura.get(cuenta.getCuentaId());
+            cuentaReporte.setSaldoApertura(saldoApertura);
+            cuentaReporte.setSaldoCierre(movimientos.stream()
+                    .map(ReporteEstadoCuentaDTO.MovimientoReporteDTO::getValor)
+                    .reduce(saldoApertura, BigDecimal::add));
+            cuentaReporte.setMovimientos(movimientos);
             return cuentaReporte;
         }).collect(Collectors.toList());
 
@@ -73,11 +130,183 @@ public class ReporteService {
         return reporte;
     }
 
-    private BigDecimal calcularSaldoDisponible(Cuenta cuenta) {
-        List<Movimiento> todosLosMovimientos = movimientoRepository.findByCuentaCuentaId(cuenta.getCuentaId());
-        BigDecimal sumaMovimientos = todosLosMovimientos.stream()
-                .map(Movimiento::getValor)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        return cuenta.getSaldoInicial().add(sumaMovimientos);
+    private ReporteEstadoCuentaDTO.MovimientoReporteDTO toMovimientoReporte(MovimientoReporteFila fila) {
+        ReporteEstadoCuentaDTO.MovimientoReporteDTO movReporte = new ReporteEstadoCuentaDTO.MovimientoReporteDTO();
+        movReporte.setFecha(fila.getFecha());
+        movReporte.setTipoMovimiento(fila.getTipoMovimiento());
+        movReporte.setValor(fila.getValor());
+        movReporte.setSaldo(fila.getSaldo());
+        return movReporte;
+    }
+
+    // Usa el saldo materializado; solo las cuentas aún sin materializar se resuelven con una
+    // única suma agrupada por cuenta en lugar de cargar su historial completo
+    private Map<Long, BigDecimal> calcularSaldosDisponibles(List<Cuenta> cuentas) {
+        Map<Long, BigDecimal> saldos = new HashMap<>();
+        Map<Long, Cuenta> sinMaterializar = new HashMap<>();
+        for (Cuenta cuenta : cuentas) {
+            if (cuenta.getSaldoActual() != null) {
+                saldos.put(cuenta.getCuentaId(), cuenta.getSaldoActual());
+            } else {
+                sinMaterializar.put(cuenta.getCuentaId(), cuenta);
+                saldos.put(cuenta.getCuentaId(), cuenta.getSaldoInicial());
+            }
+        }
+        if (!sinMaterializar.isEmpty()) {
+            for (Object[] fila : movimientoRepository.sumValorAgrupadoPorCuenta(sinMaterializar.keySet())) {
+                Long cuentaId = ((Number) fila[0]).longValue();
+                saldos.put(cuentaId, sinMaterializar.get(cuentaId).getSaldoInicial().add((BigDecimal) fila[1]));
+            }
+        }
+        return saldos;
+    }
+
+    public ClienteInfoDTO validarCliente(Long clienteId) {
+        ClienteInfoDTO clienteInfo = clienteInfoService.getClienteInfo(clienteId);
+        if (clienteInfo == null) {
+            throw new IllegalArgumentException("Cliente no encontrado");
+        }
+        return clienteInfo;
+    }
+
+    // Variante en streaming del reporte: los movimientos se leen con un cursor ordenado por
+    // cuenta y se escriben al vuelo, de modo que la memoria no depende del rango de fechas
+    @Transactional(readOnly = true)
+    public void escribirReporteEstadoCuenta(ClienteInfoDTO clienteInfo, Date fechaInicio, Date fechaFin,
+                                            FormatoReporte formato, OutputStream salida) throws IOException {
+        List<Cuenta> cuentas = new ArrayList<>(cuentaRepository.findByClienteIdAndEstadoTrue(clienteInfo.getClienteId()));
+        cuentas.sort(Comparator.comparing(Cuenta::getCuentaId));
+
+        try (Stream<MovimientoReporteFila> filas = movimientoRepository.streamReporteByClienteIdAndFechaBetween(
+                clienteInfo.getClienteId(), fechaInicio, fechaFin)) {
+            CursorMovimientos cursor = new CursorMovimientos(filas.iterator());
+            Map<Long, BigDecimal> saldos = calcularSaldosDisponibles(cuentas);
+            Map<Long, BigDecimal> aperturas = saldoDiarioService.calcularSaldosApertura(cuentas, fechaInicio);
+            if (formato == FormatoReporte.CSV) {
+                escribirCsv(cuentas, saldos, aperturas, cursor, salida);
+            } else {
+                escribirJson(clienteInfo, fechaInicio, fechaFin, cuentas, saldos, aperturas, cursor, salida);
+            }
+        }
+    }
+
+    private void escribirJson(ClienteInfoDTO clienteInfo, Date fechaInicio, Date fechaFin, List<Cuenta> cuentas,
+                              Map<Long, BigDecimal> saldos, Map<Long, BigDecimal> aperturas,
+                              CursorMovimientos cursor, OutputStream salida) throws IOException {
+        // Misma estructura que GET /api/reportes (ApiResponse con ReporteEstadoCuentaDTO)
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(salida)) {
+            json.writeStartObject();
+            json.writeBooleanField("success", true);
+            json.writeStringField("message", "Reporte generado exitosamente");
+            json.writeObjectFieldStart("data");
+            json.writeStringField("cliente", clienteInfo.getNombre());
+            json.writePOJOField("fechaInicio", fechaInicio);
+            json.writePOJOField("fechaFin", fechaFin);
+            json.writeArrayFieldStart("cuentas");
+
+            int escritas = 0;
+            for (Cuenta cuenta : cuentas) {
+                json.writeStartObject();
+                json.writeStringField("numeroCuenta", cuenta.getNumeroCuenta());
+                json.writeStringField("tipo", cuenta.getTipoCuenta());
+                json.writeNumberField("saldoInicial", cuenta.getSaldoInicial());
+                json.writeNumberField("saldoDisponible", saldos.get(cuenta.getCuentaId()));
+                BigDecimal saldoCierre = aperturas.get(cuenta.getCuentaId());
+                json.writeNumberField("saldoApertura", saldoCierre);
+                json.writeArrayFieldStart("movimientos");
+                MovimientoReporteFila fila;
+                while ((fila = cursor.siguienteDe(cuenta.getCuentaId())) != null) {
+                    saldoCierre = saldoCierre.add(fila.getValor());
+                    json.writeStartObject();
+                    json.writePOJOField("fecha", fila.getFecha());
+                    json.writeStringField("tipoMovimiento", fila.getTipoMovimiento());
+                    json.writeNumberField("valor", fila.getValor());
+                    json.writeNumberField("saldo", fila.getSaldo());
+                    json.writeEndObject();
+                    if (++escritas % FILAS_POR_FLUSH == 0) {
+                        json.flush();
+                    }
+                }
+                json.writeEndArray();
+                json.writeNumberField("saldoCierre", saldoCierre);
+                json.writeEndObject();
+            }
+
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+    }
+
+    private void escribirCsv(List<Cuenta> cuentas, Map<Long, BigDecimal> saldos, Map<Long, BigDecimal> aperturas,
+                             CursorMovimientos cursor, OutputStream salida) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        csv.write(CABECERA_CSV);
+        csv.write('\n');
+
+        int escritas = 0;
+        for (Cuenta cuenta : cuentas) {
+            String prefijo = campoCsv(cuenta.getNumeroCuenta()) + ',' + campoCsv(cuenta.getTipoCuenta()) + ','
+                    + cuenta.getSaldoInicial().toPlainString() + ',' + saldos.get(cuenta.getCuentaId()).toPlainString() + ','
+                    + aperturas.get(cuenta.getCuentaId()).toPlainString() + ',';
+            MovimientoReporteFila fila = cursor.siguienteDe(cuenta.getCuentaId());
+            if (fila == null) {
+                // Cuenta sin movimientos en el rango: se informa igualmente con sus saldos
+                csv.write(prefijo);
+                csv.write(",,,\n");
+                continue;
+            }
+            for (; fila != null; fila = cursor.siguienteDe(cuenta.getCuentaId())) {
+                csv.write(prefijo);
+                csv.write(DateTimeFormatter.ISO_INSTANT.format(fila.getFecha().toInstant()));
+                csv.write(',');
+                csv.write(campoCsv(fila.getTipoMovimiento()));
+                csv.write(',');
+                csv.write(fila.getValor().toPlainString());
+                csv.write(',');
+                csv.write(fila.getSaldo().toPlainString());
+                csv.write('\n');
+                if (++escritas % FILAS_POR_FLUSH == 0) {
+                    csv.flush();
+                }
+            }
+        }
+        csv.flush();
+    }
+
+    private String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf('\n') >= 0) {
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+        return valor;
+    }
+
+    // Recorre las filas ordenadas por cuenta entregando solo las de la cuenta en curso
+    private static class CursorMovimientos {
+        private final Iterator<MovimientoReporteFila> filas;
+        private MovimientoReporteFila pendiente;
+
+        CursorMovimientos(Iterator<MovimientoReporteFila> filas) {
+            this.filas = filas;
+        }
+
+        MovimientoReporteFila siguienteDe(Long cuentaId) {
+            // Descarta filas de cuentas que ya no están en el listado (p. ej. desactivadas entre consultas)
+            while ((pendiente == null || pendiente.getCuentaId() < cuentaId) && filas.hasNext()) {
+                pendiente = filas.next();
+            }
+            if (pendiente != null && pendiente.getCuentaId() < cuentaId) {
+                pendiente = null;
+            }
+            if (pendiente == null || !pendiente.getCuentaId().equals(cuentaId)) {
+                return null;
+            }
+            MovimientoReporteFila fila = pendiente;
+            pendiente = null;
+            return fila;
+        }
     }
-}
\ No newline at end of file
+}
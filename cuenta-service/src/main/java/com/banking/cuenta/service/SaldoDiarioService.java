@@ -0,0 +1,202 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.SaldoFechaDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.entity.SaldoDiario;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SaldoDiarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Mantiene la tabla saldo_diario (saldo de cierre por cuenta y día). Los movimientos la
+// actualizan al contabilizarse y puede reconstruirse desde el historial de movimientos.
+@Service
+public class SaldoDiarioService {
+
+    private static final Logger log = LoggerFactory.getLogger(SaldoDiarioService.class);
+
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${banking.saldos-diarios.reconstruir-al-iniciar:true}")
+    private boolean reconstruirAlIniciar;
+
+    @Value("${banking.saldos-diarios.lote:500}")
+    private int tamanoLote;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirAlIniciar() {
+        if (reconstruirAlIniciar) {
+            int cuentas = reconstruirCuentasSinSaldosDiarios();
+            if (cuentas > 0) {
+                log.info("Saldos diarios reconstruidos para {} cuentas", cuentas);
+            }
+        }
+    }
+
+    // Se llama dentro de la transacción del movimiento. Es un upsert de una sola sentencia: en modo
+    // OPTIMISTA la fila de la cuenta no se bloquea hasta el flush, y un UPDATE sin filas seguido de
+    // INSERT dejaba bloqueos de hueco con los que dos instancias se interbloqueaban (o chocaban con
+    // la clave única) en el primer movimiento del día
+    @Transactional
+    public void registrarSaldo(Long cuentaId, Date fecha, BigDecimal saldo) {
+        saldoDiarioRepository.upsertTodos(List.of(new SaldoDiario(cuentaId, inicioDelDia(fecha), saldo)));
+    }
+
+    // Variante de registrarSaldo para el commit en grupo: los cierres de todas las cuentas del
+    // grupo en una sola sentencia, en orden de cuentaId
+    @Transactional
+    public void registrarSaldos(Collection<SaldoDiario> cierres) {
+        List<SaldoDiario> ordenados = new ArrayList<>(cierres.size());
+        for (SaldoDiario cierre : cierres) {
+            ordenados.add(new SaldoDiario(cierre.getCuentaId(), inicioDelDia(cierre.getFecha()), cierre.getSaldo()));
+        }
+        ordenados.sort(Comparator.comparing(SaldoDiario::getCuentaId));
+        saldoDiarioRepository.upsertTodos(ordenados);
+    }
+
+    // Cada cierre es el saldo inicial más los movimientos hasta ese día: si cambia el saldo
+    // inicial, todos los cierres de la cuenta se desplazan en la misma diferencia
+    @Transactional
+    public int desplazarSaldos(Long cuentaId, BigDecimal diferencia) {
+        return saldoDiarioRepository.desplazarSaldos(cuentaId, diferencia);
+    }
+
+    // Saldo al cierre del día indicado: el último cierre registrado hasta esa fecha
+    @Transactional(readOnly = true)
+    public SaldoFechaDTO getSaldoAFecha(String numeroCuenta, Date fecha) {
+        Optional<Cuenta> cuenta = cuentaRepository.findByNumeroCuenta(numeroCuenta);
+        if (cuenta.isEmpty()) {
+            return null;
+        }
+        BigDecimal saldo = saldoDiarioRepository
+                .findFirstByCuentaIdAndFechaLessThanEqualOrderByFechaDesc(cuenta.get().getCuentaId(), inicioDelDia(fecha))
+                .map(SaldoDiario::getSaldo)
+                .orElse(cuenta.get().getSaldoInicial());
+        return new SaldoFechaDTO(numeroCuenta, inicioDelDia(fecha), saldo);
+    }
+
+    // Saldo de cada cuenta justo antes del instante indicado: cierre del día anterior más
+    // los movimientos de ese mismo día hasta el instante. El coste queda acotado a un día.
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> calcularSaldosApertura(List<Cuenta> cuentas, Date desde) {
+        Map<Long, BigDecimal> saldos = new HashMap<>();
+        if (cuentas.isEmpty()) {
+            return saldos;
+        }
+        for (Cuenta cuenta : cuentas) {
+            saldos.put(cuenta.getCuentaId(), cuenta.getSaldoInicial());
+        }
+
+        Date dia = inicioDelDia(desde);
+        for (SaldoDiario cierre : saldoDiarioRepository.findUltimosCierresAntesDe(saldos.keySet(), dia)) {
+            saldos.put(cierre.getCuentaId(), cierre.getSaldo());
+        }
+        if (desde.after(dia)) {
+            for (Object[] fila : movimientoRepository.sumValorAgrupadoPorCuentaEntre(saldos.keySet(), dia, desde)) {
+                saldos.merge(((Number) fila[0]).longValue(), (BigDecimal) fila[1], BigDecimal::add);
+            }
+        }
+        return saldos;
+    }
+
+    // Reconstruye los cierres diarios de todas las cuentas, una transacción por cuenta
+    public int reconstruirSaldosDiarios() {
+        int total = 0;
+        Long desde = 0L;
+        while (true) {
+            List<Long> ids = cuentaRepository.findCuentaIdsDesde(desde, PageRequest.of(0, tamanoLote));
+            if (ids.isEmpty()) {
+                return total;
+            }
+            for (Long cuentaId : ids) {
+                reconstruirCuenta(cuentaId);
+            }
+            total += ids.size();
+            desde = ids.get(ids.size() - 1);
+        }
+    }
+
+    public int reconstruirCuentasSinSaldosDiarios() {
+        int total = 0;
+        while (true) {
+            List<Long> ids = saldoDiarioRepository.findCuentaIdsSinSaldosDiarios(PageRequest.of(0, tamanoLote));
+            if (ids.isEmpty()) {
+                return total;
+            }
+            for (Long cuentaId : ids) {
+                reconstruirCuenta(cuentaId);
+            }
+            total += ids.size();
+        }
+    }
+
+    public void reconstruirCuenta(Long cuentaId) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Bloquea la cuenta para que ningún movimiento se contabilice durante la reconstrucción
+            Optional<Cuenta> cuenta = cuentaRepository.findByCuentaIdForUpdate(cuentaId);
+            if (cuenta.isEmpty()) {
+                return;
+            }
+            saldoDiarioRepository.deleteByCuentaId(cuentaId);
+
+            BigDecimal saldo = cuenta.get().getSaldoInicial();
+            List<SaldoDiario> cierres = new ArrayList<>();
+            SaldoDiario cierre = null;
+            try (Stream<Object[]> movimientos = movimientoRepository.streamFechaYValorByCuentaId(cuentaId)) {
+                for (Iterator<Object[]> filas = movimientos.iterator(); filas.hasNext(); ) {
+                    Object[] fila = filas.next();
+                    Date dia = inicioDelDia((Date) fila[0]);
+                    saldo = saldo.add((BigDecimal) fila[1]);
+                    if (cierre == null || !cierre.getFecha().equals(dia)) {
+                        cierre = new SaldoDiario(cuentaId, dia, saldo);
+                        cierres.add(cierre);
+                    } else {
+                        cierre.setSaldo(saldo);
+                    }
+                }
+            }
+            saldoDiarioRepository.saveAll(cierres);
+        });
+    }
+
+    // Único punto que decide a qué día pertenece un instante (zona de la JVM): lo usan la
+    // contabilización, la reconstrucción y las consultas de saldo
+    static Date inicioDelDia(Date fecha) {
+        LocalDate dia = fecha.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        return Date.from(dia.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,45 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.entity.Movimiento;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Las bases creadas cuando movimiento_id era AUTO_INCREMENT ya tienen filas; la tabla
+// movimientos_seq que emula la secuencia en MySQL debe arrancar por encima del máximo
+// existente para que los bloques asignados no colisionen.
+@Component
+public class SecuenciaMovimientosInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SecuenciaMovimientosInitializer.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Garantiza que Hibernate ya creó o actualizó el esquema
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void ajustarSecuencia() {
+        try {
+            Long maxId = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(movimiento_id), 0) FROM movimientos", Long.class);
+            // Con el optimizador pooled el valor de la tabla es el límite superior del bloque
+            long minimo = maxId + Movimiento.ASIGNACION_IDS + 1;
+            int actualizadas = jdbcTemplate.update(
+                    "UPDATE movimientos_seq SET next_val = ? WHERE next_val < ?", minimo, minimo);
+            if (actualizadas > 0) {
+                log.info("Secuencia de movimientos ajustada a {}", minimo);
+            }
+        } catch (DataAccessException e) {
+            // Bases con secuencias nativas (p. ej. H2) no usan la tabla movimientos_seq
+            log.debug("Secuencia de movimientos sin tabla de emulación: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.banking.cuenta.bitacora;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchivoBitacoraTest {
+
+    // 100 registros por segmento, para que los tests crucen varios segmentos
+    private static final int SEGMENTO = 100 * ArchivoBitacora.TAMANO_REGISTRO;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void agregar_Reabrir_RecuperaLosAsientosYContinuaLaSecuencia() throws IOException {
+        try (ArchivoBitacora archivo = new ArchivoBitacora(directorio, SEGMENTO)) {
+            for (int i = 1; i <= 250; i++) {
+                archivo.agregar(i % 7, 1_000L * i, new BigDecimal("10.50"), BigDecimal.valueOf(i * 1050L, 2));
+            }
+        }
+
+        try (ArchivoBitacora archivo = new ArchivoBitacora(directorio, SEGMENTO)) {
+            assertEquals(250, archivo.ultimaSecuencia());
+            assertEquals(0, archivo.recortados());
+            List<Asiento> asientos = leerDesde(archivo, 240);
+            assertEquals(10, asientos.size());
+            Asiento ultimo = asientos.get(9);
+            assertEquals(250, ultimo.getSecuencia());
+            assertEquals(250 % 7, ultimo.getCuentaId());
+            assertEquals(250_000L, ultimo.getFecha());
+            assertEquals(new BigDecimal("10.50"), ultimo.getValor());
+            assertEquals(new BigDecimal("2625.00"), ultimo.getSaldo());
+
+            assertEquals(251, archivo.agregar(1, 0, BigDecimal.ONE, BigDecimal.ONE).getSecuencia());
+        }
+        assertEquals(3, segmentos().size());
+    }
+
+    @Test
+    void recuperar_RegistroIncompleto_RecortaLaColaYSobrescribe() throws IOException {
+        try (ArchivoBitacora archivo = new ArchivoBitacora(directorio, SEGMENTO)) {
+            for (int i = 1; i <= 10; i++) {
+                archivo.agregar(1, i, BigDecimal.TEN, BigDecimal.valueOf(i * 10L));
+            }
+        }
+        // Simula una escritura a medias del último registro: cambia un byte del saldo
+        try (RandomAccessFile archivo = new RandomAccessFile(segmentos().get(0).toFile(), "rw")) {
+            long offset = 9L * ArchivoBitacora.TAMANO_REGISTRO + 33;
+            archivo.seek(offset);
+            int original = archivo.read();
+            archivo.seek(offset);
+            archivo.write(original ^ 0xFF);
+        }
+
+        try (ArchivoBitacora archivo = new ArchivoBitacora(directorio, SEGMENTO)) {
+            assertEquals(9, archivo.ultimaSecuencia());
+            assertEquals(1, archivo.recortados());
+            assertEquals(10, archivo.agregar(2, 0, BigDecimal.ONE, BigDecimal.ONE).getSecuencia());
+        }
+        try (ArchivoBitacora archivo = new ArchivoBitacora(directorio, SEGMENTO)) {
+            assertEquals(10, archivo.ultimaSecuencia());
+            assertEquals(0, archivo.recortados());
+            assertEquals(2, leerDesde(archivo, 9).get(0).getCuentaId());
+        }
+    }
+
+    @Test
+    void descartarHasta_BorraSoloSegmentosCompletamenteProyectados() throws IOException {
+        try (ArchivoBitacora archivo = new ArchivoBitacora(directorio, SEGMENTO)) {
+            for (int i = 1; i <= 350; i++) {
+                archivo.agregar(1, i, BigDecimal.ONE, BigDecimal.valueOf(i));
+            }
+            archivo.descartarHasta(250);
+            // Quedan el segmento 201-300 (con asientos sin proyectar) y el actual
+            assertEquals(2, segmentos().size());
+            assertEquals(251, leerDesde(archivo, 0).get(50).getSecuencia());
+        }
+        try (ArchivoBitacora archivo = new ArchivoBitacora(directorio, SEGMENTO)) {
+            assertEquals(350, archivo.ultimaSecuencia());
+            assertEquals(150, leerDesde(archivo, 0).size());
+        }
+    }
+
+    @Test
+    void continuarDesde_BitacoraPorDetrasDeLaProyeccion_NumeraDespuesDeLaProyeccion() throws IOException {
+        try (ArchivoBitacora archivo = new ArchivoBitacora(directorio, SEGMENTO)) {
+            for (int i = 1; i <= 5; i++) {
+                archivo.agregar(1, i, BigDecimal.ONE, BigDecimal.valueOf(i));
+            }
+            archivo.continuarDesde(40);
+            assertEquals(41, archivo.agregar(1, 0, BigDecimal.ONE, BigDecimal.ONE).getSecuencia());
+        }
+        try (ArchivoBitacora archivo = new ArchivoBitacora(directorio, SEGMENTO)) {
+            assertEquals(41, archivo.ultimaSecuencia());
+            assertEquals(41, leerDesde(archivo, 0).get(0).getSecuencia());
+        }
+    }
+
+    // Mata con SIGKILL un proceso que escribe sin parar: todo lo que llegó a anunciar debe
+    // recuperarse, sin huecos, y la bitácora debe admitir nuevos asientos a continuación
+    @Test
+    void recuperar_ProcesoMatadoEscribiendo_ConservaLosAsientosEscritos() throws Exception {
+        Process escritor = new ProcessBuilder(
+                System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", System.getProperty("java.class.path"),
+                EscritorBitacora.class.getName(), directorio.toString(), String.valueOf(SEGMENTO * 50))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        long anunciada = 0;
+        try (BufferedReader salida = new BufferedReader(
+                new InputStreamReader(escritor.getInputStream(), StandardCharsets.UTF_8))) {
+            String linea;
+            while (anunciada < 30_000 && (linea = salida.readLine()) != null) {
+                anunciada = Long.parseLong(linea.trim());
+            }
+            escritor.destroyForcibly();
+            assertTrue(escritor.waitFor(30, TimeUnit.SECONDS));
+        }
+        assertTrue(anunciada >= 30_000, "El escritor terminó antes de tiempo");
+
+        try (ArchivoBitacora archivo = new ArchivoBitacora(directorio, SEGMENTO * 50)) {
+            assertTrue(archivo.ultimaSecuencia() >= anunciada,
+                    "Recuperado hasta " + archivo.ultimaSecuencia() + ", anunciado " + anunciada);
+            long[] esperada = {1};
+            BigDecimal[] saldo = {BigDecimal.ZERO.setScale(2)};
+            archivo.recorrerDesde(0, asiento -> {
+                assertEquals(esperada[0]++, asiento.getSecuencia());
+                saldo[0] = saldo[0].add(asiento.getValor());
+                assertEquals(saldo[0], asiento.getSaldo());
+            });
+            assertEquals(archivo.ultimaSecuencia() + 1, esperada[0]);
+            long siguiente = archivo.ultimaSecuencia() + 1;
+            assertEquals(siguiente, archivo.agregar(1, 0, BigDecimal.ONE, BigDecimal.ONE).getSecuencia());
+        }
+    }
+
+    private List<Asiento> leerDesde(ArchivoBitacora archivo, long secuencia) throws IOException {
+        List<Asiento> asientos = new ArrayList<>();
+        archivo.recorrerDesde(secuencia, asientos::add);
+        return asientos;
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.banking.cuenta.bitacora;
+
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+
+// Proceso hijo de ArchivoBitacoraTest: anexa asientos sin parar e imprime cada cierto número la
+// última secuencia escrita, hasta que el test lo mata
+public class EscritorBitacora {
+
+    public static void main(String[] args) throws Exception {
+        ArchivoBitacora archivo = new ArchivoBitacora(Paths.get(args[0]), Integer.parseInt(args[1]));
+        BigDecimal saldo = BigDecimal.ZERO.setScale(2);
+        for (long i = 1; ; i++) {
+            BigDecimal valor = BigDecimal.valueOf(i % 1000 + 1, 2);
+            saldo = saldo.add(valor);
+            Asiento asiento = archivo.agregar(i % 17, System.currentTimeMillis(), valor, saldo);
+            if (asiento.getSecuencia() % 1000 == 0) {
+                System.out.println(asiento.getSecuencia());
+                System.out.flush();
+            }
+        }
+    }
+}
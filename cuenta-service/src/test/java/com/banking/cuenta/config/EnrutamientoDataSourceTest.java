@@ -0,0 +1,177 @@
+package com.banking.cuenta.config;
+
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.metrics.MetricasConfig;
+import com.banking.cuenta.metrics.SentenciasDataSource;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Dos bases H2 independientes hacen de primaria y réplica. La replicación se simula escribiendo
+// directamente en la réplica: así cada lectura muestra de qué base salió. El latido periódico
+// queda fuera del test (latido-ms alto) y se invoca verificar() a mano.
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:enrutamiento_primaria;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "banking.datasource.replica.habilitado=true",
+        "banking.datasource.replica.url=" + EnrutamientoDataSourceTest.URL_REPLICA,
+        "banking.datasource.replica.latido-ms=600000",
+        "banking.datasource.replica.retraso-maximo-ms=1200000",
+        "banking.datasource.replica.nodo=test"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReplicaDataSourceConfig.class, MonitorReplica.class, MetricasConfig.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EnrutamientoDataSourceTest {
+
+    static final String URL_REPLICA = "jdbc:h2:mem:enrutamiento_replica;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MonitorReplica monitorReplica;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier(ReplicaDataSourceConfig.PRIMARIA)
+    private DataSource primariaDataSource;
+
+    @Autowired
+    @Qualifier(ReplicaDataSourceConfig.REPLICA)
+    private DataSource replicaDataSource;
+
+    // Escribe en la réplica por fuera de su pool, que es de solo lectura
+    private final JdbcTemplate replicacion = new JdbcTemplate(new DriverManagerDataSource(URL_REPLICA, "sa", ""));
+
+    @BeforeEach
+    void setUp() {
+        replicacion.execute("CREATE TABLE IF NOT EXISTS cuentas (cuenta_id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "numero_cuenta VARCHAR(20) NOT NULL UNIQUE, tipo_cuenta VARCHAR(20) NOT NULL, " +
+                "saldo_inicial DECIMAL(18,2) NOT NULL, saldo_actual DECIMAL(18,2), estado BOOLEAN NOT NULL, " +
+                "cliente_id BIGINT NOT NULL, version BIGINT NOT NULL)");
+        replicacion.execute("CREATE TABLE IF NOT EXISTS replica_latido (nodo VARCHAR(100) PRIMARY KEY, instante BIGINT NOT NULL)");
+        replicacion.update("INSERT INTO cuentas (numero_cuenta, tipo_cuenta, saldo_inicial, saldo_actual, estado, cliente_id, version) " +
+                "VALUES ('REPLICA-1', 'Ahorro', 100.00, 100.00, TRUE, 1, 0)");
+        cuentaRepository.save(new Cuenta("PRIMARIA-1", "Ahorro", new BigDecimal("100.00"), true, 1L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        cuentaRepository.deleteAllInBatch();
+        replicacion.update("DELETE FROM cuentas");
+        replicacion.update("DELETE FROM replica_latido");
+    }
+
+    @Test
+    void lecturaConReplicaAlDia_VaALaReplica_YEscrituraALaPrimaria() {
+        replicarLatido(System.currentTimeMillis());
+        monitorReplica.verificar();
+        double lecturas = conexiones("replica", "lectura");
+
+        assertTrue(monitorReplica.isDisponible());
+        assertEquals(List.of("REPLICA-1"), numerosCuenta(true));
+        assertEquals(List.of("PRIMARIA-1"), numerosCuenta(false));
+        assertEquals(lecturas + 1, conexiones("replica", "lectura"));
+        // El latido se escribe en la primaria para que la replicación lo traiga
+        assertEquals(1, new JdbcTemplate(primariaDataSource)
+                .queryForObject("SELECT COUNT(*) FROM replica_latido WHERE nodo = 'test'", Integer.class));
+    }
+
+    @Test
+    void lecturaConReplicaRetrasada_VuelveALaPrimaria() {
+        replicarLatido(System.currentTimeMillis() - 3_600_000L);
+        monitorReplica.verificar();
+        double descartadas = conexiones("primaria", "replica-no-disponible");
+
+        assertFalse(monitorReplica.isDisponible());
+        assertTrue(monitorReplica.getRetrasoMs() >= 3_600_000L);
+        assertEquals(List.of("PRIMARIA-1"), numerosCuenta(true));
+        assertEquals(descartadas + 1, conexiones("primaria", "replica-no-disponible"));
+
+        // En cuanto la réplica se pone al día las lecturas vuelven a ella
+        replicarLatido(System.currentTimeMillis());
+        monitorReplica.verificar();
+        assertEquals(List.of("REPLICA-1"), numerosCuenta(true));
+    }
+
+    @Test
+    void lecturaSinLatidoEnLaReplica_VaALaPrimaria() {
+        monitorReplica.verificar();
+
+        assertFalse(monitorReplica.isDisponible());
+        assertEquals(-1, monitorReplica.getRetrasoMs());
+        assertEquals(List.of("PRIMARIA-1"), numerosCuenta(true));
+    }
+
+    @Test
+    void soloLosPoolsCuentanSentencias() {
+        assertInstanceOf(EnrutamientoDataSource.class, dataSource);
+        assertInstanceOf(SentenciasDataSource.class, primariaDataSource);
+        assertInstanceOf(SentenciasDataSource.class, replicaDataSource);
+    }
+
+    @Test
+    @DirtiesContext
+    void replicaSinConexiones_LaLecturaSeResuelveEnLaPrimaria() throws Exception {
+        replicarLatido(System.currentTimeMillis());
+        monitorReplica.verificar();
+        assertTrue(monitorReplica.isDisponible());
+
+        replicaDataSource.unwrap(HikariDataSource.class).close();
+
+        assertEquals(List.of("PRIMARIA-1"), numerosCuenta(true));
+        assertFalse(monitorReplica.isDisponible());
+    }
+
+    private void replicarLatido(long instante) {
+        replicacion.update("MERGE INTO replica_latido (nodo, instante) KEY (nodo) VALUES ('test', ?)", instante);
+    }
+
+    private List<String> numerosCuenta(boolean soloLectura) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(soloLectura);
+        return transaccion.execute(status -> cuentaRepository.findAll().stream()
+                .map(Cuenta::getNumeroCuenta)
+                .collect(Collectors.toList()));
+    }
+
+    private double conexiones(String pool, String motivo) {
+        return meterRegistry.counter("datasource.enrutamiento", "pool", pool, "motivo", motivo).count();
+    }
+}
@@ -0,0 +1,35 @@
+package com.banking.cuenta.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class HilosVirtualesTest {
+
+    @Test
+    void ejecutor_Java21_CadaTareaCorreEnUnHiloVirtualConNombre() throws Exception {
+        assumeTrue(HilosVirtuales.disponibles());
+        ExecutorService ejecutor = HilosVirtuales.ejecutor("prueba-");
+        try {
+            Thread hilo = ejecutor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+            assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(hilo));
+            assertTrue(hilo.getName().startsWith("prueba-"));
+        } finally {
+            ejecutor.shutdown();
+        }
+    }
+
+    @Test
+    void ejecutor_AntesDeJava21_FallaIndicandoLaVersion() {
+        assumeFalse(HilosVirtuales.disponibles());
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> HilosVirtuales.ejecutor("prueba-"));
+        assertTrue(e.getMessage().contains("Java 21"));
+    }
+}
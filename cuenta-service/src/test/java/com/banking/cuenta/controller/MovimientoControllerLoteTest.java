@@ -0,0 +1,130 @@
+package com.banking.cuenta.controller;
+
+import com.banking.cuenta.dto.ApiResponse;
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.ResultadoMovimientoDTO;
+import com.banking.cuenta.service.MovimientoPostingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+// Límites de POST /api/movimientos/lote: el cuerpo se lee en streaming y se corta al superar el
+// número de movimientos o el tamaño máximo, sin leer el resto
+class MovimientoControllerLoteTest {
+
+    private static final int MAX_LOTE = 10;
+    private static final String LINEA = "{\"numeroCuenta\":\"478758\",\"valor\":10.00}";
+
+    private MovimientoController controller;
+    private MovimientoPostingEngine movimientoPostingEngine;
+
+    @BeforeEach
+    void setUp() {
+        movimientoPostingEngine = mock(MovimientoPostingEngine.class);
+        controller = new MovimientoController();
+        ReflectionTestUtils.setField(controller, "movimientoPostingEngine", movimientoPostingEngine);
+        ReflectionTestUtils.setField(controller, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(controller, "maxLote", MAX_LOTE);
+        ReflectionTestUtils.setField(controller, "maxLoteMb", 1L);
+    }
+
+    @Test
+    void crearMovimientosLote_ArregloJson_ContabilizaTodosLosElementos() {
+        when(movimientoPostingEngine.contabilizarLote(anyList()))
+                .thenAnswer(inv -> List.of(new ResultadoMovimientoDTO(true, "ok", null),
+                        new ResultadoMovimientoDTO(true, "ok", null)));
+
+        ResponseEntity<ApiResponse<List<ResultadoMovimientoDTO>>> respuesta =
+                controller.crearMovimientosLote(peticion("application/json", "[" + LINEA + ", " + LINEA + "]"));
+
+        assertEquals(HttpStatus.OK, respuesta.getStatusCode());
+        verify(movimientoPostingEngine).contabilizarLote(argThat((List<CrearMovimientoDTO> lote) -> lote.size() == 2
+                && new BigDecimal("10.00").compareTo(lote.get(1).getValor()) == 0));
+    }
+
+    @Test
+    void crearMovimientosLoteNdjson_MasMovimientosQueElMaximo_CortaSinLeerElResto() throws IOException {
+        MockHttpServletRequest request = peticion("application/x-ndjson", (LINEA + "\n").repeat(20_000));
+
+        ResponseEntity<ApiResponse<List<ResultadoMovimientoDTO>>> respuesta = controller.crearMovimientosLoteNdjson(request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, respuesta.getStatusCode());
+        assertEquals("El lote no puede exceder " + MAX_LOTE + " movimientos", respuesta.getBody().getMessage());
+        assertTrue(request.getInputStream().available() > 0);
+        verifyNoInteractions(movimientoPostingEngine);
+    }
+
+    @Test
+    void crearMovimientosLote_ArregloConMasMovimientosQueElMaximo_CortaSinLeerElResto() throws IOException {
+        MockHttpServletRequest request = peticion("application/json",
+                "[" + String.join(",", Collections.nCopies(20_000, LINEA)) + "]");
+
+        ResponseEntity<ApiResponse<List<ResultadoMovimientoDTO>>> respuesta = controller.crearMovimientosLote(request);
+
+        assertEquals(HttpStatus.BAD_REQUEST, respuesta.getStatusCode());
+        assertTrue(request.getInputStream().available() > 0);
+        verifyNoInteractions(movimientoPostingEngine);
+    }
+
+    @Test
+    void crearMovimientosLote_ContentLengthMayorQueElMaximo_Responde413SinLeer() throws IOException {
+        MockHttpServletRequest request = peticion("application/json", "[" + " ".repeat(2 * 1024 * 1024) + "]");
+
+        ResponseEntity<ApiResponse<List<ResultadoMovimientoDTO>>> respuesta = controller.crearMovimientosLote(request);
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, respuesta.getStatusCode());
+        assertEquals(2 * 1024 * 1024 + 2, request.getInputStream().available());
+        verifyNoInteractions(movimientoPostingEngine);
+    }
+
+    @Test
+    void crearMovimientosLoteNdjson_CuerpoSinContentLengthMayorQueElMaximo_Responde413() {
+        // Un único elemento enorme, enviado por partes (sin Content-Length)
+        String enorme = "{\"numeroCuenta\":\"" + "9".repeat(2 * 1024 * 1024) + "\",\"valor\":1}";
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/movimientos/lote") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setContentType("application/x-ndjson");
+        request.setContent(enorme.getBytes(StandardCharsets.UTF_8));
+
+        ResponseEntity<ApiResponse<List<ResultadoMovimientoDTO>>> respuesta = controller.crearMovimientosLoteNdjson(request);
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, respuesta.getStatusCode());
+        assertEquals("El lote no puede exceder 1 MB", respuesta.getBody().getMessage());
+        verifyNoInteractions(movimientoPostingEngine);
+    }
+
+    @Test
+    void crearMovimientosLote_CuerpoQueNoEsUnArreglo_Responde400() {
+        ResponseEntity<ApiResponse<List<ResultadoMovimientoDTO>>> respuesta =
+                controller.crearMovimientosLote(peticion("application/json", LINEA));
+
+        assertEquals(HttpStatus.BAD_REQUEST, respuesta.getStatusCode());
+        assertTrue(respuesta.getBody().getMessage().startsWith("Contenido JSON inválido"));
+        verifyNoInteractions(movimientoPostingEngine);
+    }
+
+    private MockHttpServletRequest peticion(String contentType, String cuerpo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/movimientos/lote");
+        request.setContentType(contentType);
+        request.setContent(cuerpo.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
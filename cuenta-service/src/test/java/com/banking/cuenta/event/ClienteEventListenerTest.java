@@ -0,0 +1,95 @@
+package com.banking.cuenta.event;
+
+import com.banking.cuenta.service.ClienteInfoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClienteEventListenerTest {
+
+    @Mock
+    private ClienteInfoService clienteInfoService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private ClienteEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener.registrarMetricas();
+    }
+
+    @Test
+    void handleEventosCliente_AplicaElLoteEnUnaSolaLlamada() {
+        List<Message<ClienteCreatedEvent>> mensajes = List.of(
+                mensaje(1L, new Date(System.currentTimeMillis() - 1000)),
+                mensaje(2L, new Date(System.currentTimeMillis() - 500)),
+                mensaje(3L, null));
+
+        listener.handleEventosCliente(mensajes);
+
+        verify(clienteInfoService, times(1)).actualizarInfoClientes(argThat(eventos ->
+                eventos.size() == 3 && eventos.get(0).getClienteId() == 1L && eventos.get(2).getClienteId() == 3L));
+        assertEquals(3, meterRegistry.counter("clientes.eventos.procesados").count());
+        assertEquals(1, meterRegistry.get("clientes.eventos.lote").summary().count());
+        assertEquals(3, meterRegistry.get("clientes.eventos.lote").summary().totalAmount());
+        // Solo los mensajes con timestamp de publicación cuentan para el lag
+        assertEquals(2, meterRegistry.get("clientes.eventos.lag").timer().count());
+    }
+
+    @Test
+    void handleEventosCliente_BaseNoDisponible_ReencolaElLote() {
+        CannotCreateTransactionException error = new CannotCreateTransactionException("Base no disponible");
+        when(clienteInfoService.actualizarInfoClientes(anyList())).thenThrow(error);
+
+        RuntimeException lanzada = assertThrows(RuntimeException.class,
+                () -> listener.handleEventosCliente(List.of(mensaje(1L, new Date()), mensaje(2L, new Date()))));
+
+        assertSame(error, lanzada);
+        assertEquals(2, meterRegistry.counter("clientes.eventos.fallidos").count());
+        assertEquals(0, meterRegistry.counter("clientes.eventos.procesados").count());
+    }
+
+    @Test
+    void handleEventosCliente_ErrorNoTransitorio_RechazaSinReencolar() {
+        when(clienteInfoService.actualizarInfoClientes(anyList()))
+                .thenThrow(new DataIntegrityViolationException("cliente_id nulo"));
+
+        assertThrows(AmqpRejectAndDontRequeueException.class,
+                () -> listener.handleEventosCliente(List.of(mensaje(1L, new Date()))));
+
+        assertEquals(1, meterRegistry.counter("clientes.eventos.fallidos").count());
+        assertEquals(0, meterRegistry.counter("clientes.eventos.procesados").count());
+    }
+
+    private Message<ClienteCreatedEvent> mensaje(Long clienteId, Date timestamp) {
+        MessageBuilder<ClienteCreatedEvent> builder = MessageBuilder.withPayload(
+                new ClienteCreatedEvent(clienteId, "Cliente " + clienteId, "ID-" + clienteId, true));
+        if (timestamp != null) {
+            builder.setHeader(AmqpHeaders.TIMESTAMP, timestamp);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.banking.cuenta.mapper;
+
+import com.banking.cuenta.config.ModelMapperConfig;
+import com.banking.cuenta.dto.CuentaDTO;
+import com.banking.cuenta.entity.Cuenta;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CuentaMapperTest {
+
+    private final CuentaMapper cuentaMapper = new CuentaMapper();
+    private final ModelMapper modelMapper = new ModelMapperConfig().modelMapper();
+
+    @Test
+    void toDTO_MismoResultadoQueModelMapper() {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setCuentaId(7L);
+        cuenta.setNumeroCuenta("478758");
+        cuenta.setTipoCuenta("Ahorro");
+        cuenta.setSaldoInicial(new BigDecimal("2000.00"));
+        cuenta.setSaldoActual(new BigDecimal("1425.50"));
+        cuenta.setEstado(false);
+        cuenta.setClienteId(3L);
+
+        CuentaDTO esperado = modelMapper.map(cuenta, CuentaDTO.class);
+        CuentaDTO resultado = cuentaMapper.toDTO(cuenta);
+
+        assertEquals(esperado.getCuentaId(), resultado.getCuentaId());
+        assertEquals(esperado.getNumeroCuenta(), resultado.getNumeroCuenta());
+        assertEquals(esperado.getTipoCuenta(), resultado.getTipoCuenta());
+        assertEquals(esperado.getSaldoInicial(), resultado.getSaldoInicial());
+        assertEquals(esperado.getSaldoActual(), resultado.getSaldoActual());
+        assertEquals(esperado.getEstado(), resultado.getEstado());
+        assertEquals(esperado.getClienteId(), resultado.getClienteId());
+    }
+
+    @Test
+    void toDTO_CuentaNula_RetornaNull() {
+        assertNull(cuentaMapper.toDTO(null));
+    }
+}
@@ -0,0 +1,55 @@
+package com.banking.cuenta.mapper;
+
+import com.banking.cuenta.config.ModelMapperConfig;
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.entity.Movimiento;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovimientoMapperTest {
+
+    private final MovimientoMapper movimientoMapper = new MovimientoMapper();
+    private final ModelMapper modelMapper = new ModelMapperConfig().modelMapper();
+
+    @Test
+    void toDTO_MismoResultadoQueModelMapper() {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setNumeroCuenta("478758");
+        Movimiento movimiento = new Movimiento();
+        movimiento.setMovimientoId(11L);
+        // Lo que devuelve Hibernate al leer la columna fecha
+        movimiento.setFecha(new Timestamp(1_700_000_000_123L));
+        movimiento.setTipoMovimiento("Retiro");
+        movimiento.setValor(new BigDecimal("-575.00"));
+        movimiento.setSaldo(new BigDecimal("1425.00"));
+        movimiento.setCuenta(cuenta);
+
+        MovimientoDTO esperado = modelMapper.map(movimiento, MovimientoDTO.class);
+        esperado.setNumeroCuenta("478758");
+        MovimientoDTO resultado = movimientoMapper.toDTO(movimiento, "478758");
+
+        assertEquals(esperado.getMovimientoId(), resultado.getMovimientoId());
+        assertEquals(esperado.getFecha(), resultado.getFecha());
+        assertEquals(esperado.getTipoMovimiento(), resultado.getTipoMovimiento());
+        assertEquals(esperado.getValor(), resultado.getValor());
+        assertEquals(esperado.getSaldo(), resultado.getSaldo());
+        assertEquals(esperado.getNumeroCuenta(), resultado.getNumeroCuenta());
+    }
+
+    @Test
+    void toDTO_NoLeeLaCuentaDelMovimiento() {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setFecha(null);
+
+        MovimientoDTO resultado = movimientoMapper.toDTO(movimiento, "478758");
+
+        assertNull(resultado.getFecha());
+        assertEquals("478758", resultado.getNumeroCuenta());
+    }
+}
@@ -0,0 +1,96 @@
+package com.banking.cuenta.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricasPeticionFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricasPeticionFilter filter;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new MetricasPeticionFilter();
+        ReflectionTestUtils.setField(filter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(filter, "maxSentencias", 5);
+        ReflectionTestUtils.setField(filter, "maxMilisegundos", 10_000L);
+
+        DriverManagerDataSource h2 = new DriverManagerDataSource(
+                "jdbc:h2:mem:metricas;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(new SentenciasDataSource(h2));
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS cuentas (cuenta_id BIGINT PRIMARY KEY, saldo DECIMAL(18,2))");
+        jdbcTemplate.update("DELETE FROM cuentas");
+    }
+
+    @Test
+    void doFilter_CuentaLasSentenciasDeLaPeticionPorPlantillaDeRuta() throws Exception {
+        peticion("/api/cuentas/{id}", "/api/cuentas/1", 3);
+        peticion("/api/cuentas/{id}", "/api/cuentas/2", 1);
+
+        DistributionSummary sentencias = meterRegistry.get("http.server.requests.jdbc.sentencias")
+                .tags("method", "GET", "uri", "/api/cuentas/{id}").summary();
+        assertEquals(2, sentencias.count());
+        assertEquals(4, sentencias.totalAmount());
+        assertEquals(3, sentencias.max());
+        Timer tiempo = meterRegistry.get("http.server.requests.jdbc.tiempo").tags("uri", "/api/cuentas/{id}").timer();
+        assertEquals(2, tiempo.count());
+        assertTrue(tiempo.totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertNull(meterRegistry.find("http.server.requests.marcadas").counter());
+    }
+
+    @Test
+    void doFilter_LoteJdbc_CuentaComoUnaSentencia() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/cuentas/lote");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/cuentas/lote");
+            jdbcTemplate.batchUpdate("INSERT INTO cuentas (cuenta_id, saldo) VALUES (?, 0)",
+                    List.of(new Object[]{1L}, new Object[]{2L}, new Object[]{3L}));
+        });
+
+        assertEquals(1, meterRegistry.get("http.server.requests.jdbc.sentencias")
+                .tags("uri", "/api/cuentas/lote").summary().totalAmount());
+    }
+
+    @Test
+    void doFilter_SuperaElUmbralDeSentencias_MarcaLaPeticion() throws Exception {
+        peticion("/api/reportes", "/api/reportes", 8);
+
+        assertEquals(1, meterRegistry.get("http.server.requests.marcadas")
+                .tags("uri", "/api/reportes", "motivo", "sentencias").counter().count());
+        assertNull(meterRegistry.find("http.server.requests.marcadas").tag("motivo", "latencia").counter());
+    }
+
+    @Test
+    void sentenciasFueraDePeticion_NoSeCuentan() throws Exception {
+        jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cuentas", Long.class);
+        peticion("/api/cuentas", "/api/cuentas", 0);
+
+        assertEquals(0, meterRegistry.get("http.server.requests.jdbc.sentencias").summary().totalAmount());
+    }
+
+    private void peticion(String patron, String uri, int consultas) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, patron);
+            for (int i = 0; i < consultas; i++) {
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cuentas", Long.class);
+            }
+        });
+    }
+}
@@ -0,0 +1,276 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.config.CacheConfig;
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.CrearTransferenciaDTO;
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.entity.ProyeccionBitacora;
+import com.banking.cuenta.mapper.MovimientoMapper;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.ProyeccionBitacoraRepository;
+import com.banking.cuenta.repository.SaldoDiarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Modo bitácora contra H2: los movimientos se aceptan contra el saldo en memoria y el proyector
+// los lleva a la base de datos; los demás caminos de escritura esperan a la proyección
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bitacora;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "banking.movimientos.bitacora.habilitado=true",
+        "banking.movimientos.bitacora.nodo=test"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheConfig.class, MovimientoMapper.class, CuentaDescriptorService.class, MovimientoService.class,
+        SaldoDiarioService.class, MovimientoPostingEngine.class, BitacoraMovimientos.class, CuentaLocks.class,
+        LocalValidatorFactoryBean.class, SimpleMeterRegistry.class})
+// Sin transacción del test: el proyector escribe desde su propio hilo
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BitacoraMovimientosTest {
+
+    private static final int CUENTAS = 20;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000.00");
+    private static final int MOVIMIENTOS = 3000;
+    private static final int HILOS = 32;
+
+    private static Path directorio;
+
+    @DynamicPropertySource
+    static void bitacora(DynamicPropertyRegistry registry) throws IOException {
+        directorio = Files.createTempDirectory("bitacora-test");
+        registry.add("banking.movimientos.bitacora.directorio", directorio::toString);
+    }
+
+    @AfterAll
+    static void borrarBitacora() throws IOException {
+        FileSystemUtils.deleteRecursively(directorio);
+    }
+
+    @Autowired
+    private MovimientoPostingEngine movimientoPostingEngine;
+
+    @Autowired
+    private BitacoraMovimientos bitacoraMovimientos;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+
+    @Autowired
+    private ProyeccionBitacoraRepository proyeccionBitacoraRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        movimientoRepository.deleteAllInBatch();
+        saldoDiarioRepository.deleteAllInBatch();
+        cuentaRepository.deleteAllInBatch();
+        cacheManager.getCache(CacheConfig.CUENTA_DESCRIPTOR).clear();
+    }
+
+    @Test
+    void contabilizar_LlamadoresConcurrentes_ProyectaMovimientosYSaldos() throws Exception {
+        List<String> cuentas = crearCuentas("BI");
+        List<CrearMovimientoDTO> movimientos = movimientosAleatorios(cuentas, 7);
+        Map<String, BigDecimal> ultimoSaldo = new ConcurrentHashMap<>();
+        AtomicInteger exitosos = new AtomicInteger();
+        AtomicInteger rechazados = new AtomicInteger();
+        ConcurrentLinkedQueue<String> errores = new ConcurrentLinkedQueue<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (CrearMovimientoDTO dto : movimientos) {
+            tareas.add(pool.submit(() -> {
+                try {
+                    MovimientoDTO movimiento = movimientoPostingEngine.contabilizar(dto);
+                    assertNull(movimiento.getMovimientoId());
+                    // Bajo el bloqueo de la cuenta los saldos salen en orden, pero las
+                    // respuestas pueden llegar desordenadas: se compara al final con la base de datos
+                    ultimoSaldo.merge(dto.getNumeroCuenta(), movimiento.getSaldo(), (a, b) -> b);
+                    exitosos.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    if (!"Saldo no disponible".equals(e.getMessage())) {
+                        errores.add(e.toString());
+                    }
+                    rechazados.incrementAndGet();
+                } catch (RuntimeException e) {
+                    errores.add(e.toString());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        cuentas.forEach(this::sincronizar);
+
+        assertTrue(errores.isEmpty(), "Errores inesperados: " + errores);
+        assertEquals(MOVIMIENTOS, exitosos.get() + rechazados.get());
+        assertEquals(exitosos.get(), movimientoRepository.count());
+        assertTrue(cuentaRepository.findDescuadresDeSaldo().isEmpty());
+        assertTrue(cuentaRepository.findAll().stream().allMatch(c -> c.getSaldoActual().signum() >= 0));
+        // El saldo de cada movimiento proyectado es el acumulado en orden de secuencia
+        Map<Long, BigDecimal> saldos = new HashMap<>();
+        cuentaRepository.findAll().forEach(c -> saldos.put(c.getCuentaId(), c.getSaldoInicial()));
+        movimientoRepository.findAll(Sort.by("movimientoId")).forEach(m -> {
+            BigDecimal saldo = saldos.merge(m.getCuenta().getCuentaId(), m.getValor(), BigDecimal::add);
+            assertEquals(0, saldo.compareTo(m.getSaldo()));
+        });
+    }
+
+    @Test
+    void transferir_CuentaConAsientosPendientes_EsperaLaProyeccionYRecargaElSaldo() {
+        List<String> cuentas = crearCuentas("TR");
+        String origen = cuentas.get(0);
+        String destino = cuentas.get(1);
+
+        for (int i = 0; i < 50; i++) {
+            movimientoPostingEngine.contabilizar(movimiento(origen, new BigDecimal("10.00")));
+        }
+        CrearTransferenciaDTO transferencia = new CrearTransferenciaDTO();
+        transferencia.setNumeroCuentaOrigen(origen);
+        transferencia.setNumeroCuentaDestino(destino);
+        transferencia.setValor(new BigDecimal("1400.00"));
+        movimientoPostingEngine.transferir(transferencia);
+
+        // El siguiente asiento parte del saldo que dejó la transferencia
+        MovimientoDTO retiro = movimientoPostingEngine.contabilizar(movimiento(origen, new BigDecimal("-100.00")));
+        assertEquals(0, new BigDecimal("0.00").compareTo(retiro.getSaldo()));
+        IllegalArgumentException sinSaldo = assertThrows(IllegalArgumentException.class,
+                () -> movimientoPostingEngine.contabilizar(movimiento(origen, new BigDecimal("-0.01"))));
+        assertEquals("Saldo no disponible", sinSaldo.getMessage());
+        MovimientoDTO deposito = movimientoPostingEngine.contabilizar(movimiento(destino, new BigDecimal("0.005")));
+        assertEquals(0, new BigDecimal("2400.01").compareTo(deposito.getSaldo()));
+
+        sincronizar(origen);
+        sincronizar(destino);
+        assertEquals(54, movimientoRepository.count());
+        assertTrue(cuentaRepository.findDescuadresDeSaldo().isEmpty());
+        assertEquals(0, new BigDecimal("2400.01").compareTo(cuentaRepository.findByNumeroCuenta(destino).get().getSaldoActual()));
+    }
+
+    @Test
+    void reproducir_ProyeccionesPerdidas_LasReconstruyeDesdeLaBitacora() throws Exception {
+        List<String> cuentas = crearCuentas("RP");
+        cuentas.forEach(this::sincronizar);
+        long proyectadaAntes = proyeccionBitacoraRepository.findById("test").map(ProyeccionBitacora::getSecuencia).orElse(0L);
+        List<CrearMovimientoDTO> movimientos = movimientosAleatorios(cuentas, 11).subList(0, 1200);
+        int aceptados = 0;
+        for (CrearMovimientoDTO dto : movimientos) {
+            try {
+                movimientoPostingEngine.contabilizar(dto);
+                aceptados++;
+            } catch (IllegalArgumentException e) {
+                assertEquals("Saldo no disponible", e.getMessage());
+            }
+        }
+        cuentas.forEach(this::sincronizar);
+        List<Cuenta> esperadas = cuentaRepository.findAll();
+        long cierresEsperados = saldoDiarioRepository.count();
+
+        // Caída con la base de datos atrás de la bitácora: se pierden todas las proyecciones del test
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            movimientoRepository.deleteAllInBatch();
+            saldoDiarioRepository.deleteAllInBatch();
+            cuentaRepository.findAll().forEach(c -> c.setSaldoActual(c.getSaldoInicial()));
+            proyeccionBitacoraRepository.avanzar("test", proyectadaAntes);
+        });
+        assertEquals(0, movimientoRepository.count());
+
+        assertEquals(aceptados, bitacoraMovimientos.reproducir());
+
+        assertEquals(aceptados, movimientoRepository.count());
+        assertEquals(cierresEsperados, saldoDiarioRepository.count());
+        assertTrue(cuentaRepository.findDescuadresDeSaldo().isEmpty());
+        for (Cuenta esperada : esperadas) {
+            Cuenta cuenta = cuentaRepository.findById(esperada.getCuentaId()).orElseThrow();
+            assertEquals(0, esperada.getSaldoActual().compareTo(cuenta.getSaldoActual()));
+        }
+    }
+
+    private void sincronizar(String numeroCuenta) {
+        bitacoraMovimientos.sincronizar(numeroCuenta);
+    }
+
+    private List<String> crearCuentas(String prefijo) {
+        List<Cuenta> cuentas = new ArrayList<>();
+        for (int c = 0; c < CUENTAS; c++) {
+            cuentas.add(new Cuenta(String.format("%s%06d", prefijo, c), "Ahorro", SALDO_INICIAL, true, 1L));
+        }
+        return cuentaRepository.saveAll(cuentas).stream().map(Cuenta::getNumeroCuenta).toList();
+    }
+
+    // Depósitos y retiros de hasta 300: algunas cuentas se vacían y hay rechazos por saldo
+    private List<CrearMovimientoDTO> movimientosAleatorios(List<String> cuentas, long semilla) {
+        SplittableRandom random = new SplittableRandom(semilla);
+        List<CrearMovimientoDTO> movimientos = new ArrayList<>(MOVIMIENTOS);
+        for (int i = 0; i < MOVIMIENTOS; i++) {
+            BigDecimal valor = new BigDecimal(1 + random.nextInt(30_000)).movePointLeft(2);
+            movimientos.add(movimiento(cuentas.get(random.nextInt(cuentas.size())),
+                    random.nextBoolean() ? valor : valor.negate()));
+        }
+        return movimientos;
+    }
+
+    private CrearMovimientoDTO movimiento(String numeroCuenta, BigDecimal valor) {
+        CrearMovimientoDTO dto = new CrearMovimientoDTO();
+        dto.setNumeroCuenta(numeroCuenta);
+        dto.setValor(valor);
+        return dto;
+    }
+}
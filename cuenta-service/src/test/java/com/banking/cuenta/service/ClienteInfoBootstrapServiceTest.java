@@ -0,0 +1,199 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.config.CacheConfig;
+import com.banking.cuenta.dto.BootstrapClientesDTO;
+import com.banking.cuenta.entity.ClienteInfo;
+import com.banking.cuenta.event.ClienteCreatedEvent;
+import com.banking.cuenta.repository.ClienteInfoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// cliente-service se simula con un HttpServer del JDK que sirve el rango y las páginas NDJSON
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bootstrap;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "banking.clientes-bootstrap.paralelismo=4",
+        "banking.clientes-bootstrap.pagina=1000",
+        "banking.clientes-bootstrap.lote=500"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ClienteInfoBootstrapService.class, ClienteInfoService.class, CacheConfig.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, RestTemplateAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClienteInfoBootstrapServiceTest {
+
+    private static final int CLIENTES = 20_000;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final NavigableMap<Long, ClienteCreatedEvent> CLIENTE_SERVICE = new ConcurrentSkipListMap<>();
+    private static final AtomicInteger PAGINAS_SERVIDAS = new AtomicInteger();
+    private static HttpServer servidor;
+
+    @Autowired
+    private ClienteInfoBootstrapService bootstrapService;
+
+    @Autowired
+    private ClienteInfoService clienteInfoService;
+
+    @Autowired
+    private ClienteInfoRepository clienteInfoRepository;
+
+    @BeforeAll
+    static void iniciarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.setExecutor(Executors.newFixedThreadPool(4));
+        servidor.createContext("/api/clientes/snapshot", ClienteInfoBootstrapServiceTest::responder);
+        servidor.start();
+    }
+
+    @AfterAll
+    static void detenerServidor() {
+        servidor.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void urlClienteService(DynamicPropertyRegistry registry) {
+        registry.add("banking.cliente-service.url", () -> "http://localhost:" + servidor.getAddress().getPort());
+    }
+
+    @BeforeEach
+    void setUp() {
+        CLIENTE_SERVICE.clear();
+        PAGINAS_SERVIDAS.set(0);
+        // clienteIds con huecos, como tras bloques de ids sin usar
+        for (long i = 1; i <= CLIENTES; i++) {
+            long clienteId = i * 3;
+            CLIENTE_SERVICE.put(clienteId, new ClienteCreatedEvent(
+                    clienteId, "Cliente " + clienteId, "ID-" + clienteId, clienteId % 7 != 0, 1L));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        clienteInfoRepository.deleteAll();
+    }
+
+    @Test
+    void cargarSnapshot_CargaTodosLosClientesEnTramosParalelos() throws Exception {
+        BootstrapClientesDTO resultado = bootstrapService.cargarSnapshot();
+
+        assertEquals(CLIENTES, resultado.getClientes());
+        assertEquals(4, resultado.getTramos());
+        assertEquals(CLIENTES, clienteInfoRepository.count());
+        assertFalse(clienteInfoRepository.findById(21L).orElseThrow().getEstado());
+        assertEquals("Cliente 60000", clienteInfoService.getClienteInfo(60_000L).getNombre());
+        // Cada tramo pide sus páginas por keyset hasta recibir una incompleta
+        assertTrue(PAGINAS_SERVIDAS.get() >= CLIENTES / 1000);
+    }
+
+    @Test
+    void cargarSnapshot_NoPisaCambiosMasRecientesLlegadosPorEventos() throws Exception {
+        // Evento de actualización aplicado antes de que el snapshot (versión 1) llegue a ese cliente
+        clienteInfoService.actualizarInfoClientes(List.of(
+                new ClienteCreatedEvent(30L, "Actualizado por evento", "ID-30", false, 2L)));
+
+        bootstrapService.cargarSnapshot();
+
+        ClienteInfo cliente = clienteInfoRepository.findById(30L).orElseThrow();
+        assertEquals("Actualizado por evento", cliente.getNombre());
+        assertFalse(cliente.getEstado());
+        assertEquals(2L, cliente.getVersion());
+
+        // Y un evento posterior al snapshot sí se aplica
+        clienteInfoService.actualizarInfoClientes(List.of(
+                new ClienteCreatedEvent(33L, "Cambio posterior", "ID-33", true, 2L)));
+        assertEquals("Cambio posterior", clienteInfoRepository.findById(33L).orElseThrow().getNombre());
+    }
+
+    @Test
+    void cargarSnapshot_SinClientes_NoHaceNada() throws Exception {
+        CLIENTE_SERVICE.clear();
+
+        BootstrapClientesDTO resultado = bootstrapService.cargarSnapshot();
+
+        assertEquals(0, resultado.getClientes());
+        assertEquals(0, clienteInfoRepository.count());
+    }
+
+    private static void responder(HttpExchange exchange) throws IOException {
+        byte[] cuerpo;
+        String tipo;
+        if (exchange.getRequestURI().getPath().endsWith("/clientes")) {
+            Map<String, String> query = query(exchange.getRequestURI().getQuery());
+            long desde = Long.parseLong(query.get("desde"));
+            long hasta = Long.parseLong(query.get("hasta"));
+            int limite = Integer.parseInt(query.get("limite"));
+            ByteArrayOutputStream salida = new ByteArrayOutputStream();
+            CLIENTE_SERVICE.subMap(desde, false, hasta, true).values().stream().limit(limite).forEach(fila -> {
+                try {
+                    salida.write(JSON.writeValueAsBytes(fila));
+                    salida.write('\n');
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            PAGINAS_SERVIDAS.incrementAndGet();
+            cuerpo = salida.toByteArray();
+            tipo = "application/x-ndjson";
+        } else {
+            Map<String, Object> rango = new HashMap<>();
+            rango.put("minClienteId", CLIENTE_SERVICE.isEmpty() ? null : CLIENTE_SERVICE.firstKey());
+            rango.put("maxClienteId", CLIENTE_SERVICE.isEmpty() ? null : CLIENTE_SERVICE.lastKey());
+            rango.put("total", CLIENTE_SERVICE.size());
+            cuerpo = JSON.writeValueAsBytes(Map.of("success", true, "message", "Rango del snapshot obtenido", "data", rango));
+            tipo = "application/json";
+        }
+        exchange.getResponseHeaders().add("Content-Type", tipo);
+        exchange.sendResponseHeaders(200, cuerpo.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(cuerpo);
+        }
+    }
+
+    private static Map<String, String> query(String query) {
+        Map<String, String> parametros = new HashMap<>();
+        for (String par : query.split("&")) {
+            String[] kv = par.split("=", 2);
+            parametros.put(kv[0], kv[1]);
+        }
+        return parametros;
+    }
+}
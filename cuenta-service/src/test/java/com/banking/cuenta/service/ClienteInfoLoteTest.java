@@ -0,0 +1,128 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.config.CacheConfig;
+import com.banking.cuenta.entity.ClienteInfo;
+import com.banking.cuenta.event.ClienteCreatedEvent;
+import com.banking.cuenta.repository.ClienteInfoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// H2 en modo MySQL para ejecutar el INSERT ... ON DUPLICATE KEY UPDATE real
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:clienteinfo;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ClienteInfoService.class, CacheConfig.class})
+// Sin transacción del test: la caché se refresca tras el commit del lote
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClienteInfoLoteTest {
+
+    @Autowired
+    private ClienteInfoService clienteInfoService;
+
+    @Autowired
+    private ClienteInfoRepository clienteInfoRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.CLIENTE_INFO).clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clienteInfoRepository.deleteAll();
+    }
+
+    @Test
+    void actualizarInfoClientes_InsertaNuevosYActualizaExistentes() {
+        clienteInfoService.actualizarInfoClientes(List.of(evento(1L, "Jose Lema"), evento(2L, "Marianela Montalvo")));
+
+        clienteInfoService.actualizarInfoClientes(List.of(
+                evento(2L, "Marianela Montalvo Actualizada"),
+                evento(3L, "Juan Osorio"),
+                // Repetido dentro del lote: prevalece el último
+                evento(3L, "Juan Osorio Final")));
+
+        assertEquals(3, clienteInfoRepository.count());
+        assertEquals("Jose Lema", clienteInfoRepository.findById(1L).map(ClienteInfo::getNombre).orElseThrow());
+        assertEquals("Marianela Montalvo Actualizada", clienteInfoRepository.findById(2L).map(ClienteInfo::getNombre).orElseThrow());
+        assertEquals("Juan Osorio Final", clienteInfoRepository.findById(3L).map(ClienteInfo::getNombre).orElseThrow());
+    }
+
+    @Test
+    void actualizarInfoClientes_InvalidaLaCacheTrasElCommit() {
+        // Resultado negativo cacheado antes de que llegue el evento
+        assertNull(clienteInfoService.getClienteInfo(5L));
+
+        clienteInfoService.actualizarInfoClientes(List.of(evento(5L, "Cliente Cinco")));
+
+        assertEquals("Cliente Cinco", clienteInfoService.getClienteInfo(5L).getNombre());
+    }
+
+    @Test
+    void actualizarInfoClientes_NoRetrocedeAVersionesAnteriores() {
+        clienteInfoService.actualizarInfoClientes(List.of(
+                new ClienteCreatedEvent(7L, "Version Tres", "ID-7", true, 3L),
+                new ClienteCreatedEvent(8L, "Version Uno", "ID-8", true, 1L)));
+
+        // Snapshot o evento atrasado para el 7, cambio nuevo (desactivación) para el 8
+        clienteInfoService.actualizarInfoClientes(List.of(
+                new ClienteCreatedEvent(7L, "Version Dos", "ID-7", true, 2L),
+                new ClienteCreatedEvent(8L, "Version Dos", "ID-8", false, 2L),
+                // Dentro del lote también prevalece la versión más alta
+                new ClienteCreatedEvent(8L, "Version Uno Repetida", "ID-8", true, 1L)));
+
+        ClienteInfo siete = clienteInfoRepository.findById(7L).orElseThrow();
+        assertEquals("Version Tres", siete.getNombre());
+        assertEquals(3L, siete.getVersion());
+        ClienteInfo ocho = clienteInfoRepository.findById(8L).orElseThrow();
+        assertEquals("Version Dos", ocho.getNombre());
+        assertFalse(ocho.getEstado());
+        assertEquals(2L, ocho.getVersion());
+    }
+
+    @Test
+    void actualizarInfoClientes_VariosLotes_GuardaTodosLosEventos() {
+        int total = 500;
+        int tamanoLote = 100;
+
+        List<ClienteCreatedEvent> lote = new ArrayList<>(tamanoLote);
+        for (int i = 0; i < total; i++) {
+            lote.add(evento(20_000L + i, "Cliente " + i));
+            if (lote.size() == tamanoLote) {
+                assertEquals(tamanoLote, clienteInfoService.actualizarInfoClientes(lote));
+                lote = new ArrayList<>(tamanoLote);
+            }
+        }
+
+        // El coste por evento frente a un upsert por evento se mide en ClienteInfoBenchmark (perfil jmh)
+        assertEquals(total, clienteInfoRepository.count());
+    }
+
+    private ClienteCreatedEvent evento(Long clienteId, String nombre) {
+        return new ClienteCreatedEvent(clienteId, nombre, "ID-" + clienteId, true);
+    }
+}
@@ -0,0 +1,92 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.config.CacheConfig;
+import com.banking.cuenta.dto.ClienteInfoDTO;
+import com.banking.cuenta.entity.ClienteInfo;
+import com.banking.cuenta.event.ClienteCreatedEvent;
+import com.banking.cuenta.repository.ClienteInfoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig({CacheConfig.class, ClienteInfoService.class})
+class ClienteInfoServiceTest {
+
+    @MockBean
+    private ClienteInfoRepository clienteInfoRepository;
+
+    @Autowired
+    private ClienteInfoService clienteInfoService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.CLIENTE_INFO).clear();
+    }
+
+    @Test
+    void getClienteInfo_SegundaConsulta_NoAccedeALaBaseDeDatos() {
+        when(clienteInfoRepository.findByClienteId(1L)).thenReturn(Optional.of(clienteInfo(1L, "Jose Lema")));
+
+        assertEquals("Jose Lema", clienteInfoService.getClienteInfo(1L).getNombre());
+        assertEquals("Jose Lema", clienteInfoService.getClienteInfo(1L).getNombre());
+
+        verify(clienteInfoRepository, times(1)).findByClienteId(1L);
+    }
+
+    @Test
+    void getClienteInfo_ClienteInexistente_NoCacheaElResultadoNegativo() {
+        // El evento del cliente lo aplica otra instancia: esta no recibe ninguna invalidación
+        when(clienteInfoRepository.findByClienteId(99L))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(clienteInfo(99L, "Juan Osorio")));
+
+        assertNull(clienteInfoService.getClienteInfo(99L));
+        assertEquals("Juan Osorio", clienteInfoService.getClienteInfo(99L).getNombre());
+
+        verify(clienteInfoRepository, times(2)).findByClienteId(99L);
+    }
+
+    @Test
+    void actualizarInfoClientes_EventoRecibido_InvalidaLaCache() {
+        when(clienteInfoRepository.findByClienteId(2L))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(clienteInfo(2L, "Marianela Montalvo")));
+        assertNull(clienteInfoService.getClienteInfo(2L));
+
+        ClienteCreatedEvent event = new ClienteCreatedEvent();
+        event.setClienteId(2L);
+        event.setNombre("Marianela Montalvo");
+        event.setIdentificacion("0987654321");
+        event.setEstado(true);
+        clienteInfoService.actualizarInfoClientes(List.of(event));
+
+        // La consulta relee la fila guardada
+        ClienteInfoDTO clienteInfo = clienteInfoService.getClienteInfo(2L);
+        assertNotNull(clienteInfo);
+        assertEquals("Marianela Montalvo", clienteInfo.getNombre());
+        verify(clienteInfoRepository, times(1)).upsertTodos(anyCollection());
+        verify(clienteInfoRepository, times(2)).findByClienteId(2L);
+    }
+
+    private ClienteInfo clienteInfo(Long clienteId, String nombre) {
+        ClienteInfo info = new ClienteInfo();
+        info.setClienteId(clienteId);
+        info.setNombre(nombre);
+        info.setIdentificacion("1234567890");
+        info.setEstado(true);
+        return info;
+    }
+}
@@ -0,0 +1,236 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.config.CacheConfig;
+import com.banking.cuenta.dto.ClienteInfoDTO;
+import com.banking.cuenta.entity.ClienteInfo;
+import com.banking.cuenta.event.ClienteCreatedEvent;
+import com.banking.cuenta.repository.ClienteInfoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// cliente-service se simula con un HttpServer del JDK con retraso configurable
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:clienteremoto;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "banking.cliente-service.fallback.timeout-lectura-ms=300",
+        "banking.cliente-service.fallback.fallos-para-abrir=3",
+        "banking.cliente-service.fallback.abierto-ms=60000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ClienteRemotoService.class, ClienteInfoService.class, CacheConfig.class, SimpleMeterRegistry.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, RestTemplateAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ClienteRemotoServiceTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Map<Long, ClienteCreatedEvent> CLIENTE_SERVICE = new ConcurrentHashMap<>();
+    private static final AtomicInteger LLAMADAS = new AtomicInteger();
+    private static final AtomicLong RETRASO_MS = new AtomicLong();
+    private static HttpServer servidor;
+
+    @Autowired
+    private ClienteRemotoService clienteRemotoService;
+
+    @Autowired
+    private ClienteInfoRepository clienteInfoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void iniciarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.createContext("/api/clientes/cliente/", ClienteRemotoServiceTest::responder);
+        servidor.start();
+    }
+
+    @AfterAll
+    static void detenerServidor() {
+        servidor.stop(0);
+    }
+
+    @DynamicPropertySource
+    static void urlClienteService(DynamicPropertyRegistry registry) {
+        registry.add("banking.cliente-service.url", () -> "http://localhost:" + servidor.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        CLIENTE_SERVICE.clear();
+        LLAMADAS.set(0);
+        RETRASO_MS.set(0);
+        clienteInfoRepository.deleteAll();
+    }
+
+    @Test
+    void getClienteInfo_ClienteEnReplica_NoConsultaClienteService() {
+        ClienteInfo local = new ClienteInfo();
+        local.setClienteId(10L);
+        local.setNombre("Cliente local");
+        local.setIdentificacion("ID-10");
+        local.setEstado(true);
+        clienteInfoRepository.save(local);
+
+        ClienteInfoDTO resultado = clienteRemotoService.getClienteInfo(10L);
+
+        assertEquals("Cliente local", resultado.getNombre());
+        assertEquals(0, LLAMADAS.get());
+    }
+
+    @Test
+    void getClienteInfo_ClienteAusente_LoConsultaYLoGuardaEnLaReplica() {
+        CLIENTE_SERVICE.put(20L, new ClienteCreatedEvent(20L, "Cliente remoto", "ID-20", true, 3L));
+
+        ClienteInfoDTO resultado = clienteRemotoService.getClienteInfo(20L);
+
+        assertNotNull(resultado);
+        assertEquals("Cliente remoto", resultado.getNombre());
+        ClienteInfo guardado = clienteInfoRepository.findById(20L).orElseThrow();
+        assertEquals(3L, guardado.getVersion());
+
+        // La siguiente consulta se resuelve desde cliente_info
+        assertNotNull(clienteRemotoService.getClienteInfo(20L));
+        assertEquals(1, LLAMADAS.get());
+    }
+
+    @Test
+    void getClienteInfo_DentroDeUnaTransaccionRevertida_ElClienteConsultadoQuedaGuardado() {
+        CLIENTE_SERVICE.put(25L, new ClienteCreatedEvent(25L, "Cliente remoto", "ID-25", true, 1L));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertNotNull(clienteRemotoService.getClienteInfo(25L));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(clienteInfoRepository.findById(25L).isPresent());
+    }
+
+    @Test
+    void getClienteInfo_ConsultasSimultaneas_CompartenUnaSolaLlamada() throws Exception {
+        CLIENTE_SERVICE.put(30L, new ClienteCreatedEvent(30L, "Cliente remoto", "ID-30", true, 1L));
+        RETRASO_MS.set(200);
+        int hilos = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            List<Future<ClienteInfoDTO>> resultados = new ArrayList<>();
+            for (int i = 0; i < hilos; i++) {
+                resultados.add(executor.submit(() -> {
+                    salida.await();
+                    return clienteRemotoService.getClienteInfo(30L);
+                }));
+            }
+            salida.countDown();
+            for (Future<ClienteInfoDTO> resultado : resultados) {
+                assertEquals("Cliente remoto", resultado.get(5, TimeUnit.SECONDS).getNombre());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, LLAMADAS.get());
+    }
+
+    @Test
+    void getClienteInfo_ClienteInexistente_DevuelveNuloSinAbrirElCircuito() {
+        for (long clienteId = 40; clienteId < 45; clienteId++) {
+            assertNull(clienteRemotoService.getClienteInfo(clienteId));
+        }
+
+        assertEquals(5, LLAMADAS.get());
+        assertFalse(clienteRemotoService.circuitoAbierto());
+    }
+
+    @Test
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void getClienteInfo_ClienteServiceLento_AbreElCircuitoYRespondeSinEsperar() {
+        for (long clienteId = 50; clienteId <= 53; clienteId++) {
+            CLIENTE_SERVICE.put(clienteId, new ClienteCreatedEvent(clienteId, "Cliente remoto", "ID-" + clienteId, true, 1L));
+        }
+        RETRASO_MS.set(2000);
+
+        // Los clientes existen en cliente-service: devolver nulo significa que cortó el timeout de lectura
+        for (long clienteId = 51; clienteId <= 53; clienteId++) {
+            assertNull(clienteRemotoService.getClienteInfo(clienteId));
+        }
+        assertTrue(clienteRemotoService.circuitoAbierto());
+
+        // Con el circuito abierto el fallback no llega a llamar a cliente-service
+        assertNull(clienteRemotoService.getClienteInfo(50L));
+        assertEquals(3, LLAMADAS.get());
+    }
+
+    private static void responder(HttpExchange exchange) throws IOException {
+        LLAMADAS.incrementAndGet();
+        String path = exchange.getRequestURI().getPath();
+        long clienteId = Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+        try {
+            Thread.sleep(RETRASO_MS.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        ClienteCreatedEvent cliente = CLIENTE_SERVICE.get(clienteId);
+        Map<String, Object> respuesta = new HashMap<>();
+        respuesta.put("success", cliente != null);
+        respuesta.put("message", cliente != null ? "Cliente encontrado" : "Cliente no encontrado");
+        respuesta.put("data", cliente);
+        byte[] cuerpo = JSON.writeValueAsBytes(respuesta);
+        try {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(cliente != null ? 200 : 404, cuerpo.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(cuerpo);
+            }
+        } catch (IOException e) {
+            // El cliente ya abandonó la petición por timeout
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.config.CacheConfig;
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.mapper.MovimientoMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contabiliza contra H2 con la caché de descriptores vacía en cada petición (fría) y con la caché
+// ya poblada (caliente) y compara las sentencias. El tiempo de cada modo se mide en
+// DescriptorBenchmark (perfil jmh).
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:descriptorcache;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+// Modo MySQL de H2: registrarSaldo usa INSERT ... ON DUPLICATE KEY UPDATE
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheConfig.class, MovimientoMapper.class, CuentaDescriptorService.class,
+        MovimientoService.class, SaldoDiarioService.class, SimpleMeterRegistry.class})
+class CuentaDescriptorCacheTest {
+
+    // Múltiplo de la asignación de ids de movimientos para que ambas rondas pidan igual número de bloques
+    private static final int CUENTAS = 100;
+    private static final int RONDAS = 5;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaDescriptorService cuentaDescriptorService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void crearMovimiento_CacheCaliente_EvitaLaBusquedaDeCuenta() {
+        for (int c = 0; c < CUENTAS; c++) {
+            entityManager.persist(new Cuenta(String.format("BM%06d", c), "Ahorro", new BigDecimal("1000.00"), true, 1L));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Primera ronda fuera de la cuenta: arranque en frío de Hibernate y de la caché
+        ejecutarRonda(true);
+
+        long[] sentencias = new long[2];
+        for (int r = 0; r < RONDAS; r++) {
+            for (int modo = 0; modo < 2; modo++) {
+                if (modo == 1) {
+                    poblarCache();
+                }
+                estadisticas.clear();
+                ejecutarRonda(modo == 1);
+                sentencias[modo] += estadisticas.getPrepareStatementCount();
+            }
+        }
+
+        int movimientos = CUENTAS * RONDAS;
+        // Con la caché caliente desaparece exactamente la consulta por numero_cuenta
+        assertEquals(sentencias[0] - movimientos, sentencias[1]);
+    }
+
+    private void poblarCache() {
+        for (int c = 0; c < CUENTAS; c++) {
+            cuentaDescriptorService.getDescriptor(String.format("BM%06d", c));
+        }
+    }
+
+    private void ejecutarRonda(boolean cacheCaliente) {
+        for (int c = 0; c < CUENTAS; c++) {
+            if (!cacheCaliente) {
+                cacheManager.getCache(CacheConfig.CUENTA_DESCRIPTOR).clear();
+            }
+            CrearMovimientoDTO dto = new CrearMovimientoDTO();
+            dto.setNumeroCuenta(String.format("BM%06d", c));
+            dto.setValor(new BigDecimal("1.00"));
+            movimientoService.crearMovimiento(dto);
+        }
+        // Evita que el contexto de persistencia crezca entre rondas
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
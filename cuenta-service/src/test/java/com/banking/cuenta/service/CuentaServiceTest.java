@@ -0,0 +1,185 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.ClienteInfoDTO;
+import com.banking.cuenta.dto.CrearCuentaDTO;
+import com.banking.cuenta.dto.CuentaDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.entity.Movimiento;
+import com.banking.cuenta.entity.SaldoDiario;
+import com.banking.cuenta.mapper.CuentaMapper;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.SaldoDiarioRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cuentaservice;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CuentaService.class, CuentaMapper.class, SaldoDiarioService.class})
+class CuentaServiceTest {
+
+    private static final LocalDate DIA_1 = LocalDate.of(2024, 3, 1);
+    private static final LocalDate DIA_2 = LocalDate.of(2024, 3, 2);
+
+    @Autowired
+    private CuentaService cuentaService;
+
+    @Autowired
+    private SaldoDiarioService saldoDiarioService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockBean
+    private ClienteRemotoService clienteRemotoService;
+
+    @MockBean
+    private CuentaDescriptorService cuentaDescriptorService;
+
+    private Cuenta cuenta;
+
+    @BeforeEach
+    void setUp() {
+        cuenta = new Cuenta("478758", "Ahorro", new BigDecimal("1000.00"), true, 1L);
+        cuenta.setSaldoActual(new BigDecimal("1250.00"));
+        entityManager.persist(cuenta);
+        movimiento(DIA_1, "100.00");
+        movimiento(DIA_2, "150.00");
+        entityManager.flush();
+        saldoDiarioService.reconstruirCuenta(cuenta.getCuentaId());
+    }
+
+    @Test
+    void actualizarCuenta_CambiaSaldoInicial_DesplazaSaldoActualYCierresDiarios() {
+        cuentaService.actualizarCuenta(cuenta.getCuentaId(), crearCuentaDTO("Corriente", "1500.00"));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of(new BigDecimal("1600.00"), new BigDecimal("1750.00")), cierres());
+        Cuenta actualizada = cuentaRepository.findById(cuenta.getCuentaId()).orElseThrow();
+        assertEquals(0, new BigDecimal("1750.00").compareTo(actualizada.getSaldoActual()));
+        assertEquals("Corriente", actualizada.getTipoCuenta());
+        assertTrue(cuentaRepository.findDescuadresDeSaldo().isEmpty());
+
+        // Los cierres desplazados coinciden con los que daría una reconstrucción desde cero
+        List<BigDecimal> desplazados = cierres();
+        saldoDiarioService.reconstruirCuenta(cuenta.getCuentaId());
+        entityManager.clear();
+        assertEquals(desplazados, cierres());
+    }
+
+    @Test
+    void actualizarCuenta_MismoSaldoInicial_NoTocaLosCierres() {
+        cuentaService.actualizarCuenta(cuenta.getCuentaId(), crearCuentaDTO("Corriente", "1000.00"));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of(new BigDecimal("1100.00"), new BigDecimal("1250.00")), cierres());
+        assertEquals(0, new BigDecimal("1250.00").compareTo(
+                cuentaRepository.findById(cuenta.getCuentaId()).orElseThrow().getSaldoActual()));
+    }
+
+    @Test
+    void crearCuenta_ValidaElClienteFueraDeLaTransaccion() {
+        // La consulta de respaldo a cliente-service no debe ejecutarse con una transacción abierta
+        when(clienteRemotoService.getClienteInfo(7L)).thenAnswer(inv -> {
+            assertFalse(TransactionSynchronizationManager.isActualTransactionActive());
+            return new ClienteInfoDTO();
+        });
+        CrearCuentaDTO dto = crearCuentaDTO("Ahorro", "300.00");
+        dto.setNumeroCuenta("CS-ALTA-1");
+        dto.setClienteId(7L);
+
+        CuentaDTO creada = cuentaService.crearCuenta(dto);
+
+        assertNotNull(creada.getCuentaId());
+        assertEquals(0, new BigDecimal("300.00").compareTo(creada.getSaldoActual()));
+        verify(clienteRemotoService).getClienteInfo(7L);
+    }
+
+    @Test
+    void crearCuenta_ClienteInexistente_NoCreaLaCuenta() {
+        CrearCuentaDTO dto = crearCuentaDTO("Ahorro", "300.00");
+        dto.setNumeroCuenta("CS-ALTA-2");
+        dto.setClienteId(8L);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> cuentaService.crearCuenta(dto));
+
+        assertEquals("Cliente no encontrado", error.getMessage());
+        assertTrue(cuentaRepository.findByNumeroCuenta("CS-ALTA-2").isEmpty());
+    }
+
+    @Test
+    void eliminarCuenta_MovimientoContabilizadoDespuesDeLeerla_DesactivaLaCuenta() {
+        long version = cuenta.getVersion();
+        // Un movimiento cambia la versión de la fila después de que la cuenta se leyó
+        cuentaRepository.aplicarMovimiento(cuenta.getCuentaId(), new BigDecimal("10.00"));
+
+        assertTrue(cuentaService.eliminarCuenta(cuenta.getCuentaId()));
+        entityManager.flush();
+        entityManager.clear();
+
+        Cuenta desactivada = cuentaRepository.findById(cuenta.getCuentaId()).orElseThrow();
+        assertFalse(desactivada.getEstado());
+        assertEquals(0, new BigDecimal("1260.00").compareTo(desactivada.getSaldoActual()));
+        assertEquals(version + 2, desactivada.getVersion());
+        verify(cuentaDescriptorService).invalidar(cuenta.getNumeroCuenta());
+    }
+
+    private List<BigDecimal> cierres() {
+        return saldoDiarioRepository.findAll().stream()
+                .sorted(Comparator.comparing(SaldoDiario::getFecha))
+                .map(SaldoDiario::getSaldo)
+                .collect(Collectors.toList());
+    }
+
+    private void movimiento(LocalDate dia, String valor) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setCuenta(cuenta);
+        movimiento.setFecha(Date.from(dia.atTime(LocalTime.NOON).atZone(ZoneId.systemDefault()).toInstant()));
+        movimiento.setTipoMovimiento("Depósito");
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setSaldo(BigDecimal.ZERO);
+        entityManager.persist(movimiento);
+    }
+
+    private CrearCuentaDTO crearCuentaDTO(String tipoCuenta, String saldoInicial) {
+        CrearCuentaDTO dto = new CrearCuentaDTO();
+        dto.setNumeroCuenta(cuenta.getNumeroCuenta());
+        dto.setTipoCuenta(tipoCuenta);
+        dto.setSaldoInicial(new BigDecimal(saldoInicial));
+        dto.setClienteId(cuenta.getClienteId());
+        return dto;
+    }
+}
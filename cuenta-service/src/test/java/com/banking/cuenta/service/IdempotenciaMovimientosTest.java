@@ -0,0 +1,339 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.entity.MovimientoIdempotente;
+import com.banking.cuenta.exception.ConflictoConcurrenciaException;
+import com.banking.cuenta.repository.MovimientoIdempotenteRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Capacidad mínima (2 claves por franja) para que los tests recorran también el desalojo por
+// capacidad y la consulta a la tabla
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotencia;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "banking.movimientos.idempotencia.capacidad=4",
+        "banking.movimientos.idempotencia.franjas=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({IdempotenciaMovimientos.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotenciaMovimientosTest {
+
+    @Autowired
+    private IdempotenciaMovimientos idempotenciaMovimientos;
+
+    @Autowired
+    private MovimientoIdempotenteRepository movimientoIdempotenteRepository;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        movimientoIdempotenteRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void contabilizar_ClaveRepetida_DevuelveLaRespuestaOriginalSinVolverAContabilizar() {
+        double repetidasPrevias = contador("repetida");
+        CrearMovimientoDTO solicitud = movimiento("478758", "-575.00");
+
+        MovimientoDTO original = idempotenciaMovimientos.contabilizar("clave-1", solicitud, contabilizador());
+        MovimientoDTO repetido = idempotenciaMovimientos.contabilizar("clave-1", movimiento("478758", "-575"), contabilizador());
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(original.getMovimientoId(), repetido.getMovimientoId());
+        assertEquals(original.getFecha(), repetido.getFecha());
+        assertEquals(original.getTipoMovimiento(), repetido.getTipoMovimiento());
+        assertEquals(0, original.getSaldo().compareTo(repetido.getSaldo()));
+        assertEquals(repetidasPrevias + 1, contador("repetida"));
+        MovimientoIdempotente guardado = movimientoIdempotenteRepository.findById("clave-1").orElseThrow();
+        assertEquals(MovimientoIdempotente.COMPLETADO, guardado.getEstado());
+        assertEquals(original.getMovimientoId(), guardado.getMovimientoId());
+    }
+
+    @Test
+    void contabilizar_ClaveReutilizadaConOtroMovimiento_Rechaza() {
+        idempotenciaMovimientos.contabilizar("clave-2", movimiento("478758", "100.00"), contabilizador());
+
+        IllegalArgumentException otroValor = assertThrows(IllegalArgumentException.class,
+                () -> idempotenciaMovimientos.contabilizar("clave-2", movimiento("478758", "100.01"), contabilizador()));
+        IllegalArgumentException otraCuenta = assertThrows(IllegalArgumentException.class,
+                () -> idempotenciaMovimientos.contabilizar("clave-2", movimiento("225487", "100.00"), contabilizador()));
+
+        assertEquals("La clave de idempotencia ya se usó con otro movimiento", otroValor.getMessage());
+        assertEquals(otroValor.getMessage(), otraCuenta.getMessage());
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void contabilizar_OriginalFallida_LiberaLaClave() {
+        Function<CrearMovimientoDTO, MovimientoDTO> sinSaldo = dto -> {
+            ejecuciones.incrementAndGet();
+            throw new IllegalArgumentException("Saldo no disponible");
+        };
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotenciaMovimientos.contabilizar("clave-3", movimiento("478758", "-50.00"), sinSaldo));
+
+        MovimientoDTO reintento = idempotenciaMovimientos.contabilizar("clave-3", movimiento("478758", "-50.00"), contabilizador());
+
+        assertEquals(2, ejecuciones.get());
+        assertNotNull(reintento.getMovimientoId());
+    }
+
+    @Test
+    void contabilizar_OriginalFallida_BorraLaReservaDeLaTabla() {
+        Function<CrearMovimientoDTO, MovimientoDTO> sinSaldo = dto -> {
+            assertEquals(MovimientoIdempotente.EN_CURSO,
+                    movimientoIdempotenteRepository.findById("clave-7").orElseThrow().getEstado());
+            throw new IllegalArgumentException("Saldo no disponible");
+        };
+
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotenciaMovimientos.contabilizar("clave-7", movimiento("478758", "-50.00"), sinSaldo));
+
+        assertFalse(movimientoIdempotenteRepository.existsById("clave-7"));
+    }
+
+    @Test
+    void contabilizar_RepeticionesConcurrentes_ContabilizaUnaSolaVez() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Function<CrearMovimientoDTO, MovimientoDTO> lenta = dto -> {
+            enCurso.countDown();
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return contabilizador().apply(dto);
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        Future<MovimientoDTO> original = pool.submit(
+                () -> idempotenciaMovimientos.contabilizar("clave-4", movimiento("478758", "10.00"), lenta));
+        assertTrue(enCurso.await(10, TimeUnit.SECONDS));
+
+        List<Future<MovimientoDTO>> repeticiones = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            repeticiones.add(pool.submit(
+                    () -> idempotenciaMovimientos.contabilizar("clave-4", movimiento("478758", "10.00"), contabilizador())));
+        }
+        int conflictos = 0;
+        for (Future<MovimientoDTO> repeticion : repeticiones) {
+            try {
+                repeticion.get(10, TimeUnit.SECONDS);
+            } catch (java.util.concurrent.ExecutionException e) {
+                assertInstanceOf(ConflictoConcurrenciaException.class, e.getCause());
+                conflictos++;
+            }
+        }
+        liberar.countDown();
+        Long movimientoId = original.get(10, TimeUnit.SECONDS).getMovimientoId();
+        pool.shutdown();
+
+        assertEquals(8, conflictos);
+        assertEquals(1, ejecuciones.get());
+        assertEquals(movimientoId,
+                idempotenciaMovimientos.contabilizar("clave-4", movimiento("478758", "10.00"), contabilizador()).getMovimientoId());
+    }
+
+    @Test
+    void contabilizar_RepeticionEnOtraInstanciaMientrasSigueEnCurso_Responde409() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Function<CrearMovimientoDTO, MovimientoDTO> lenta = dto -> {
+            enCurso.countDown();
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return contabilizador().apply(dto);
+        };
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        IdempotenciaMovimientos otraInstancia = beanFactory.createBean(IdempotenciaMovimientos.class);
+        try {
+            Future<MovimientoDTO> original = pool.submit(
+                    () -> idempotenciaMovimientos.contabilizar("clave-8", movimiento("478758", "10.00"), lenta));
+            assertTrue(enCurso.await(10, TimeUnit.SECONDS));
+
+            // La otra instancia no tiene la clave en memoria: la encuentra reservada en la tabla
+            assertThrows(ConflictoConcurrenciaException.class,
+                    () -> otraInstancia.contabilizar("clave-8", movimiento("478758", "10.00"), contabilizador()));
+            assertThrows(IllegalArgumentException.class,
+                    () -> otraInstancia.contabilizar("clave-8", movimiento("478758", "99.00"), contabilizador()));
+
+            liberar.countDown();
+            Long movimientoId = original.get(10, TimeUnit.SECONDS).getMovimientoId();
+
+            assertEquals(movimientoId,
+                    otraInstancia.contabilizar("clave-8", movimiento("478758", "10.00"), contabilizador()).getMovimientoId());
+            assertEquals(1, ejecuciones.get());
+        } finally {
+            liberar.countDown();
+            pool.shutdown();
+            beanFactory.destroyBean(otraInstancia);
+        }
+    }
+
+    @Test
+    void contabilizar_ReservaEnCursoEnLaTabla_NoContabiliza() {
+        // Reserva de una instancia que cayó antes de responder: no se sabe si contabilizó
+        movimientoIdempotenteRepository.reservar(new MovimientoIdempotente("clave-9", "478758",
+                new BigDecimal("20.00"), new Date(System.currentTimeMillis() + 60_000)));
+
+        assertThrows(ConflictoConcurrenciaException.class,
+                () -> idempotenciaMovimientos.contabilizar("clave-9", movimiento("478758", "20.00"), contabilizador()));
+
+        assertEquals(0, ejecuciones.get());
+        assertEquals(MovimientoIdempotente.EN_CURSO,
+                movimientoIdempotenteRepository.findById("clave-9").orElseThrow().getEstado());
+    }
+
+    @Test
+    void contabilizar_ClaveVencidaSinPurgar_VuelveAContabilizar() {
+        movimientoIdempotenteRepository.reservar(new MovimientoIdempotente("clave-10", "225487",
+                new BigDecimal("1.00"), new Date(System.currentTimeMillis() - 60_000)));
+
+        MovimientoDTO movimiento = idempotenciaMovimientos.contabilizar("clave-10", movimiento("478758", "30.00"), contabilizador());
+
+        assertEquals(1, ejecuciones.get());
+        MovimientoIdempotente guardado = movimientoIdempotenteRepository.findById("clave-10").orElseThrow();
+        assertEquals(MovimientoIdempotente.COMPLETADO, guardado.getEstado());
+        assertEquals("478758", guardado.getNumeroCuenta());
+        assertEquals(movimiento.getMovimientoId(), guardado.getMovimientoId());
+        assertTrue(guardado.getExpira().getTime() > System.currentTimeMillis());
+    }
+
+    @Test
+    void contabilizar_ClavesEnCurso_NoSeDesalojanPorCapacidad() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Function<CrearMovimientoDTO, MovimientoDTO> lenta = dto -> {
+            enCurso.countDown();
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return contabilizador().apply(dto);
+        };
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<MovimientoDTO> original = pool.submit(
+                    () -> idempotenciaMovimientos.contabilizar("clave-11", movimiento("478758", "10.00"), lenta));
+            assertTrue(enCurso.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 20; i++) {
+                idempotenciaMovimientos.contabilizar("relleno-" + i, movimiento("478758", "1.00"), contabilizador());
+            }
+            // Sin la fila en la tabla, solo la reserva en memoria evita contabilizar otra vez
+            movimientoIdempotenteRepository.deleteAllInBatch();
+
+            assertThrows(ConflictoConcurrenciaException.class,
+                    () -> idempotenciaMovimientos.contabilizar("clave-11", movimiento("478758", "10.00"), contabilizador()));
+
+            liberar.countDown();
+            original.get(10, TimeUnit.SECONDS);
+            assertEquals(21, ejecuciones.get());
+        } finally {
+            liberar.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void contabilizar_ClaveDesalojadaPorCapacidad_SeRecuperaDeLaTabla() {
+        double recuperadasPrevias = contador("recuperada");
+        MovimientoDTO original = idempotenciaMovimientos.contabilizar("clave-5", movimiento("478758", "1.00"), contabilizador());
+        for (int i = 0; i < 20; i++) {
+            idempotenciaMovimientos.contabilizar("relleno-" + i, movimiento("478758", "1.00"), contabilizador());
+        }
+
+        MovimientoDTO repetido = idempotenciaMovimientos.contabilizar("clave-5", movimiento("478758", "1.00"), contabilizador());
+
+        assertEquals(21, ejecuciones.get());
+        assertEquals(original.getMovimientoId(), repetido.getMovimientoId());
+        assertEquals(recuperadasPrevias + 1, contador("recuperada"));
+    }
+
+    @Test
+    void iniciar_Reinicio_CargaLasClavesVigentesDeLaTabla() {
+        MovimientoDTO original = idempotenciaMovimientos.contabilizar("clave-6", movimiento("478758", "5.00"), contabilizador());
+
+        // Otra instancia, como tras reiniciar el servicio: solo conoce la tabla
+        IdempotenciaMovimientos reiniciada = beanFactory.createBean(IdempotenciaMovimientos.class);
+        MovimientoDTO repetido = reiniciada.contabilizar("clave-6", movimiento("478758", "5.00"), contabilizador());
+        beanFactory.destroyBean(reiniciada);
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(original.getMovimientoId(), repetido.getMovimientoId());
+    }
+
+    @Test
+    void contabilizar_ClaveDemasiadoLarga_Rechaza() {
+        String clave = "x".repeat(IdempotenciaMovimientos.LONGITUD_MAXIMA + 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> idempotenciaMovimientos.contabilizar(clave, movimiento("478758", "5.00"), contabilizador()));
+        assertEquals(0, ejecuciones.get());
+    }
+
+    // Simula MovimientoPostingEngine.contabilizar: cada ejecución es un movimiento nuevo
+    private Function<CrearMovimientoDTO, MovimientoDTO> contabilizador() {
+        return dto -> {
+            int n = ejecuciones.incrementAndGet();
+            MovimientoDTO movimiento = new MovimientoDTO();
+            movimiento.setMovimientoId(1000L + n);
+            movimiento.setFecha(new Date());
+            movimiento.setTipoMovimiento(dto.getValor().signum() > 0 ? "Depósito" : "Retiro");
+            movimiento.setValor(dto.getValor());
+            movimiento.setSaldo(new BigDecimal("2000.00").add(dto.getValor()));
+            movimiento.setNumeroCuenta(dto.getNumeroCuenta());
+            return movimiento;
+        };
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.get("movimientos.idempotencia").tag("resultado", resultado).counter().count();
+    }
+
+    private CrearMovimientoDTO movimiento(String numeroCuenta, String valor) {
+        CrearMovimientoDTO dto = new CrearMovimientoDTO();
+        dto.setNumeroCuenta(numeroCuenta);
+        dto.setValor(new BigDecimal(valor));
+        return dto;
+    }
+}
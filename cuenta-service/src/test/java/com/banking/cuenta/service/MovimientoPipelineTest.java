@@ -0,0 +1,221 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.config.CacheConfig;
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.mapper.MovimientoMapper;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SaldoDiarioRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Contabilización con commit en grupo contra H2: muchos llamadores concurrentes, cada uno con
+// su propio resultado, y los saldos materializados cuadrando con los movimientos confirmados
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pipeline;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "banking.movimientos.pipeline.habilitado=true",
+        "banking.movimientos.pipeline.tamano-grupo=128",
+        "banking.movimientos.pipeline.espera-ms=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheConfig.class, MovimientoMapper.class, CuentaDescriptorService.class, MovimientoService.class,
+        SaldoDiarioService.class, MovimientoPostingEngine.class, MovimientoPipeline.class, CuentaLocks.class,
+        LocalValidatorFactoryBean.class, SimpleMeterRegistry.class})
+// Sin transacción del test: el escritor del pipeline confirma desde su propio hilo
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MovimientoPipelineTest {
+
+    private static final int CUENTAS = 20;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000.00");
+    private static final int MOVIMIENTOS = 4000;
+    private static final int HILOS = 64;
+
+    @Autowired
+    private MovimientoPostingEngine movimientoPostingEngine;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        movimientoRepository.deleteAllInBatch();
+        saldoDiarioRepository.deleteAllInBatch();
+        cuentaRepository.deleteAllInBatch();
+        cacheManager.getCache(CacheConfig.CUENTA_DESCRIPTOR).clear();
+    }
+
+    @Test
+    void contabilizar_LlamadoresConcurrentes_AgrupaYCuadraLosSaldos() throws Exception {
+        List<CrearMovimientoDTO> movimientos = movimientosAleatorios(crearCuentas("PL"), 42);
+
+        DistributionSummary grupos = meterRegistry.get("movimientos.pipeline.grupo").summary();
+        long gruposPrevios = grupos.count();
+        double agrupadosPrevios = grupos.totalAmount();
+
+        Resultado resultado = ejecutar(movimientos, movimientoPostingEngine::contabilizar);
+
+        long numeroGrupos = grupos.count() - gruposPrevios;
+        long agrupados = (long) (grupos.totalAmount() - agrupadosPrevios);
+        assertTrue(resultado.errores.isEmpty(), "Errores inesperados: " + resultado.errores);
+        assertEquals(MOVIMIENTOS, resultado.exitosos.get() + resultado.rechazadosPorSaldo.get());
+        assertEquals(resultado.exitosos.get(), resultado.movimientoIds.stream().distinct().count());
+        assertEquals(MOVIMIENTOS, agrupados);
+        assertTrue(numeroGrupos < MOVIMIENTOS, "Ningún grupo reunió más de un movimiento");
+        verificarSaldos(resultado.exitosos.get());
+    }
+
+    @Test
+    void contabilizar_SinPipeline_CuadraLosSaldos() throws Exception {
+        // Mismos movimientos, una transacción por movimiento. El rendimiento de cada modo se
+        // mide en ContabilizacionBenchmark (perfil jmh)
+        List<CrearMovimientoDTO> movimientos = movimientosAleatorios(crearCuentas("DI"), 42);
+
+        Resultado resultado = ejecutar(movimientos, movimientoService::crearMovimiento);
+
+        assertTrue(resultado.errores.isEmpty(), "Errores inesperados: " + resultado.errores);
+        verificarSaldos(resultado.exitosos.get());
+    }
+
+    @Test
+    void contabilizar_RechazosDeNegocio_LleganAlLlamadorComoIllegalArgument() {
+        String cuenta = crearCuentas("RE").get(0);
+        long revertidosPrevios = meterRegistry.get("movimientos.crear").tag("resultado", "revertido").timer().count();
+
+        IllegalArgumentException saldo = assertThrows(IllegalArgumentException.class,
+                () -> movimientoPostingEngine.contabilizar(movimiento(cuenta, new BigDecimal("-1000.01"))));
+        IllegalArgumentException inexistente = assertThrows(IllegalArgumentException.class,
+                () -> movimientoPostingEngine.contabilizar(movimiento("NO-EXISTE", BigDecimal.TEN)));
+        MovimientoDTO retiro = movimientoPostingEngine.contabilizar(movimiento(cuenta, new BigDecimal("-1000.00")));
+
+        assertEquals("Saldo no disponible", saldo.getMessage());
+        assertEquals("Cuenta no encontrada", inexistente.getMessage());
+        assertEquals(0, BigDecimal.ZERO.compareTo(retiro.getSaldo()));
+        assertEquals(revertidosPrevios + 2,
+                meterRegistry.get("movimientos.crear").tag("resultado", "revertido").timer().count());
+    }
+
+    private List<String> crearCuentas(String prefijo) {
+        List<Cuenta> cuentas = new ArrayList<>();
+        for (int c = 0; c < CUENTAS; c++) {
+            cuentas.add(new Cuenta(String.format("%s%06d", prefijo, c), "Ahorro", SALDO_INICIAL, true, 1L));
+        }
+        return cuentaRepository.saveAll(cuentas).stream().map(Cuenta::getNumeroCuenta).toList();
+    }
+
+    // Depósitos y retiros de hasta 300: algunas cuentas se vacían y hay rechazos por saldo
+    private List<CrearMovimientoDTO> movimientosAleatorios(List<String> cuentas, long semilla) {
+        SplittableRandom random = new SplittableRandom(semilla);
+        List<CrearMovimientoDTO> movimientos = new ArrayList<>(MOVIMIENTOS);
+        for (int i = 0; i < MOVIMIENTOS; i++) {
+            BigDecimal valor = new BigDecimal(1 + random.nextInt(30_000)).movePointLeft(2);
+            movimientos.add(movimiento(cuentas.get(random.nextInt(cuentas.size())),
+                    random.nextBoolean() ? valor : valor.negate()));
+        }
+        return movimientos;
+    }
+
+    private void verificarSaldos(int exitosos) {
+        assertEquals(exitosos, movimientoRepository.count());
+        // Saldo materializado = saldo inicial + movimientos en cada cuenta
+        assertTrue(cuentaRepository.findDescuadresDeSaldo().isEmpty());
+        assertTrue(cuentaRepository.findAll().stream().allMatch(c -> c.getSaldoActual().signum() >= 0));
+    }
+
+    private Resultado ejecutar(List<CrearMovimientoDTO> movimientos, Function<CrearMovimientoDTO, MovimientoDTO> accion)
+            throws Exception {
+        Resultado resultado = new Resultado();
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (CrearMovimientoDTO dto : movimientos) {
+            tareas.add(pool.submit(() -> {
+                inicio.await();
+                try {
+                    resultado.movimientoIds.add(accion.apply(dto).getMovimientoId());
+                    resultado.exitosos.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    if (!"Saldo no disponible".equals(e.getMessage())) {
+                        resultado.errores.add(e.toString());
+                    }
+                    resultado.rechazadosPorSaldo.incrementAndGet();
+                } catch (RuntimeException e) {
+                    resultado.errores.add(e.toString());
+                }
+                return null;
+            }));
+        }
+
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        return resultado;
+    }
+
+    private CrearMovimientoDTO movimiento(String numeroCuenta, BigDecimal valor) {
+        CrearMovimientoDTO dto = new CrearMovimientoDTO();
+        dto.setNumeroCuenta(numeroCuenta);
+        dto.setValor(valor);
+        return dto;
+    }
+
+    private static class Resultado {
+        final AtomicInteger exitosos = new AtomicInteger();
+        final AtomicInteger rechazadosPorSaldo = new AtomicInteger();
+        final ConcurrentLinkedQueue<Long> movimientoIds = new ConcurrentLinkedQueue<>();
+        final ConcurrentLinkedQueue<String> errores = new ConcurrentLinkedQueue<>();
+    }
+}
@@ -0,0 +1,279 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.dto.ResultadoMovimientoDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.exception.ConflictoConcurrenciaException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovimientoPostingEngineTest {
+
+    private static final int ESCRITORES = 256;
+    private static final int MOVIMIENTOS = 4096;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Simula el servicio transaccional con una lectura-modificación-escritura no atómica
+    // y una latencia de base de datos entre la lectura y la escritura
+    private static class MovimientoServiceEnMemoria extends MovimientoService {
+        final Map<String, BigDecimal> saldos = new ConcurrentHashMap<>();
+        // Máximo de movimientos dentro del servicio a la vez
+        final AtomicInteger maximoEnCurso = new AtomicInteger();
+        private final AtomicInteger enCurso = new AtomicInteger();
+
+        @Override
+        public MovimientoDTO crearMovimiento(CrearMovimientoDTO crearMovimientoDTO) {
+            maximoEnCurso.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+            try {
+                return aplicar(crearMovimientoDTO);
+            } finally {
+                enCurso.decrementAndGet();
+            }
+        }
+
+        private MovimientoDTO aplicar(CrearMovimientoDTO crearMovimientoDTO) {
+            BigDecimal saldo = saldos.getOrDefault(crearMovimientoDTO.getNumeroCuenta(), BigDecimal.ZERO);
+            BigDecimal nuevoSaldo = saldo.add(crearMovimientoDTO.getValor());
+            if (nuevoSaldo.compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalArgumentException("Saldo no disponible");
+            }
+            LockSupport.parkNanos(100_000);
+            saldos.put(crearMovimientoDTO.getNumeroCuenta(), nuevoSaldo);
+
+            MovimientoDTO dto = new MovimientoDTO();
+            dto.setSaldo(nuevoSaldo);
+            return dto;
+        }
+    }
+
+    @Test
+    void contabilizar_EscritoresConcurrentesMismaCuenta_SaldoCorrecto() throws Exception {
+        MovimientoServiceEnMemoria servicio = new MovimientoServiceEnMemoria();
+        servicio.saldos.put("478758", new BigDecimal("20000.00"));
+
+        // Depósitos y retiros alternados: sin serialización se perderían actualizaciones
+        ejecutar(motor(servicio), 1, i -> i % 2 == 0 ? "10.00" : "-10.00");
+
+        assertEquals(new BigDecimal("20000.00"), servicio.saldos.get("478758"));
+        assertEquals(1, servicio.maximoEnCurso.get());
+    }
+
+    @Test
+    void contabilizar_CuentasDistintas_AvanzanEnParalelo() throws Exception {
+        // El rendimiento según la contención se mide en ContencionBenchmark (perfil jmh)
+        int[] cuentas = {16, 256};
+
+        for (int c = 0; c < cuentas.length; c++) {
+            MovimientoServiceEnMemoria servicio = new MovimientoServiceEnMemoria();
+            ejecutar(motor(servicio), cuentas[c], i -> "1.00");
+
+            BigDecimal total = servicio.saldos.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertEquals(new BigDecimal(MOVIMIENTOS + ".00"), total);
+            for (BigDecimal saldo : servicio.saldos.values()) {
+                assertEquals(new BigDecimal(MOVIMIENTOS / cuentas[c] + ".00"), saldo);
+            }
+            // Solo se serializan los movimientos de una misma cuenta
+            assertTrue(servicio.maximoEnCurso.get() > 1);
+        }
+    }
+
+    @Test
+    void contabilizar_ConflictoOptimista_ReintentaHastaCompletar() {
+        AtomicInteger llamadas = new AtomicInteger();
+        MovimientoService servicio = new MovimientoService() {
+            @Override
+            public MovimientoDTO crearMovimiento(CrearMovimientoDTO crearMovimientoDTO) {
+                if (llamadas.incrementAndGet() <= 2) {
+                    throw new ObjectOptimisticLockingFailureException(Cuenta.class, 1L);
+                }
+                return new MovimientoDTO();
+            }
+        };
+
+        assertNotNull(motor(servicio).contabilizar(movimiento("478758", "10.00")));
+        assertEquals(3, llamadas.get());
+        assertEquals(2.0, meterRegistry.counter("banking.movimientos.conflictos").count());
+        assertEquals(2.0, meterRegistry.counter("banking.movimientos.reintentos").count());
+    }
+
+    @Test
+    void contabilizar_InterbloqueoEnLaBase_Reintenta() {
+        AtomicInteger llamadas = new AtomicInteger();
+        MovimientoService servicio = new MovimientoService() {
+            @Override
+            public MovimientoDTO crearMovimiento(CrearMovimientoDTO crearMovimientoDTO) {
+                if (llamadas.incrementAndGet() == 1) {
+                    throw new CannotAcquireLockException("Deadlock found when trying to get lock");
+                }
+                return new MovimientoDTO();
+            }
+        };
+
+        assertNotNull(motor(servicio).contabilizar(movimiento("478758", "10.00")));
+        assertEquals(2, llamadas.get());
+        assertEquals(1.0, meterRegistry.counter("banking.movimientos.reintentos").count());
+    }
+
+    @Test
+    void contabilizar_ConflictoPersistente_LanzaConflictoConcurrencia() {
+        AtomicInteger llamadas = new AtomicInteger();
+        MovimientoService servicio = new MovimientoService() {
+            @Override
+            public MovimientoDTO crearMovimiento(CrearMovimientoDTO crearMovimientoDTO) {
+                llamadas.incrementAndGet();
+                throw new ObjectOptimisticLockingFailureException(Cuenta.class, 1L);
+            }
+        };
+        MovimientoPostingEngine motor = motor(servicio);
+
+        assertThrows(ConflictoConcurrenciaException.class,
+                () -> motor.contabilizar(movimiento("478758", "10.00")));
+        assertEquals(4, llamadas.get());
+        assertEquals(1.0, meterRegistry.counter("banking.movimientos.conflictos.agotados").count());
+    }
+
+    @Test
+    void contabilizar_FallaLaTransaccionDelGrupo_ElPipelineReintentaCadaMovimiento() throws Exception {
+        AtomicInteger llamadas = new AtomicInteger();
+        MovimientoService servicio = new MovimientoService() {
+            @Override
+            public List<ResultadoMovimientoDTO> crearMovimientosAgrupados(List<CrearMovimientoDTO> movimientos) {
+                throw new IllegalStateException("Conexión perdida");
+            }
+
+            @Override
+            public MovimientoDTO crearMovimiento(CrearMovimientoDTO crearMovimientoDTO) {
+                if (llamadas.incrementAndGet() == 1) {
+                    throw new ObjectOptimisticLockingFailureException(Cuenta.class, 1L);
+                }
+                return new MovimientoDTO();
+            }
+        };
+        MovimientoPostingEngine motor = motor(servicio);
+        MovimientoPipeline pipeline = pipeline(servicio, motor);
+
+        try {
+            assertNotNull(pipeline.contabilizar(movimiento("478758", "10.00")));
+        } finally {
+            pipeline.detener();
+        }
+        assertEquals(2, llamadas.get());
+        assertEquals(1.0, meterRegistry.counter("banking.movimientos.reintentos").count());
+        // movimientos.crear lo registra crearMovimiento, no el pipeline, para no medirlo dos veces
+        assertEquals(0, meterRegistry.get("movimientos.crear").timers().stream().mapToLong(t -> t.count()).sum());
+    }
+
+    @Test
+    void contabilizarLote_VariasCuentas_AgrupaPorCuentaYConservaOrden() {
+        List<String> llamadas = new ArrayList<>();
+        MovimientoService servicio = new MovimientoService() {
+            @Override
+            public List<ResultadoMovimientoDTO> crearMovimientosCuenta(String numeroCuenta, List<CrearMovimientoDTO> movimientos) {
+                llamadas.add(numeroCuenta + ":" + movimientos.size());
+                List<ResultadoMovimientoDTO> resultados = new ArrayList<>();
+                for (CrearMovimientoDTO movimiento : movimientos) {
+                    MovimientoDTO dto = new MovimientoDTO();
+                    dto.setNumeroCuenta(numeroCuenta);
+                    dto.setValor(movimiento.getValor());
+                    resultados.add(new ResultadoMovimientoDTO(true, "ok", dto));
+                }
+                return resultados;
+            }
+        };
+
+        List<CrearMovimientoDTO> lote = new ArrayList<>(List.of(
+                movimiento("478758", "10.00"),
+                movimiento("225487", "20.00"),
+                movimiento("478758", "30.00")));
+        lote.add(movimiento("", "40.00"));
+
+        List<ResultadoMovimientoDTO> resultados = motor(servicio).contabilizarLote(lote);
+
+        assertEquals(List.of("478758:2", "225487:1"), llamadas);
+        assertEquals(4, resultados.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, resultados.get(i).getIndice());
+            assertEquals(lote.get(i).getValor(), resultados.get(i).getMovimiento().getValor());
+        }
+        assertFalse(resultados.get(3).isExitoso());
+        assertEquals("El número de cuenta es obligatorio", resultados.get(3).getMensaje());
+    }
+
+    private CrearMovimientoDTO movimiento(String numeroCuenta, String valor) {
+        CrearMovimientoDTO dto = new CrearMovimientoDTO();
+        dto.setNumeroCuenta(numeroCuenta);
+        dto.setValor(new BigDecimal(valor));
+        return dto;
+    }
+
+    private MovimientoPostingEngine motor(MovimientoService servicio) {
+        MovimientoPostingEngine motor = new MovimientoPostingEngine();
+        ReflectionTestUtils.setField(motor, "movimientoService", servicio);
+        ReflectionTestUtils.setField(motor, "cuentaLocks", new CuentaLocks(1024));
+        ReflectionTestUtils.setField(motor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(motor, "maxReintentos", 3);
+        ReflectionTestUtils.setField(motor, "maxLote", 50000);
+        ReflectionTestUtils.setField(motor, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        motor.init();
+        return motor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private MovimientoPipeline pipeline(MovimientoService servicio, MovimientoPostingEngine motor) {
+        ObjectProvider<MovimientoPostingEngine> proveedor = mock(ObjectProvider.class);
+        when(proveedor.getObject()).thenReturn(motor);
+        MovimientoPipeline pipeline = new MovimientoPipeline();
+        ReflectionTestUtils.setField(pipeline, "movimientoService", servicio);
+        ReflectionTestUtils.setField(pipeline, "movimientoPostingEngine", proveedor);
+        ReflectionTestUtils.setField(pipeline, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(pipeline, "tamanoGrupo", 16);
+        ReflectionTestUtils.setField(pipeline, "esperaMs", 1L);
+        ReflectionTestUtils.setField(pipeline, "capacidadCola", 16);
+        pipeline.iniciar();
+        return pipeline;
+    }
+
+    private void ejecutar(MovimientoPostingEngine motor, int cuentas,
+                          java.util.function.IntFunction<String> valor) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(ESCRITORES);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<MovimientoDTO>> resultados = new ArrayList<>();
+        for (int i = 0; i < MOVIMIENTOS; i++) {
+            CrearMovimientoDTO dto = movimiento(cuentas == 1 ? "478758" : "CTA-" + (i % cuentas), valor.apply(i));
+            resultados.add(pool.submit(() -> {
+                inicio.await();
+                return motor.contabilizar(dto);
+            }));
+        }
+
+        inicio.countDown();
+        for (Future<MovimientoDTO> resultado : resultados) {
+            resultado.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+}
@@ -1,21 +1,31 @@
 package com.banking.cuenta.service;
 
 import com.banking.cuenta.dto.CrearMovimientoDTO;
+import com.banking.cuenta.dto.CrearTransferenciaDTO;
+import com.banking.cuenta.dto.CuentaDescriptor;
 import com.banking.cuenta.dto.MovimientoDTO;
+import com.banking.cuenta.dto.PaginaMovimientosDTO;
+import com.banking.cuenta.dto.ResultadoMovimientoDTO;
+import com.banking.cuenta.dto.TransferenciaDTO;
 import com.banking.cuenta.entity.Cuenta;
 import com.banking.cuenta.entity.Movimiento;
+import com.banking.cuenta.mapper.MovimientoMapper;
 import com.banking.cuenta.repository.CuentaRepository;
 import com.banking.cuenta.repository.MovimientoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,7 +41,13 @@ class MovimientoServiceTest {
     private CuentaRepository cuentaRepository;
 
     @Mock
-    private ModelMapper modelMapper;
+    private MovimientoMapper movimientoMapper;
+
+    @Mock
+    private SaldoDiarioService saldoDiarioService;
+
+    @Mock
+    private CuentaDescriptorService cuentaDescriptorService;
 
     @InjectMocks
     private MovimientoService movimientoService;
@@ -39,14 +55,20 @@ class MovimientoServiceTest {
     private Cuenta cuenta;
     private CrearMovimientoDTO crearMovimientoDTO;
     private MovimientoDTO movimientoDTO;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(movimientoService, "meterRegistry", meterRegistry);
+        movimientoService.registrarMetricas();
+
         cuenta = new Cuenta();
         cuenta.setCuentaId(1L);
         cuenta.setNumeroCuenta("478758");
         cuenta.setTipoCuenta("Ahorro");
         cuenta.setSaldoInicial(new BigDecimal("2000.00"));
+        cuenta.setSaldoActual(new BigDecimal("2000.00"));
         cuenta.setEstado(true);
         cuenta.setClienteId(1L);
         cuenta.setMovimientos(new ArrayList<>());
@@ -65,10 +87,12 @@ class MovimientoServiceTest {
     @Test
     void crearMovimiento_RetiroValido_RetornaMovimientoDTO() {
         // Arrange
-        when(cuentaRepository.findByNumeroCuenta("478758")).thenReturn(Optional.of(cuenta));
-        when(movimientoRepository.findByCuentaCuentaId(1L)).thenReturn(new ArrayList<>());
+        when(cuentaDescriptorService.getDescriptor("478758")).thenReturn(descriptor(true));
+        when(cuentaRepository.getReferenceById(1L)).thenReturn(cuenta);
+        when(cuentaRepository.aplicarMovimiento(1L, new BigDecimal("-575.00"))).thenReturn(1);
+        when(cuentaRepository.findSaldoActual(1L)).thenReturn(new BigDecimal("1425.00"));
         when(movimientoRepository.save(any(Movimiento.class))).thenReturn(new Movimiento());
-        when(modelMapper.map(any(Movimiento.class), eq(MovimientoDTO.class))).thenReturn(movimientoDTO);
+        when(movimientoMapper.toDTO(any(Movimiento.class), any())).thenReturn(movimientoDTO);
 
         // Act
         MovimientoDTO resultado = movimientoService.crearMovimiento(crearMovimientoDTO);
@@ -77,16 +101,20 @@ class MovimientoServiceTest {
         assertNotNull(resultado);
         assertEquals("Retiro", resultado.getTipoMovimiento());
         assertEquals(new BigDecimal("-575.00"), resultado.getValor());
-        verify(cuentaRepository, times(1)).findByNumeroCuenta("478758");
-        verify(movimientoRepository, times(1)).save(any(Movimiento.class));
+        verify(cuentaRepository, never()).findByNumeroCuenta(any());
+        verify(movimientoRepository, times(1)).save(argThat(m -> m.getSaldo().equals(new BigDecimal("1425.00"))));
+        verify(saldoDiarioService).registrarSaldo(eq(1L), any(), eq(new BigDecimal("1425.00")));
+        verify(movimientoRepository, never()).findByCuentaCuentaId(any());
+        assertEquals(1, meterRegistry.get("movimientos.crear").tag("resultado", "confirmado").timer().count());
     }
 
     @Test
     void crearMovimiento_SaldoInsuficiente_LanzaExcepcion() {
         // Arrange
         crearMovimientoDTO.setValor(new BigDecimal("-2500.00")); // Más del saldo disponible
-        when(cuentaRepository.findByNumeroCuenta("478758")).thenReturn(Optional.of(cuenta));
-        when(movimientoRepository.findByCuentaCuentaId(1L)).thenReturn(new ArrayList<>());
+        when(cuentaDescriptorService.getDescriptor("478758")).thenReturn(descriptor(true));
+        when(cuentaRepository.aplicarMovimiento(1L, new BigDecimal("-2500.00"))).thenReturn(0);
+        when(cuentaRepository.findEstado(1L)).thenReturn(true);
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -95,12 +123,14 @@ class MovimientoServiceTest {
 
         assertEquals("Saldo no disponible", exception.getMessage());
         verify(movimientoRepository, never()).save(any(Movimiento.class));
+        assertEquals(1, meterRegistry.get("movimientos.crear").tag("resultado", "revertido").timer().count());
+        assertEquals(0, meterRegistry.get("movimientos.crear").tag("resultado", "confirmado").timer().count());
     }
 
     @Test
     void crearMovimiento_CuentaNoExistente_LanzaExcepcion() {
         // Arrange
-        when(cuentaRepository.findByNumeroCuenta("999999")).thenReturn(Optional.empty());
+        when(cuentaDescriptorService.getDescriptor("999999")).thenReturn(null);
         crearMovimientoDTO.setNumeroCuenta("999999");
 
         // Act & Assert
@@ -110,4 +140,358 @@ class MovimientoServiceTest {
 
         assertEquals("Cuenta no encontrada", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void crearMovimiento_ModoOptimista_ActualizaSaldoEnEntidad() {
+        // Arrange
+        ReflectionTestUtils.setField(movimientoService, "modoConcurrencia", MovimientoService.ModoConcurrencia.OPTIMISTA);
+        when(cuentaRepository.findByNumeroCuenta("478758")).thenReturn(Optional.of(cuenta));
+        when(movimientoRepository.save(any(Movimiento.class))).thenReturn(new Movimiento());
+        when(movimientoMapper.toDTO(any(Movimiento.class), any())).thenReturn(movimientoDTO);
+
+        // Act
+        movimientoService.crearMovimiento(crearMovimientoDTO);
+
+        // Assert - el UPDATE versionado lo emite Hibernate en el commit
+        assertEquals(new BigDecimal("1425.00"), cuenta.getSaldoActual());
+        verify(cuentaRepository, never()).aplicarMovimiento(any(), any());
+        verify(movimientoRepository).save(argThat(m -> m.getSaldo().equals(new BigDecimal("1425.00"))));
+    }
+
+    @Test
+    void crearMovimiento_ModoOptimistaSaldoInsuficiente_LanzaExcepcion() {
+        // Arrange
+        ReflectionTestUtils.setField(movimientoService, "modoConcurrencia", MovimientoService.ModoConcurrencia.OPTIMISTA);
+        crearMovimientoDTO.setValor(new BigDecimal("-2500.00"));
+        when(cuentaRepository.findByNumeroCuenta("478758")).thenReturn(Optional.of(cuenta));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            movimientoService.crearMovimiento(crearMovimientoDTO);
+        });
+
+        assertEquals("Saldo no disponible", exception.getMessage());
+        assertEquals(new BigDecimal("2000.00"), cuenta.getSaldoActual());
+    }
+
+    @Test
+    void crearMovimientosCuenta_LoteMixto_AceptaYRechazaPorMovimiento() {
+        // Arrange
+        when(cuentaRepository.findByNumeroCuentaForUpdate("478758")).thenReturn(Optional.of(cuenta));
+        when(movimientoMapper.toDTO(any(Movimiento.class), any())).thenAnswer(inv -> new MovimientoDTO());
+
+        List<CrearMovimientoDTO> lote = List.of(
+                movimiento("-1500.00"),
+                movimiento("-600.00"),   // 500 disponibles: rechazado
+                movimiento("100.00"),
+                movimiento("-600.00"));  // 600 disponibles: aceptado
+
+        // Act
+        List<ResultadoMovimientoDTO> resultados = movimientoService.crearMovimientosCuenta("478758", lote);
+
+        // Assert
+        assertEquals(List.of(true, false, true, true),
+                resultados.stream().map(ResultadoMovimientoDTO::isExitoso).toList());
+        assertEquals("Saldo no disponible", resultados.get(1).getMensaje());
+        assertEquals(new BigDecimal("0.00"), cuenta.getSaldoActual());
+        verify(movimientoRepository, times(1)).saveAll(argThat((List<Movimiento> movs) -> movs.size() == 3
+                && movs.get(2).getSaldo().equals(new BigDecimal("0.00"))));
+        verify(cuentaRepository, never()).aplicarMovimiento(any(), any());
+    }
+
+    @Test
+    void crearMovimientosCuenta_CuentaNoExistente_RechazaTodos() {
+        // Arrange
+        when(cuentaRepository.findByNumeroCuentaForUpdate("999999")).thenReturn(Optional.empty());
+
+        // Act
+        List<ResultadoMovimientoDTO> resultados = movimientoService.crearMovimientosCuenta("999999",
+                List.of(movimiento("10.00"), movimiento("20.00")));
+
+        // Assert
+        assertTrue(resultados.stream().noneMatch(ResultadoMovimientoDTO::isExitoso));
+        assertEquals("Cuenta no encontrada", resultados.get(0).getMensaje());
+        verify(movimientoRepository, never()).saveAll(any());
+    }
+
+    private CrearMovimientoDTO movimiento(String valor) {
+        CrearMovimientoDTO dto = new CrearMovimientoDTO();
+        dto.setNumeroCuenta("478758");
+        dto.setValor(new BigDecimal(valor));
+        return dto;
+    }
+
+    @Test
+    void crearMovimiento_CuentaSinSaldoMaterializado_MaterializaAntesDeAplicar() {
+        // Arrange
+        when(cuentaDescriptorService.getDescriptor("478758")).thenReturn(descriptor(true));
+        when(cuentaRepository.getReferenceById(1L)).thenReturn(cuenta);
+        when(cuentaRepository.aplicarMovimiento(1L, new BigDecimal("-575.00"))).thenReturn(0, 1);
+        when(cuentaRepository.materializarSaldos(List.of(1L))).thenReturn(1);
+        when(cuentaRepository.findSaldoActual(1L)).thenReturn(new BigDecimal("1425.00"));
+        when(movimientoRepository.save(any(Movimiento.class))).thenReturn(new Movimiento());
+        when(movimientoMapper.toDTO(any(Movimiento.class), any())).thenReturn(movimientoDTO);
+
+        // Act
+        movimientoService.crearMovimiento(crearMovimientoDTO);
+
+        // Assert
+        verify(cuentaRepository, times(1)).materializarSaldos(List.of(1L));
+        verify(cuentaRepository, times(2)).aplicarMovimiento(1L, new BigDecimal("-575.00"));
+    }
+
+    @Test
+    void crearMovimiento_DescriptorDesactualizado_RechazaCuentaInactiva() {
+        // Arrange - la caché aún cree activa una cuenta ya desactivada
+        when(cuentaDescriptorService.getDescriptor("478758")).thenReturn(descriptor(true));
+        when(cuentaRepository.aplicarMovimiento(1L, new BigDecimal("-575.00"))).thenReturn(0);
+        when(cuentaRepository.findEstado(1L)).thenReturn(false);
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            movimientoService.crearMovimiento(crearMovimientoDTO);
+        });
+
+        assertEquals("La cuenta no está activa", exception.getMessage());
+        verify(cuentaDescriptorService).invalidar("478758");
+        verify(movimientoRepository, never()).save(any(Movimiento.class));
+    }
+
+    @Test
+    void crearTransferencia_BloqueaEnOrdenDeCuentaIdYContabilizaAmbasCuentas() {
+        // Arrange - el origen tiene el cuentaId mayor: se bloquea en segundo lugar
+        Cuenta destino = cuentaTransferencia(1L, "225487", "100.00");
+        Cuenta origen = cuentaTransferencia(2L, "478758", "2000.00");
+        when(cuentaDescriptorService.getDescriptor("478758")).thenReturn(descriptorDe(origen));
+        when(cuentaDescriptorService.getDescriptor("225487")).thenReturn(descriptorDe(destino));
+        when(cuentaRepository.findByCuentaIdForUpdate(1L)).thenReturn(Optional.of(destino));
+        when(cuentaRepository.findByCuentaIdForUpdate(2L)).thenReturn(Optional.of(origen));
+        when(movimientoMapper.toDTO(any(Movimiento.class), any())).thenAnswer(inv -> new MovimientoDTO());
+
+        // Act
+        TransferenciaDTO resultado = movimientoService.crearTransferencia(transferencia("478758", "225487", "500.00"));
+
+        // Assert
+        InOrder orden = inOrder(cuentaRepository);
+        orden.verify(cuentaRepository).findByCuentaIdForUpdate(1L);
+        orden.verify(cuentaRepository).findByCuentaIdForUpdate(2L);
+        assertEquals(new BigDecimal("1500.00"), origen.getSaldoActual());
+        assertEquals(new BigDecimal("600.00"), destino.getSaldoActual());
+        verify(movimientoRepository).saveAll(argThat((List<Movimiento> movs) -> movs.size() == 2
+                && movs.get(0).getCuenta() == origen && movs.get(0).getValor().equals(new BigDecimal("-500.00"))
+                && movs.get(1).getCuenta() == destino && movs.get(1).getSaldo().equals(new BigDecimal("600.00"))
+                && movs.stream().allMatch(m -> MovimientoService.TIPO_TRANSFERENCIA.equals(m.getTipoMovimiento()))));
+        verify(saldoDiarioService).registrarSaldo(eq(2L), any(), eq(new BigDecimal("1500.00")));
+        verify(saldoDiarioService).registrarSaldo(eq(1L), any(), eq(new BigDecimal("600.00")));
+        assertNotNull(resultado.getDebito());
+        assertNotNull(resultado.getCredito());
+        assertEquals(1, meterRegistry.get("transferencias.crear").tag("resultado", "confirmado").timer().count());
+    }
+
+    @Test
+    void crearTransferencia_SaldoInsuficiente_NoModificaNingunaCuenta() {
+        // Arrange
+        Cuenta origen = cuentaTransferencia(1L, "478758", "100.00");
+        Cuenta destino = cuentaTransferencia(2L, "225487", "0.00");
+        when(cuentaDescriptorService.getDescriptor("478758")).thenReturn(descriptorDe(origen));
+        when(cuentaDescriptorService.getDescriptor("225487")).thenReturn(descriptorDe(destino));
+        when(cuentaRepository.findByCuentaIdForUpdate(1L)).thenReturn(Optional.of(origen));
+        when(cuentaRepository.findByCuentaIdForUpdate(2L)).thenReturn(Optional.of(destino));
+
+        // Act & Assert
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> movimientoService.crearTransferencia(transferencia("478758", "225487", "100.01")));
+
+        assertEquals("Saldo no disponible", exception.getMessage());
+        assertEquals(new BigDecimal("100.00"), origen.getSaldoActual());
+        assertEquals(new BigDecimal("0.00"), destino.getSaldoActual());
+        verify(movimientoRepository, never()).saveAll(any());
+        assertEquals(1, meterRegistry.get("transferencias.crear").tag("resultado", "revertido").timer().count());
+    }
+
+    @Test
+    void crearTransferencia_MismaCuenta_LanzaExcepcion() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> movimientoService.crearTransferencia(transferencia("478758", "478758", "10.00")));
+
+        assertEquals("La cuenta de origen y la de destino deben ser distintas", exception.getMessage());
+        verify(cuentaRepository, never()).findByCuentaIdForUpdate(any());
+    }
+
+    @Test
+    void crearTransferencia_DestinoInactivo_LanzaExcepcion() {
+        // Arrange
+        Cuenta origen = cuentaTransferencia(1L, "478758", "2000.00");
+        Cuenta destino = cuentaTransferencia(2L, "225487", "0.00");
+        destino.setEstado(false);
+        when(cuentaDescriptorService.getDescriptor("478758")).thenReturn(descriptorDe(origen));
+        when(cuentaDescriptorService.getDescriptor("225487")).thenReturn(new CuentaDescriptor(2L, "225487", true, 1L, BigDecimal.ZERO));
+        when(cuentaRepository.findByCuentaIdForUpdate(1L)).thenReturn(Optional.of(origen));
+        when(cuentaRepository.findByCuentaIdForUpdate(2L)).thenReturn(Optional.of(destino));
+
+        // Act & Assert - el descriptor cacheado estaba desactualizado
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> movimientoService.crearTransferencia(transferencia("478758", "225487", "10.00")));
+
+        assertEquals("La cuenta de destino no está activa", exception.getMessage());
+        verify(cuentaDescriptorService).invalidar("225487");
+        verify(movimientoRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void crearMovimientosAgrupados_VariasCuentas_BloqueaUnaVezYValidaEnOrdenDeLlegada() {
+        // Arrange
+        Cuenta primera = cuentaTransferencia(2L, "478758", "100.00");
+        Cuenta segunda = cuentaTransferencia(1L, "225487", "0.00");
+        when(cuentaDescriptorService.getDescriptor("478758")).thenReturn(descriptorDe(primera));
+        when(cuentaDescriptorService.getDescriptor("225487")).thenReturn(descriptorDe(segunda));
+        when(cuentaRepository.findByCuentaIdInForUpdate(any())).thenReturn(List.of(segunda, primera));
+        when(movimientoMapper.toDTO(any(Movimiento.class), any())).thenAnswer(inv -> new MovimientoDTO());
+
+        List<CrearMovimientoDTO> grupo = List.of(
+                movimiento("478758", "-80.00"),
+                movimiento("225487", "50.00"),
+                movimiento("478758", "-30.00"),   // 20 disponibles: rechazado
+                movimiento("225487", "-50.00"),
+                movimiento("478758", "10.00"));
+
+        // Act
+        List<ResultadoMovimientoDTO> resultados = movimientoService.crearMovimientosAgrupados(grupo);
+
+        // Assert
+        assertEquals(List.of(true, true, false, true, true),
+                resultados.stream().map(ResultadoMovimientoDTO::isExitoso).toList());
+        assertEquals("Saldo no disponible", resultados.get(2).getMensaje());
+        assertEquals(new BigDecimal("30.00"), primera.getSaldoActual());
+        assertEquals(new BigDecimal("0.00"), segunda.getSaldoActual());
+        verify(cuentaRepository).findByCuentaIdInForUpdate(argThat(ids -> List.copyOf(ids).equals(List.of(1L, 2L))));
+        verify(movimientoRepository, times(1)).saveAll(argThat((List<Movimiento> movs) -> movs.size() == 4));
+        // Un cierre diario por cuenta, con el saldo del último movimiento aceptado
+        verify(saldoDiarioService).registrarSaldos(argThat(cierres -> cierres.size() == 2
+                && cierres.stream().anyMatch(c -> c.getCuentaId() == 2L && c.getSaldo().equals(new BigDecimal("30.00")))
+                && cierres.stream().anyMatch(c -> c.getCuentaId() == 1L && c.getSaldo().equals(new BigDecimal("0.00")))));
+        assertEquals(1, meterRegistry.get("movimientos.grupo").tag("resultado", "confirmado").timer().count());
+    }
+
+    @Test
+    void crearMovimientosAgrupados_CuentaInexistenteOInactiva_RechazaSoloSusMovimientos() {
+        // Arrange
+        Cuenta activa = cuentaTransferencia(1L, "478758", "100.00");
+        Cuenta inactiva = cuentaTransferencia(2L, "225487", "100.00");
+        inactiva.setEstado(false);
+        when(cuentaDescriptorService.getDescriptor("478758")).thenReturn(descriptorDe(activa));
+        when(cuentaDescriptorService.getDescriptor("225487")).thenReturn(new CuentaDescriptor(2L, "225487", true, 1L, BigDecimal.ZERO));
+        when(cuentaDescriptorService.getDescriptor("999999")).thenReturn(null);
+        when(cuentaRepository.findByCuentaIdInForUpdate(any())).thenReturn(List.of(activa, inactiva));
+        when(movimientoMapper.toDTO(any(Movimiento.class), any())).thenAnswer(inv -> new MovimientoDTO());
+
+        // Act
+        List<ResultadoMovimientoDTO> resultados = movimientoService.crearMovimientosAgrupados(List.of(
+                movimiento("999999", "10.00"),
+                movimiento("225487", "10.00"),
+                movimiento("478758", "10.00")));
+
+        // Assert
+        assertEquals("Cuenta no encontrada", resultados.get(0).getMensaje());
+        assertEquals("La cuenta no está activa", resultados.get(1).getMensaje());
+        assertTrue(resultados.get(2).isExitoso());
+        assertNotNull(resultados.get(2).getMovimiento());
+        verify(cuentaDescriptorService).invalidar("225487");
+        assertEquals(new BigDecimal("100.00"), inactiva.getSaldoActual());
+        verify(saldoDiarioService).registrarSaldos(argThat(cierres -> cierres.size() == 1
+                && cierres.iterator().next().getSaldo().equals(new BigDecimal("110.00"))));
+    }
+
+    private CrearMovimientoDTO movimiento(String numeroCuenta, String valor) {
+        CrearMovimientoDTO dto = movimiento(valor);
+        dto.setNumeroCuenta(numeroCuenta);
+        return dto;
+    }
+
+    private CrearTransferenciaDTO transferencia(String origen, String destino, String valor) {
+        CrearTransferenciaDTO dto = new CrearTransferenciaDTO();
+        dto.setNumeroCuentaOrigen(origen);
+        dto.setNumeroCuentaDestino(destino);
+        dto.setValor(new BigDecimal(valor));
+        return dto;
+    }
+
+    private Cuenta cuentaTransferencia(Long cuentaId, String numeroCuenta, String saldo) {
+        Cuenta c = new Cuenta(numeroCuenta, "Ahorro", new BigDecimal(saldo), true, 1L);
+        c.setCuentaId(cuentaId);
+        return c;
+    }
+
+    private CuentaDescriptor descriptorDe(Cuenta c) {
+        return new CuentaDescriptor(c.getCuentaId(), c.getNumeroCuenta(), c.getEstado(), c.getClienteId(), c.getSaldoInicial());
+    }
+
+    private CuentaDescriptor descriptor(boolean activa) {
+        return new CuentaDescriptor(1L, "478758", activa, 1L, new BigDecimal("2000.00"));
+    }
+
+    @Test
+    void getMovimientosPaginados_PaginaCompleta_DevuelveCursorDeLaUltimaFila() {
+        // Arrange
+        ReflectionTestUtils.setField(movimientoService, "paginaMaxima", 500);
+        when(cuentaDescriptorService.getDescriptor("478758")).thenReturn(descriptor(true));
+        List<Movimiento> filas = List.of(movimientoConClave(30L, 3000L), movimientoConClave(20L, 2000L), movimientoConClave(10L, 1000L));
+        when(movimientoRepository.findPrimeraPagina(eq(1L), any())).thenReturn(filas);
+        when(movimientoMapper.toDTO(any(Movimiento.class), any())).thenAnswer(inv -> new MovimientoDTO());
+
+        // Act
+        PaginaMovimientosDTO pagina = movimientoService.getMovimientosPaginados("478758", null, 2);
+
+        // Assert
+        assertEquals(2, pagina.getMovimientos().size());
+        assertNotNull(pagina.getSiguienteCursor());
+        Movimiento clave = MovimientoService.decodificarCursor(pagina.getSiguienteCursor());
+        assertEquals(20L, clave.getMovimientoId());
+        assertEquals(2000L, clave.getFecha().getTime());
+    }
+
+    @Test
+    void getMovimientosPaginados_ConCursor_ContinuaDesdeLaClave() {
+        // Arrange
+        ReflectionTestUtils.setField(movimientoService, "paginaMaxima", 500);
+        when(cuentaDescriptorService.getDescriptor("478758")).thenReturn(descriptor(true));
+        when(movimientoRepository.findPaginaSiguiente(eq(1L), eq(new Date(2000L)), eq(20L), any()))
+                .thenReturn(List.of(movimientoConClave(10L, 1000L)));
+        when(movimientoMapper.toDTO(any(Movimiento.class), any())).thenAnswer(inv -> new MovimientoDTO());
+        String cursor = MovimientoService.codificarCursor(movimientoConClave(20L, 2000L));
+
+        // Act
+        PaginaMovimientosDTO pagina = movimientoService.getMovimientosPaginados("478758", cursor, 2);
+
+        // Assert
+        assertEquals(1, pagina.getMovimientos().size());
+        assertNull(pagina.getSiguienteCursor());
+        verify(movimientoRepository, never()).findPrimeraPagina(any(), any());
+    }
+
+    @Test
+    void getMovimientosPaginados_CursorInvalido_LanzaExcepcion() {
+        ReflectionTestUtils.setField(movimientoService, "paginaMaxima", 500);
+        when(cuentaDescriptorService.getDescriptor("478758")).thenReturn(descriptor(true));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> movimientoService.getMovimientosPaginados("478758", "no-es-un-cursor", 10));
+        assertEquals("Cursor de paginación inválido", exception.getMessage());
+    }
+
+    @Test
+    void getMovimientosPaginados_LimiteExcedido_LanzaExcepcion() {
+        ReflectionTestUtils.setField(movimientoService, "paginaMaxima", 500);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> movimientoService.getMovimientosPaginados("478758", null, 501));
+        verify(movimientoRepository, never()).findPrimeraPagina(any(), any());
+    }
+
+    private Movimiento movimientoConClave(Long movimientoId, long fecha) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setMovimientoId(movimientoId);
+        movimiento.setFecha(new Date(fecha));
+        return movimiento;
+    }
+}
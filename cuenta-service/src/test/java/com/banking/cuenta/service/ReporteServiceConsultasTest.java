@@ -0,0 +1,104 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.config.CacheConfig;
+import com.banking.cuenta.dto.ReporteEstadoCuentaDTO;
+import com.banking.cuenta.entity.ClienteInfo;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.entity.Movimiento;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Verifica contra H2 que el reporte usa un número fijo de sentencias sin importar cuántas cuentas tenga el cliente
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({ReporteService.class, ClienteInfoService.class, SaldoDiarioService.class, CacheConfig.class,
+        SimpleMeterRegistry.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ReporteServiceConsultasTest {
+
+    private static final int CUENTAS = 10;
+    private static final int MOVIMIENTOS_POR_CUENTA = 5;
+    private static final long DIA = 86_400_000L;
+
+    @Autowired
+    private ReporteService reporteService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        ClienteInfo cliente = new ClienteInfo();
+        cliente.setClienteId(1L);
+        cliente.setNombre("Jose Lema");
+        cliente.setIdentificacion("1234567890");
+        cliente.setEstado(true);
+        entityManager.persist(cliente);
+
+        for (int c = 0; c < CUENTAS; c++) {
+            Cuenta cuenta = new Cuenta("CTA-" + c, "Ahorro", new BigDecimal("100.00"), true, 1L);
+            // La mitad de las cuentas sin saldo materializado para forzar la suma agrupada
+            if (c % 2 == 0) {
+                cuenta.setSaldoActual(null);
+            }
+            entityManager.persist(cuenta);
+            for (int m = 0; m < MOVIMIENTOS_POR_CUENTA; m++) {
+                Movimiento movimiento = new Movimiento();
+                movimiento.setCuenta(cuenta);
+                movimiento.setFecha(new Date(DIA * 2 + 1000L * (m + 1)));
+                movimiento.setTipoMovimiento("Deposito");
+                movimiento.setValor(new BigDecimal("10.00"));
+                movimiento.setSaldo(new BigDecimal("100.00").add(new BigDecimal("10.00").multiply(BigDecimal.valueOf(m + 1))));
+                entityManager.persist(movimiento);
+                if (c % 2 != 0) {
+                    cuenta.setSaldoActual(movimiento.getSaldo());
+                }
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void generarReporteEstadoCuenta_NumeroDeSentenciasConstante() {
+        ReporteEstadoCuentaDTO reporte = reporteService.generarReporteEstadoCuenta(
+                1L, SaldoDiarioService.inicioDelDia(new Date(DIA)), new Date());
+
+        // Cliente, cuentas, movimientos del rango, suma agrupada de las cuentas sin materializar
+        // y cierres diarios anteriores al rango
+        assertEquals(5, estadisticas.getPrepareStatementCount());
+        assertEquals(CUENTAS, reporte.getCuentas().size());
+        for (ReporteEstadoCuentaDTO.CuentaReporteDTO cuenta : reporte.getCuentas()) {
+            assertEquals(MOVIMIENTOS_POR_CUENTA, cuenta.getMovimientos().size());
+            assertEquals(0, new BigDecimal("150.00").compareTo(cuenta.getSaldoDisponible()));
+            assertEquals(0, new BigDecimal("100.00").compareTo(cuenta.getSaldoApertura()));
+            assertEquals(0, new BigDecimal("150.00").compareTo(cuenta.getSaldoCierre()));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.ClienteInfoDTO;
+import com.banking.cuenta.dto.MovimientoReporteFila;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReporteServiceTest {
+
+    @Mock
+    private CuentaRepository cuentaRepository;
+
+    @Mock
+    private MovimientoRepository movimientoRepository;
+
+    @Mock
+    private ClienteInfoService clienteInfoService;
+
+    @Mock
+    private SaldoDiarioService saldoDiarioService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ReporteService reporteService;
+
+    private ClienteInfoDTO clienteInfo;
+    private Date fechaInicio;
+    private Date fechaFin;
+    private AtomicBoolean streamCerrado;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reporteService, "meterRegistry", new SimpleMeterRegistry());
+        reporteService.registrarMetricas();
+
+        clienteInfo = new ClienteInfoDTO();
+        clienteInfo.setClienteId(1L);
+        clienteInfo.setNombre("Jose Lema");
+        fechaInicio = new Date(0);
+        fechaFin = new Date();
+        streamCerrado = new AtomicBoolean();
+
+        // Se devuelven desordenadas: el servicio debe recorrerlas en el orden del cursor
+        when(cuentaRepository.findByClienteIdAndEstadoTrue(1L)).thenReturn(List.of(
+                cuenta(3L, "585545", "Corriente", "1000.00", "1000.00"),
+                cuenta(1L, "478758", "Ahorro", "2000.00", "1425.00")));
+        when(movimientoRepository.streamReporteByClienteIdAndFechaBetween(1L, fechaInicio, fechaFin))
+                .thenReturn(Stream.of(
+                        new MovimientoReporteFila(1L, new Date(1000), "Retiro", new BigDecimal("-575.00"), new BigDecimal("1425.00")),
+                        new MovimientoReporteFila(2L, new Date(1500), "Deposito", new BigDecimal("10.00"), new BigDecimal("10.00")),
+                        new MovimientoReporteFila(3L, new Date(2000), "Deposito", new BigDecimal("600.00"), new BigDecimal("1600.00")),
+                        new MovimientoReporteFila(3L, new Date(3000), "Retiro", new BigDecimal("-600.00"), new BigDecimal("1000.00")))
+                        .onClose(() -> streamCerrado.set(true)));
+        when(saldoDiarioService.calcularSaldosApertura(any(), eq(fechaInicio))).thenReturn(Map.of(
+                1L, new BigDecimal("2000.00"),
+                3L, new BigDecimal("1000.00")));
+    }
+
+    @Test
+    void escribirReporteEstadoCuenta_Json_AgrupaMovimientosPorCuenta() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        reporteService.escribirReporteEstadoCuenta(clienteInfo, fechaInicio, fechaFin,
+                ReporteService.FormatoReporte.JSON, salida);
+
+        JsonNode raiz = objectMapper.readTree(salida.toByteArray());
+        assertTrue(raiz.get("success").asBoolean());
+        JsonNode data = raiz.get("data");
+        assertEquals("Jose Lema", data.get("cliente").asText());
+        JsonNode cuentas = data.get("cuentas");
+        assertEquals(2, cuentas.size());
+        assertEquals("478758", cuentas.get(0).get("numeroCuenta").asText());
+        assertEquals(0, new BigDecimal("1425.00").compareTo(cuentas.get(0).get("saldoDisponible").decimalValue()));
+        assertEquals(1, cuentas.get(0).get("movimientos").size());
+        assertEquals(0, new BigDecimal("2000.00").compareTo(cuentas.get(0).get("saldoApertura").decimalValue()));
+        assertEquals(0, new BigDecimal("1425.00").compareTo(cuentas.get(0).get("saldoCierre").decimalValue()));
+        assertEquals("585545", cuentas.get(1).get("numeroCuenta").asText());
+        assertEquals(2, cuentas.get(1).get("movimientos").size());
+        assertEquals("Retiro", cuentas.get(1).get("movimientos").get(1).get("tipoMovimiento").asText());
+        assertTrue(streamCerrado.get());
+        verify(movimientoRepository, never()).findByCuentaIdAndFechaBetween(any(), any(), any());
+    }
+
+    @Test
+    void escribirReporteEstadoCuenta_Csv_UnaFilaPorMovimiento() throws Exception {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+        reporteService.escribirReporteEstadoCuenta(clienteInfo, fechaInicio, fechaFin,
+                ReporteService.FormatoReporte.CSV, salida);
+
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lineas.length);
+        assertEquals("numeroCuenta,tipo,saldoInicial,saldoDisponible,saldoApertura,fecha,tipoMovimiento,valor,saldo", lineas[0]);
+        assertEquals("478758,Ahorro,2000.00,1425.00,2000.00,1970-01-01T00:00:01Z,Retiro,-575.00,1425.00", lineas[1]);
+        assertTrue(lineas[3].startsWith("585545,Corriente,1000.00,1000.00,1000.00,"));
+        assertTrue(streamCerrado.get());
+    }
+
+    private Cuenta cuenta(Long cuentaId, String numeroCuenta, String tipo, String saldoInicial, String saldoActual) {
+        Cuenta cuenta = new Cuenta();
+        cuenta.setCuentaId(cuentaId);
+        cuenta.setNumeroCuenta(numeroCuenta);
+        cuenta.setTipoCuenta(tipo);
+        cuenta.setSaldoInicial(new BigDecimal(saldoInicial));
+        cuenta.setSaldoActual(new BigDecimal(saldoActual));
+        cuenta.setEstado(true);
+        cuenta.setClienteId(1L);
+        return cuenta;
+    }
+}
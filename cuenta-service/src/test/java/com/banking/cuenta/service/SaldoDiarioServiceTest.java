@@ -0,0 +1,186 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.dto.SaldoFechaDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.entity.Movimiento;
+import com.banking.cuenta.entity.SaldoDiario;
+import com.banking.cuenta.repository.SaldoDiarioRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Modo MySQL de H2: registrarSaldos usa INSERT ... ON DUPLICATE KEY UPDATE
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:saldodiario;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(SaldoDiarioService.class)
+class SaldoDiarioServiceTest {
+
+    private static final LocalDate DIA_1 = LocalDate.of(2024, 3, 1);
+    private static final LocalDate DIA_2 = LocalDate.of(2024, 3, 2);
+    private static final LocalDate DIA_4 = LocalDate.of(2024, 3, 4);
+
+    @Autowired
+    private SaldoDiarioService saldoDiarioService;
+
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Cuenta cuenta;
+
+    @BeforeEach
+    void setUp() {
+        cuenta = new Cuenta("478758", "Ahorro", new BigDecimal("1000.00"), true, 1L);
+        entityManager.persist(cuenta);
+        movimiento(DIA_1, 9, "100.00");
+        movimiento(DIA_1, 15, "-50.00");
+        movimiento(DIA_2, 10, "200.00");
+        movimiento(DIA_4, 8, "-300.00");
+        movimiento(DIA_4, 18, "25.00");
+        entityManager.flush();
+    }
+
+    @Test
+    void reconstruirCuenta_GeneraUnCierrePorDiaConMovimientos() {
+        saldoDiarioService.reconstruirCuenta(cuenta.getCuentaId());
+        entityManager.clear();
+
+        List<SaldoDiario> cierres = saldoDiarioRepository.findAll().stream()
+                .sorted(Comparator.comparing(SaldoDiario::getFecha))
+                .collect(Collectors.toList());
+        assertEquals(3, cierres.size());
+        assertEquals(0, new BigDecimal("1050.00").compareTo(cierres.get(0).getSaldo()));
+        assertEquals(0, new BigDecimal("1250.00").compareTo(cierres.get(1).getSaldo()));
+        assertEquals(0, new BigDecimal("975.00").compareTo(cierres.get(2).getSaldo()));
+    }
+
+    @Test
+    void reconstruirCuenta_CoincideConLosCierresRegistradosAlContabilizar() {
+        // Un movimiento en el último minuto del día: el día lo decide inicioDelDia en ambos caminos
+        movimiento(DIA_2, LocalTime.of(23, 59), "-10.00");
+        entityManager.flush();
+        BigDecimal saldo = cuenta.getSaldoInicial();
+        for (Movimiento movimiento : entityManager.createQuery(
+                "SELECT m FROM Movimiento m ORDER BY m.fecha", Movimiento.class).getResultList()) {
+            saldo = saldo.add(movimiento.getValor());
+            saldoDiarioService.registrarSaldo(cuenta.getCuentaId(), movimiento.getFecha(), saldo);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        List<String> registrados = cierres();
+
+        saldoDiarioService.reconstruirCuenta(cuenta.getCuentaId());
+        entityManager.clear();
+
+        assertEquals(3, registrados.size());
+        assertEquals(registrados, cierres());
+    }
+
+    @Test
+    void getSaldoAFecha_DiaSinMovimientos_UsaUltimoCierreAnterior() {
+        saldoDiarioService.reconstruirCuenta(cuenta.getCuentaId());
+
+        SaldoFechaDTO saldo = saldoDiarioService.getSaldoAFecha("478758", fecha(DIA_2.plusDays(1), 12));
+        assertEquals(0, new BigDecimal("1250.00").compareTo(saldo.getSaldo()));
+
+        SaldoFechaDTO antes = saldoDiarioService.getSaldoAFecha("478758", fecha(DIA_1.minusDays(1), 12));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(antes.getSaldo()));
+        assertNull(saldoDiarioService.getSaldoAFecha("000000", new Date()));
+    }
+
+    @Test
+    void calcularSaldosApertura_SumaSoloLosMovimientosDelMismoDia() {
+        saldoDiarioService.reconstruirCuenta(cuenta.getCuentaId());
+
+        // Cierre del día 2 (1250) más el retiro de las 08:00 del día 4
+        Map<Long, BigDecimal> saldos = saldoDiarioService.calcularSaldosApertura(List.of(cuenta), fecha(DIA_4, 12));
+        assertEquals(0, new BigDecimal("950.00").compareTo(saldos.get(cuenta.getCuentaId())));
+
+        Map<Long, BigDecimal> inicioDia = saldoDiarioService.calcularSaldosApertura(List.of(cuenta), fecha(DIA_2, 0));
+        assertEquals(0, new BigDecimal("1050.00").compareTo(inicioDia.get(cuenta.getCuentaId())));
+    }
+
+    @Test
+    void registrarSaldo_MismoDia_ActualizaElCierreExistente() {
+        saldoDiarioService.registrarSaldo(cuenta.getCuentaId(), fecha(DIA_4, 9), new BigDecimal("500.00"));
+        saldoDiarioService.registrarSaldo(cuenta.getCuentaId(), fecha(DIA_4, 17), new BigDecimal("650.00"));
+        entityManager.clear();
+
+        List<SaldoDiario> cierres = saldoDiarioRepository.findAll();
+        assertEquals(1, cierres.size());
+        assertEquals(0, new BigDecimal("650.00").compareTo(cierres.get(0).getSaldo()));
+    }
+
+    @Test
+    void registrarSaldos_VariasCuentas_ActualizaOInsertaUnCierrePorCuenta() {
+        Cuenta otra = new Cuenta("225487", "Corriente", new BigDecimal("100.00"), true, 1L);
+        entityManager.persist(otra);
+        saldoDiarioService.registrarSaldo(cuenta.getCuentaId(), fecha(DIA_4, 9), new BigDecimal("500.00"));
+
+        saldoDiarioService.registrarSaldos(List.of(
+                new SaldoDiario(otra.getCuentaId(), fecha(DIA_4, 11), new BigDecimal("80.00")),
+                new SaldoDiario(cuenta.getCuentaId(), fecha(DIA_4, 17), new BigDecimal("650.00"))));
+        entityManager.clear();
+
+        Map<Long, SaldoDiario> cierres = saldoDiarioRepository.findAll().stream()
+                .collect(Collectors.toMap(SaldoDiario::getCuentaId, c -> c));
+        assertEquals(2, cierres.size());
+        assertEquals(0, new BigDecimal("650.00").compareTo(cierres.get(cuenta.getCuentaId()).getSaldo()));
+        assertEquals(0, new BigDecimal("80.00").compareTo(cierres.get(otra.getCuentaId()).getSaldo()));
+        assertEquals(fecha(DIA_4, 0), cierres.get(otra.getCuentaId()).getFecha());
+    }
+
+    private List<String> cierres() {
+        return saldoDiarioRepository.findAll().stream()
+                .sorted(Comparator.comparing(SaldoDiario::getFecha))
+                .map(c -> c.getFecha().getTime() + "=" + c.getSaldo().setScale(2))
+                .collect(Collectors.toList());
+    }
+
+    private void movimiento(LocalDate dia, int hora, String valor) {
+        movimiento(dia, LocalTime.of(hora, 0), valor);
+    }
+
+    private void movimiento(LocalDate dia, LocalTime hora, String valor) {
+        Movimiento movimiento = new Movimiento();
+        movimiento.setCuenta(cuenta);
+        movimiento.setFecha(fecha(dia, hora));
+        movimiento.setTipoMovimiento(valor.startsWith("-") ? "Retiro" : "Depósito");
+        movimiento.setValor(new BigDecimal(valor));
+        movimiento.setSaldo(BigDecimal.ZERO);
+        entityManager.persist(movimiento);
+    }
+
+    private Date fecha(LocalDate dia, int hora) {
+        return fecha(dia, LocalTime.of(hora, 0));
+    }
+
+    private Date fecha(LocalDate dia, LocalTime hora) {
+        return Date.from(dia.atTime(hora).atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,201 @@
+package com.banking.cuenta.service;
+
+import com.banking.cuenta.config.CacheConfig;
+import com.banking.cuenta.dto.CrearTransferenciaDTO;
+import com.banking.cuenta.entity.Cuenta;
+import com.banking.cuenta.entity.Movimiento;
+import com.banking.cuenta.mapper.MovimientoMapper;
+import com.banking.cuenta.repository.CuentaRepository;
+import com.banking.cuenta.repository.MovimientoRepository;
+import com.banking.cuenta.repository.SaldoDiarioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Prueba de estrés de transferencias contra H2 con transacciones y bloqueos de fila reales.
+// Comprueba que el dinero se conserva y que ningún par de transferencias opuestas acaba en
+// interbloqueo (H2 lo detectaría y abortaría una de ellas).
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transferencias;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=16",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CacheConfig.class, MovimientoMapper.class, CuentaDescriptorService.class, MovimientoService.class,
+        SaldoDiarioService.class, MovimientoPostingEngine.class, CuentaLocks.class,
+        LocalValidatorFactoryBean.class, SimpleMeterRegistry.class})
+// Sin transacción del test: cada transferencia confirma la suya desde su propio hilo
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransferenciaConcurrenciaTest {
+
+    private static final int CUENTAS = 20;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000.00");
+    private static final int TRANSFERENCIAS = 4000;
+    private static final int HILOS = 32;
+
+    @Autowired
+    private MovimientoPostingEngine movimientoPostingEngine;
+
+    @Autowired
+    private MovimientoService movimientoService;
+
+    @Autowired
+    private CuentaRepository cuentaRepository;
+
+    @Autowired
+    private MovimientoRepository movimientoRepository;
+
+    @Autowired
+    private SaldoDiarioRepository saldoDiarioRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @AfterEach
+    void tearDown() {
+        movimientoRepository.deleteAllInBatch();
+        saldoDiarioRepository.deleteAllInBatch();
+        cuentaRepository.deleteAllInBatch();
+        cacheManager.getCache(CacheConfig.CUENTA_DESCRIPTOR).clear();
+    }
+
+    @Test
+    void transferir_MilesDeTransferenciasAleatorias_ConservaElSaldoTotal() throws Exception {
+        List<String> cuentas = crearCuentas(CUENTAS);
+        SplittableRandom random = new SplittableRandom(42);
+        List<CrearTransferenciaDTO> transferencias = new ArrayList<>(TRANSFERENCIAS);
+        for (int i = 0; i < TRANSFERENCIAS; i++) {
+            int origen = random.nextInt(CUENTAS);
+            int destino = (origen + 1 + random.nextInt(CUENTAS - 1)) % CUENTAS;
+            // Hasta 300 por transferencia: algunas cuentas se vacían y hay rechazos por saldo
+            transferencias.add(transferencia(cuentas.get(origen), cuentas.get(destino),
+                    new BigDecimal(1 + random.nextInt(30_000)).movePointLeft(2)));
+        }
+
+        Resultado resultado = ejecutar(transferencias, movimientoPostingEngine::transferir);
+
+        assertTrue(resultado.errores.isEmpty(), "Errores inesperados: " + resultado.errores);
+        assertTrue(resultado.exitosas.get() > TRANSFERENCIAS / 2);
+        verificarConservacion(CUENTAS, resultado.exitosas.get());
+    }
+
+    @Test
+    void crearTransferencia_SentidosOpuestosSinBloqueosEnMemoria_NoSeInterbloquean() throws Exception {
+        // Directo al servicio, sin CuentaLocks: como dos instancias del servicio, solo el orden
+        // de los bloqueos de fila evita el interbloqueo
+        List<String> cuentas = crearCuentas(2);
+        List<CrearTransferenciaDTO> transferencias = new ArrayList<>();
+        for (int i = 0; i < TRANSFERENCIAS / 4; i++) {
+            transferencias.add(i % 2 == 0
+                    ? transferencia(cuentas.get(0), cuentas.get(1), new BigDecimal("2.00"))
+                    : transferencia(cuentas.get(1), cuentas.get(0), new BigDecimal("1.00")));
+        }
+
+        Resultado resultado = ejecutar(transferencias, movimientoService::crearTransferencia);
+
+        assertTrue(resultado.errores.isEmpty(), "Errores inesperados: " + resultado.errores);
+        assertEquals(transferencias.size(), resultado.exitosas.get());
+        verificarConservacion(2, resultado.exitosas.get());
+        // 500 en cada sentido: ni en el peor orden se queda la primera cuenta sin saldo
+        assertEquals(new BigDecimal("500.00"), saldo(cuentas.get(0)));
+        assertEquals(new BigDecimal("1500.00"), saldo(cuentas.get(1)));
+    }
+
+    private List<String> crearCuentas(int numero) {
+        List<Cuenta> cuentas = new ArrayList<>();
+        for (int c = 0; c < numero; c++) {
+            cuentas.add(new Cuenta(String.format("TR%06d", c), "Ahorro", SALDO_INICIAL, true, 1L));
+        }
+        return cuentaRepository.saveAll(cuentas).stream().map(Cuenta::getNumeroCuenta).toList();
+    }
+
+    private BigDecimal saldo(String numeroCuenta) {
+        return cuentaRepository.findByNumeroCuenta(numeroCuenta).map(Cuenta::getSaldoActual).orElseThrow();
+    }
+
+    private void verificarConservacion(int cuentas, int exitosas) {
+        BigDecimal total = cuentaRepository.findAll().stream()
+                .map(Cuenta::getSaldoActual)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(SALDO_INICIAL.multiply(BigDecimal.valueOf(cuentas)), total);
+        List<Movimiento> movimientos = movimientoRepository.findAll();
+        assertEquals(2L * exitosas, movimientos.size());
+        assertEquals(0, movimientos.stream().map(Movimiento::getValor)
+                .reduce(BigDecimal.ZERO, BigDecimal::add).signum());
+        // Saldo materializado = saldo inicial + movimientos en cada cuenta
+        assertTrue(cuentaRepository.findDescuadresDeSaldo().isEmpty());
+    }
+
+    private Resultado ejecutar(List<CrearTransferenciaDTO> transferencias, Consumer<CrearTransferenciaDTO> accion)
+            throws Exception {
+        Resultado resultado = new Resultado();
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (CrearTransferenciaDTO dto : transferencias) {
+            tareas.add(pool.submit(() -> {
+                inicio.await();
+                try {
+                    accion.accept(dto);
+                    resultado.exitosas.incrementAndGet();
+                } catch (IllegalArgumentException e) {
+                    if (!"Saldo no disponible".equals(e.getMessage())) {
+                        resultado.errores.add(e.toString());
+                    }
+                } catch (RuntimeException e) {
+                    resultado.errores.add(e.toString());
+                }
+                return null;
+            }));
+        }
+
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+        return resultado;
+    }
+
+    private CrearTransferenciaDTO transferencia(String origen, String destino, BigDecimal valor) {
+        CrearTransferenciaDTO dto = new CrearTransferenciaDTO();
+        dto.setNumeroCuentaOrigen(origen);
+        dto.setNumeroCuentaDestino(destino);
+        dto.setValor(valor);
+        return dto;
+    }
+
+    private static class Resultado {
+        final AtomicInteger exitosas = new AtomicInteger();
+        final ConcurrentLinkedQueue<String> errores = new ConcurrentLinkedQueue<>();
+    }
+}
@@ -0,0 +1,104 @@
+package com.banking.carga;
+
+import org.h2.tools.Server;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+// Punto de entrada: java -jar target/load-test.jar <comando> [--opcion=valor ...]
+//   h2       servidor H2 por TCP para levantar los servicios y sembrar sin MySQL
+//   sembrar  carga masiva de clientes, cuentas y movimientos en cliente_db y cuenta_db
+//   ejecutar mezcla de peticiones de modelo abierto contra los servicios en marcha
+public class CargaApplication {
+
+    private static final String DATOS_POR_DEFECTO = "target/datos-sembrados.properties";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            uso();
+            System.exit(1);
+        }
+        Opciones opciones = new Opciones(Arrays.copyOfRange(args, 1, args.length));
+        switch (args[0]) {
+            case "h2":
+                h2(opciones);
+                break;
+            case "sembrar":
+                sembrar(opciones);
+                break;
+            case "ejecutar":
+                ejecutar(opciones);
+                break;
+            default:
+                uso();
+                System.exit(1);
+        }
+    }
+
+    private static void h2(Opciones opciones) throws Exception {
+        String puerto = String.valueOf(opciones.entero("puerto", 9092));
+        Server servidor = Server.createTcpServer("-tcp", "-tcpPort", puerto, "-tcpAllowOthers", "-ifNotExists",
+                "-baseDir", opciones.texto("directorio", "target/h2")).start();
+        System.out.println("H2 escuchando en " + servidor.getURL() + " (Ctrl+C para detener)");
+        System.out.println("  cliente_db: jdbc:h2:tcp://localhost:" + puerto + "/./cliente_db;MODE=MySQL");
+        System.out.println("  cuenta_db:  jdbc:h2:tcp://localhost:" + puerto + "/./cuenta_db;MODE=MySQL");
+        Thread.currentThread().join();
+    }
+
+    private static void sembrar(Opciones opciones) throws Exception {
+        SembradorDatos sembrador = new SembradorDatos(
+                opciones.texto("cliente-db", "jdbc:mysql://localhost:3306/cliente_db?createDatabaseIfNotExist=true&rewriteBatchedStatements=true"),
+                opciones.texto("cuenta-db", "jdbc:mysql://localhost:3306/cuenta_db?createDatabaseIfNotExist=true&rewriteBatchedStatements=true"),
+                opciones.texto("usuario", "root"),
+                opciones.texto("contrasena", "password"));
+        sembrador.setClientes(opciones.largo("clientes", 1_000_000));
+        sembrador.setCuentasPorCliente(opciones.entero("cuentas-por-cliente", 2));
+        sembrador.setMovimientosPorCuenta(opciones.entero("movimientos-por-cuenta", 10));
+        sembrador.setDias(opciones.entero("dias", 365));
+        sembrador.setHilos(opciones.entero("hilos", Runtime.getRuntime().availableProcessors()));
+        sembrador.setLote(opciones.entero("lote", 500));
+        sembrador.setSemilla(opciones.largo("semilla", 42));
+
+        DatosSembrados datos = sembrador.sembrar();
+        Path archivo = Path.of(opciones.texto("datos", DATOS_POR_DEFECTO));
+        datos.guardar(archivo);
+        System.out.println("Rangos generados guardados en " + archivo);
+    }
+
+    private static void ejecutar(Opciones opciones) throws Exception {
+        DatosSembrados datos = DatosSembrados.leer(Path.of(opciones.texto("datos", DATOS_POR_DEFECTO)));
+        GeneradorCarga generador = new GeneradorCarga(datos,
+                opciones.texto("cliente-url", "http://localhost:8081"),
+                opciones.texto("cuenta-url", "http://localhost:8082"));
+        generador.setTasa(opciones.decimal("tasa", 100));
+        generador.setPoisson(!"constante".equals(opciones.texto("llegadas", "poisson")));
+        generador.setCalentamiento(opciones.duracion("calentamiento", Duration.ofSeconds(10)));
+        generador.setDuracion(opciones.duracion("duracion", Duration.ofSeconds(60)));
+        generador.setTimeout(opciones.duracion("timeout", Duration.ofSeconds(30)));
+        generador.setMaxEnVuelo(opciones.entero("max-en-vuelo", 2000));
+        generador.setDiasReporte(opciones.entero("dias-reporte", 30));
+        generador.setMezcla(GeneradorCarga.parsearMezcla(opciones.texto("mezcla", "movimiento:70,reporte:20,alta:10")));
+        generador.setSemilla(opciones.largo("semilla", System.nanoTime()));
+
+        InformeLatencias informe = generador.ejecutar();
+        informe.imprimir(System.out);
+        String resultados = opciones.texto("resultados", null);
+        if (resultados != null) {
+            informe.exportar(Path.of(resultados));
+            System.out.println("Resultados guardados en " + resultados);
+        }
+    }
+
+    private static void uso() {
+        System.err.println("Uso: java -jar load-test.jar <h2|sembrar|ejecutar> [--opcion=valor ...]");
+        System.err.println("  h2       --puerto=9092 --directorio=target/h2");
+        System.err.println("  sembrar  --cliente-db=<jdbc> --cuenta-db=<jdbc> --usuario=root --contrasena=password");
+        System.err.println("           --clientes=1000000 --cuentas-por-cliente=2 --movimientos-por-cuenta=10 --dias=365");
+        System.err.println("           --hilos=<cpus> --lote=500 --semilla=42 --datos=" + DATOS_POR_DEFECTO);
+        System.err.println("  ejecutar --cliente-url=http://localhost:8081 --cuenta-url=http://localhost:8082");
+        System.err.println("           --tasa=100 --llegadas=poisson|constante --calentamiento=10s --duracion=60s");
+        System.err.println("           --mezcla=movimiento:70,reporte:20,alta:10 --max-en-vuelo=2000 --timeout=30s");
+        System.err.println("           --dias-reporte=30 --resultados=<directorio> --datos=" + DATOS_POR_DEFECTO);
+    }
+}
@@ -0,0 +1,82 @@
+package com.banking.carga;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Properties;
+
+// Rangos de ids generados por SembradorDatos. Se guardan en un archivo de propiedades para que
+// GeneradorCarga elija clientes y cuentas existentes sin consultar la base de datos.
+public class DatosSembrados {
+
+    private long clienteDesde;
+    private long clienteHasta;
+    private long cuentaDesde;
+    private long cuentaHasta;
+    private int cuentasPorCliente;
+    private LocalDate fechaDesde;
+    private LocalDate fechaHasta;
+
+    public DatosSembrados() {}
+
+    public DatosSembrados(long clienteDesde, long clienteHasta, long cuentaDesde, long cuentaHasta,
+                          int cuentasPorCliente, LocalDate fechaDesde, LocalDate fechaHasta) {
+        this.clienteDesde = clienteDesde;
+        this.clienteHasta = clienteHasta;
+        this.cuentaDesde = cuentaDesde;
+        this.cuentaHasta = cuentaHasta;
+        this.cuentasPorCliente = cuentasPorCliente;
+        this.fechaDesde = fechaDesde;
+        this.fechaHasta = fechaHasta;
+    }
+
+    // Número de cuenta derivado del id: no choca con los de scripts/init.sql (6 dígitos)
+    public static String numeroCuenta(long cuentaId) {
+        return String.valueOf(1_000_000_000L + cuentaId);
+    }
+
+    public void guardar(Path archivo) throws IOException {
+        Properties propiedades = new Properties();
+        propiedades.setProperty("cliente.desde", String.valueOf(clienteDesde));
+        propiedades.setProperty("cliente.hasta", String.valueOf(clienteHasta));
+        propiedades.setProperty("cuenta.desde", String.valueOf(cuentaDesde));
+        propiedades.setProperty("cuenta.hasta", String.valueOf(cuentaHasta));
+        propiedades.setProperty("cuentas-por-cliente", String.valueOf(cuentasPorCliente));
+        propiedades.setProperty("fecha.desde", fechaDesde.toString());
+        propiedades.setProperty("fecha.hasta", fechaHasta.toString());
+        if (archivo.getParent() != null) {
+            Files.createDirectories(archivo.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+            propiedades.store(writer, "Datos generados por load-test sembrar");
+        }
+    }
+
+    public static DatosSembrados leer(Path archivo) throws IOException {
+        Properties propiedades = new Properties();
+        try (Reader reader = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            propiedades.load(reader);
+        }
+        return new DatosSembrados(
+                Long.parseLong(propiedades.getProperty("cliente.desde")),
+                Long.parseLong(propiedades.getProperty("cliente.hasta")),
+                Long.parseLong(propiedades.getProperty("cuenta.desde")),
+                Long.parseLong(propiedades.getProperty("cuenta.hasta")),
+                Integer.parseInt(propiedades.getProperty("cuentas-por-cliente")),
+                LocalDate.parse(propiedades.getProperty("fecha.desde")),
+                LocalDate.parse(propiedades.getProperty("fecha.hasta")));
+    }
+
+    // Getters
+    public long getClienteDesde() { return clienteDesde; }
+    public long getClienteHasta() { return clienteHasta; }
+    public long getCuentaDesde() { return cuentaDesde; }
+    public long getCuentaHasta() { return cuentaHasta; }
+    public int getCuentasPorCliente() { return cuentasPorCliente; }
+    public LocalDate getFechaDesde() { return fechaDesde; }
+    public LocalDate getFechaHasta() { return fechaHasta; }
+}
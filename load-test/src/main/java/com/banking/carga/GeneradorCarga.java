@@ -0,0 +1,249 @@
+package com.banking.carga;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Carga de modelo abierto: las peticiones llegan a la tasa configurada (constante o con llegadas
+// de Poisson) sin esperar a que terminen las anteriores, como llegan los usuarios reales. La
+// latencia se mide desde el instante en que la petición debía salir y no desde que salió, así un
+// servicio saturado que retrasa el envío no esconde ese retraso (omisión coordinada). El número
+// de peticiones en vuelo está acotado para no agotar puertos ni memoria del generador: las que
+// superan el límite se cuentan como descartadas.
+public class GeneradorCarga {
+
+    private final DatosSembrados datos;
+    private final String clienteUrl;
+    private final String cuentaUrl;
+    private final HttpClient httpClient;
+    private final InformeLatencias informe = new InformeLatencias();
+
+    private double tasa = 100;
+    private boolean poisson = true;
+    private Duration calentamiento = Duration.ofSeconds(10);
+    private Duration duracion = Duration.ofSeconds(60);
+    private Duration timeout = Duration.ofSeconds(30);
+    private Duration intervaloProgreso = Duration.ofSeconds(5);
+    private int maxEnVuelo = 2000;
+    private int diasReporte = 30;
+    private Map<Operacion, Integer> mezcla = parsearMezcla("movimiento:70,reporte:20,alta:10");
+    private long semilla = System.nanoTime();
+    private PrintStream salida = System.out;
+
+    // Identificaciones únicas para las altas: prefijo por ejecución más contador
+    private final String prefijoAlta = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36).toUpperCase();
+    private final AtomicLong altas = new AtomicLong();
+
+    public GeneradorCarga(DatosSembrados datos, String clienteUrl, String cuentaUrl) {
+        this.datos = datos;
+        this.clienteUrl = clienteUrl;
+        this.cuentaUrl = cuentaUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public InformeLatencias ejecutar() throws InterruptedException {
+        Semaphore enVuelo = new Semaphore(maxEnVuelo);
+        SplittableRandom random = new SplittableRandom(semilla);
+        Operacion[] ruleta = ruleta(mezcla);
+
+        long inicio = System.nanoTime();
+        long finCalentamiento = inicio + calentamiento.toNanos();
+        long fin = finCalentamiento + duracion.toNanos();
+        long siguienteProgreso = inicio + intervaloProgreso.toNanos();
+        boolean midiendo = calentamiento.isZero();
+        if (midiendo) {
+            informe.iniciarMedicion();
+        }
+        salida.printf("Carga abierta a %.1f req/s (%s) durante %s tras %s de calentamiento%n",
+                tasa, poisson ? "Poisson" : "constante", duracion, calentamiento);
+
+        double intervaloMedioNanos = 1e9 / tasa;
+        double programada = inicio;
+        while (true) {
+            long instante = (long) programada;
+            if (instante >= fin) {
+                break;
+            }
+            esperarHasta(instante);
+
+            if (!midiendo && instante >= finCalentamiento) {
+                informe.iniciarMedicion();
+                midiendo = true;
+                salida.println("Fin del calentamiento, inicia la medición");
+            }
+            long ahora = System.nanoTime();
+            if (ahora >= siguienteProgreso) {
+                imprimirProgreso(informe.intervalo(), intervaloProgreso.toNanos() / 1e9);
+                siguienteProgreso = ahora + intervaloProgreso.toNanos();
+            }
+
+            Operacion operacion = ruleta[random.nextInt(ruleta.length)];
+            if (enVuelo.tryAcquire()) {
+                enviar(operacion, construir(operacion, random), instante, midiendo, enVuelo);
+            } else if (midiendo) {
+                informe.registrarDescartada();
+            }
+
+            programada += poisson
+                    ? -Math.log(1.0 - random.nextDouble()) * intervaloMedioNanos
+                    : intervaloMedioNanos;
+        }
+
+        long finVentana = Math.min(fin, System.nanoTime());
+        // Se espera a las peticiones en vuelo para no perder las latencias más altas
+        if (!enVuelo.tryAcquire(maxEnVuelo, timeout.toMillis() + 1_000, TimeUnit.MILLISECONDS)) {
+            salida.printf("Quedaron %d peticiones sin respuesta al terminar%n", maxEnVuelo - enVuelo.availablePermits());
+        }
+        informe.finalizarMedicion(finVentana);
+        return informe;
+    }
+
+    // Solo se registran las peticiones programadas durante la medición: las del calentamiento que
+    // responden después no cuentan
+    private void enviar(Operacion operacion, HttpRequest peticion, long instanteProgramado, boolean medida,
+                        Semaphore enVuelo) {
+        httpClient.sendAsync(peticion, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((respuesta, error) -> {
+                    if (medida) {
+                        long latencia = System.nanoTime() - instanteProgramado;
+                        informe.registrar(operacion, latencia, error == null && respuesta.statusCode() / 100 == 2);
+                    }
+                    enVuelo.release();
+                });
+    }
+
+    HttpRequest construir(Operacion operacion, SplittableRandom random) {
+        switch (operacion) {
+            case MOVIMIENTO: {
+                long cuentaId = random.nextLong(datos.getCuentaDesde(), datos.getCuentaHasta() + 1);
+                // Retiros pequeños para que casi nunca fallen por saldo insuficiente
+                String valor = random.nextInt(100) < 60
+                        ? (10 + random.nextInt(500)) + ".00"
+                        : "-" + (1 + random.nextInt(50)) + ".00";
+                String cuerpo = "{\"numeroCuenta\":\"" + DatosSembrados.numeroCuenta(cuentaId)
+                        + "\",\"valor\":" + valor + "}";
+                return post(cuentaUrl + "/api/movimientos", cuerpo);
+            }
+            case REPORTE: {
+                long clienteId = random.nextLong(datos.getClienteDesde(), datos.getClienteHasta() + 1);
+                long diasSembrados = Math.max(1, datos.getFechaHasta().toEpochDay() - datos.getFechaDesde().toEpochDay());
+                LocalDate fechaInicio = datos.getFechaDesde()
+                        .plusDays(random.nextLong(Math.max(1, diasSembrados - diasReporte + 1)));
+                LocalDate fechaFin = fechaInicio.plusDays(diasReporte);
+                URI uri = URI.create(cuentaUrl + "/api/reportes?clienteId=" + clienteId
+                        + "&fechaInicio=" + fechaInicio + "&fechaFin=" + fechaFin);
+                return HttpRequest.newBuilder(uri).timeout(timeout).GET().build();
+            }
+            case ALTA: {
+                long numero = altas.incrementAndGet();
+                String cuerpo = "{\"nombre\":\"Carga " + prefijoAlta + " " + numero + "\""
+                        + ",\"genero\":\"" + (random.nextBoolean() ? "F" : "M") + "\""
+                        + ",\"edad\":" + (18 + random.nextInt(70))
+                        + ",\"identificacion\":\"" + prefijoAlta + "-" + numero + "\""
+                        + ",\"direccion\":\"Calle " + random.nextInt(1000) + "\""
+                        + ",\"telefono\":\"09" + (10_000_000 + random.nextInt(90_000_000)) + "\""
+                        + ",\"contraseña\":\"" + String.format("%04d", random.nextInt(10_000)) + "\"}";
+                return post(clienteUrl + "/api/clientes", cuerpo);
+            }
+            case CUENTAS:
+                // Listado completo: pensado para bases sembradas pequeñas
+                return HttpRequest.newBuilder(URI.create(cuentaUrl + "/api/cuentas")).timeout(timeout).GET().build();
+            default:
+                throw new IllegalStateException("Operación no soportada: " + operacion);
+        }
+    }
+
+    private HttpRequest post(String url, String cuerpo) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+                .build();
+    }
+
+    private void imprimirProgreso(Map<Operacion, Histogram> intervalo, double segundos) {
+        StringBuilder linea = new StringBuilder();
+        for (Map.Entry<Operacion, Histogram> entrada : intervalo.entrySet()) {
+            Histogram h = entrada.getValue();
+            if (h.getTotalCount() > 0) {
+                linea.append(String.format("  %s %.0f req/s p99 %.1f ms", entrada.getKey().nombre(),
+                        h.getTotalCount() / segundos, h.getValueAtPercentile(99) / 1000.0));
+            }
+        }
+        salida.println(linea.length() > 0 ? linea.substring(2) : "sin respuestas en el intervalo");
+    }
+
+    private static void esperarHasta(long instante) {
+        long restante;
+        while ((restante = instante - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(restante);
+        }
+    }
+
+    // "movimiento:70,reporte:20,alta:10" -> pesos por operación
+    static Map<Operacion, Integer> parsearMezcla(String texto) {
+        Map<Operacion, Integer> pesos = new EnumMap<>(Operacion.class);
+        for (String parte : texto.split(",")) {
+            String[] kv = parte.split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Mezcla no válida: " + texto + " (se espera operacion:peso,...)");
+            }
+            int peso = Integer.parseInt(kv[1].trim());
+            if (peso < 0) {
+                throw new IllegalArgumentException("El peso de " + kv[0] + " no puede ser negativo");
+            }
+            pesos.merge(Operacion.desde(kv[0]), peso, Integer::sum);
+        }
+        if (pesos.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("La mezcla debe tener al menos una operación con peso");
+        }
+        return pesos;
+    }
+
+    // Cada operación aparece tantas veces como su peso: elegir es un solo nextInt
+    private static Operacion[] ruleta(Map<Operacion, Integer> mezcla) {
+        int total = mezcla.values().stream().mapToInt(Integer::intValue).sum();
+        Operacion[] ruleta = new Operacion[total];
+        int i = 0;
+        for (Map.Entry<Operacion, Integer> entrada : mezcla.entrySet()) {
+            for (int n = 0; n < entrada.getValue(); n++) {
+                ruleta[i++] = entrada.getKey();
+            }
+        }
+        return ruleta;
+    }
+
+    // Setters
+    public void setTasa(double tasa) {
+        if (tasa <= 0) {
+            throw new IllegalArgumentException("La tasa debe ser mayor que cero");
+        }
+        this.tasa = tasa;
+    }
+    public void setPoisson(boolean poisson) { this.poisson = poisson; }
+    public void setCalentamiento(Duration calentamiento) { this.calentamiento = calentamiento; }
+    public void setDuracion(Duration duracion) { this.duracion = duracion; }
+    public void setTimeout(Duration timeout) { this.timeout = timeout; }
+    public void setIntervaloProgreso(Duration intervaloProgreso) { this.intervaloProgreso = intervaloProgreso; }
+    public void setMaxEnVuelo(int maxEnVuelo) { this.maxEnVuelo = maxEnVuelo; }
+    public void setDiasReporte(int diasReporte) { this.diasReporte = diasReporte; }
+    public void setMezcla(Map<Operacion, Integer> mezcla) { this.mezcla = mezcla; }
+    public void setSemilla(long semilla) { this.semilla = semilla; }
+    public void setSalida(PrintStream salida) { this.salida = salida; }
+}
@@ -0,0 +1,154 @@
+package com.banking.carga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencias por operación en histogramas HdrHistogram (microsegundos, 3 dígitos significativos).
+// Los hilos del cliente HTTP registran en un Recorder sin bloquearse; el histograma acumulado
+// solo incluye la fase medida (lo registrado durante el calentamiento se descarta).
+public class InformeLatencias {
+
+    private static final long MAXIMO_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Map<Operacion, Recorder> recorders = new EnumMap<>(Operacion.class);
+    private final Map<Operacion, Histogram> acumulados = new EnumMap<>(Operacion.class);
+    private final Map<Operacion, LongAdder> errores = new EnumMap<>(Operacion.class);
+    private final LongAdder descartadas = new LongAdder();
+    private long inicioMedicionNanos;
+    private long finMedicionNanos;
+
+    public InformeLatencias() {
+        for (Operacion operacion : Operacion.values()) {
+            recorders.put(operacion, new Recorder(MAXIMO_MICROS, 3));
+            acumulados.put(operacion, new Histogram(MAXIMO_MICROS, 3));
+            errores.put(operacion, new LongAdder());
+        }
+    }
+
+    public void registrar(Operacion operacion, long latenciaNanos, boolean exito) {
+        recorders.get(operacion).recordValue(Math.min(MAXIMO_MICROS, Math.max(1, latenciaNanos / 1_000)));
+        if (!exito) {
+            errores.get(operacion).increment();
+        }
+    }
+
+    // Peticiones que no se enviaron por haber alcanzado el máximo en vuelo
+    public void registrarDescartada() {
+        descartadas.increment();
+    }
+
+    // Fin del calentamiento: se vacían los recorders y los contadores
+    public void iniciarMedicion() {
+        for (Operacion operacion : Operacion.values()) {
+            recorders.get(operacion).getIntervalHistogram();
+            acumulados.get(operacion).reset();
+            errores.get(operacion).reset();
+        }
+        descartadas.reset();
+        inicioMedicionNanos = System.nanoTime();
+    }
+
+    // finVentanaNanos: cuando se dejó de programar peticiones. El rendimiento se calcula sobre la
+    // ventana de medición, no sobre la espera final a las respuestas pendientes
+    public void finalizarMedicion(long finVentanaNanos) {
+        finMedicionNanos = finVentanaNanos;
+        for (Operacion operacion : Operacion.values()) {
+            acumulados.get(operacion).add(recorders.get(operacion).getIntervalHistogram());
+        }
+    }
+
+    // Intervalo desde la última llamada, para el progreso durante la ejecución
+    public Map<Operacion, Histogram> intervalo() {
+        Map<Operacion, Histogram> intervalo = new EnumMap<>(Operacion.class);
+        for (Operacion operacion : Operacion.values()) {
+            Histogram histograma = recorders.get(operacion).getIntervalHistogram();
+            acumulados.get(operacion).add(histograma);
+            intervalo.put(operacion, histograma);
+        }
+        return intervalo;
+    }
+
+    public Histogram histograma(Operacion operacion) {
+        return acumulados.get(operacion);
+    }
+
+    public long errores(Operacion operacion) {
+        return errores.get(operacion).sum();
+    }
+
+    public long descartadas() {
+        return descartadas.sum();
+    }
+
+    public double segundosMedidos() {
+        return Math.max(1, finMedicionNanos - inicioMedicionNanos) / 1e9;
+    }
+
+    public void imprimir(PrintStream salida) {
+        salida.printf("%-11s %10s %9s %8s %9s %9s %9s %9s %10s %10s%n", "operación", "peticiones", "req/s",
+                "errores", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "p99.99 ms", "max ms");
+        for (Operacion operacion : Operacion.values()) {
+            Histogram h = acumulados.get(operacion);
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            salida.printf("%-11s %,10d %,9.1f %,8d %9.2f %9.2f %9.2f %9.2f %10.2f %10.2f%n",
+                    operacion.nombre(), h.getTotalCount(), h.getTotalCount() / segundosMedidos(), errores(operacion),
+                    ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)), ms(h.getValueAtPercentile(99)),
+                    ms(h.getValueAtPercentile(99.9)), ms(h.getValueAtPercentile(99.99)), ms(h.getMaxValue()));
+        }
+        if (descartadas() > 0) {
+            salida.printf("Peticiones descartadas por máximo en vuelo: %,d%n", descartadas());
+        }
+    }
+
+    // Resumen en JSON y distribución completa de cada operación en formato .hgrm
+    public void exportar(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("segundos", segundosMedidos());
+        resumen.put("descartadas", descartadas());
+        Map<String, Object> operaciones = new LinkedHashMap<>();
+        for (Operacion operacion : Operacion.values()) {
+            Histogram h = acumulados.get(operacion);
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            Map<String, Object> datos = new LinkedHashMap<>();
+            datos.put("peticiones", h.getTotalCount());
+            datos.put("peticionesPorSegundo", h.getTotalCount() / segundosMedidos());
+            datos.put("errores", errores(operacion));
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (double p : PERCENTILES) {
+                percentiles.put("p" + p, ms(h.getValueAtPercentile(p)));
+            }
+            percentiles.put("max", ms(h.getMaxValue()));
+            datos.put("latenciaMs", percentiles);
+            operaciones.put(operacion.nombre(), datos);
+
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(directorio.resolve(operacion.nombre() + ".hgrm")))) {
+                h.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        resumen.put("operaciones", operaciones);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(directorio.resolve("resumen.json").toFile(), resumen);
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,69 @@
+package com.banking.carga;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Opciones de línea de comandos con la forma --clave=valor
+public class Opciones {
+
+    private final Map<String, String> valores = new LinkedHashMap<>();
+
+    public Opciones(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Opción no válida: " + arg + " (se espera --clave=valor)");
+            }
+            int igual = arg.indexOf('=');
+            if (igual < 0) {
+                valores.put(arg.substring(2), "true");
+            } else {
+                valores.put(arg.substring(2, igual), arg.substring(igual + 1));
+            }
+        }
+    }
+
+    public String texto(String clave, String porDefecto) {
+        return valores.getOrDefault(clave, porDefecto);
+    }
+
+    public int entero(String clave, int porDefecto) {
+        String valor = valores.get(clave);
+        return valor != null ? Integer.parseInt(valor.replace("_", "")) : porDefecto;
+    }
+
+    public long largo(String clave, long porDefecto) {
+        String valor = valores.get(clave);
+        return valor != null ? Long.parseLong(valor.replace("_", "")) : porDefecto;
+    }
+
+    public double decimal(String clave, double porDefecto) {
+        String valor = valores.get(clave);
+        return valor != null ? Double.parseDouble(valor) : porDefecto;
+    }
+
+    public boolean booleano(String clave, boolean porDefecto) {
+        String valor = valores.get(clave);
+        return valor != null ? Boolean.parseBoolean(valor) : porDefecto;
+    }
+
+    // Duraciones como 500ms, 30s, 5m o 1h
+    public Duration duracion(String clave, Duration porDefecto) {
+        String valor = valores.get(clave);
+        return valor != null ? parsearDuracion(valor) : porDefecto;
+    }
+
+    static Duration parsearDuracion(String valor) {
+        String v = valor.trim().toLowerCase();
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        long cantidad = Long.parseLong(v.substring(0, v.length() - 1));
+        switch (v.charAt(v.length() - 1)) {
+            case 's': return Duration.ofSeconds(cantidad);
+            case 'm': return Duration.ofMinutes(cantidad);
+            case 'h': return Duration.ofHours(cantidad);
+            default: throw new IllegalArgumentException("Duración no válida: " + valor);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.banking.carga;
+
+// Operaciones de la mezcla de carga (--mezcla=movimiento:70,reporte:20,alta:10)
+public enum Operacion {
+
+    MOVIMIENTO("movimiento"),   // POST /api/movimientos
+    REPORTE("reporte"),         // GET /api/reportes
+    ALTA("alta"),               // POST /api/clientes
+    CUENTAS("cuentas");         // GET /api/cuentas
+
+    private final String nombre;
+
+    Operacion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String nombre() {
+        return nombre;
+    }
+
+    public static Operacion desde(String nombre) {
+        for (Operacion operacion : values()) {
+            if (operacion.nombre.equalsIgnoreCase(nombre.trim())) {
+                return operacion;
+            }
+        }
+        throw new IllegalArgumentException("Operación no válida: " + nombre + " (movimiento, reporte, alta o cuentas)");
+    }
+}
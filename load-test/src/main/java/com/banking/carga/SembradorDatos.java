@@ -0,0 +1,404 @@
+package com.banking.carga;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Carga masiva de clientes, cuentas y movimientos directamente en cliente_db y cuenta_db, sin
+// pasar por la API. Cada hilo genera un tramo de clientes con su propio par de conexiones e
+// inserta por lotes JDBC (con rewriteBatchedStatements MySQL los envía como INSERT multi-fila)
+// confirmando cada lote. Los datos quedan coherentes con lo que mantienen los servicios:
+// cliente_info replica a clientes, saldo_actual es el saldo del último movimiento y saldo_diario
+// tiene el cierre de cada día con movimientos. Al terminar se ajustan las secuencias e
+// identidades para que los servicios sigan numerando a continuación.
+public class SembradorDatos {
+
+    // Debe coincidir con Movimiento.ASIGNACION_IDS de cuenta-service (allocationSize de la secuencia)
+    static final int ASIGNACION_IDS_MOVIMIENTOS = 50;
+    static final String SECUENCIA_CLIENTES = "clientes";
+
+    enum Dialecto { MYSQL, H2 }
+
+    private final String urlCliente;
+    private final String urlCuenta;
+    private final String usuario;
+    private final String contrasena;
+
+    private long clientes = 1_000_000;
+    private int cuentasPorCliente = 2;
+    private int movimientosPorCuenta = 10;
+    private int dias = 365;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+    private int lote = 500;
+    private long semilla = 42;
+
+    private final AtomicLong clientesInsertados = new AtomicLong();
+
+    public SembradorDatos(String urlCliente, String urlCuenta, String usuario, String contrasena) {
+        this.urlCliente = urlCliente;
+        this.urlCuenta = urlCuenta;
+        this.usuario = usuario;
+        this.contrasena = contrasena;
+    }
+
+    public DatosSembrados sembrar() throws Exception {
+        long inicio = System.nanoTime();
+        long personaBase;
+        long clienteBase;
+        long cuentaBase;
+        long movimientoBase;
+        long saldoDiarioBase;
+        try (Connection cliente = conectar(urlCliente); Connection cuenta = conectar(urlCuenta)) {
+            aplicarEsquema(cliente, "esquema/cliente_db.sql");
+            aplicarEsquema(cuenta, "esquema/cuenta_db.sql");
+            personaBase = maximo(cliente, "SELECT MAX(persona_id) FROM personas");
+            clienteBase = Math.max(maximo(cliente, "SELECT MAX(cliente_id) FROM clientes"),
+                    maximo(cuenta, "SELECT MAX(cliente_id) FROM cliente_info"));
+            cuentaBase = maximo(cuenta, "SELECT MAX(cuenta_id) FROM cuentas");
+            movimientoBase = maximo(cuenta, "SELECT MAX(movimiento_id) FROM movimientos");
+            saldoDiarioBase = maximo(cuenta, "SELECT MAX(saldo_diario_id) FROM saldo_diario");
+        }
+
+        LocalDate hoy = LocalDate.now();
+        LocalDate fechaDesde = hoy.minusDays(dias);
+        Generacion generacion = new Generacion(personaBase, clienteBase, cuentaBase, movimientoBase, saldoDiarioBase,
+                fechaDesde.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                System.currentTimeMillis());
+
+        int tramos = (int) Math.max(1, Math.min(hilos, clientes));
+        long porTramo = (clientes + tramos - 1) / tramos;
+        ExecutorService executor = Executors.newFixedThreadPool(tramos);
+        try {
+            List<Future<?>> futuros = new ArrayList<>();
+            for (int t = 0; t < tramos; t++) {
+                long desde = t * porTramo;
+                long hasta = Math.min(clientes, desde + porTramo);
+                if (desde < hasta) {
+                    futuros.add(executor.submit(() -> {
+                        sembrarTramo(generacion, desde, hasta);
+                        return null;
+                    }));
+                }
+            }
+            esperar(futuros, inicio);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (Connection cliente = conectar(urlCliente); Connection cuenta = conectar(urlCuenta)) {
+            ajustarSecuencias(cliente, cuenta, generacion);
+        }
+
+        long cuentas = clientes * cuentasPorCliente;
+        long milisegundos = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+        System.out.printf("Sembrados %,d clientes, %,d cuentas y %,d movimientos en %,d ms (%,.0f filas/s)%n",
+                clientes, cuentas, cuentas * movimientosPorCuenta, milisegundos,
+                (clientes * 3 + cuentas * (1 + movimientosPorCuenta)) * 1000.0 / milisegundos);
+        return new DatosSembrados(clienteBase + 1, clienteBase + clientes, cuentaBase + 1, cuentaBase + cuentas,
+                cuentasPorCliente, fechaDesde, hoy);
+    }
+
+    private void esperar(List<Future<?>> futuros, long inicio) throws Exception {
+        for (Future<?> futuro : futuros) {
+            while (true) {
+                try {
+                    futuro.get(5, java.util.concurrent.TimeUnit.SECONDS);
+                    break;
+                } catch (java.util.concurrent.TimeoutException e) {
+                    long segundos = Math.max(1, (System.nanoTime() - inicio) / 1_000_000_000);
+                    System.out.printf("  %,d / %,d clientes (%,d clientes/s)%n",
+                            clientesInsertados.get(), clientes, clientesInsertados.get() / segundos);
+                }
+            }
+        }
+    }
+
+    // Clientes [desde, hasta) en índices relativos a la generación
+    private void sembrarTramo(Generacion g, long desde, long hasta) throws SQLException {
+        try (Connection cliente = conectar(urlCliente); Connection cuenta = conectar(urlCuenta)) {
+            prepararSesion(cliente);
+            prepararSesion(cuenta);
+            try (PreparedStatement personas = cliente.prepareStatement(
+                         "INSERT INTO personas (persona_id, nombre, genero, edad, identificacion, direccion, telefono, version)"
+                                 + " VALUES (?, ?, ?, ?, ?, ?, ?, 0)");
+                 PreparedStatement clientesPs = cliente.prepareStatement(
+                         "INSERT INTO clientes (persona_id, cliente_id, contraseña, estado) VALUES (?, ?, ?, ?)");
+                 PreparedStatement clienteInfo = cuenta.prepareStatement(
+                         "INSERT INTO cliente_info (cliente_id, nombre, identificacion, estado, fecha_sincronizacion, version)"
+                                 + " VALUES (?, ?, ?, ?, ?, 0)");
+                 PreparedStatement cuentas = cuenta.prepareStatement(
+                         "INSERT INTO cuentas (cuenta_id, numero_cuenta, tipo_cuenta, saldo_inicial, saldo_actual, estado, cliente_id, version)"
+                                 + " VALUES (?, ?, ?, ?, ?, TRUE, ?, 0)");
+                 PreparedStatement movimientos = cuenta.prepareStatement(
+                         "INSERT INTO movimientos (movimiento_id, fecha, tipo_movimiento, valor, saldo, cuenta_id)"
+                                 + " VALUES (?, ?, ?, ?, ?, ?)");
+                 PreparedStatement saldosDiarios = cuenta.prepareStatement(
+                         "INSERT INTO saldo_diario (saldo_diario_id, cuenta_id, fecha, saldo) VALUES (?, ?, ?, ?)")) {
+
+                Timestamp sincronizacion = new Timestamp(g.hastaMs);
+                int enLote = 0;
+                for (long i = desde; i < hasta; i++) {
+                    SplittableRandom random = new SplittableRandom(semilla * 1_000_003L + i);
+                    long personaId = g.personaBase + 1 + i;
+                    long clienteId = g.clienteBase + 1 + i;
+                    boolean activo = random.nextInt(50) != 0;
+                    String nombre = "Cliente " + clienteId;
+                    String identificacion = "L" + clienteId;
+
+                    personas.setLong(1, personaId);
+                    personas.setString(2, nombre);
+                    personas.setString(3, random.nextBoolean() ? "F" : "M");
+                    personas.setInt(4, 18 + random.nextInt(70));
+                    personas.setString(5, identificacion);
+                    personas.setString(6, "Calle " + random.nextInt(1000) + " y Av. " + random.nextInt(100));
+                    personas.setString(7, "09" + (10_000_000 + random.nextInt(90_000_000)));
+                    personas.addBatch();
+
+                    clientesPs.setLong(1, personaId);
+                    clientesPs.setLong(2, clienteId);
+                    clientesPs.setString(3, String.format("%04d", random.nextInt(10_000)));
+                    clientesPs.setBoolean(4, activo);
+                    clientesPs.addBatch();
+
+                    clienteInfo.setLong(1, clienteId);
+                    clienteInfo.setString(2, nombre);
+                    clienteInfo.setString(3, identificacion);
+                    clienteInfo.setBoolean(4, activo);
+                    clienteInfo.setTimestamp(5, sincronizacion);
+                    clienteInfo.addBatch();
+
+                    for (int c = 0; c < cuentasPorCliente; c++) {
+                        long indiceCuenta = i * cuentasPorCliente + c;
+                        long cuentaId = g.cuentaBase + 1 + indiceCuenta;
+                        BigDecimal saldoInicial = BigDecimal.valueOf(10_000 + random.nextInt(490_000), 2);
+                        BigDecimal saldo = sembrarMovimientos(g, random, cuentaId, indiceCuenta, saldoInicial,
+                                movimientos, saldosDiarios);
+
+                        cuentas.setLong(1, cuentaId);
+                        cuentas.setString(2, DatosSembrados.numeroCuenta(cuentaId));
+                        cuentas.setString(3, c % 2 == 0 ? "Ahorro" : "Corriente");
+                        cuentas.setBigDecimal(4, saldoInicial);
+                        cuentas.setBigDecimal(5, saldo);
+                        cuentas.setLong(6, clienteId);
+                        cuentas.addBatch();
+                    }
+
+                    if (++enLote == lote || i == hasta - 1) {
+                        // Orden de las claves foráneas: personas antes que clientes, cuentas antes
+                        // que movimientos y saldos diarios
+                        personas.executeBatch();
+                        clientesPs.executeBatch();
+                        cliente.commit();
+                        clienteInfo.executeBatch();
+                        cuentas.executeBatch();
+                        movimientos.executeBatch();
+                        saldosDiarios.executeBatch();
+                        cuenta.commit();
+                        clientesInsertados.addAndGet(enLote);
+                        enLote = 0;
+                    }
+                }
+            }
+        }
+    }
+
+    // Movimientos ordenados en el tiempo sobre el rango de días, sin dejar el saldo en negativo;
+    // añade el cierre de cada día al lote de saldo_diario y devuelve el saldo final
+    private BigDecimal sembrarMovimientos(Generacion g, SplittableRandom random, long cuentaId, long indiceCuenta,
+                                          BigDecimal saldoInicial, PreparedStatement movimientos,
+                                          PreparedStatement saldosDiarios) throws SQLException {
+        long[] instantes = new long[movimientosPorCuenta];
+        for (int m = 0; m < movimientosPorCuenta; m++) {
+            instantes[m] = random.nextLong(g.desdeMs, g.hastaMs);
+        }
+        Arrays.sort(instantes);
+
+        BigDecimal saldo = saldoInicial;
+        LocalDate diaActual = null;
+        // Como mucho un cierre por movimiento: ids fijos por cuenta, con huecos
+        long saldoDiarioId = g.saldoDiarioBase + 1 + indiceCuenta * movimientosPorCuenta;
+        for (int m = 0; m < movimientosPorCuenta; m++) {
+            LocalDate dia = LocalDateTime.ofInstant(java.time.Instant.ofEpochMilli(instantes[m]),
+                    ZoneId.systemDefault()).toLocalDate();
+            if (diaActual != null && !dia.equals(diaActual)) {
+                agregarSaldoDiario(saldosDiarios, saldoDiarioId++, cuentaId, diaActual, saldo);
+            }
+            diaActual = dia;
+
+            BigDecimal valor;
+            BigDecimal retiro = BigDecimal.valueOf(1_000 + random.nextInt(29_000), 2);
+            if (random.nextInt(100) < 45 && saldo.compareTo(retiro) >= 0) {
+                valor = retiro.negate();
+            } else {
+                valor = BigDecimal.valueOf(1_000 + random.nextInt(49_000), 2);
+            }
+            saldo = saldo.add(valor);
+
+            movimientos.setLong(1, g.movimientoBase + 1 + indiceCuenta * movimientosPorCuenta + m);
+            movimientos.setTimestamp(2, new Timestamp(instantes[m]));
+            movimientos.setString(3, valor.signum() > 0 ? "Depósito" : "Retiro");
+            movimientos.setBigDecimal(4, valor);
+            movimientos.setBigDecimal(5, saldo);
+            movimientos.setLong(6, cuentaId);
+            movimientos.addBatch();
+        }
+        if (diaActual != null) {
+            agregarSaldoDiario(saldosDiarios, saldoDiarioId, cuentaId, diaActual, saldo);
+        }
+        return saldo;
+    }
+
+    private void agregarSaldoDiario(PreparedStatement saldosDiarios, long saldoDiarioId, long cuentaId, LocalDate dia,
+                                    BigDecimal saldo) throws SQLException {
+        saldosDiarios.setLong(1, saldoDiarioId);
+        saldosDiarios.setLong(2, cuentaId);
+        saldosDiarios.setDate(3, java.sql.Date.valueOf(dia));
+        saldosDiarios.setBigDecimal(4, saldo);
+        saldosDiarios.addBatch();
+    }
+
+    private void ajustarSecuencias(Connection cliente, Connection cuenta, Generacion g) throws SQLException {
+        long ultimaPersona = g.personaBase + clientes;
+        long ultimoCliente = g.clienteBase + clientes;
+        long ultimaCuenta = g.cuentaBase + clientes * cuentasPorCliente;
+        long ultimoMovimiento = g.movimientoBase + clientes * cuentasPorCliente * movimientosPorCuenta;
+        // Con el optimizador pooled de Hibernate el valor leído es el techo del bloque: se deja
+        // un bloque completo por encima del último id generado
+        long siguienteSecuencia = ultimoMovimiento + ASIGNACION_IDS_MOVIMIENTOS + 1;
+
+        try (Statement st = cliente.createStatement()) {
+            if (st.executeUpdate("UPDATE cliente_id_bloque SET siguiente_valor = " + (ultimoCliente + 1)
+                    + " WHERE nombre = '" + SECUENCIA_CLIENTES + "' AND siguiente_valor <= " + ultimoCliente) == 0
+                    && maximo(cliente, "SELECT COUNT(*) FROM cliente_id_bloque WHERE nombre = '" + SECUENCIA_CLIENTES + "'") == 0) {
+                st.executeUpdate("INSERT INTO cliente_id_bloque (nombre, siguiente_valor) VALUES ('"
+                        + SECUENCIA_CLIENTES + "', " + (ultimoCliente + 1) + ")");
+            }
+            if (dialecto(cliente) == Dialecto.H2) {
+                st.execute("ALTER TABLE personas ALTER COLUMN persona_id RESTART WITH " + (ultimaPersona + 1));
+            }
+        }
+        cliente.commit();
+
+        try (Statement st = cuenta.createStatement()) {
+            if (dialecto(cuenta) == Dialecto.H2) {
+                st.execute("ALTER TABLE cuentas ALTER COLUMN cuenta_id RESTART WITH " + (ultimaCuenta + 1));
+                st.execute("ALTER TABLE saldo_diario ALTER COLUMN saldo_diario_id RESTART WITH "
+                        + (maximo(cuenta, "SELECT MAX(saldo_diario_id) FROM saldo_diario") + 1));
+                if (maximo(cuenta, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SEQUENCES"
+                        + " WHERE UPPER(SEQUENCE_NAME) = 'MOVIMIENTOS_SEQ'") > 0) {
+                    st.execute("ALTER SEQUENCE movimientos_seq RESTART WITH " + siguienteSecuencia);
+                } else {
+                    st.execute("CREATE SEQUENCE movimientos_seq START WITH " + siguienteSecuencia
+                            + " INCREMENT BY " + ASIGNACION_IDS_MOVIMIENTOS);
+                }
+            } else {
+                // MySQL no tiene secuencias: Hibernate usa la tabla movimientos_seq
+                st.execute("CREATE TABLE IF NOT EXISTS movimientos_seq (next_val BIGINT)");
+                st.executeUpdate("DELETE FROM movimientos_seq");
+                st.executeUpdate("INSERT INTO movimientos_seq VALUES (" + siguienteSecuencia + ")");
+            }
+        }
+        cuenta.commit();
+    }
+
+    private Connection conectar(String url) throws SQLException {
+        Connection conexion = DriverManager.getConnection(url, usuario, contrasena);
+        conexion.setAutoCommit(false);
+        return conexion;
+    }
+
+    // En MySQL se omiten las comprobaciones de unicidad y claves foráneas durante la carga:
+    // los ids generados ya son únicos y las filas se insertan en orden de dependencias
+    private void prepararSesion(Connection conexion) throws SQLException {
+        if (dialecto(conexion) == Dialecto.MYSQL) {
+            try (Statement st = conexion.createStatement()) {
+                st.execute("SET unique_checks = 0");
+                st.execute("SET foreign_key_checks = 0");
+            }
+        }
+    }
+
+    static Dialecto dialecto(Connection conexion) throws SQLException {
+        return conexion.getMetaData().getDatabaseProductName().toUpperCase().contains("H2") ? Dialecto.H2 : Dialecto.MYSQL;
+    }
+
+    static void aplicarEsquema(Connection conexion, String recurso) throws IOException, SQLException {
+        String sql;
+        try (InputStream in = SembradorDatos.class.getClassLoader().getResourceAsStream(recurso)) {
+            if (in == null) {
+                throw new IllegalStateException("No se encontró el recurso " + recurso);
+            }
+            sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        StringBuilder sinComentarios = new StringBuilder();
+        for (String linea : sql.split("\n")) {
+            if (!linea.trim().startsWith("--")) {
+                sinComentarios.append(linea).append('\n');
+            }
+        }
+        try (Statement st = conexion.createStatement()) {
+            for (String sentencia : sinComentarios.toString().split(";")) {
+                if (!sentencia.isBlank()) {
+                    st.execute(sentencia);
+                }
+            }
+        }
+        conexion.commit();
+    }
+
+    private static long maximo(Connection conexion, String sql) throws SQLException {
+        try (Statement st = conexion.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    // Ids ya existentes sobre los que se genera y rango temporal de los movimientos
+    private static final class Generacion {
+        final long personaBase;
+        final long clienteBase;
+        final long cuentaBase;
+        final long movimientoBase;
+        final long saldoDiarioBase;
+        final long desdeMs;
+        final long hastaMs;
+
+        Generacion(long personaBase, long clienteBase, long cuentaBase, long movimientoBase, long saldoDiarioBase,
+                   long desdeMs, long hastaMs) {
+            this.personaBase = personaBase;
+            this.clienteBase = clienteBase;
+            this.cuentaBase = cuentaBase;
+            this.movimientoBase = movimientoBase;
+            this.saldoDiarioBase = saldoDiarioBase;
+            this.desdeMs = desdeMs;
+            this.hastaMs = hastaMs;
+        }
+    }
+
+    // Setters
+    public void setClientes(long clientes) { this.clientes = clientes; }
+    public void setCuentasPorCliente(int cuentasPorCliente) { this.cuentasPorCliente = cuentasPorCliente; }
+    public void setMovimientosPorCuenta(int movimientosPorCuenta) { this.movimientosPorCuenta = movimientosPorCuenta; }
+    public void setDias(int dias) { this.dias = dias; }
+    public void setHilos(int hilos) { this.hilos = hilos; }
+    public void setLote(int lote) { this.lote = lote; }
+    public void setSemilla(long semilla) { this.semilla = semilla; }
+}
@@ -0,0 +1,33 @@
+-- Esquema de cliente_db tal como lo mapean las entidades de cliente-service (mismo contenido que
+-- scripts/init.sql más las columnas de versión). Se aplica solo si las tablas no existen.
+CREATE TABLE IF NOT EXISTS personas (
+    persona_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    genero VARCHAR(1) NOT NULL,
+    edad INT NOT NULL,
+    identificacion VARCHAR(20) NOT NULL UNIQUE,
+    direccion VARCHAR(200),
+    telefono VARCHAR(15),
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS clientes (
+    persona_id BIGINT PRIMARY KEY,
+    cliente_id BIGINT NOT NULL UNIQUE,
+    contraseña VARCHAR(100) NOT NULL,
+    estado BOOLEAN NOT NULL DEFAULT TRUE,
+    FOREIGN KEY (persona_id) REFERENCES personas(persona_id)
+);
+
+CREATE TABLE IF NOT EXISTS evento_outbox (
+    evento_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    routing_key VARCHAR(100) NOT NULL,
+    tipo_evento VARCHAR(200) NOT NULL,
+    payload LONGTEXT NOT NULL,
+    fecha_creacion TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS cliente_id_bloque (
+    nombre VARCHAR(50) PRIMARY KEY,
+    siguiente_valor BIGINT NOT NULL
+);
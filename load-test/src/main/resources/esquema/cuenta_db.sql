@@ -0,0 +1,44 @@
+-- Esquema de cuenta_db tal como lo mapean las entidades de cuenta-service (mismo contenido que
+-- scripts/init.sql más las columnas de versión). La secuencia movimientos_seq depende de la base
+-- de datos y la crea SembradorDatos. Se aplica solo si las tablas no existen.
+CREATE TABLE IF NOT EXISTS cuentas (
+    cuenta_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    numero_cuenta VARCHAR(20) NOT NULL UNIQUE,
+    tipo_cuenta VARCHAR(20) NOT NULL,
+    saldo_inicial DECIMAL(18,2) NOT NULL,
+    saldo_actual DECIMAL(18,2),
+    estado BOOLEAN NOT NULL DEFAULT TRUE,
+    cliente_id BIGINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_cuentas_cliente (cliente_id)
+);
+
+CREATE TABLE IF NOT EXISTS movimientos (
+    movimiento_id BIGINT PRIMARY KEY,
+    fecha TIMESTAMP NOT NULL,
+    tipo_movimiento VARCHAR(20) NOT NULL,
+    valor DECIMAL(18,2) NOT NULL,
+    saldo DECIMAL(18,2) NOT NULL,
+    cuenta_id BIGINT NOT NULL,
+    FOREIGN KEY (cuenta_id) REFERENCES cuentas(cuenta_id),
+    INDEX idx_movimientos_fecha (fecha),
+    INDEX idx_movimientos_cuenta_fecha (cuenta_id, fecha, movimiento_id)
+);
+
+CREATE TABLE IF NOT EXISTS saldo_diario (
+    saldo_diario_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    cuenta_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    saldo DECIMAL(18,2) NOT NULL,
+    CONSTRAINT uk_saldo_diario_cuenta_fecha UNIQUE (cuenta_id, fecha),
+    FOREIGN KEY (cuenta_id) REFERENCES cuentas(cuenta_id)
+);
+
+CREATE TABLE IF NOT EXISTS cliente_info (
+    cliente_id BIGINT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    identificacion VARCHAR(20) NOT NULL,
+    estado BOOLEAN NOT NULL DEFAULT TRUE,
+    fecha_sincronizacion TIMESTAMP,
+    version BIGINT
+);
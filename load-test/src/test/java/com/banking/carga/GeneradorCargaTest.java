@@ -0,0 +1,142 @@
+package com.banking.carga;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Los servicios se simulan con un HttpServer del JDK que responde tras un retraso configurable
+class GeneradorCargaTest {
+
+    private HttpServer servidor;
+    private final Map<String, AtomicLong> peticiones = new ConcurrentHashMap<>();
+    private final Set<String> identificaciones = ConcurrentHashMap.newKeySet();
+    private volatile long retrasoMs;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        // Un solo hilo: cuando el servidor se retrasa las peticiones se encolan
+        servidor.setExecutor(Executors.newSingleThreadExecutor());
+        servidor.createContext("/api/", this::responder);
+        servidor.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidor.stop(0);
+    }
+
+    @Test
+    void ejecutar_EnviaLaMezclaALaTasaConfigurada() throws Exception {
+        GeneradorCarga generador = generador("movimiento:2,reporte:1,alta:1");
+        generador.setTasa(200);
+        generador.setCalentamiento(Duration.ofMillis(500));
+        generador.setDuracion(Duration.ofSeconds(2));
+
+        InformeLatencias informe = generador.ejecutar();
+
+        long movimientos = informe.histograma(Operacion.MOVIMIENTO).getTotalCount();
+        long reportes = informe.histograma(Operacion.REPORTE).getTotalCount();
+        long altas = informe.histograma(Operacion.ALTA).getTotalCount();
+        long total = movimientos + reportes + altas;
+        // 200 req/s durante 2 s medidos, con margen por las llegadas de Poisson
+        assertTrue(total > 300 && total < 500, "peticiones medidas: " + total);
+        assertTrue(movimientos > reportes && movimientos > altas);
+        assertEquals(0, informe.errores(Operacion.MOVIMIENTO) + informe.errores(Operacion.REPORTE)
+                + informe.errores(Operacion.ALTA));
+        // Lo enviado en el calentamiento no entra en el informe
+        long enviadas = peticiones.values().stream().mapToLong(AtomicLong::get).sum();
+        assertTrue(enviadas > total);
+        // Cada alta lleva una identificación distinta
+        assertEquals(peticiones.get("/api/clientes").get(), identificaciones.size());
+    }
+
+    @Test
+    void ejecutar_ServidorLento_LaLatenciaIncluyeLaEsperaEnCola() throws Exception {
+        // El servidor atiende 1 petición cada 20 ms (50 req/s) y recibe 100 req/s: la cola crece y
+        // la latencia medida desde el instante programado tiene que crecer con ella
+        retrasoMs = 20;
+        GeneradorCarga generador = generador("reporte:1");
+        generador.setTasa(100);
+        generador.setPoisson(false);
+        generador.setCalentamiento(Duration.ZERO);
+        generador.setDuracion(Duration.ofSeconds(2));
+
+        InformeLatencias informe = generador.ejecutar();
+
+        long p99Ms = informe.histograma(Operacion.REPORTE).getValueAtPercentile(99) / 1000;
+        assertTrue(p99Ms > 500, "p99 " + p99Ms + " ms");
+    }
+
+    @Test
+    void ejecutar_MaximoEnVuelo_DescartaLoQueNoCabe() throws Exception {
+        retrasoMs = 200;
+        GeneradorCarga generador = generador("movimiento:1");
+        generador.setTasa(200);
+        generador.setCalentamiento(Duration.ZERO);
+        generador.setDuracion(Duration.ofSeconds(1));
+        generador.setMaxEnVuelo(5);
+        generador.setTimeout(Duration.ofSeconds(5));
+
+        InformeLatencias informe = generador.ejecutar();
+
+        assertTrue(informe.descartadas() > 100, "descartadas: " + informe.descartadas());
+        assertTrue(informe.histograma(Operacion.MOVIMIENTO).getTotalCount() <= 200 - informe.descartadas());
+    }
+
+    @Test
+    void parsearMezcla_ValidaOperacionesYPesos() {
+        assertEquals(Map.of(Operacion.MOVIMIENTO, 70, Operacion.REPORTE, 30),
+                GeneradorCarga.parsearMezcla("movimiento:70, reporte:30"));
+        assertEquals(Map.of(Operacion.MOVIMIENTO, 50, Operacion.CUENTAS, 50),
+                GeneradorCarga.parsearMezcla("movimiento:50,cuentas:50"));
+        assertThrows(IllegalArgumentException.class, () -> GeneradorCarga.parsearMezcla("transferencia:10"));
+        assertThrows(IllegalArgumentException.class, () -> GeneradorCarga.parsearMezcla("movimiento"));
+        assertThrows(IllegalArgumentException.class, () -> GeneradorCarga.parsearMezcla("movimiento:0"));
+    }
+
+    private GeneradorCarga generador(String mezcla) {
+        String url = "http://localhost:" + servidor.getAddress().getPort();
+        DatosSembrados datos = new DatosSembrados(1, 1_000, 1, 2_000, 2,
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31));
+        GeneradorCarga generador = new GeneradorCarga(datos, url, url);
+        generador.setMezcla(GeneradorCarga.parsearMezcla(mezcla));
+        generador.setSemilla(7);
+        generador.setSalida(new PrintStream(new ByteArrayOutputStream()));
+        return generador;
+    }
+
+    private void responder(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        peticiones.computeIfAbsent(path, p -> new AtomicLong()).incrementAndGet();
+        byte[] cuerpo = exchange.getRequestBody().readAllBytes();
+        if (path.equals("/api/clientes")) {
+            String json = new String(cuerpo, java.nio.charset.StandardCharsets.UTF_8);
+            int inicio = json.indexOf("\"identificacion\":\"") + 18;
+            identificaciones.add(json.substring(inicio, json.indexOf('"', inicio)));
+        }
+        try {
+            Thread.sleep(retrasoMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.sendResponseHeaders(path.equals("/api/reportes") ? 200 : 201, -1);
+        exchange.close();
+    }
+}
@@ -0,0 +1,135 @@
+package com.banking.carga;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Siembra un volumen pequeño en H2 en modo MySQL y comprueba que los datos son coherentes con
+// lo que mantienen los servicios
+class SembradorDatosTest {
+
+    private static final String CLIENTE_DB = "jdbc:h2:mem:sembrador_cliente;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String CUENTA_DB = "jdbc:h2:mem:sembrador_cuenta;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    private Connection cliente;
+    private Connection cuenta;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        cliente = DriverManager.getConnection(CLIENTE_DB, "sa", "");
+        cuenta = DriverManager.getConnection(CUENTA_DB, "sa", "");
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement st = cliente.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        try (Statement st = cuenta.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        cliente.close();
+        cuenta.close();
+    }
+
+    @Test
+    void sembrar_GeneraClientesCuentasYMovimientosCoherentes() throws Exception {
+        DatosSembrados datos = sembrador(1_000).sembrar();
+
+        assertEquals(1, datos.getClienteDesde());
+        assertEquals(1_000, datos.getClienteHasta());
+        assertEquals(2_000, datos.getCuentaHasta());
+        assertEquals(1_000, contar(cliente, "SELECT COUNT(*) FROM personas"));
+        assertEquals(1_000, contar(cliente, "SELECT COUNT(*) FROM clientes"));
+        assertEquals(1_000, contar(cuenta, "SELECT COUNT(*) FROM cliente_info"));
+        assertEquals(2_000, contar(cuenta, "SELECT COUNT(*) FROM cuentas"));
+        assertEquals(10_000, contar(cuenta, "SELECT COUNT(*) FROM movimientos"));
+
+        // El saldo de la cuenta es el del último movimiento y el último cierre diario
+        assertEquals(0, contar(cuenta, "SELECT COUNT(*) FROM cuentas c WHERE c.saldo_actual <> ("
+                + "SELECT m.saldo FROM movimientos m WHERE m.cuenta_id = c.cuenta_id ORDER BY m.fecha DESC, m.movimiento_id DESC LIMIT 1)"));
+        assertEquals(0, contar(cuenta, "SELECT COUNT(*) FROM cuentas c WHERE c.saldo_actual <> ("
+                + "SELECT s.saldo FROM saldo_diario s WHERE s.cuenta_id = c.cuenta_id ORDER BY s.fecha DESC LIMIT 1)"));
+        // saldo_inicial + suma de valores = saldo_actual, y nunca queda en negativo
+        assertEquals(0, contar(cuenta, "SELECT COUNT(*) FROM cuentas c WHERE c.saldo_inicial + ("
+                + "SELECT SUM(m.valor) FROM movimientos m WHERE m.cuenta_id = c.cuenta_id) <> c.saldo_actual"));
+        assertEquals(0, contar(cuenta, "SELECT COUNT(*) FROM movimientos WHERE saldo < 0"));
+        assertEquals(0, contar(cuenta, "SELECT COUNT(*) FROM movimientos WHERE (valor > 0 AND tipo_movimiento <> 'Depósito')"
+                + " OR (valor < 0 AND tipo_movimiento <> 'Retiro')"));
+        assertEquals(DatosSembrados.numeroCuenta(1), texto(cuenta, "SELECT numero_cuenta FROM cuentas WHERE cuenta_id = 1"));
+    }
+
+    @Test
+    void sembrar_DosVeces_ContinuaLosIdsYAjustaLasSecuencias() throws Exception {
+        sembrador(200).sembrar();
+        DatosSembrados segunda = sembrador(100).sembrar();
+
+        assertEquals(201, segunda.getClienteDesde());
+        assertEquals(401, segunda.getCuentaDesde());
+        assertEquals(300, contar(cliente, "SELECT COUNT(*) FROM clientes"));
+        assertEquals(3_000, contar(cuenta, "SELECT COUNT(*) FROM movimientos"));
+
+        // Lo que inserten los servicios después va a continuación de lo sembrado
+        assertEquals(301, contar(cliente, "SELECT siguiente_valor FROM cliente_id_bloque WHERE nombre = 'clientes'"));
+        try (Statement st = cuenta.createStatement()) {
+            st.executeUpdate("INSERT INTO cuentas (numero_cuenta, tipo_cuenta, saldo_inicial, saldo_actual, estado, cliente_id)"
+                    + " VALUES ('X', 'Ahorro', 0, 0, TRUE, 1)");
+        }
+        assertEquals(601, contar(cuenta, "SELECT cuenta_id FROM cuentas WHERE numero_cuenta = 'X'"));
+        long siguienteMovimiento = contar(cuenta, "SELECT NEXT VALUE FOR movimientos_seq");
+        assertTrue(siguienteMovimiento - SembradorDatos.ASIGNACION_IDS_MOVIMIENTOS > 3_000);
+    }
+
+    @Test
+    void sembrar_MismaSemilla_GeneraLosMismosDatos() throws Exception {
+        sembrador(50).sembrar();
+        BigDecimal primera = decimal(cuenta, "SELECT SUM(saldo_actual) FROM cuentas");
+        tearDown();
+        setUp();
+
+        sembrador(50).sembrar();
+
+        assertEquals(primera, decimal(cuenta, "SELECT SUM(saldo_actual) FROM cuentas"));
+    }
+
+    private SembradorDatos sembrador(long clientes) {
+        SembradorDatos sembrador = new SembradorDatos(CLIENTE_DB, CUENTA_DB, "sa", "");
+        sembrador.setClientes(clientes);
+        sembrador.setCuentasPorCliente(2);
+        sembrador.setMovimientosPorCuenta(5);
+        sembrador.setDias(90);
+        sembrador.setHilos(3);
+        sembrador.setLote(64);
+        return sembrador;
+    }
+
+    private static long contar(Connection conexion, String sql) throws SQLException {
+        try (Statement st = conexion.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+
+    private static String texto(Connection conexion, String sql) throws SQLException {
+        try (Statement st = conexion.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+
+    private static BigDecimal decimal(Connection conexion, String sql) throws SQLException {
+        try (Statement st = conexion.createStatement(); ResultSet rs = st.executeQuery(sql)) {
+            assertTrue(rs.next());
+            return rs.getBigDecimal(1);
+        }
+    }
+}
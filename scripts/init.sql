@@ -10,7 +10,8 @@ CREATE TABLE personas (
     edad INT NOT NULL,
     identificacion VARCHAR(20) NOT NULL UNIQUE,
     direccion VARCHAR(200),
-    telefono VARCHAR(15)
+    telefono VARCHAR(15),
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 -- Tabla clientes (hereda de personas)
@@ -22,6 +23,21 @@ CREATE TABLE clientes (
     FOREIGN KEY (persona_id) REFERENCES personas(persona_id)
 );
 
+-- Outbox de eventos de clientes: se escribe con el alta y OutboxRelay lo drena hacia RabbitMQ
+CREATE TABLE evento_outbox (
+    evento_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    routing_key VARCHAR(100) NOT NULL,
+    tipo_evento VARCHAR(200) NOT NULL,
+    payload LONGTEXT NOT NULL,
+    fecha_creacion TIMESTAMP(6) NOT NULL
+);
+
+-- Secuencia hi-lo de clienteIds: cada instancia de cliente-service reserva bloques con SELECT ... FOR UPDATE
+CREATE TABLE cliente_id_bloque (
+    nombre VARCHAR(50) PRIMARY KEY,
+    siguiente_valor BIGINT NOT NULL
+);
+
 -- Crear base de datos para cuenta-service
 CREATE DATABASE IF NOT EXISTS cuenta_db;
 USE cuenta_db;
@@ -32,8 +48,10 @@ CREATE TABLE cuentas (
     numero_cuenta VARCHAR(20) NOT NULL UNIQUE,
     tipo_cuenta VARCHAR(20) NOT NULL,
     saldo_inicial DECIMAL(18,2) NOT NULL,
+    saldo_actual DECIMAL(18,2),
     estado BOOLEAN NOT NULL DEFAULT TRUE,
-    cliente_id BIGINT NOT NULL
+    cliente_id BIGINT NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 -- Tabla movimientos
@@ -47,13 +65,56 @@ CREATE TABLE movimientos (
     FOREIGN KEY (cuenta_id) REFERENCES cuentas(cuenta_id)
 );
 
+-- Saldo de cierre diario por cuenta (se mantiene con cada movimiento y se reconstruye desde movimientos)
+CREATE TABLE saldo_diario (
+    saldo_diario_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    cuenta_id BIGINT NOT NULL,
+    fecha DATE NOT NULL,
+    saldo DECIMAL(18,2) NOT NULL,
+    CONSTRAINT uk_saldo_diario_cuenta_fecha UNIQUE (cuenta_id, fecha),
+    FOREIGN KEY (cuenta_id) REFERENCES cuentas(cuenta_id)
+);
+
+-- Secuencia de ids de movimientos: Hibernate reserva bloques de 50 ids (ver entidad Movimiento)
+CREATE TABLE movimientos_seq (
+    next_val BIGINT
+);
+INSERT INTO movimientos_seq VALUES (1);
+
+-- Última secuencia de la bitácora de movimientos proyectada en esta base de datos, por nodo
+CREATE TABLE bitacora_proyeccion (
+    nodo VARCHAR(100) PRIMARY KEY,
+    secuencia BIGINT NOT NULL
+);
+
+-- Claves Idempotency-Key de POST /api/movimientos, reservadas (EN_CURSO) antes de contabilizar
+-- y con la respuesta original (COMPLETADO) hasta que vencen
+CREATE TABLE movimientos_idempotencia (
+    clave VARCHAR(100) PRIMARY KEY,
+    numero_cuenta VARCHAR(20) NOT NULL,
+    valor DECIMAL(18,2) NOT NULL,
+    estado VARCHAR(12) NOT NULL,
+    movimiento_id BIGINT,
+    fecha TIMESTAMP NULL,
+    tipo_movimiento VARCHAR(20),
+    saldo DECIMAL(18,2),
+    expira TIMESTAMP NOT NULL
+);
+
+-- Latido escrito en la primaria por cada nodo; leído en la réplica de lectura mide su retraso
+CREATE TABLE replica_latido (
+    nodo VARCHAR(100) PRIMARY KEY,
+    instante BIGINT NOT NULL
+);
+
 -- Tabla para sincronización de información de clientes (en cuenta-service)
 CREATE TABLE cliente_info (
     cliente_id BIGINT PRIMARY KEY,
     nombre VARCHAR(100) NOT NULL,
     identificacion VARCHAR(20) NOT NULL,
     estado BOOLEAN NOT NULL DEFAULT TRUE,
-    fecha_sincronizacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    fecha_sincronizacion TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    version BIGINT
 );
 
 -- Datos de prueba para cliente-service
@@ -70,11 +131,11 @@ INSERT INTO clientes (persona_id, cliente_id, contraseña, estado) VALUES
 
 -- Datos de prueba para cuenta-service
 USE cuenta_db;
-INSERT INTO cuentas (numero_cuenta, tipo_cuenta, saldo_inicial, estado, cliente_id) VALUES
-('478758', 'Ahorro', 2000.00, TRUE, 1),
-('225487', 'Corriente', 100.00, TRUE, 2),
-('495878', 'Ahorros', 0.00, TRUE, 3),
-('496825', 'Ahorros', 540.00, TRUE, 2);
+INSERT INTO cuentas (numero_cuenta, tipo_cuenta, saldo_inicial, saldo_actual, estado, cliente_id) VALUES
+('478758', 'Ahorro', 2000.00, 2000.00, TRUE, 1),
+('225487', 'Corriente', 100.00, 100.00, TRUE, 2),
+('495878', 'Ahorros', 0.00, 0.00, TRUE, 3),
+('496825', 'Ahorros', 540.00, 540.00, TRUE, 2);
 
 -- Sincronizar información de clientes
 INSERT INTO cliente_info (cliente_id, nombre, identificacion, estado) VALUES
@@ -88,4 +149,7 @@ CREATE INDEX idx_clientes_identificacion ON personas(identificacion);
 CREATE INDEX idx_cuentas_numero ON cuentas(numero_cuenta);
 CREATE INDEX idx_cuentas_cliente ON cuentas(cliente_id);
 CREATE INDEX idx_movimientos_cuenta ON movimientos(cuenta_id);
-CREATE INDEX idx_movimientos_fecha ON movimientos(fecha);
\ No newline at end of file
+CREATE INDEX idx_movimientos_fecha ON movimientos(fecha);
+-- Historial paginado por clave (fecha, movimiento_id) dentro de cada cuenta
+CREATE INDEX idx_movimientos_cuenta_fecha ON movimientos(cuenta_id, fecha, movimiento_id);
+CREATE INDEX idx_movimientos_idempotencia_expira ON movimientos_idempotencia(expira);
\ No newline at end of file